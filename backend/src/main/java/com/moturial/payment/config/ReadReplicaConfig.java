@@ -0,0 +1,89 @@
+package com.moturial.payment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuração das réplicas de leitura ({@code payment.datasource.replicas.enabled})
+ *
+ * O primário continua configurado por {@code spring.datasource} (e
+ * {@code spring.datasource.hikari}); cada item de
+ * {@code payment.datasource.replicas.pools} é um pool Hikari próprio
+ * ({@code jdbc-url}, {@code username}, {@code password}, {@code maximum-pool-size}...).
+ * O {@link DataSource} principal da aplicação passa a ser o roteador.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${payment.datasource.replicas.max-lag:5s}")
+    private Duration maxLag;
+
+    @Value("${payment.datasource.replicas.lag-check-interval:2000}")
+    private long lagCheckIntervalMillis;
+
+    @Value("${payment.datasource.replicas.lag-query}")
+    private String lagQuery;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             Environment environment, MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = Binder.get(environment)
+            .bind("payment.datasource.replicas.pools", Bindable.listOf(HikariDataSource.class))
+            .orElseThrow(() -> new IllegalStateException(
+                "payment.datasource.replicas.enabled=true sem payment.datasource.replicas.pools"));
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < pools.size(); i++) {
+            HikariDataSource pool = pools.get(i);
+            if (pool.getPoolName() == null) {
+                pool.setPoolName("replica-" + i);
+            }
+            // Fora do contexto, o pool não recebe o rastreador de métricas que o Boot aplica aos beans
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(pool.getPoolName(), pool);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag,
+            Duration.ofMillis(lagCheckIntervalMillis), lagQuery, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaReadAspect replicaReadAspect() {
+        return new ReplicaReadAspect();
+    }
+}
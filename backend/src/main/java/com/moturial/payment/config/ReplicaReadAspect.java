@@ -0,0 +1,50 @@
+package com.moturial.payment.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+
+/**
+ * Marca as transações somente leitura declaradas pela aplicação como elegíveis
+ * para as réplicas de leitura
+ *
+ * Durante um método {@code @Transactional(readOnly = true)} (na classe ou no
+ * método) as leituras podem ir para uma réplica; um método transacional de
+ * escrita chamado dali volta a exigir o primário até retornar. Os repositórios
+ * do Spring Data não são classes da aplicação e não passam por aqui.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Aspect
+public class ReplicaReadAspect {
+
+    @Around("within(com.moturial.payment..*) && "
+        + "(@annotation(org.springframework.transaction.annotation.Transactional) "
+        + "|| @within(org.springframework.transaction.annotation.Transactional))")
+    public Object routeReads(ProceedingJoinPoint joinPoint) throws Throwable {
+        Boolean previous = ReplicaRoutingDataSource.replicaReads(isReadOnly(joinPoint));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.replicaReads(previous);
+        }
+    }
+
+    private static boolean isReadOnly(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(),
+            targetClass);
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(targetClass, Transactional.class);
+        }
+        return transactional != null && transactional.readOnly();
+    }
+}
@@ -0,0 +1,252 @@
+package com.moturial.payment.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Roteia as conexões entre o banco primário e as réplicas de leitura
+ *
+ * Só vão para uma réplica as transações somente leitura abertas pelos serviços
+ * da aplicação ({@code @Transactional(readOnly = true)}, marcadas pelo
+ * {@link ReplicaReadAspect}). As transações padrão dos repositórios do Spring
+ * Data também são somente leitura, mas é com elas que o pipeline de pagamento,
+ * a idempotência e os jobs leem antes de gravar, então continuam no primário.
+ *
+ * Uma réplica recebe leituras enquanto a última verificação de atraso for
+ * recente e o atraso estiver abaixo de {@code max-lag}; sem réplica elegível a
+ * leitura vai para o primário. Depois de um commit, as leituras do mesmo
+ * cliente (API key autenticada) só vão para uma réplica cuja verificação
+ * comprove que ela já aplicou aquele commit (read-your-writes).
+ *
+ * Deve ficar atrás de um {@link LazyConnectionDataSourceProxy}: o gerenciador
+ * de transações pede a conexão antes de marcar a transação como somente leitura.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> REPLICA_READS = new ThreadLocal<>();
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagNanos;
+    private final long staleCheckNanos;
+    private final String lagQuery;
+    private final Cache<String, Long> lastCommitByClient;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                                    Duration checkInterval, String lagQuery, MeterRegistry meterRegistry) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Nenhuma réplica de leitura configurada");
+        }
+        this.maxLagNanos = maxLag.toNanos();
+        // Uma réplica que não é verificada há três intervalos deixa de ser considerada
+        this.staleCheckNanos = checkInterval.multipliedBy(3).toNanos();
+        this.lagQuery = lagQuery;
+        // Depois desse prazo nenhuma réplica elegível pode estar atrás do commit
+        this.lastCommitByClient = Caffeine.newBuilder()
+            .expireAfterWrite(maxLag.plus(checkInterval.multipliedBy(3)))
+            .build();
+        this.primaryReads = Counter.builder("payment.datasource.reads")
+            .description("Leituras de transações somente leitura, por destino")
+            .tag("target", PRIMARY)
+            .register(meterRegistry);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, Counter.builder("payment.datasource.reads")
+                .description("Leituras de transações somente leitura, por destino")
+                .tag("target", name)
+                .register(meterRegistry));
+            Gauge.builder("payment.datasource.replica.lag", replica, r -> r.sample.lagSeconds())
+                .description("Atraso de replicação medido na última verificação")
+                .baseUnit("seconds")
+                .tag("replica", name)
+                .register(meterRegistry);
+            this.replicas.add(replica);
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Libera (ou não) as leituras em réplica para a thread atual
+     *
+     * @return valor anterior, a ser restaurado ao fim do escopo
+     */
+    static Boolean replicaReads(Boolean allowed) {
+        Boolean previous = REPLICA_READS.get();
+        if (allowed == null) {
+            REPLICA_READS.remove();
+        } else {
+            REPLICA_READS.set(allowed);
+        }
+        return previous;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                trackCommit();
+            }
+            return PRIMARY;
+        }
+        if (!Boolean.TRUE.equals(REPLICA_READS.get())) {
+            return PRIMARY;
+        }
+
+        String client = currentClient();
+        Long lastCommit = client == null ? null : lastCommitByClient.getIfPresent(client);
+        long now = System.nanoTime();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.canServe(now, lastCommit)) {
+                replica.reads.increment();
+                return replica.name;
+            }
+        }
+        primaryReads.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Mede o atraso de cada réplica
+     *
+     * O instante da verificação é tomado antes da consulta: a réplica já
+     * aplicou tudo o que foi confirmado até (verificação - atraso).
+     */
+    @Scheduled(fixedDelayString = "${payment.datasource.replicas.lag-check-interval:2000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            long checkedAt = System.nanoTime();
+            LagSample previous = replica.sample;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(5);
+                try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    resultSet.next();
+                    double seconds = Math.max(0, resultSet.getDouble(1));
+                    replica.sample = new LagSample((long) (seconds * 1_000_000_000L), checkedAt);
+                }
+                if (!previous.available()) {
+                    logger.info("Réplica {} disponível para leituras", replica.name);
+                }
+            } catch (SQLException e) {
+                replica.sample = LagSample.UNAVAILABLE;
+                if (previous.available()) {
+                    logger.warn("Réplica {} indisponível para leituras: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Registra o commit da transação de escrita atual para o cliente autenticado
+     */
+    private void trackCommit() {
+        String client = currentClient();
+        if (client == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastCommitByClient.put(client, System.nanoTime());
+            }
+        });
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Atraso medido e o instante ({@link System#nanoTime()}) da verificação
+     */
+    private record LagSample(long lagNanos, long checkedAt) {
+
+        static final LagSample UNAVAILABLE = new LagSample(Long.MAX_VALUE, Long.MIN_VALUE);
+
+        boolean available() {
+            return lagNanos != Long.MAX_VALUE;
+        }
+
+        double lagSeconds() {
+            return available() ? lagNanos / 1_000_000_000.0 : Double.NaN;
+        }
+    }
+
+    private final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter reads;
+        private volatile LagSample sample = LagSample.UNAVAILABLE;
+
+        private Replica(String name, DataSource dataSource, Counter reads) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+
+        private boolean canServe(long now, Long lastCommit) {
+            LagSample current = sample;
+            if (!current.available() || current.lagNanos() > maxLagNanos
+                    || now - current.checkedAt() > staleCheckNanos) {
+                return false;
+            }
+            return lastCommit == null || lastCommit - (current.checkedAt() - current.lagNanos()) <= 0;
+        }
+    }
+}
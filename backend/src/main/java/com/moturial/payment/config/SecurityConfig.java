@@ -1,5 +1,6 @@
 package com.moturial.payment.config;
 
+import com.moturial.payment.security.AdminAuthenticationProvider;
 import com.moturial.payment.security.ApiKeyAuthenticationFilter;
 import com.moturial.payment.security.ApiKeyAuthenticationProvider;
 import lombok.RequiredArgsConstructor;
@@ -36,6 +37,7 @@ import java.util.List;
 public class SecurityConfig {
 
     private final ApiKeyAuthenticationProvider apiKeyAuthenticationProvider;
+    private final AdminAuthenticationProvider adminAuthenticationProvider;
 
     @Value("${security.cors.allowed-origins:http://localhost:3000,http://localhost:5173}")
     private String allowedOrigins;
@@ -63,15 +65,19 @@ public class SecurityConfig {
             // Configurar CORS
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             
-            // Configurar autorização
+            // Configurar autorização (caminhos relativos ao server.servlet.context-path, /api/v1)
             .authorizeHttpRequests(authz -> authz
                 // Endpoints públicos
-                .requestMatchers("/api/v1/payments/health").permitAll()
+                .requestMatchers("/payments/health").permitAll()
+                .requestMatchers("/webhooks/stripe").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
                 .requestMatchers("/actuator/info").permitAll()
                 
+                // Exportação de pagamentos em massa: só a chave de administração
+                .requestMatchers("/payments/export").hasRole("ADMIN")
+
                 // Endpoints protegidos por API Key
-                .requestMatchers("/api/v1/payments/**", "/api/v1/test/**").hasRole("API_USER")
+                .requestMatchers("/payments/**", "/api/v1/test/**").hasRole("API_USER")
                 .requestMatchers("/actuator/**").hasRole("ADMIN")
                 
                 // Negar todo o resto
@@ -108,6 +114,7 @@ public class SecurityConfig {
         AuthenticationManagerBuilder authenticationManagerBuilder = 
             http.getSharedObject(AuthenticationManagerBuilder.class);
         authenticationManagerBuilder.authenticationProvider(apiKeyAuthenticationProvider);
+        authenticationManagerBuilder.authenticationProvider(adminAuthenticationProvider);
         return authenticationManagerBuilder.build();
     }
 
@@ -0,0 +1,142 @@
+package com.moturial.payment.config;
+
+import com.moturial.payment.integration.JdkStripeHttpClient;
+import com.stripe.Stripe;
+import com.stripe.StripeClient;
+import com.stripe.net.LiveStripeResponseGetter;
+import com.stripe.net.StripeResponseGetterOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.PasswordAuthentication;
+import java.net.Proxy;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Configuração do cliente Stripe
+ *
+ * Em vez do {@code Stripe.apiKey} estático, o {@link StripeClient} é um bean
+ * imutável com a chave e os timeouts fixados na criação, usando o transporte
+ * {@link JdkStripeHttpClient} com pool de conexões.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Configuration
+public class StripeClientConfig {
+
+    @Value("${stripe.secret-key}")
+    private String secretKey;
+
+    @Value("${stripe.api-base:" + Stripe.LIVE_API_BASE + "}")
+    private String apiBase;
+
+    @Value("${stripe.http.connect-timeout-ms:5000}")
+    private int connectTimeoutMillis;
+
+    @Value("${stripe.http.read-timeout-ms:30000}")
+    private int readTimeoutMillis;
+
+    @Value("${stripe.http.max-network-retries:0}")
+    private int maxNetworkRetries;
+
+    @Value("${stripe.http.version:HTTP_2}")
+    private HttpClient.Version httpVersion;
+
+    @Bean
+    public HttpClient stripeHttpClient() {
+        return HttpClient.newBuilder()
+            .version(httpVersion)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    }
+
+    @Bean
+    public StripeClient stripeClient(HttpClient stripeHttpClient) {
+        return create(secretKey, apiBase, connectTimeoutMillis, readTimeoutMillis, maxNetworkRetries,
+            new JdkStripeHttpClient(stripeHttpClient, Duration.ofMillis(readTimeoutMillis)));
+    }
+
+    /**
+     * Monta um {@link StripeClient} sobre o transporte informado
+     */
+    public static StripeClient create(String apiKey, String apiBase, int connectTimeoutMillis, int readTimeoutMillis,
+                                      int maxNetworkRetries, com.stripe.net.HttpClient transport) {
+        StripeResponseGetterOptions options = new ClientOptions(
+            apiKey, apiBase, connectTimeoutMillis, readTimeoutMillis, maxNetworkRetries);
+        return new StripeClient(new LiveStripeResponseGetter(options, transport));
+    }
+
+    /**
+     * Opções fixas do cliente; nada aqui é lido das configurações globais de {@link Stripe}
+     */
+    static final class ClientOptions extends StripeResponseGetterOptions {
+
+        private final String apiKey;
+        private final String apiBase;
+        private final int connectTimeout;
+        private final int readTimeout;
+        private final int maxNetworkRetries;
+
+        ClientOptions(String apiKey, String apiBase, int connectTimeout, int readTimeout, int maxNetworkRetries) {
+            this.apiKey = apiKey;
+            this.apiBase = apiBase;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.maxNetworkRetries = maxNetworkRetries;
+        }
+
+        @Override
+        public String getApiKey() {
+            return apiKey;
+        }
+
+        @Override
+        public String getClientId() {
+            return null;
+        }
+
+        @Override
+        public int getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        @Override
+        public int getReadTimeout() {
+            return readTimeout;
+        }
+
+        @Override
+        public int getMaxNetworkRetries() {
+            return maxNetworkRetries;
+        }
+
+        @Override
+        public Proxy getConnectionProxy() {
+            return null;
+        }
+
+        @Override
+        public PasswordAuthentication getProxyCredential() {
+            return null;
+        }
+
+        @Override
+        public String getApiBase() {
+            return apiBase;
+        }
+
+        @Override
+        public String getFilesBase() {
+            return Stripe.LIVE_API_BASE.equals(apiBase) ? Stripe.UPLOAD_API_BASE : apiBase;
+        }
+
+        @Override
+        public String getConnectBase() {
+            return Stripe.LIVE_API_BASE.equals(apiBase) ? Stripe.CONNECT_API_BASE : apiBase;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import com.moturial.payment.domain.dto.AdminDashboardStatsDto;
+import com.moturial.payment.domain.dto.CursorPage;
 import com.moturial.payment.domain.dto.CreateMotorcycleDto;
 import com.moturial.payment.domain.dto.UpdateMotorcycleDto;
 import com.moturial.payment.domain.dto.CreateUserDto;
@@ -17,6 +18,7 @@ import com.moturial.payment.domain.dto.UpdateUserDto;
 import com.moturial.payment.domain.dto.UserDto;
 import com.moturial.payment.domain.dto.MotorcycleDto;
 import com.moturial.payment.domain.dto.RentalDto;
+import com.moturial.payment.domain.dto.StoreDto;
 import com.moturial.payment.service.AdminService;
 
 import jakarta.validation.Valid;
@@ -37,6 +39,11 @@ import java.util.UUID;
  * - Motorcycle fleet management
  * - Rental management and monitoring
  * 
+ * List endpoints support two modes: offset pages (page/size/sort) and, when
+ * the {@code cursor} parameter is present (empty for the first page), keyset
+ * pages ordered by creation date that skip the total count and stay fast on
+ * deep pages.
+ * 
  * Security Features:
  * - API key authentication required
  * - Role-based access control (ADMIN/STAFF)
@@ -94,6 +101,28 @@ public class AdminController {
         }
     }
 
+    @GetMapping(value = "/users", params = "cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<UserDto>> getUsersByCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        log.info("Admin users cursor list requested - search: {}, role: {}, active: {}, size: {}", 
+                search, role, active, size);
+        
+        try {
+            CursorPage<UserDto> users = adminService.getUsersByCursor(search, role, active, cursor, size);
+            log.info("Users retrieved successfully - count: {}, hasNext: {}", users.getContent().size(), users.isHasNext());
+            return ResponseEntity.ok(users);
+        } catch (Exception e) {
+            log.error("Error retrieving users by cursor", e);
+            throw e;
+        }
+    }
+
     @PostMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<UserDto> createUser(@Valid @RequestBody CreateUserDto createUserDto) {
@@ -166,6 +195,31 @@ public class AdminController {
         }
     }
 
+    @GetMapping(value = "/motorcycles", params = "cursor")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('STAFF')")
+    public ResponseEntity<CursorPage<MotorcycleDto>> getMotorcyclesByCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String location,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        log.info("Admin motorcycles cursor list requested - search: {}, type: {}, status: {}, location: {}, size: {}", 
+                search, type, status, location, size);
+        
+        try {
+            CursorPage<MotorcycleDto> motorcycles = adminService.getMotorcyclesByCursor(
+                    search, type, status, location, cursor, size);
+            log.info("Motorcycles retrieved successfully - count: {}, hasNext: {}", 
+                    motorcycles.getContent().size(), motorcycles.isHasNext());
+            return ResponseEntity.ok(motorcycles);
+        } catch (Exception e) {
+            log.error("Error retrieving motorcycles by cursor", e);
+            throw e;
+        }
+    }
+
     @PostMapping("/motorcycles")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<MotorcycleDto> createMotorcycle(@Valid @RequestBody CreateMotorcycleDto createMotorcycleDto) {
@@ -215,6 +269,29 @@ public class AdminController {
         }
     }
 
+    // Store Management
+    @GetMapping(value = "/stores", params = "cursor")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('STAFF')")
+    public ResponseEntity<CursorPage<StoreDto>> getStoresByCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String status,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        log.info("Admin stores cursor list requested - search: {}, city: {}, status: {}, size: {}", 
+                search, city, status, size);
+        
+        try {
+            CursorPage<StoreDto> stores = adminService.getStoresByCursor(search, city, status, cursor, size);
+            log.info("Stores retrieved successfully - count: {}, hasNext: {}", stores.getContent().size(), stores.isHasNext());
+            return ResponseEntity.ok(stores);
+        } catch (Exception e) {
+            log.error("Error retrieving stores by cursor", e);
+            throw e;
+        }
+    }
+
     // Rental Management
     @GetMapping("/rentals")
     @PreAuthorize("hasRole('ADMIN') or hasRole('STAFF')")
@@ -237,6 +314,28 @@ public class AdminController {
         }
     }
 
+    @GetMapping(value = "/rentals", params = "cursor")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('STAFF')")
+    public ResponseEntity<CursorPage<RentalDto>> getRentalsByCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String paymentStatus,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        log.info("Admin rentals cursor list requested - search: {}, status: {}, paymentStatus: {}, size: {}", 
+                search, status, paymentStatus, size);
+        
+        try {
+            CursorPage<RentalDto> rentals = adminService.getRentalsByCursor(search, status, paymentStatus, cursor, size);
+            log.info("Rentals retrieved successfully - count: {}, hasNext: {}", rentals.getContent().size(), rentals.isHasNext());
+            return ResponseEntity.ok(rentals);
+        } catch (Exception e) {
+            log.error("Error retrieving rentals by cursor", e);
+            throw e;
+        }
+    }
+
     @GetMapping("/rentals/{rentalId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('STAFF')")
     public ResponseEntity<RentalDto> getRental(@PathVariable @NotNull UUID rentalId) {
@@ -1,22 +1,43 @@
 package com.moturial.payment.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moturial.payment.domain.dto.BatchPaymentItemResult;
 import com.moturial.payment.domain.dto.PaymentRequest;
 import com.moturial.payment.domain.dto.PaymentResult;
 import com.moturial.payment.domain.entity.Payment;
 import com.moturial.payment.domain.enums.PaymentMethodType;
+import com.moturial.payment.domain.enums.PaymentStatus;
 import com.moturial.payment.exception.PaymentValidationException;
+import com.moturial.payment.service.IdempotencyService;
+import com.moturial.payment.service.PaymentBatchService;
+import com.moturial.payment.service.PaymentExportService;
 import com.moturial.payment.service.PaymentService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Controlador REST para operações de pagamento
@@ -35,39 +56,131 @@ public class PaymentController {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentController.class);
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
+    private final PaymentBatchService paymentBatchService;
+    private final PaymentExportService paymentExportService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, IdempotencyService idempotencyService,
+                             PaymentBatchService paymentBatchService, PaymentExportService paymentExportService,
+                             ObjectMapper objectMapper) {
         this.paymentService = paymentService;
+        this.idempotencyService = idempotencyService;
+        this.paymentBatchService = paymentBatchService;
+        this.paymentExportService = paymentExportService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Processa pagamento com cartão
+     *
+     * Com o header Idempotency-Key, retentativas devolvem o resultado da
+     * primeira execução em vez de criar um novo pagamento.
      */
     @PostMapping("/card")
-    public ResponseEntity<PaymentResult> processCardPayment(@Valid @RequestBody PaymentRequest request) {
+    public ResponseEntity<PaymentResult> processCardPayment(
+            @Valid @RequestBody PaymentRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         logger.info("Recebida requisição de pagamento com cartão para usuário: {}", request.getUserId());
         if (request.getPaymentMethod() != PaymentMethodType.CARD) {
             throw new PaymentValidationException("Método de pagamento deve ser CARD");
         }
-        PaymentResult result = paymentService.processCardPayment(request);
+        PaymentResult result = idempotencyKey == null
+            ? paymentService.processCardPayment(request)
+            : processIdempotent(idempotencyKey, "card", request, () -> paymentService.processCardPayment(request));
         return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
 
     /**
      * Processa pagamento via PIX
+     *
+     * Aceita o header Idempotency-Key com a mesma semântica de /card.
      */
     @PostMapping("/pix")
-    public ResponseEntity<PaymentResult> processPixPayment(@Valid @RequestBody PaymentRequest request) {
+    public ResponseEntity<PaymentResult> processPixPayment(
+            @Valid @RequestBody PaymentRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         logger.info("Recebida requisição de pagamento PIX para usuário: {}", request.getUserId());
         if (request.getPaymentMethod() != PaymentMethodType.PIX) {
             throw new PaymentValidationException("Método de pagamento deve ser PIX");
         }
-        PaymentResult result = paymentService.processPixPayment(request);
+        PaymentResult result = idempotencyKey == null
+            ? paymentService.processPixPayment(request)
+            : processIdempotent(idempotencyKey, "pix", request, () -> paymentService.processPixPayment(request));
         return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
 
+    /**
+     * Processa um lote de pagamentos CARD/PIX
+     *
+     * O corpo é um array de {@link PaymentRequest}, lido item a item; a
+     * resposta é um array com um {@link BatchPaymentItemResult} por item, na
+     * mesma ordem, escrito à medida que cada bloco termina. Itens inválidos não
+     * interrompem o lote; acima de {@code payment.batch.max-items} o último
+     * elemento marca o limite e os itens seguintes não são lidos.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> processBatch(HttpServletRequest httpRequest) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(httpRequest.getInputStream());
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new PaymentValidationException("O corpo deve ser um array de pagamentos");
+        }
+        logger.info("Recebida requisição de pagamentos em lote");
+
+        StreamingResponseBody body = output -> {
+            try (parser; JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.writeStartArray();
+                paymentBatchService.process(new PaymentRequestIterator(parser), item -> {
+                    try {
+                        objectMapper.writeValue(generator, item);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Exporta os pagamentos de um período em NDJSON ou CSV
+     *
+     * O período é [from, to) sobre a data de criação ({@code by=created}) ou de
+     * processamento ({@code by=processed}); {@code status} pode se repetir e,
+     * ausente, inclui todos. A resposta é escrita linha a linha enquanto o
+     * banco é lido, com memória constante qualquer que seja o período.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<PaymentStatus> status,
+            @RequestParam(defaultValue = "created") String by,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        if (!from.isBefore(to)) {
+            throw new PaymentValidationException("Período inválido: 'from' deve ser anterior a 'to'");
+        }
+        PaymentExportService.DateField dateField = parseOption(PaymentExportService.DateField.class, by, "by");
+        PaymentExportService.Format exportFormat = parseOption(PaymentExportService.Format.class, format, "format");
+        logger.info("Recebida requisição de exportação de pagamentos - período: [{}, {}), formato: {}",
+            from, to, exportFormat);
+
+        StreamingResponseBody body = output ->
+            paymentExportService.export(from, to, dateField, status, exportFormat, output);
+        String filename = "payments-" + from.toLocalDate() + "-" + to.toLocalDate() + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(body);
+    }
+
     /**
      * Recupera status de um pagamento
      */
@@ -109,6 +222,60 @@ public class PaymentController {
             .orElse(ResponseEntity.notFound().build());
     }
 
+    private PaymentResult processIdempotent(String idempotencyKey, String scope, PaymentRequest request,
+                                            Supplier<PaymentResult> operation) {
+        request.setIdempotencyKey(idempotencyKey);
+        return idempotencyService.execute(idempotencyKey, scope, request, operation);
+    }
+
+    private static <E extends Enum<E>> E parseOption(Class<E> type, String value, String name) {
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value.trim())) {
+                return constant;
+            }
+        }
+        throw new PaymentValidationException("Valor inválido para '" + name + "': " + value
+            + " (aceitos: " + Arrays.toString(type.getEnumConstants()).toLowerCase() + ")");
+    }
+
+    /**
+     * Lê os elementos de um array JSON sob demanda, sem materializar o array
+     */
+    private final class PaymentRequestIterator implements Iterator<PaymentRequest> {
+
+        private final JsonParser parser;
+        private JsonToken nextToken;
+
+        private PaymentRequestIterator(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextToken == null) {
+                try {
+                    nextToken = parser.nextToken();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return nextToken != null && nextToken != JsonToken.END_ARRAY;
+        }
+
+        @Override
+        public PaymentRequest next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            nextToken = null;
+            try {
+                return objectMapper.readValue(parser, PaymentRequest.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
     /**
      * Health check endpoint
      */
@@ -0,0 +1,52 @@
+package com.moturial.payment.controller;
+
+import com.moturial.payment.service.StripeWebhookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Endpoint de webhooks do Stripe
+ *
+ * Público na cadeia de segurança: a autenticação é a assinatura do
+ * header Stripe-Signature, verificada sobre o corpo bruto.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/webhooks")
+public class StripeWebhookController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripeWebhookController.class);
+
+    private static final String SIGNATURE_HEADER = "Stripe-Signature";
+
+    private final StripeWebhookService stripeWebhookService;
+
+    @Autowired
+    public StripeWebhookController(StripeWebhookService stripeWebhookService) {
+        this.stripeWebhookService = stripeWebhookService;
+    }
+
+    /**
+     * Recebe um evento do Stripe
+     *
+     * Responde 200 somente depois que o evento foi gravado; qualquer outra
+     * resposta faz o Stripe reenviá-lo.
+     */
+    @PostMapping("/stripe")
+    public ResponseEntity<Void> receiveStripeEvent(
+            @RequestBody String payload,
+            @RequestHeader(value = SIGNATURE_HEADER, required = false) String signature) {
+        logger.debug("Recebido webhook do Stripe ({} bytes)", payload.length());
+        stripeWebhookService.handle(payload, signature);
+        return ResponseEntity.ok().build();
+    }
+}
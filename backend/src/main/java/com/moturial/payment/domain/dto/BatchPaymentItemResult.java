@@ -0,0 +1,45 @@
+package com.moturial.payment.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * Resultado de um item de {@code POST /payments/batch}
+ *
+ * @param index posição do item no array enviado (a partir de 0)
+ * @param paymentId ID do registro local; nulo se o item não passou na validação
+ * @param outcome desfecho do item
+ * @param result resultado do Stripe, quando houve
+ * @param error mensagem de erro de validação ou de processamento
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchPaymentItemResult(
+    int index,
+    UUID paymentId,
+    Outcome outcome,
+    PaymentResult result,
+    String error
+) {
+
+    public enum Outcome {
+        /** Processado pelo Stripe; o status está em {@code result} */
+        PROCESSED,
+        /** Rejeitado na validação; nenhum registro foi criado */
+        INVALID,
+        /** Registro criado, mas a chamada ao Stripe falhou; a recuperação resolve o registro */
+        FAILED
+    }
+
+    public static BatchPaymentItemResult processed(int index, UUID paymentId, PaymentResult result) {
+        return new BatchPaymentItemResult(index, paymentId, Outcome.PROCESSED, result, null);
+    }
+
+    public static BatchPaymentItemResult invalid(int index, String error) {
+        return new BatchPaymentItemResult(index, null, Outcome.INVALID, null, error);
+    }
+
+    public static BatchPaymentItemResult failed(int index, UUID paymentId, String error) {
+        return new BatchPaymentItemResult(index, paymentId, Outcome.FAILED, null, error);
+    }
+}
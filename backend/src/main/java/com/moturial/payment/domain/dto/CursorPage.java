@@ -0,0 +1,36 @@
+/**
+ * Cursor Page Data Transfer Object
+ * 
+ * Page of a keyset-paginated listing: no total count, and an opaque
+ * cursor to request the next page.
+ * 
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+
+package com.moturial.payment.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+@Schema(description = "Cursor-paginated result")
+public class CursorPage<T> {
+
+    @Schema(description = "Page content, newest first")
+    List<T> content;
+
+    @Schema(description = "Requested page size", example = "20")
+    int size;
+
+    @Schema(description = "Whether more items follow this page", example = "true")
+    boolean hasNext;
+
+    @Schema(description = "Opaque cursor for the next page, absent on the last page",
+            example = "AAAAAGXvPwAAAAAAVQ6EAOKbQdSnFkRmVUQAAA")
+    String nextCursor;
+}
@@ -1,5 +1,6 @@
 package com.moturial.payment.domain.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.moturial.payment.domain.enums.PaymentMethodType;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
@@ -56,6 +57,12 @@ public class PaymentRequest {
 
     private Map<String, Object> metadata;
 
+    /**
+     * Valor do header Idempotency-Key; não faz parte do corpo da requisição
+     */
+    @JsonIgnore
+    private String idempotencyKey;
+
     // Constructors
     public PaymentRequest() {}
 
@@ -102,6 +109,11 @@ public class PaymentRequest {
     public Map<String, Object> getMetadata() { return metadata; }
     public void setMetadata(Map<String, Object> metadata) { this.metadata = metadata; }
 
+    @JsonIgnore
+    public String getIdempotencyKey() { return idempotencyKey; }
+    @JsonIgnore
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
     @Override
     public String toString() {
         return "PaymentRequest{" +
@@ -1,5 +1,7 @@
 package com.moturial.payment.domain.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 import com.moturial.payment.domain.enums.PaymentMethodType;
 import com.moturial.payment.domain.enums.PaymentStatus;
 import java.math.BigDecimal;
@@ -11,6 +13,7 @@ import java.util.Map;
  * @author Moturial Team
  * @version 1.0.0
  */
+@JsonDeserialize(builder = PaymentResult.Builder.class)
 public class PaymentResult {
 
     private String externalId;
@@ -62,6 +65,7 @@ public class PaymentResult {
         return new Builder();
     }
 
+    @JsonPOJOBuilder(withPrefix = "")
     public static class Builder {
         private String externalId;
         private PaymentStatus status;
@@ -21,7 +21,7 @@ import java.util.UUID;
 public class Motorcycle {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false)
@@ -2,10 +2,13 @@ package com.moturial.payment.domain.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import com.moturial.payment.domain.enums.PaymentMethodType;
 import com.moturial.payment.domain.enums.PaymentStatus;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -19,7 +22,6 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "payments", indexes = {
-    @Index(name = "idx_payment_external_id", columnList = "external_id"),
     @Index(name = "idx_payment_status", columnList = "status"),
     @Index(name = "idx_payment_created_at", columnList = "created_at"),
     @Index(name = "idx_payment_user_id", columnList = "user_id")
@@ -27,7 +29,7 @@ import java.util.UUID;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(name = "external_id", unique = true, nullable = false)
@@ -70,8 +72,9 @@ public class Payment {
     @Size(max = 500, message = "Descrição deve ter no máximo 500 caracteres")
     private String description;
 
-    @Column(name = "metadata", columnDefinition = "TEXT")
-    private String metadata;
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "metadata")
+    private Map<String, String> metadata;
 
     @Column(name = "error_message", length = 1000)
     @Size(max = 1000, message = "Mensagem de erro deve ter no máximo 1000 caracteres")
@@ -88,6 +91,9 @@ public class Payment {
     @Column(name = "processed_at")
     private LocalDateTime processedAt;
 
+    @Column(name = "webhook_event_at")
+    private LocalDateTime webhookEventAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -147,8 +153,8 @@ public class Payment {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
-    public String getMetadata() { return metadata; }
-    public void setMetadata(String metadata) { this.metadata = metadata; }
+    public Map<String, String> getMetadata() { return metadata; }
+    public void setMetadata(Map<String, String> metadata) { this.metadata = metadata; }
 
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
@@ -162,6 +168,9 @@ public class Payment {
     public LocalDateTime getProcessedAt() { return processedAt; }
     public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
 
+    public LocalDateTime getWebhookEventAt() { return webhookEventAt; }
+    public void setWebhookEventAt(LocalDateTime webhookEventAt) { this.webhookEventAt = webhookEventAt; }
+
     @Override
     public String toString() {
         return "Payment{" +
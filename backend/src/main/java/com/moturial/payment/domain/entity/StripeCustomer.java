@@ -0,0 +1,52 @@
+package com.moturial.payment.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stripe_customers")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StripeCustomer implements Persistable<String> {
+
+    @Id
+    @Column(nullable = false)
+    private String email;
+
+    @Column(name = "stripe_customer_id", nullable = false)
+    private String stripeCustomerId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Mapeamentos são sempre inseridos: sem o SELECT do merge, e o de outro nó não é sobrescrito
+     */
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return email;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
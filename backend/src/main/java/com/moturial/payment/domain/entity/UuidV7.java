@@ -0,0 +1,22 @@
+package com.moturial.payment.domain.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Chave primária UUID gerada como UUIDv7 ({@link UuidV7Generator}), ordenada pelo instante de criação
+ *
+ * No banco, o default equivalente é {@code uuid_generate_v7()} (V13).
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
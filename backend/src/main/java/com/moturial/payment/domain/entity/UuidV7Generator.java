@@ -0,0 +1,68 @@
+package com.moturial.payment.domain.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de UUIDv7 (RFC 9562) para chaves primárias
+ *
+ * Os 48 bits iniciais são o instante em milissegundos, então chaves novas
+ * entram sempre no fim do índice B-tree em vez de em uma folha aleatória. Os
+ * 12 bits seguintes ({@code rand_a}) são um contador: dentro do mesmo
+ * milissegundo ele começa em um valor aleatório e só cresce, e ao estourar
+ * avança o milissegundo, de modo que os valores gerados nesta JVM são
+ * estritamente crescentes. Os 62 bits finais são aleatórios ({@link SecureRandom},
+ * como em {@link UUID#randomUUID()}).
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Último (milissegundo << 12 | contador) emitido
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public UuidV7Generator(UuidV7 config, Member member, CustomIdGeneratorCreationContext context) {
+    }
+
+    /**
+     * Próximo UUIDv7, maior que todos os anteriores gerados nesta JVM
+     */
+    public static UUID next() {
+        // Contador inicial aleatório, mas com folga de metade do intervalo antes de estourar
+        long candidate = System.currentTimeMillis() << 12 | ThreadLocalRandom.current().nextInt(1 << 11);
+        long timeAndCounter = LAST.accumulateAndGet(candidate, (last, now) -> now > last ? now : last + 1);
+
+        long mostSignificant = (timeAndCounter >>> 12) << 16   // unix_ts_ms (48 bits)
+            | 0x7000L                                           // versão 7
+            | (timeAndCounter & 0xFFFL);                        // rand_a: contador
+        long leastSignificant = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL
+            | 0x8000000000000000L;                              // variante RFC 9562
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,24 @@
+package com.moturial.payment.domain.enums;
+
+/**
+ * Enum que representa as bandeiras de cartão identificadas pelo BIN
+ * 
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public enum CardBrand {
+    
+    VISA,
+    MASTERCARD,
+    AMEX,
+    ELO,
+    HIPERCARD,
+    DINERS,
+    DISCOVER,
+    JCB,
+    
+    /**
+     * Bandeira não informada na tabela de BIN
+     */
+    UNKNOWN
+}
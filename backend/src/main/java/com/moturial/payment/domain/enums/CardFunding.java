@@ -0,0 +1,19 @@
+package com.moturial.payment.domain.enums;
+
+/**
+ * Enum que representa o tipo de financiamento do cartão identificado pelo BIN
+ * 
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public enum CardFunding {
+    
+    CREDIT,
+    DEBIT,
+    PREPAID,
+    
+    /**
+     * Tipo não informado na tabela de BIN
+     */
+    UNKNOWN
+}
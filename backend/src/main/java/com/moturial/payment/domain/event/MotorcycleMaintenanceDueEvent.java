@@ -0,0 +1,15 @@
+package com.moturial.payment.domain.event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Moto disponível retirada de circulação (MAINTENANCE) por ter passado de {@code next_maintenance}
+ *
+ * Publicado após o commit, um evento por moto.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public record MotorcycleMaintenanceDueEvent(UUID motorcycleId, LocalDateTime flaggedAt) {
+}
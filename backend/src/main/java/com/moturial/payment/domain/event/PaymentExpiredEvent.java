@@ -0,0 +1,15 @@
+package com.moturial.payment.domain.event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Pagamento PENDING cancelado por ter ultrapassado o prazo de confirmação
+ *
+ * Publicado após o commit, um evento por pagamento.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public record PaymentExpiredEvent(UUID paymentId, String externalId, LocalDateTime expiredAt) {
+}
@@ -0,0 +1,15 @@
+package com.moturial.payment.domain.event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Aluguel encerrado sem pagamento, com {@code payment_status} alterado para OVERDUE
+ *
+ * Publicado após o commit, um evento por aluguel.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public record RentalOverdueEvent(UUID rentalId, LocalDateTime markedAt) {
+}
@@ -1,28 +1,72 @@
 package com.moturial.payment.exception;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import com.moturial.payment.domain.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handler de exceções global para a aplicação.
  * Captura exceções específicas e genéricas, retornando respostas de erro padronizadas.
+ *
+ * Erros de validação pré-construídos ({@link PaymentValidationException#isPrebuilt()})
+ * saem de um corpo JSON pré-renderizado por mensagem, no mesmo formato de
+ * {@link ErrorResponse}; só o timestamp e o path são escritos a cada requisição.
+ * Rejeições de validação são esperadas e frequentes: ficam em debug no log e
+ * são contadas por regra em {@code payment.validation.rejections}.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private static final byte[] VALIDATION_BODY_START = "{\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] VALIDATION_BODY_END = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Value("${resilience4j.circuitbreaker.instances.stripe.wait-duration-in-open-state:30s}")
+    private Duration providerRetryAfter;
+
+    /**
+     * Trecho entre o timestamp e o path, por mensagem; as mensagens pré-construídas formam um conjunto fixo
+     */
+    private final ConcurrentHashMap<String, byte[]> renderedValidationErrors = new ConcurrentHashMap<>();
+
+    /**
+     * Contador por código de erro; os códigos formam um conjunto fixo de regras
+     */
+    private final ConcurrentHashMap<String, Counter> rejectionsByRule = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(PaymentValidationException.class)
-    public ResponseEntity<ErrorResponse> handlePaymentValidationException(PaymentValidationException ex, HttpServletRequest request) {
-        logger.warn("Erro de validação no pagamento: {}", ex.getMessage());
+    public ResponseEntity<?> handlePaymentValidationException(PaymentValidationException ex, HttpServletRequest request) {
+        logger.debug("Erro de validação no pagamento: {}", ex.getMessage());
+        rejectionsByRule.computeIfAbsent(ex.getErrorCode(), this::rejectionCounter).increment();
+        if (ex.isPrebuilt()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(renderValidationError(ex.getMessage(), request.getRequestURI()));
+        }
         ErrorResponse errorResponse = new ErrorResponse(
                 Instant.now(),
                 HttpStatus.BAD_REQUEST.value(),
@@ -34,6 +78,17 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(PaymentProcessingException.class)
     public ResponseEntity<ErrorResponse> handlePaymentProcessingException(PaymentProcessingException ex, HttpServletRequest request) {
+        if (PaymentProcessingException.PROVIDER_UNAVAILABLE.equals(ex.getErrorCode())) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    Instant.now(),
+                    HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    "Serviço Indisponível",
+                    ex.getMessage(),
+                    request.getRequestURI());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(providerRetryAfter.toSeconds()))
+                    .body(errorResponse);
+        }
         logger.error("Erro de processamento no pagamento: {}", ex.getMessage(), ex);
         ErrorResponse errorResponse = new ErrorResponse(
                 Instant.now(),
@@ -44,6 +99,66 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflictException(IdempotencyConflictException ex, HttpServletRequest request) {
+        logger.warn("Conflito de Idempotency-Key: {}", ex.getMessage());
+        HttpStatus status = IdempotencyConflictException.KEY_REUSED.equals(ex.getErrorCode())
+                ? HttpStatus.UNPROCESSABLE_ENTITY
+                : HttpStatus.CONFLICT;
+        ErrorResponse errorResponse = new ErrorResponse(
+                Instant.now(),
+                status.value(),
+                "Conflito de Idempotência",
+                ex.getMessage(),
+                request.getRequestURI());
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
+    @ExceptionHandler(SecurityException.class)
+    public ResponseEntity<ErrorResponse> handleSecurityException(SecurityException ex, HttpServletRequest request) {
+        logger.warn("Requisição rejeitada por segurança: {}", ex.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse(
+                Instant.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Erro de Segurança",
+                ex.getMessage(),
+                request.getRequestURI());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Mesmo JSON que o Jackson produz para {@link ErrorResponse}
+     */
+    private byte[] renderValidationError(String message, String path) {
+        byte[] middle = renderedValidationErrors.computeIfAbsent(message, key -> utf8(
+                "\",\"status\":" + HttpStatus.BAD_REQUEST.value()
+                + ",\"error\":\"Erro de Validação\",\"message\":\""
+                + new String(JsonStringEncoder.getInstance().quoteAsString(key))
+                + "\",\"path\":\""));
+        byte[] timestamp = utf8(Instant.now().toString());
+        byte[] quotedPath = JsonStringEncoder.getInstance().quoteAsUTF8(path != null ? path : "");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(VALIDATION_BODY_START.length + timestamp.length
+                + middle.length + quotedPath.length + VALIDATION_BODY_END.length);
+        body.writeBytes(VALIDATION_BODY_START);
+        body.writeBytes(timestamp);
+        body.writeBytes(middle);
+        body.writeBytes(quotedPath);
+        body.writeBytes(VALIDATION_BODY_END);
+        return body.toByteArray();
+    }
+
+    private Counter rejectionCounter(String rule) {
+        return Counter.builder("payment.validation.rejections")
+                .description("Requisições de pagamento rejeitadas na validação, por regra")
+                .tag("rule", rule)
+                .register(meterRegistry);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, HttpServletRequest request) {
         logger.error("Erro inesperado na aplicação: {}", ex.getMessage(), ex);
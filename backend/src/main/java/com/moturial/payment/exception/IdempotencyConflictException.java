@@ -0,0 +1,27 @@
+package com.moturial.payment.exception;
+
+/**
+ * Exceção para conflitos de Idempotency-Key
+ * 
+ * Lançada quando a chave já está em uso por outra requisição em andamento
+ * ou foi reutilizada com um corpo de requisição diferente.
+ * 
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public static final String KEY_IN_PROGRESS = "IDEMPOTENCY_KEY_IN_PROGRESS";
+    public static final String KEY_REUSED = "IDEMPOTENCY_KEY_REUSED";
+
+    private final String errorCode;
+
+    public IdempotencyConflictException(String message, String errorCode) {
+        super(message);
+        this.errorCode = errorCode;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+}
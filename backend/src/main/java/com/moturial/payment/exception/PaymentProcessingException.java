@@ -10,6 +10,11 @@ package com.moturial.payment.exception;
  */
 public class PaymentProcessingException extends RuntimeException {
 
+    /**
+     * Stripe indisponível (circuito aberto ou bulkhead cheio): a chamada nem foi feita
+     */
+    public static final String PROVIDER_UNAVAILABLE = "PROVIDER_UNAVAILABLE";
+
     private final String errorCode;
     private final String externalErrorCode;
 
@@ -5,6 +5,10 @@ package com.moturial.payment.exception;
  * 
  * Segue o padrão Problem Details (RFC 7807) para APIs HTTP
  * 
+ * As violações conhecidas do {@code PaymentValidator} usam instâncias
+ * pré-construídas e sem stack trace ({@link #prebuilt}): rejeitar uma
+ * requisição não preenche stack trace nem aloca a exceção.
+ * 
  * @author Moturial Team
  * @version 1.0.0
  */
@@ -12,29 +16,55 @@ public class PaymentValidationException extends RuntimeException {
 
     private final String errorCode;
     private final String field;
+    private final boolean prebuilt;
 
     public PaymentValidationException(String message) {
         super(message);
         this.errorCode = "VALIDATION_ERROR";
         this.field = null;
+        this.prebuilt = false;
     }
 
     public PaymentValidationException(String message, String errorCode) {
         super(message);
         this.errorCode = errorCode;
         this.field = null;
+        this.prebuilt = false;
     }
 
     public PaymentValidationException(String message, String errorCode, String field) {
         super(message);
         this.errorCode = errorCode;
         this.field = field;
+        this.prebuilt = false;
     }
 
     public PaymentValidationException(String message, Throwable cause) {
         super(message, cause);
         this.errorCode = "VALIDATION_ERROR";
         this.field = null;
+        this.prebuilt = false;
+    }
+
+    private PaymentValidationException(String message, String errorCode, String field, boolean prebuilt) {
+        super(message, null, false, false);
+        this.errorCode = errorCode;
+        this.field = field;
+        this.prebuilt = prebuilt;
+    }
+
+    /**
+     * Exceção sem stack trace, criada uma vez e relançada a cada violação da mesma regra
+     */
+    public static PaymentValidationException prebuilt(String message, String errorCode, String field) {
+        return new PaymentValidationException(message, errorCode, field, true);
+    }
+
+    /**
+     * Exceção sem stack trace para uma violação cuja mensagem depende da entrada
+     */
+    public static PaymentValidationException stackless(String message, String errorCode, String field) {
+        return new PaymentValidationException(message, errorCode, field, false);
     }
 
     public String getErrorCode() {
@@ -44,4 +74,11 @@ public class PaymentValidationException extends RuntimeException {
     public String getField() {
         return field;
     }
+
+    /**
+     * Instância compartilhada: a mensagem vem de um conjunto fixo de regras
+     */
+    public boolean isPrebuilt() {
+        return prebuilt;
+    }
 }
@@ -0,0 +1,103 @@
+package com.moturial.payment.integration;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.net.HttpContent;
+import com.stripe.net.HttpHeaders;
+import com.stripe.net.StripeRequest;
+import com.stripe.net.StripeResponse;
+import com.stripe.net.StripeResponseStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Transporte do SDK do Stripe sobre {@link java.net.http.HttpClient}
+ *
+ * Substitui o {@code HttpURLConnectionClient} padrão do SDK: as conexões
+ * ficam em um pool do próprio {@code HttpClient} e são reutilizadas entre
+ * requisições (HTTP/2 quando o servidor negocia, keep-alive em HTTP/1.1),
+ * e os timeouts vêm da configuração da aplicação. A instância é imutável e
+ * segura para uso concorrente.
+ *
+ * Os retries de rede continuam a cargo do SDK
+ * ({@link com.stripe.net.HttpClient#requestWithRetries}).
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public class JdkStripeHttpClient extends com.stripe.net.HttpClient {
+
+    /**
+     * Headers que o {@code java.net.http} calcula sozinho e não aceita do chamador
+     */
+    private static final Set<String> RESTRICTED_HEADERS = caseInsensitive(
+        "connection", "content-length", "expect", "host", "upgrade");
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+
+    public JdkStripeHttpClient(HttpClient httpClient, Duration readTimeout) {
+        this.httpClient = httpClient;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public StripeResponse request(StripeRequest request) throws ApiConnectionException {
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+        return new StripeResponse(response.statusCode(), HttpHeaders.of(response.headers().map()), response.body());
+    }
+
+    @Override
+    public StripeResponseStream requestStream(StripeRequest request) throws ApiConnectionException {
+        HttpResponse<InputStream> response = send(request, HttpResponse.BodyHandlers.ofInputStream());
+        return new StripeResponseStream(response.statusCode(), HttpHeaders.of(response.headers().map()), response.body());
+    }
+
+    private <T> HttpResponse<T> send(StripeRequest request, HttpResponse.BodyHandler<T> bodyHandler)
+            throws ApiConnectionException {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(request.url().toURI())
+                .timeout(readTimeout)
+                .header("User-Agent", buildUserAgentString())
+                .header("X-Stripe-Client-User-Agent", buildXStripeClientUserAgentString());
+
+            for (Map.Entry<String, List<String>> header : request.headers().map().entrySet()) {
+                if (!RESTRICTED_HEADERS.contains(header.getKey())) {
+                    builder.setHeader(header.getKey(), String.join(",", header.getValue()));
+                }
+            }
+
+            HttpContent content = request.content();
+            HttpRequest.BodyPublisher body = content == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(content.byteArrayContent());
+            if (content != null) {
+                builder.setHeader("Content-Type", content.contentType());
+            }
+            builder.method(request.method().name(), body);
+
+            return httpClient.send(builder.build(), bodyHandler);
+        } catch (IOException | URISyntaxException e) {
+            throw new ApiConnectionException(
+                "Falha de conexão com o Stripe (" + request.url().getHost() + "): " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiConnectionException("Requisição ao Stripe interrompida", e);
+        }
+    }
+
+    private static Set<String> caseInsensitive(String... names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(List.of(names));
+        return set;
+    }
+}
@@ -0,0 +1,120 @@
+package com.moturial.payment.integration;
+
+import com.moturial.payment.exception.PaymentProcessingException;
+import com.stripe.exception.StripeException;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Escopo para chamadas independentes ao Stripe em paralelo
+ *
+ * Cada {@link #fork} roda em uma virtual thread própria. A primeira falha
+ * cancela (interrompe) as demais chamadas e é relançada por {@link #join};
+ * {@link #close} cancela o que ainda estiver em andamento e só retorna quando
+ * todas as threads terminaram, então nenhuma chamada sobrevive ao escopo.
+ * Mesma semântica de {@code StructuredTaskScope.ShutdownOnFailure}, que no
+ * Java 21 ainda é preview.
+ *
+ * <pre>
+ * try (StripeCallScope scope = new StripeCallScope()) {
+ *     Future&lt;String&gt; customer = scope.fork(() -&gt; ...);
+ *     Future&lt;PaymentMethod&gt; method = scope.fork(() -&gt; ...);
+ *     scope.join();
+ *     ... customer.resultNow(), method.resultNow()
+ * }
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public final class StripeCallScope implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Future<?>> forks = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Inicia a chamada em uma nova virtual thread
+     *
+     * @return handle cujo {@link Future#resultNow()} é válido após {@link #join}
+     */
+    public <T> Future<T> fork(StripeCall<T> call) {
+        Future<T> future = executor.submit(() -> {
+            try {
+                return call.call();
+            } catch (Throwable e) {
+                if (failure.compareAndSet(null, e)) {
+                    cancelAll();
+                }
+                throw e;
+            }
+        });
+        forks.add(future);
+        if (failure.get() != null) {
+            // uma chamada anterior falhou antes deste fork ser registrado
+            future.cancel(true);
+        }
+        return future;
+    }
+
+    /**
+     * Aguarda todas as chamadas e relança a primeira falha, se houver
+     */
+    public void join() throws StripeException {
+        try {
+            for (Future<?> fork : forks) {
+                try {
+                    fork.get();
+                } catch (ExecutionException | CancellationException e) {
+                    // a falha que originou o cancelamento está em failure
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new PaymentProcessingException("Chamada ao Stripe interrompida", e);
+        }
+
+        Throwable cause = failure.get();
+        if (cause == null) {
+            return;
+        }
+        if (cause instanceof StripeException stripeException) {
+            throw stripeException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        throw new PaymentProcessingException("Erro na chamada ao Stripe: " + cause.getMessage(), cause);
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.close();
+    }
+
+    private void cancelAll() {
+        for (Future<?> fork : forks) {
+            fork.cancel(true);
+        }
+    }
+
+    /**
+     * Chamada ao Stripe executada dentro do escopo
+     */
+    @FunctionalInterface
+    public interface StripeCall<T> {
+        T call() throws Exception;
+    }
+}
@@ -0,0 +1,184 @@
+package com.moturial.payment.integration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moturial.payment.domain.entity.StripeCustomer;
+import com.moturial.payment.exception.PaymentProcessingException;
+import com.moturial.payment.repository.StripeCustomerRepository;
+import com.stripe.exception.StripeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Cache local do mapeamento email → customer id do Stripe
+ *
+ * Evita o {@code Customer.list} no caminho crítico de clientes recorrentes.
+ * A consulta passa por três níveis: cache em memória limitado por tamanho e
+ * TTL, tabela {@code stripe_customers} e, por último, o Stripe. Pagamentos
+ * simultâneos do mesmo email neste nó compartilham uma única resolução, para
+ * que o primeiro pagamento não crie clientes duplicados. Entre nós, o
+ * primeiro mapeamento gravado vence e os demais passam a usá-lo.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Component
+public class StripeCustomerCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripeCustomerCache.class);
+
+    private static final String METRIC_NAME = "stripe.customer.cache";
+
+    private final StripeCustomerRepository stripeCustomerRepository;
+    private final Cache<String, String> customerIds;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    @Autowired
+    public StripeCustomerCache(StripeCustomerRepository stripeCustomerRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${stripe.customer-cache.max-size:50000}") long maxSize,
+                               @Value("${stripe.customer-cache.ttl-minutes:1440}") long ttlMinutes) {
+        this.stripeCustomerRepository = stripeCustomerRepository;
+        this.customerIds = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, customerIds, "stripeCustomers");
+
+        this.memoryHits = counter(meterRegistry, "memory_hit");
+        this.databaseHits = counter(meterRegistry, "database_hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.coalesced = counter(meterRegistry, "coalesced");
+    }
+
+    /**
+     * Resolve o customer id do email, chamando o Stripe apenas em caso de miss
+     *
+     * @param email email do cliente
+     * @param resolver busca ou cria o cliente no Stripe
+     */
+    public String getCustomerId(String email, CustomerResolver resolver) throws StripeException {
+        String key = normalize(email);
+
+        String cached = customerIds.getIfPresent(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+
+        CompletableFuture<String> own = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            coalesced.increment();
+            return awaitInFlight(existing);
+        }
+
+        try {
+            String customerId = load(key, resolver);
+            customerIds.put(key, customerId);
+            own.complete(customerId);
+            return customerId;
+        } catch (StripeException | RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Descarta o mapeamento de um email, por exemplo quando o cliente foi removido no Stripe
+     */
+    public void evict(String email) {
+        String key = normalize(email);
+        customerIds.invalidate(key);
+        stripeCustomerRepository.deleteById(key);
+        logger.info("Mapeamento de cliente Stripe descartado para {}", key);
+    }
+
+    private String load(String key, CustomerResolver resolver) throws StripeException {
+        Optional<StripeCustomer> stored = stripeCustomerRepository.findById(key);
+        if (stored.isPresent()) {
+            databaseHits.increment();
+            return stored.get().getStripeCustomerId();
+        }
+
+        misses.increment();
+        String customerId = resolver.resolve();
+        try {
+            stripeCustomerRepository.saveAndFlush(StripeCustomer.builder()
+                .email(key)
+                .stripeCustomerId(customerId)
+                .createdAt(LocalDateTime.now())
+                .build());
+            return customerId;
+        } catch (DataIntegrityViolationException e) {
+            // Outro nó gravou o mapeamento deste email entre a leitura e a inserção: vale o dele
+            String existing = stripeCustomerRepository.findById(key)
+                .map(StripeCustomer::getStripeCustomerId)
+                .orElseThrow(() -> e);
+            if (!existing.equals(customerId)) {
+                logger.warn("Mapeamento de {} já gravado por outro nó com {}; cliente Stripe {} não será usado",
+                    key, existing, customerId);
+            }
+            return existing;
+        }
+    }
+
+    private String awaitInFlight(CompletableFuture<String> existing) throws StripeException {
+        try {
+            return existing.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof StripeException stripeException) {
+                throw stripeException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new PaymentProcessingException("Erro ao resolver cliente Stripe: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentProcessingException("Espera pela resolução do cliente Stripe interrompida", e);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_NAME)
+            .description("Resoluções de customer id do Stripe por origem")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Busca ou cria o cliente no Stripe, retornando o customer id
+     */
+    @FunctionalInterface
+    public interface CustomerResolver {
+        String resolve() throws StripeException;
+    }
+}
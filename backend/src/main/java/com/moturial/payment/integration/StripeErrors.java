@@ -0,0 +1,87 @@
+package com.moturial.payment.integration;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+
+import java.util.function.Predicate;
+
+/**
+ * Classificação dos erros do Stripe para retry e circuit breaker
+ *
+ * O {@link StripeService} converte {@link StripeException} em
+ * {@code PaymentProcessingException}, então os predicados procuram a
+ * exceção do Stripe na cadeia de causas. Erros de negócio (cartão recusado,
+ * parâmetro inválido, autenticação) não são repetidos nem abrem o circuito.
+ *
+ * Referenciados por nome de classe em {@code resilience4j.*} no application.yml.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public final class StripeErrors {
+
+    private StripeErrors() {
+    }
+
+    /**
+     * Erro transitório que pode ser repetido com a mesma Idempotency-Key: falha de rede ou rate limit
+     *
+     * O Stripe guarda a resposta de um 5xx ou 409 sob a chave usada e a devolve em toda nova
+     * tentativa com a mesma chave, então repeti-los só consome o orçamento de retry. Um 429 não é
+     * guardado, e numa falha de rede ou a requisição não chegou ou a repetição devolve o resultado real.
+     */
+    public static boolean isTransient(Throwable throwable) {
+        StripeException stripeException = findStripeException(throwable);
+        return stripeException instanceof ApiConnectionException || stripeException instanceof RateLimitException;
+    }
+
+    /**
+     * Indisponibilidade do Stripe em si, que deve contar para abrir o circuito
+     */
+    public static boolean isProviderFailure(Throwable throwable) {
+        StripeException stripeException = findStripeException(throwable);
+        if (stripeException == null) {
+            return false;
+        }
+        if (stripeException instanceof ApiConnectionException) {
+            return true;
+        }
+        Integer statusCode = stripeException.getStatusCode();
+        return stripeException instanceof ApiException && (statusCode == null || statusCode >= 500);
+    }
+
+    private static StripeException findStripeException(Throwable throwable) {
+        Throwable current = throwable;
+        while (current != null) {
+            if (current instanceof StripeException stripeException) {
+                return stripeException;
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return null;
+    }
+
+    /**
+     * {@code resilience4j.retry.instances.stripe.retry-exception-predicate}
+     */
+    public static class RetryPredicate implements Predicate<Throwable> {
+
+        @Override
+        public boolean test(Throwable throwable) {
+            return isTransient(throwable);
+        }
+    }
+
+    /**
+     * {@code resilience4j.circuitbreaker.instances.stripe.record-failure-predicate}
+     */
+    public static class FailurePredicate implements Predicate<Throwable> {
+
+        @Override
+        public boolean test(Throwable throwable) {
+            return isProviderFailure(throwable);
+        }
+    }
+}
@@ -7,26 +7,35 @@ import com.moturial.payment.domain.dto.PaymentResult;
 import com.moturial.payment.domain.enums.PaymentMethodType;
 import com.moturial.payment.domain.enums.PaymentStatus;
 import com.moturial.payment.exception.PaymentProcessingException;
-import com.stripe.Stripe;
+import com.stripe.StripeClient;
+import com.stripe.exception.InvalidRequestException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Customer;
 import com.stripe.model.PaymentIntent;
 import com.stripe.model.PaymentMethod;
+import com.stripe.model.StripeSearchResult;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.CustomerCreateParams;
+import com.stripe.param.CustomerListParams;
 import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.PaymentIntentSearchParams;
 import com.stripe.param.PaymentMethodCreateParams;
 import com.stripe.param.PaymentMethodAttachParams;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Future;
 
 /**
  * Serviço de integração com Stripe
@@ -34,49 +43,90 @@ import java.util.Map;
  * Implementa operações seguras de pagamento com retry logic
  * e tratamento robusto de erros.
  * 
+ * As chamadas passam pelo {@link StripeClient} injetado (chave e transporte
+ * fixados na criação, ver {@code StripeClientConfig}); nada depende do
+ * estado global {@code Stripe.apiKey}.
+ * 
+ * Todas as chamadas passam pelo bulkhead e pelo circuit breaker {@value #RESILIENCE_NAME}:
+ * o bulkhead limita quantas threads de requisição podem estar no Stripe ao mesmo
+ * tempo (incluindo a espera entre retries) e o circuito aberto falha na hora, sem
+ * chamar o Stripe. Só erros transitórios são repetidos ({@link StripeErrors}).
+ * 
  * @author Moturial Team
  * @version 1.0.0
  */
 @Service
+@Bulkhead(name = StripeService.RESILIENCE_NAME)
+@CircuitBreaker(name = StripeService.RESILIENCE_NAME)
 public class StripeService {
 
     private static final Logger logger = LoggerFactory.getLogger(StripeService.class);
 
-    @Value("${stripe.secret-key}")
-    private String stripeSecretKey;
+    /**
+     * Chave de metadata que liga o PaymentIntent ao registro local de pagamento
+     */
+    public static final String PAYMENT_REFERENCE_KEY = "payment_reference";
+
+    /**
+     * Nome das instâncias de bulkhead, circuit breaker e retry ({@code resilience4j.*})
+     */
+    public static final String RESILIENCE_NAME = "stripe";
 
     @Value("${stripe.currency:BRL}")
     private String defaultCurrency;
 
+    private final StripeClient stripeClient;
+    private final StripeCustomerCache customerCache;
+
+    @Autowired
+    public StripeService(StripeClient stripeClient, StripeCustomerCache customerCache) {
+        this.stripeClient = stripeClient;
+        this.customerCache = customerCache;
+    }
+
     /**
      * Processa pagamento com cartão de crédito/débito
+     *
+     * O {@code paymentReference} é o ID do registro local: vai para a metadata do
+     * PaymentIntent, permitindo que a recuperação localize o PaymentIntent caso o nó
+     * caia antes de gravar o resultado. As chamadas que criam objetos no Stripe usam
+     * a Idempotency-Key do cliente (ou, na falta dela, a referência) como chave de
+     * idempotência, de modo que os retries não dupliquem clientes nem cobranças.
+     *
+     * A resolução do cliente e a criação do PaymentMethod rodam em paralelo
+     * ({@link StripeCallScope}); se uma falha, a outra é cancelada. Um
+     * PaymentMethod criado antes do cancelamento fica órfão e sem uso, e o retry
+     * o reaproveita pela mesma chave de idempotência.
      */
-    @Retryable(
-        value = {StripeException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
-    public PaymentResult processCardPayment(PaymentRequest request, CardData cardData) {
+    @Retry(name = RESILIENCE_NAME)
+    public PaymentResult processCardPayment(PaymentRequest request, CardData cardData, String paymentReference) {
         try {
-            Stripe.apiKey = stripeSecretKey;
-
-            // Criar ou recuperar cliente
-            Customer customer = createOrRetrieveCustomer(request.getCustomer());
-
-            // Criar método de pagamento
-            PaymentMethod paymentMethod = createPaymentMethod(cardData);
+            String idempotencyKey = resolveIdempotencyKey(request, paymentReference);
+
+            // Cliente e método de pagamento não dependem um do outro: em paralelo
+            String customerId;
+            PaymentMethod paymentMethod;
+            try (StripeCallScope scope = new StripeCallScope()) {
+                Future<String> customer = scope.fork(() -> createOrRetrieveCustomer(request.getCustomer(), idempotencyKey));
+                Future<PaymentMethod> method = scope.fork(() -> createPaymentMethod(cardData, idempotencyKey));
+                scope.join();
+                customerId = customer.resultNow();
+                paymentMethod = method.resultNow();
+            }
 
             // Anexar o PaymentMethod ao Customer
-            paymentMethod.attach(PaymentMethodAttachParams.builder().setCustomer(customer.getId()).build());
+            stripeClient.paymentMethods().attach(paymentMethod.getId(),
+                PaymentMethodAttachParams.builder().setCustomer(customerId).build(),
+                idempotentOptions(idempotencyKey, "attach"));
 
             // Criar PaymentIntent
             PaymentIntentCreateParams.Builder paramsBuilder = PaymentIntentCreateParams.builder()
                 .setAmount(convertToCents(request.getAmount()))
                 .setCurrency(request.getCurrency().toLowerCase())
-                .setCustomer(customer.getId())
+                .setCustomer(customerId)
                 .setConfirmationMethod(PaymentIntentCreateParams.ConfirmationMethod.MANUAL)
                 .setConfirm(true)
-                .putAllMetadata(createMetadata(request));
+                .putAllMetadata(createMetadata(request, paymentReference));
 
             if (request.getInstallments() > 1) {
                 PaymentIntentCreateParams.PaymentMethodOptions.Card.Installments installments = 
@@ -95,7 +145,8 @@ public class StripeService {
                         .build());
             }
 
-            PaymentIntent paymentIntent = PaymentIntent.create(paramsBuilder.build());
+            PaymentIntent paymentIntent = stripeClient.paymentIntents().create(paramsBuilder.build(),
+                idempotentOptions(idempotencyKey, "payment-intent"));
 
             return PaymentResult.builder()
                 .externalId(paymentIntent.getId())
@@ -109,6 +160,7 @@ public class StripeService {
                 .build();
 
         } catch (StripeException e) {
+            evictIfCustomerMissing(e, request.getCustomer());
             logger.error("Erro ao processar pagamento com cartão: {}", e.getMessage(), e);
             throw new PaymentProcessingException("Erro ao processar pagamento: " + e.getMessage(), e);
         }
@@ -117,26 +169,23 @@ public class StripeService {
     /**
      * Processa pagamento via PIX
      */
-    @Retryable(
-        value = {StripeException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
-    public PaymentResult processPixPayment(PaymentRequest request) {
+    @Retry(name = RESILIENCE_NAME)
+    public PaymentResult processPixPayment(PaymentRequest request, String paymentReference) {
         try {
-            Stripe.apiKey = stripeSecretKey;
+            String idempotencyKey = resolveIdempotencyKey(request, paymentReference);
 
-            Customer customer = createOrRetrieveCustomer(request.getCustomer());
+            String customerId = createOrRetrieveCustomer(request.getCustomer(), idempotencyKey);
 
             PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
                 .setAmount(convertToCents(request.getAmount()))
                 .setCurrency(request.getCurrency().toLowerCase())
-                .setCustomer(customer.getId())
+                .setCustomer(customerId)
                 .addAllPaymentMethodType(java.util.Arrays.asList("pix"))
-                .putAllMetadata(createMetadata(request))
+                .putAllMetadata(createMetadata(request, paymentReference))
                 .build();
 
-            PaymentIntent paymentIntent = PaymentIntent.create(params);
+            PaymentIntent paymentIntent = stripeClient.paymentIntents().create(params,
+                idempotentOptions(idempotencyKey, "payment-intent"));
 
             return PaymentResult.builder()
                 .externalId(paymentIntent.getId())
@@ -154,6 +203,7 @@ public class StripeService {
                 .build();
 
         } catch (StripeException e) {
+            evictIfCustomerMissing(e, request.getCustomer());
             logger.error("Erro ao processar pagamento PIX: {}", e.getMessage(), e);
             throw new PaymentProcessingException("Erro ao processar pagamento PIX: " + e.getMessage(), e);
         }
@@ -162,10 +212,10 @@ public class StripeService {
     /**
      * Recupera status de um pagamento
      */
+    @Retry(name = RESILIENCE_NAME)
     public PaymentResult getPaymentStatus(String paymentIntentId) {
         try {
-            Stripe.apiKey = stripeSecretKey;
-            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentIntentId);
+            PaymentIntent paymentIntent = stripeClient.paymentIntents().retrieve(paymentIntentId);
 
             return PaymentResult.builder()
                 .externalId(paymentIntent.getId())
@@ -183,14 +233,47 @@ public class StripeService {
         }
     }
 
+    /**
+     * Localiza o PaymentIntent criado para um registro local de pagamento
+     *
+     * Usado na recuperação de registros que ficaram PENDING sem resultado gravado.
+     * A busca do Stripe é eventualmente consistente (cerca de um minuto).
+     */
+    @Retry(name = RESILIENCE_NAME)
+    public Optional<PaymentResult> findPaymentByReference(String paymentReference) {
+        try {
+            PaymentIntentSearchParams params = PaymentIntentSearchParams.builder()
+                .setQuery("metadata['" + PAYMENT_REFERENCE_KEY + "']:'" + paymentReference + "'")
+                .setLimit(1L)
+                .build();
+
+            StripeSearchResult<PaymentIntent> searchResult = stripeClient.paymentIntents().search(params);
+            if (searchResult.getData().isEmpty()) {
+                return Optional.empty();
+            }
+
+            PaymentIntent paymentIntent = searchResult.getData().get(0);
+            return Optional.of(PaymentResult.builder()
+                .externalId(paymentIntent.getId())
+                .status(mapStripeStatus(paymentIntent.getStatus()))
+                .amount(convertFromCents(paymentIntent.getAmount()))
+                .currency(paymentIntent.getCurrency().toUpperCase())
+                .description(paymentIntent.getDescription())
+                .metadata(paymentIntent.getMetadata())
+                .build());
+
+        } catch (StripeException e) {
+            logger.error("Erro ao buscar pagamento pela referência {}: {}", paymentReference, e.getMessage(), e);
+            throw new PaymentProcessingException("Erro ao buscar pagamento: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Cancela um pagamento
      */
     public PaymentResult cancelPayment(String paymentIntentId) {
         try {
-            Stripe.apiKey = stripeSecretKey;
-            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentIntentId);
-            paymentIntent = paymentIntent.cancel();
+            PaymentIntent paymentIntent = stripeClient.paymentIntents().cancel(paymentIntentId);
 
             return PaymentResult.builder()
                 .externalId(paymentIntent.getId())
@@ -207,12 +290,22 @@ public class StripeService {
         }
     }
 
-    private Customer createOrRetrieveCustomer(CustomerData customerData) throws StripeException {
+    /**
+     * Resolve o customer id pelo cache local; o Stripe só é consultado em caso de miss
+     */
+    private String createOrRetrieveCustomer(CustomerData customerData, String idempotencyKey) throws StripeException {
+        return customerCache.getCustomerId(customerData.getEmail(),
+            () -> findOrCreateCustomer(customerData, idempotencyKey).getId());
+    }
+
+    private Customer findOrCreateCustomer(CustomerData customerData, String idempotencyKey) throws StripeException {
         // Buscar cliente existente por email
-        Map<String, Object> params = new HashMap<>();
-        params.put("email", customerData.getEmail());
-        
-        var customers = Customer.list(params);
+        CustomerListParams params = CustomerListParams.builder()
+            .setEmail(customerData.getEmail())
+            .setLimit(1L)
+            .build();
+
+        var customers = stripeClient.customers().list(params);
         if (!customers.getData().isEmpty()) {
             return customers.getData().get(0);
         }
@@ -226,10 +319,22 @@ public class StripeService {
             paramsBuilder.setPhone(customerData.getPhone());
         }
 
-        return Customer.create(paramsBuilder.build());
+        return stripeClient.customers().create(paramsBuilder.build(), idempotentOptions(idempotencyKey, "customer"));
+    }
+
+    /**
+     * Cliente removido no Stripe: descarta o mapeamento para que a próxima tentativa o recrie
+     */
+    private void evictIfCustomerMissing(StripeException e, CustomerData customerData) {
+        if (e instanceof InvalidRequestException invalidRequest
+                && "resource_missing".equals(invalidRequest.getCode())
+                && "customer".equals(invalidRequest.getParam())
+                && customerData != null) {
+            customerCache.evict(customerData.getEmail());
+        }
     }
 
-    private PaymentMethod createPaymentMethod(CardData cardData) throws StripeException {
+    private PaymentMethod createPaymentMethod(CardData cardData, String idempotencyKey) throws StripeException {
         PaymentMethodCreateParams.Builder paramsBuilder = PaymentMethodCreateParams.builder()
             .setType(PaymentMethodCreateParams.Type.CARD);
 
@@ -246,11 +351,22 @@ public class StripeService {
             );
         }
 
-        return PaymentMethod.create(paramsBuilder.build());
+        return stripeClient.paymentMethods().create(paramsBuilder.build(), idempotentOptions(idempotencyKey, "payment-method"));
     }
 
-    private Map<String, String> createMetadata(PaymentRequest request) {
+    private String resolveIdempotencyKey(PaymentRequest request, String paymentReference) {
+        return StringUtils.hasText(request.getIdempotencyKey()) ? request.getIdempotencyKey() : paymentReference;
+    }
+
+    private RequestOptions idempotentOptions(String idempotencyKey, String operation) {
+        return RequestOptions.builder()
+            .setIdempotencyKey(operation + "-" + idempotencyKey)
+            .build();
+    }
+
+    private Map<String, String> createMetadata(PaymentRequest request, String paymentReference) {
         Map<String, String> metadata = new HashMap<>();
+        metadata.put(PAYMENT_REFERENCE_KEY, paymentReference);
         metadata.put("user_id", request.getUserId());
                 metadata.put("payment_method", request.getPaymentMethod().name().toLowerCase());
         metadata.put("installments", String.valueOf(request.getInstallments()));
@@ -271,7 +387,10 @@ public class StripeService {
         return BigDecimal.valueOf(amount).divide(BigDecimal.valueOf(100));
     }
 
-    private PaymentStatus mapStripeStatus(String stripeStatus) {
+    /**
+     * Converte o status de um PaymentIntent no status local
+     */
+    public static PaymentStatus mapStripeStatus(String stripeStatus) {
         return switch (stripeStatus) {
             case "succeeded" -> PaymentStatus.APPROVED;
             case "processing" -> PaymentStatus.PROCESSING;
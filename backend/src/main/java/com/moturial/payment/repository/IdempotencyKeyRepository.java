@@ -0,0 +1,35 @@
+package com.moturial.payment.repository;
+
+import com.moturial.payment.domain.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Reinicia uma chave abandonada ou expirada, desde que ninguém a tenha assumido depois da leitura
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.requestHash = :requestHash, k.status = :status, k.responseBody = NULL, " +
+           "k.errorMessage = NULL, k.createdAt = :now, k.completedAt = NULL, k.expiresAt = :expiresAt " +
+           "WHERE k.key = :key AND k.createdAt = :previousCreatedAt")
+    int claim(@Param("key") String key,
+              @Param("previousCreatedAt") LocalDateTime previousCreatedAt,
+              @Param("requestHash") String requestHash,
+              @Param("status") IdempotencyKey.Status status,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+}
@@ -7,7 +7,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,18 +23,52 @@ public interface MotorcycleRepository extends JpaRepository<Motorcycle, UUID> {
     boolean existsByLicensePlate(String licensePlate);
 
     @Query("SELECT m FROM Motorcycle m WHERE " +
-           "(:search IS NULL OR LOWER(m.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(m.type) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           "(:search IS NULL OR m.name ILIKE :search ESCAPE '!' OR " +
+           "m.type ILIKE :search ESCAPE '!') AND " +
            "(:type IS NULL OR m.type = :type) AND " +
            "(:status IS NULL OR m.status = :status) AND " +
-           "(:location IS NULL OR LOWER(m.location) LIKE LOWER(CONCAT('%', :location, '%')))")
+           "(:location IS NULL OR m.location ILIKE :location ESCAPE '!')")
     Page<Motorcycle> findMotorcyclesWithFilters(@Param("search") String search,
                                                @Param("type") String type,
                                                @Param("status") String status,
                                                @Param("location") String location,
                                                Pageable pageable);
 
+    /**
+     * Página seguinte a {@code (createdAt, id)} em ordem decrescente, sem contagem
+     * ({@code search} no formato de {@link SearchPatterns#contains})
+     */
+    @Query("SELECT m FROM Motorcycle m WHERE " +
+           "(:search IS NULL OR m.name ILIKE :search ESCAPE '!' OR " +
+           "m.type ILIKE :search ESCAPE '!') AND " +
+           "(:type IS NULL OR m.type = :type) AND " +
+           "m.status IN :statuses AND " +
+           "(:location IS NULL OR m.location ILIKE :location ESCAPE '!') AND " +
+           "m.createdAt <= :createdAt AND (m.createdAt < :createdAt OR m.id < :id) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Motorcycle> findMotorcyclesWithFiltersBefore(@Param("search") String search,
+                                                      @Param("type") String type,
+                                                      @Param("statuses") Collection<Motorcycle.Status> statuses,
+                                                      @Param("location") String location,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") UUID id,
+                                                      Pageable limit);
+
     long countByStatus(Motorcycle.Status status);
 
     long countByLocation(String location);
+
+    /**
+     * Coloca em MAINTENANCE até {@code limit} motos disponíveis cuja
+     * {@code next_maintenance} já passou, retornando os ids alterados
+     *
+     * Um UPDATE ... RETURNING por bloco (somente PostgreSQL). Motos travadas por
+     * outra transação ficam para o próximo bloco (SKIP LOCKED).
+     */
+    @Transactional
+    @Query(value = "UPDATE motorcycles SET status = 'MAINTENANCE', updated_at = :now " +
+           "WHERE id IN (SELECT id FROM motorcycles WHERE status = 'AVAILABLE' AND next_maintenance <= :now " +
+           "ORDER BY next_maintenance LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+           "RETURNING id", nativeQuery = true)
+    List<UUID> flagDueForMaintenance(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
@@ -1,15 +1,25 @@
 package com.moturial.payment.repository;
 
 import com.moturial.payment.domain.entity.Payment;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repositório para entidade Payment
@@ -22,11 +32,39 @@ import java.util.UUID;
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
 
+    /**
+     * Linhas por ida ao banco nas consultas de exportação
+     */
+    String EXPORT_FETCH_SIZE = "1000";
+
     /**
      * Busca pagamento por ID externo
      */
     Optional<Payment> findByExternalId(String externalId);
 
+    /**
+     * Busca pagamentos por um lote de IDs externos
+     */
+    List<Payment> findByExternalIdIn(Collection<String> externalIds);
+
+    /**
+     * Lista pagamentos de uma locação pela chave rental_id da metadata (mais recentes primeiro)
+     *
+     * Servida pelo índice de expressão idx_payment_metadata_rental_id (V14; somente PostgreSQL).
+     */
+    @Query(value = "SELECT * FROM payments WHERE metadata->>'rental_id' = :rentalId ORDER BY created_at DESC",
+           nativeQuery = true)
+    List<Payment> findByMetadataRentalId(@Param("rentalId") String rentalId);
+
+    /**
+     * Lista pagamentos cuja metadata tem a chave com o valor informado, ex.: order_id (mais recentes primeiro)
+     *
+     * A contenção (@>) é servida pelo índice GIN jsonb_path_ops idx_payment_metadata (V14; somente PostgreSQL).
+     */
+    @Query(value = "SELECT * FROM payments WHERE metadata @> jsonb_build_object(CAST(:key AS text), CAST(:value AS text)) " +
+                   "ORDER BY created_at DESC", nativeQuery = true)
+    List<Payment> findByMetadataValue(@Param("key") String key, @Param("value") String value);
+
     /**
      * Lista pagamentos de um usuário ordenados por data de criação (mais recentes primeiro)
      */
@@ -79,6 +117,85 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     @Query("SELECT p FROM Payment p WHERE p.status IN ('PENDING', 'PROCESSING') AND p.createdAt < :cutoffDate")
     List<Payment> findPendingPaymentsOlderThan(@Param("cutoffDate") LocalDateTime cutoffDate);
 
+    /**
+     * Página de pagamentos pendentes já enviados ao Stripe, a partir do cursor (createdAt, id)
+     *
+     * Paginação por cursor: cada página continua do último registro da anterior,
+     * sem OFFSET, usando o índice (status, created_at).
+     */
+    @Query("SELECT p FROM Payment p WHERE p.status IN ('PENDING', 'PROCESSING') AND p.processedAt IS NOT NULL " +
+           "AND p.createdAt < :cutoffDate " +
+           "AND p.createdAt >= :afterCreatedAt AND (p.createdAt > :afterCreatedAt OR p.id > :afterId) " +
+           "ORDER BY p.createdAt ASC, p.id ASC")
+    List<Payment> findPendingPaymentsOlderThan(
+        @Param("cutoffDate") LocalDateTime cutoffDate,
+        @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+        @Param("afterId") UUID afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Busca registros PENDING que nunca receberam resultado do Stripe
+     * (nó caiu entre a criação do registro e a gravação do resultado)
+     */
+    @Query("SELECT p FROM Payment p WHERE p.status = 'PENDING' AND p.processedAt IS NULL AND p.createdAt < :cutoffDate ORDER BY p.createdAt ASC")
+    List<Payment> findOrphanedPaymentsOlderThan(@Param("cutoffDate") LocalDateTime cutoffDate, Pageable pageable);
+
+    /**
+     * Grava o resultado do Stripe somente se o registro não mudou desde a leitura
+     *
+     * O registro lido antes da chamada ao Stripe fica desanexado e Payment não
+     * tem {@code @Version}: um {@code save} sobrescreveria com valores antigos o
+     * status e o {@code webhookEventAt} gravados por um webhook nesse intervalo.
+     * A condição usa o status e o {@code webhookEventAt} lidos.
+     *
+     * @return 1 se gravou, 0 se o registro mudou (o que está no banco prevalece)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.externalId = :externalId, p.status = :status, p.errorMessage = :errorMessage, " +
+           "p.metadata = :metadata, p.processedAt = :processedAt, p.updatedAt = :processedAt " +
+           "WHERE p.id = :id AND p.status = :expectedStatus AND (p.webhookEventAt = :expectedWebhookEventAt " +
+           "OR (p.webhookEventAt IS NULL AND :expectedWebhookEventAt IS NULL))")
+    int updateResultIfUnchanged(@Param("id") UUID id,
+                                @Param("expectedStatus") PaymentStatus expectedStatus,
+                                @Param("expectedWebhookEventAt") LocalDateTime expectedWebhookEventAt,
+                                @Param("externalId") String externalId,
+                                @Param("status") PaymentStatus status,
+                                @Param("errorMessage") String errorMessage,
+                                @Param("metadata") Map<String, String> metadata,
+                                @Param("processedAt") LocalDateTime processedAt);
+
+    /**
+     * Pagamentos PENDING com PaymentIntent criado no Stripe e mais antigos que {@code cutoffDate}
+     *
+     * Percorre por cursor (created_at, id), servido pelo índice (status, created_at).
+     * Registros sem resultado do Stripe ({@code processedAt} nulo) ficam com o
+     * PaymentRecoveryJob.
+     */
+    @Query("SELECT p.id AS id, p.externalId AS externalId, p.createdAt AS createdAt FROM Payment p " +
+           "WHERE p.status = 'PENDING' AND p.processedAt IS NOT NULL AND p.createdAt < :cutoffDate " +
+           "AND p.createdAt >= :afterCreatedAt AND (p.createdAt > :afterCreatedAt OR p.id > :afterId) " +
+           "ORDER BY p.createdAt ASC, p.id ASC")
+    List<ExpirablePayment> findExpirablePending(@Param("cutoffDate") LocalDateTime cutoffDate,
+                                                @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                @Param("afterId") UUID afterId,
+                                                Pageable pageable);
+
+    /**
+     * Cancela os pagamentos informados que continuam PENDING, retornando os alterados
+     *
+     * Um UPDATE ... RETURNING por bloco (somente PostgreSQL). Pagamentos alterados por
+     * webhook ou reconciliação depois da leitura não são retornados.
+     */
+    @Transactional
+    @Query(value = "UPDATE payments SET status = 'CANCELLED', error_message = :reason, updated_at = :now " +
+                   "WHERE id IN (:ids) AND status = 'PENDING' " +
+                   "RETURNING id AS \"id\", external_id AS \"externalId\"", nativeQuery = true)
+    List<ExpiredPayment> expirePending(@Param("ids") Collection<UUID> ids,
+                                       @Param("now") LocalDateTime now,
+                                       @Param("reason") String reason);
+
     /**
      * Verifica se existe pagamento com ID externo
      */
@@ -98,10 +215,73 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
 
     /**
      * Busca pagamentos processados em um período específico
+     *
+     * Um pagamento é criado antes de ser processado: o limite em createdAt não
+     * muda o resultado e exclui as partições de meses posteriores ao período.
      */
-    @Query("SELECT p FROM Payment p WHERE p.processedAt BETWEEN :startDate AND :endDate ORDER BY p.processedAt DESC")
+    @Query("SELECT p FROM Payment p WHERE p.processedAt BETWEEN :startDate AND :endDate " +
+           "AND p.createdAt <= :endDate ORDER BY p.processedAt DESC")
     List<Payment> findByProcessedAtBetweenOrderByProcessedAtDesc(
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
+
+    /**
+     * Percorre os pagamentos criados no período [startDate, endDate) para exportação
+     *
+     * Não materializa a lista: deve ser consumido dentro de uma transação, e o
+     * fetch size faz o driver do PostgreSQL ler por cursor no servidor, em
+     * blocos, em vez de trazer o resultado inteiro de uma vez.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p WHERE p.createdAt >= :startDate AND p.createdAt < :endDate " +
+           "AND p.status IN :statuses ORDER BY p.createdAt ASC, p.id ASC")
+    Stream<Payment> streamByCreatedAtForExport(
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("statuses") Collection<com.moturial.payment.domain.enums.PaymentStatus> statuses
+    );
+
+    /**
+     * Percorre os pagamentos processados no período [startDate, endDate) para exportação
+     *
+     * O limite em createdAt (criação sempre antes do processamento) exclui as
+     * partições de meses posteriores ao período.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p WHERE p.processedAt >= :startDate AND p.processedAt < :endDate " +
+           "AND p.createdAt < :endDate AND p.status IN :statuses ORDER BY p.processedAt ASC, p.id ASC")
+    Stream<Payment> streamByProcessedAtForExport(
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("statuses") Collection<com.moturial.payment.domain.enums.PaymentStatus> statuses
+    );
+
+    /**
+     * Projeção de {@link #findExpirablePending}
+     */
+    interface ExpirablePayment {
+
+        UUID getId();
+
+        String getExternalId();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    /**
+     * Projeção de {@link #expirePending}
+     */
+    interface ExpiredPayment {
+
+        UUID getId();
+
+        String getExternalId();
+    }
 }
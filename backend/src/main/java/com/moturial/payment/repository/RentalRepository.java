@@ -7,22 +7,79 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, UUID> {
 
+    /**
+     * Primeira fase da listagem paginada: só os ids da página, com contagem
+     * separada. A busca por nome/email/moto usa subconsultas em vez de JOIN,
+     * então nenhuma das duas consultas carrega usuário ou moto e o LIMIT/OFFSET
+     * é aplicado no banco ({@code search} no formato de {@link SearchPatterns#contains})
+     */
+    @Query(value = "SELECT r.id FROM Rental r WHERE " +
+           "(:search IS NULL OR " +
+           "r.user.id IN (SELECT u.id FROM User u WHERE u.name ILIKE :search ESCAPE '!' OR " +
+           "u.email ILIKE :search ESCAPE '!') OR " +
+           "r.motorcycle.id IN (SELECT m.id FROM Motorcycle m WHERE m.name ILIKE :search ESCAPE '!')) AND " +
+           "r.status IN :statuses AND " +
+           "r.paymentStatus IN :paymentStatuses",
+           countQuery = "SELECT COUNT(r) FROM Rental r WHERE " +
+           "(:search IS NULL OR " +
+           "r.user.id IN (SELECT u.id FROM User u WHERE u.name ILIKE :search ESCAPE '!' OR " +
+           "u.email ILIKE :search ESCAPE '!') OR " +
+           "r.motorcycle.id IN (SELECT m.id FROM Motorcycle m WHERE m.name ILIKE :search ESCAPE '!')) AND " +
+           "r.status IN :statuses AND " +
+           "r.paymentStatus IN :paymentStatuses")
+    Page<UUID> findRentalIdsWithFilters(@Param("search") String search,
+                                        @Param("statuses") Collection<Rental.Status> statuses,
+                                        @Param("paymentStatuses") Collection<Rental.PaymentStatus> paymentStatuses,
+                                        Pageable pageable);
+
+    /**
+     * Segunda fase: os aluguéis da página com usuário e moto, em qualquer ordem
+     */
+    @Query("SELECT r FROM Rental r JOIN FETCH r.user JOIN FETCH r.motorcycle WHERE r.id IN :ids")
+    List<Rental> findAllWithUserAndMotorcycleByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Página seguinte a {@code (createdAt, id)} em ordem decrescente, sem contagem
+     * ({@code search} no formato de {@link SearchPatterns#contains})
+     */
     @Query("SELECT r FROM Rental r JOIN FETCH r.user u JOIN FETCH r.motorcycle m WHERE " +
-           "(:search IS NULL OR LOWER(u.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(m.name) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
-           "(:status IS NULL OR r.status = :status) AND " +
-           "(:paymentStatus IS NULL OR r.paymentStatus = :paymentStatus)")
-    Page<Rental> findRentalsWithFilters(@Param("search") String search,
-                                       @Param("status") String status,
-                                       @Param("paymentStatus") String paymentStatus,
-                                       Pageable pageable);
+           "(:search IS NULL OR u.name ILIKE :search ESCAPE '!' OR " +
+           "u.email ILIKE :search ESCAPE '!' OR " +
+           "m.name ILIKE :search ESCAPE '!') AND " +
+           "r.status IN :statuses AND " +
+           "r.paymentStatus IN :paymentStatuses AND " +
+           "r.createdAt <= :createdAt AND (r.createdAt < :createdAt OR r.id < :id) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Rental> findRentalsWithFiltersBefore(@Param("search") String search,
+                                              @Param("statuses") Collection<Rental.Status> statuses,
+                                              @Param("paymentStatuses") Collection<Rental.PaymentStatus> paymentStatuses,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") UUID id,
+                                              Pageable limit);
+
+    /**
+     * Totais de aluguéis do dashboard em uma única varredura da tabela
+     * (receita = aluguéis pagos; mês = criados a partir de {@code monthStart})
+     */
+    @Query("SELECT COUNT(r) AS totalRentals, " +
+           "COALESCE(SUM(CASE WHEN r.status = 'ACTIVE' THEN 1 ELSE 0 END), 0) AS activeRentals, " +
+           "COALESCE(SUM(CASE WHEN r.paymentStatus = 'PAID' THEN r.totalAmount ELSE 0 END), 0) AS totalRevenue, " +
+           "COALESCE(SUM(CASE WHEN r.createdAt >= :monthStart THEN 1 ELSE 0 END), 0) AS monthlyRentals, " +
+           "COALESCE(SUM(CASE WHEN r.createdAt >= :monthStart AND r.paymentStatus = 'PAID' " +
+           "THEN r.totalAmount ELSE 0 END), 0) AS monthlyRevenue " +
+           "FROM Rental r")
+    DashboardTotals getDashboardTotals(@Param("monthStart") LocalDateTime monthStart);
 
     long countByStatus(Rental.Status status);
 
@@ -33,4 +90,34 @@ public interface RentalRepository extends JpaRepository<Rental, UUID> {
 
     @Query("SELECT COUNT(r) FROM Rental r WHERE r.motorcycle.id = :motorcycleId")
     long countByMotorcycleId(@Param("motorcycleId") UUID motorcycleId);
+
+    /**
+     * Marca como OVERDUE o pagamento de até {@code limit} aluguéis não cancelados,
+     * ainda não pagos e com {@code end_date} anterior a {@code now}, retornando os ids alterados
+     *
+     * Um UPDATE ... RETURNING por bloco (somente PostgreSQL). Aluguéis travados por
+     * outra transação ficam para o próximo bloco (SKIP LOCKED).
+     */
+    @Transactional
+    @Query(value = "UPDATE rentals SET payment_status = 'OVERDUE', updated_at = :now " +
+           "WHERE id IN (SELECT id FROM rentals WHERE payment_status = 'PENDING' AND status <> 'CANCELLED' " +
+           "AND end_date < :now ORDER BY end_date LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+           "RETURNING id", nativeQuery = true)
+    List<UUID> markOverdue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Projeção de {@link #getDashboardTotals}
+     */
+    interface DashboardTotals {
+
+        long getTotalRentals();
+
+        long getActiveRentals();
+
+        BigDecimal getTotalRevenue();
+
+        long getMonthlyRentals();
+
+        BigDecimal getMonthlyRevenue();
+    }
 }
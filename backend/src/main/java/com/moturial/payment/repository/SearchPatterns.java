@@ -0,0 +1,45 @@
+package com.moturial.payment.repository;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Padrões de busca por substring para as consultas {@code ILIKE} dos repositórios
+ *
+ * O padrão é montado aqui, e não com {@code CONCAT} na consulta, para que o
+ * PostgreSQL receba um literal {@code %termo%} que os índices trigram
+ * ({@code gin_trgm_ops}) da V11 conseguem atender. {@code %}, {@code _} e o
+ * próprio caractere de escape digitados pelo usuário são tratados como texto.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public final class SearchPatterns {
+
+    /**
+     * Caractere usado no {@code ESCAPE '!'} das consultas
+     */
+    public static final char ESCAPE = '!';
+
+    private SearchPatterns() {
+    }
+
+    /**
+     * {@code %termo%} com os curingas escapados, ou {@code null} para termo vazio
+     * (as consultas ignoram o filtro quando o padrão é nulo)
+     */
+    public static String contains(String term) {
+        if (!StringUtils.hasText(term)) {
+            return null;
+        }
+        String trimmed = term.trim();
+        StringBuilder pattern = new StringBuilder(trimmed.length() + 2).append('%');
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                pattern.append(ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -8,15 +8,18 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface StoreRepository extends JpaRepository<Store, UUID> {
 
     @Query("SELECT s FROM Store s WHERE " +
-           "(:search IS NULL OR LOWER(s.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(s.city) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(s.address) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           "(:search IS NULL OR s.name ILIKE :search ESCAPE '!' OR " +
+           "s.city ILIKE :search ESCAPE '!' OR " +
+           "s.address ILIKE :search ESCAPE '!') AND " +
            "(:city IS NULL OR LOWER(s.city) = LOWER(:city)) AND " +
            "(:status IS NULL OR s.status = :status)")
     Page<Store> findStoresWithFilters(@Param("search") String search,
@@ -24,6 +27,25 @@ public interface StoreRepository extends JpaRepository<Store, UUID> {
                                      @Param("status") String status,
                                      Pageable pageable);
 
+    /**
+     * Página seguinte a {@code (createdAt, id)} em ordem decrescente, sem contagem
+     * ({@code search} no formato de {@link SearchPatterns#contains})
+     */
+    @Query("SELECT s FROM Store s WHERE " +
+           "(:search IS NULL OR s.name ILIKE :search ESCAPE '!' OR " +
+           "s.city ILIKE :search ESCAPE '!' OR " +
+           "s.address ILIKE :search ESCAPE '!') AND " +
+           "(:city IS NULL OR LOWER(s.city) = LOWER(:city)) AND " +
+           "s.status IN :statuses AND " +
+           "s.createdAt <= :createdAt AND (s.createdAt < :createdAt OR s.id < :id) " +
+           "ORDER BY s.createdAt DESC, s.id DESC")
+    List<Store> findStoresWithFiltersBefore(@Param("search") String search,
+                                            @Param("city") String city,
+                                            @Param("statuses") Collection<Store.Status> statuses,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") UUID id,
+                                            Pageable limit);
+
     long countByStatus(Store.Status status);
 
     long countByCity(String city);
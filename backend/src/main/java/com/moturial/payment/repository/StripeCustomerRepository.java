@@ -0,0 +1,9 @@
+package com.moturial.payment.repository;
+
+import com.moturial.payment.domain.entity.StripeCustomer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StripeCustomerRepository extends JpaRepository<StripeCustomer, String> {
+}
@@ -8,6 +8,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,8 +22,8 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByEmail(String email);
 
     @Query("SELECT u FROM User u WHERE " +
-           "(:search IS NULL OR LOWER(u.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           "(:search IS NULL OR u.name ILIKE :search ESCAPE '!' OR " +
+           "u.email ILIKE :search ESCAPE '!') AND " +
            "(:role IS NULL OR u.role = :role) AND " +
            "(:status IS NULL OR u.status = :status)")
     Page<User> findUsersWithFilters(@Param("search") String search,
@@ -28,6 +31,24 @@ public interface UserRepository extends JpaRepository<User, UUID> {
                                    @Param("status") User.Status status,
                                    Pageable pageable);
 
+    /**
+     * Página seguinte a {@code (createdAt, id)} em ordem decrescente, sem contagem
+     * ({@code search} no formato de {@link SearchPatterns#contains})
+     */
+    @Query("SELECT u FROM User u WHERE " +
+           "(:search IS NULL OR u.name ILIKE :search ESCAPE '!' OR " +
+           "u.email ILIKE :search ESCAPE '!') AND " +
+           "u.role IN :roles AND " +
+           "u.status IN :statuses AND " +
+           "u.createdAt <= :createdAt AND (u.createdAt < :createdAt OR u.id < :id) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findUsersWithFiltersBefore(@Param("search") String search,
+                                          @Param("roles") Collection<User.Role> roles,
+                                          @Param("statuses") Collection<User.Status> statuses,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") UUID id,
+                                          Pageable limit);
+
     long countByRole(User.Role role);
 
     long countByStatus(User.Status status);
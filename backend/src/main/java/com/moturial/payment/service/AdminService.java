@@ -22,33 +22,46 @@ import com.moturial.payment.domain.dto.CreateMotorcycleDto;
 import com.moturial.payment.domain.dto.UpdateMotorcycleDto;
 import com.moturial.payment.domain.dto.RentalDto;
 import com.moturial.payment.exception.BusinessException;
+import com.moturial.payment.domain.dto.CursorPage;
+import com.moturial.payment.domain.dto.StoreDto;
+import com.moturial.payment.domain.entity.Motorcycle;
+import com.moturial.payment.domain.entity.Rental;
+import com.moturial.payment.domain.entity.Store;
+import com.moturial.payment.domain.entity.User;
 import com.moturial.payment.exception.ResourceNotFoundException;
-/*
- * Repository and Mapper imports - ready for database implementation
- * Uncomment when transitioning from mock data to actual database operations
- */
-// import com.moturial.payment.mapper.UserMapper;
-// import com.moturial.payment.mapper.MotorcycleMapper;
-// import com.moturial.payment.mapper.RentalMapper;
-// import com.moturial.payment.repository.UserRepository;
-// import com.moturial.payment.repository.MotorcycleRepository;
-// import com.moturial.payment.repository.RentalRepository;
-// import com.moturial.payment.repository.StoreRepository;
+import com.moturial.payment.mapper.UserMapper;
+import com.moturial.payment.mapper.MotorcycleMapper;
+import com.moturial.payment.mapper.RentalMapper;
+import com.moturial.payment.mapper.StoreMapper;
+import com.moturial.payment.repository.UserRepository;
+import com.moturial.payment.repository.MotorcycleRepository;
+import com.moturial.payment.repository.RentalRepository;
+import com.moturial.payment.repository.SearchPatterns;
+import com.moturial.payment.repository.StoreRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -56,28 +69,40 @@ import java.util.UUID;
 @Transactional(readOnly = true)
 public class AdminService {
 
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     private final PasswordEncoder passwordEncoder;
     
     /*
-     * Repository and Mapper dependencies - ready for database implementation
-     * Uncomment when transitioning from mock data to actual database operations
+     * Repository and Mapper dependencies - used by the cursor (keyset) listings
+     * and the rentals page; the other page-mode methods still serve mock data
      */
-    // private final UserRepository userRepository;
-    // private final MotorcycleRepository motorcycleRepository;
-    // private final RentalRepository rentalRepository;
-    // private final StoreRepository storeRepository;
-    // private final UserMapper userMapper;
-    // private final MotorcycleMapper motorcycleMapper;
-    // private final RentalMapper rentalMapper;
+    private final UserRepository userRepository;
+    private final MotorcycleRepository motorcycleRepository;
+    private final RentalRepository rentalRepository;
+    private final StoreRepository storeRepository;
+    private final UserMapper userMapper;
+    private final MotorcycleMapper motorcycleMapper;
+    private final RentalMapper rentalMapper;
+    private final StoreMapper storeMapper;
+    private final DashboardStatsEngine dashboardStatsEngine;
 
     /**
      * Get comprehensive dashboard statistics
+     *
+     * The totals come from the shared {@link DashboardStatsEngine}; no transaction
+     * is opened here, so waiting for its parallel queries holds no connection.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AdminDashboardStatsDto getDashboardStatistics() {
         log.info("Generating admin dashboard statistics");
         
         try {
-            // Mock data - replace with actual repository calls
+            DashboardStatsEngine.DashboardTotals totals = dashboardStatsEngine.get();
+
+            // Mock data - replace with actual health checks and activity log
             AdminDashboardStatsDto.SystemStatusDto systemStatus = AdminDashboardStatsDto.SystemStatusDto.builder()
                 .apiStatus("HEALTHY")
                 .databaseStatus("HEALTHY")
@@ -113,17 +138,17 @@ public class AdminService {
             );
 
             AdminDashboardStatsDto stats = AdminDashboardStatsDto.builder()
-                .totalRentals(150)
-                .activeRentals(12)
-                .totalRevenue(new BigDecimal("15750.50"))
-                .availableMotorcycles(25)
-                .totalUsers(89)
-                .activeStores(3)
-                .monthlyRevenue(new BigDecimal("3250.75"))
-                .monthlyRentals(28)
+                .totalRentals(Math.toIntExact(totals.totalRentals()))
+                .activeRentals(Math.toIntExact(totals.activeRentals()))
+                .totalRevenue(totals.totalRevenue())
+                .availableMotorcycles(Math.toIntExact(totals.availableMotorcycles()))
+                .totalUsers(Math.toIntExact(totals.totalUsers()))
+                .activeStores(Math.toIntExact(totals.activeStores()))
+                .monthlyRevenue(totals.monthlyRevenue())
+                .monthlyRentals(Math.toIntExact(totals.monthlyRentals()))
                 .systemStatus(systemStatus)
                 .recentActivities(recentActivities)
-                .generatedAt(LocalDateTime.now())
+                .generatedAt(totals.computedAt())
                 .build();
 
             log.info("Dashboard statistics generated successfully");
@@ -530,69 +555,27 @@ public class AdminService {
         log.info("Retrieving rentals - search: {}, status: {}, paymentStatus: {}", 
                 search, status, paymentStatus);
         
-        try {
-            // Mock data - replace with actual repository calls
-            List<RentalDto> mockRentals = List.of(
-                RentalDto.builder()
-                    .id(UUID.randomUUID())
-                    .userId(UUID.randomUUID())
-                    .userName("João Silva")
-                    .userEmail("joao@example.com")
-                    .motorcycleId(UUID.randomUUID())
-                    .motorcycleName("Honda CG 160")
-                    .startDate(LocalDateTime.now().minusDays(1))
-                    .endDate(LocalDateTime.now().plusDays(2))
-                    .status("active")
-                    .totalAmount(new BigDecimal("135.00"))
-                    .paymentStatus("paid")
-                    .paymentMethod("CREDIT_CARD")
-                    .location("São Paulo - Centro")
-                    .rentalDays(3)
-                    .dailyRate(new BigDecimal("45.00"))
-                    .additionalFees(new BigDecimal("0.00"))
-                    .discount(new BigDecimal("0.00"))
-                    .createdAt(LocalDateTime.now().minusDays(2))
-                    .updatedAt(LocalDateTime.now().minusHours(1))
-                    .customerRating(5)
-                    .build(),
-                RentalDto.builder()
-                    .id(UUID.randomUUID())
-                    .userId(UUID.randomUUID())
-                    .userName("Maria Santos")
-                    .userEmail("maria@example.com")
-                    .motorcycleId(UUID.randomUUID())
-                    .motorcycleName("Honda Bros 160")
-                    .startDate(LocalDateTime.now().minusDays(5))
-                    .endDate(LocalDateTime.now().minusDays(3))
-                    .status("completed")
-                    .totalAmount(new BigDecimal("110.00"))
-                    .paymentStatus("paid")
-                    .paymentMethod("PIX")
-                    .location("São Paulo - Vila Madalena")
-                    .rentalDays(2)
-                    .dailyRate(new BigDecimal("55.00"))
-                    .additionalFees(new BigDecimal("0.00"))
-                    .discount(new BigDecimal("0.00"))
-                    .createdAt(LocalDateTime.now().minusDays(6))
-                    .updatedAt(LocalDateTime.now().minusDays(3))
-                    .returnedAt(LocalDateTime.now().minusDays(3))
-                    .customerRating(4)
-                    .customerFeedback("Ótima experiência!")
-                    .build()
-            );
+        Set<Rental.Status> statuses = enumFilter(Rental.Status.class, status);
+        Set<Rental.PaymentStatus> paymentStatuses = enumFilter(Rental.PaymentStatus.class, paymentStatus);
+        if (statuses.isEmpty() || paymentStatuses.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Pageable page = pageable.getSort().isSorted()
+            ? pageable
+            : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), NEWEST_FIRST);
 
-            // Apply filters
-            List<RentalDto> filteredRentals = mockRentals.stream()
-                .filter(rental -> search == null || 
-                    rental.getUserName().toLowerCase().contains(search.toLowerCase()) ||
-                    rental.getUserEmail().toLowerCase().contains(search.toLowerCase()) ||
-                    rental.getMotorcycleName().toLowerCase().contains(search.toLowerCase()))
-                .filter(rental -> status == null || rental.getStatus().equals(status))
-                .filter(rental -> paymentStatus == null || rental.getPaymentStatus().equals(paymentStatus))
-                .toList();
+        try {
+            // Page the ids in the database, then fetch only those rentals with user and motorcycle
+            Page<UUID> ids = rentalRepository.findRentalIdsWithFilters(SearchPatterns.contains(search),
+                statuses, paymentStatuses, page);
+            Map<UUID, Rental> rentals = new HashMap<>();
+            if (ids.hasContent()) {
+                rentalRepository.findAllWithUserAndMotorcycleByIdIn(ids.getContent())
+                    .forEach(rental -> rentals.put(rental.getId(), rental));
+            }
 
-            log.info("Rentals retrieved successfully - total: {}", filteredRentals.size());
-            return new PageImpl<>(filteredRentals, pageable, filteredRentals.size());
+            log.info("Rentals retrieved successfully - total: {}", ids.getTotalElements());
+            return ids.map(id -> rentalMapper.toDto(rentals.get(id)));
             
         } catch (Exception e) {
             log.error("Error retrieving rentals", e);
@@ -681,4 +664,144 @@ public class AdminService {
             throw new BusinessException("Erro ao atualizar status do aluguel", e);
         }
     }
+
+    /**
+     * Get users newest first, continuing after the given cursor
+     */
+    public CursorPage<UserDto> getUsersByCursor(String search, String role, Boolean active, String cursor, int size) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Set<User.Role> roles = enumFilter(User.Role.class, role);
+        Set<User.Status> statuses = active == null
+            ? EnumSet.allOf(User.Status.class)
+            : active ? EnumSet.of(User.Status.ACTIVE) : EnumSet.complementOf(EnumSet.of(User.Status.ACTIVE));
+        log.info("Retrieving users by cursor - search: {}, role: {}, active: {}, size: {}", search, role, active, size);
+
+        if (roles.isEmpty()) {
+            return emptyCursorPage(size);
+        }
+        return scroll(position, size,
+            limit -> userRepository.findUsersWithFiltersBefore(SearchPatterns.contains(search), roles,
+                statuses, position.createdAt(), position.id(), limit),
+            User::getCreatedAt, User::getId, userMapper::toDto);
+    }
+
+    /**
+     * Get motorcycles newest first, continuing after the given cursor
+     */
+    public CursorPage<MotorcycleDto> getMotorcyclesByCursor(String search, String type, String status,
+                                                           String location, String cursor, int size) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Set<Motorcycle.Status> statuses = enumFilter(Motorcycle.Status.class, status);
+        log.info("Retrieving motorcycles by cursor - search: {}, type: {}, status: {}, location: {}, size: {}",
+                search, type, status, location, size);
+
+        if (statuses.isEmpty()) {
+            return emptyCursorPage(size);
+        }
+        return scroll(position, size,
+            limit -> motorcycleRepository.findMotorcyclesWithFiltersBefore(SearchPatterns.contains(search),
+                blankToNull(type), statuses, SearchPatterns.contains(location),
+                position.createdAt(), position.id(), limit),
+            Motorcycle::getCreatedAt, Motorcycle::getId, motorcycleMapper::toDto);
+    }
+
+    /**
+     * Get rentals newest first, continuing after the given cursor
+     */
+    public CursorPage<RentalDto> getRentalsByCursor(String search, String status, String paymentStatus,
+                                                   String cursor, int size) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Set<Rental.Status> statuses = enumFilter(Rental.Status.class, status);
+        Set<Rental.PaymentStatus> paymentStatuses = enumFilter(Rental.PaymentStatus.class, paymentStatus);
+        log.info("Retrieving rentals by cursor - search: {}, status: {}, paymentStatus: {}, size: {}",
+                search, status, paymentStatus, size);
+
+        if (statuses.isEmpty() || paymentStatuses.isEmpty()) {
+            return emptyCursorPage(size);
+        }
+        return scroll(position, size,
+            limit -> rentalRepository.findRentalsWithFiltersBefore(SearchPatterns.contains(search), statuses,
+                paymentStatuses, position.createdAt(), position.id(), limit),
+            Rental::getCreatedAt, Rental::getId, rentalMapper::toDto);
+    }
+
+    /**
+     * Get stores newest first, continuing after the given cursor
+     */
+    public CursorPage<StoreDto> getStoresByCursor(String search, String city, String status, String cursor, int size) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Set<Store.Status> statuses = enumFilter(Store.Status.class, status);
+        log.info("Retrieving stores by cursor - search: {}, city: {}, status: {}, size: {}", search, city, status, size);
+
+        if (statuses.isEmpty()) {
+            return emptyCursorPage(size);
+        }
+        return scroll(position, size,
+            limit -> storeRepository.findStoresWithFiltersBefore(SearchPatterns.contains(search),
+                blankToNull(city), statuses, position.createdAt(), position.id(), limit),
+            Store::getCreatedAt, Store::getId, storeMapper::toDto);
+    }
+
+    /**
+     * Fetches one row beyond the page to learn whether another page exists,
+     * without counting the filtered rows
+     */
+    private <E, D> CursorPage<D> scroll(KeysetCursor position, int size, Function<Pageable, List<E>> query,
+                                        Function<E, LocalDateTime> createdAt, Function<E, UUID> id,
+                                        Function<E, D> mapper) {
+        int pageSize = clampPageSize(size);
+        try {
+            List<E> rows = query.apply(PageRequest.ofSize(pageSize + 1));
+            boolean hasNext = rows.size() > pageSize;
+            List<E> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+            String nextCursor = null;
+            if (hasNext) {
+                E last = page.get(page.size() - 1);
+                nextCursor = new KeysetCursor(createdAt.apply(last), id.apply(last)).encode();
+            }
+
+            return CursorPage.<D>builder()
+                .content(page.stream().map(mapper).toList())
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+        } catch (Exception e) {
+            log.error("Error retrieving cursor page - createdAt: {}, id: {}", position.createdAt(), position.id(), e);
+            throw new BusinessException("Erro ao buscar listagem", e);
+        }
+    }
+
+    private static <D> CursorPage<D> emptyCursorPage(int size) {
+        return CursorPage.<D>builder()
+            .content(List.of())
+            .size(clampPageSize(size))
+            .hasNext(false)
+            .build();
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    /**
+     * All constants when the filter is blank, the matching one (case-insensitive)
+     * otherwise, and none for an unknown value
+     */
+    private static <E extends Enum<E>> Set<E> enumFilter(Class<E> type, String value) {
+        if (!StringUtils.hasText(value)) {
+            return EnumSet.allOf(type);
+        }
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value.trim())) {
+                return EnumSet.of(constant);
+            }
+        }
+        return EnumSet.noneOf(type);
+    }
+
+    private static String blankToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
 }
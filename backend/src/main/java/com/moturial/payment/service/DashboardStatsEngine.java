@@ -0,0 +1,154 @@
+package com.moturial.payment.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.moturial.payment.domain.entity.Motorcycle;
+import com.moturial.payment.domain.entity.Store;
+import com.moturial.payment.exception.BusinessException;
+import com.moturial.payment.repository.MotorcycleRepository;
+import com.moturial.payment.repository.RentalRepository;
+import com.moturial.payment.repository.StoreRepository;
+import com.moturial.payment.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Totais do dashboard administrativo, calculados uma vez e compartilhados
+ *
+ * Cada cálculo faz quatro consultas: uma varredura agregada de aluguéis
+ * (totais, ativos, receita e os números do mês) e as contagens de motos
+ * disponíveis, usuários e lojas ativas. O cache é assíncrono: a função de
+ * carga só dispara as consultas em paralelo, num executor próprio de
+ * {@value #QUERIES} threads, e devolve o futuro combinado, então nada espera
+ * dentro do compute do mapa e o cálculo nunca ocupa mais que
+ * {@value #QUERIES} conexões nem o ForkJoinPool comum.
+ *
+ * O resultado vale por {@code payment.dashboard.fresh-for}. Depois disso,
+ * até {@code payment.dashboard.max-stale}, a próxima leitura ainda recebe o
+ * valor anterior enquanto um único recálculo roda em segundo plano
+ * (stale-while-revalidate). Sem valor utilizável, os chamadores simultâneos
+ * esperam o mesmo cálculo em vez de disparar um cada.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Component
+public class DashboardStatsEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsEngine.class);
+
+    private static final String KEY = "dashboard";
+
+    private static final int QUERIES = 4;
+
+    /**
+     * Totais do dashboard no instante {@code computedAt}
+     */
+    public record DashboardTotals(long totalRentals, long activeRentals, BigDecimal totalRevenue,
+                                  long availableMotorcycles, long totalUsers, long activeStores,
+                                  BigDecimal monthlyRevenue, long monthlyRentals, LocalDateTime computedAt) {
+    }
+
+    private final RentalRepository rentalRepository;
+    private final MotorcycleRepository motorcycleRepository;
+    private final UserRepository userRepository;
+    private final StoreRepository storeRepository;
+    private final Executor executor;
+    private final AsyncLoadingCache<String, DashboardTotals> totals;
+
+    @Autowired
+    public DashboardStatsEngine(RentalRepository rentalRepository, MotorcycleRepository motorcycleRepository,
+                                UserRepository userRepository, StoreRepository storeRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${payment.dashboard.fresh-for:15s}") Duration freshFor,
+                                @Value("${payment.dashboard.max-stale:2m}") Duration maxStale) {
+        this(rentalRepository, motorcycleRepository, userRepository, storeRepository,
+            freshFor, maxStale, Ticker.systemTicker(),
+            Executors.newFixedThreadPool(QUERIES, Thread.ofPlatform().name("dashboard-stats-", 0).daemon().factory()));
+        CaffeineCacheMetrics.monitor(meterRegistry, totals, "adminDashboard");
+    }
+
+    /**
+     * Construtor para testes: relógio e executor das consultas (e do cache) controláveis
+     */
+    DashboardStatsEngine(RentalRepository rentalRepository, MotorcycleRepository motorcycleRepository,
+                         UserRepository userRepository, StoreRepository storeRepository,
+                         Duration freshFor, Duration maxStale, Ticker ticker, Executor executor) {
+        this.rentalRepository = rentalRepository;
+        this.motorcycleRepository = motorcycleRepository;
+        this.userRepository = userRepository;
+        this.storeRepository = storeRepository;
+        this.executor = executor;
+        this.totals = Caffeine.newBuilder()
+            .refreshAfterWrite(freshFor)
+            .expireAfterWrite(freshFor.plus(maxStale))
+            .ticker(ticker)
+            .executor(executor)
+            .recordStats()
+            .buildAsync((key, cacheExecutor) -> compute());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Totais atuais (ou ainda dentro da janela de tolerância)
+     */
+    public DashboardTotals get() {
+        try {
+            return totals.get(KEY).join();
+        } catch (CompletionException e) {
+            throw new BusinessException("Erro ao calcular estatísticas do dashboard", e.getCause());
+        }
+    }
+
+    private CompletableFuture<DashboardTotals> compute() {
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        long start = System.nanoTime();
+
+        CompletableFuture<RentalRepository.DashboardTotals> rentals =
+            CompletableFuture.supplyAsync(() -> rentalRepository.getDashboardTotals(monthStart), executor);
+        CompletableFuture<Long> motorcycles =
+            CompletableFuture.supplyAsync(() -> motorcycleRepository.countByStatus(Motorcycle.Status.AVAILABLE), executor);
+        CompletableFuture<Long> users = CompletableFuture.supplyAsync(userRepository::count, executor);
+        CompletableFuture<Long> stores =
+            CompletableFuture.supplyAsync(() -> storeRepository.countByStatus(Store.Status.ACTIVE), executor);
+
+        return CompletableFuture.allOf(rentals, motorcycles, users, stores).thenApply(ignored -> {
+            RentalRepository.DashboardTotals rentalTotals = rentals.join();
+            DashboardTotals result = new DashboardTotals(
+                rentalTotals.getTotalRentals(),
+                rentalTotals.getActiveRentals(),
+                rentalTotals.getTotalRevenue(),
+                motorcycles.join(),
+                users.join(),
+                stores.join(),
+                rentalTotals.getMonthlyRevenue(),
+                rentalTotals.getMonthlyRentals(),
+                LocalDateTime.now());
+            logger.debug("Totais do dashboard calculados em {} ms", (System.nanoTime() - start) / 1_000_000);
+            return result;
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package com.moturial.payment.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Lock de sessão do Postgres ({@code pg_try_advisory_lock}) para jobs agendados
+ *
+ * Garante que apenas um nó execute o job por vez. O lock pertence à sessão,
+ * então a conexão fica reservada enquanto o {@link Lease} estiver aberto e
+ * o lock é liberado explicitamente antes de ela voltar ao pool. Em bancos
+ * que não são Postgres (H2 em desenvolvimento) o lock é sempre concedido.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Component
+public class DatabaseAdvisoryLock {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseAdvisoryLock.class);
+
+    private final DataSource dataSource;
+
+    @Autowired
+    public DatabaseAdvisoryLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Tenta obter o lock sem esperar
+     *
+     * @return lease a ser fechado ao fim do job, ou vazio se outro nó detém o lock
+     */
+    public Optional<Lease> tryAcquire(long key) {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                connection.close();
+                return Optional.of(new Lease(null, key));
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                statement.setLong(1, key);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next() && resultSet.getBoolean(1)) {
+                        return Optional.of(new Lease(connection, key));
+                    }
+                }
+            }
+            connection.close();
+            return Optional.empty();
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new IllegalStateException("Erro ao obter advisory lock " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Erro ao fechar conexão do advisory lock: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lock obtido; fechar libera o lock e devolve a conexão ao pool
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private final Connection connection;
+        private final long key;
+
+        Lease(Connection connection, long key) {
+            this.connection = connection;
+            this.key = key;
+        }
+
+        @Override
+        public void close() {
+            if (connection == null) {
+                return;
+            }
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                statement.setLong(1, key);
+                statement.execute();
+            } catch (SQLException e) {
+                logger.error("Erro ao liberar advisory lock {}: {}", key, e.getMessage(), e);
+            } finally {
+                closeQuietly(connection);
+            }
+        }
+    }
+}
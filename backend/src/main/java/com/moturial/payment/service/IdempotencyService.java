@@ -0,0 +1,348 @@
+package com.moturial.payment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moturial.payment.domain.dto.PaymentResult;
+import com.moturial.payment.domain.entity.IdempotencyKey;
+import com.moturial.payment.exception.IdempotencyConflictException;
+import com.moturial.payment.exception.PaymentProcessingException;
+import com.moturial.payment.exception.PaymentValidationException;
+import com.moturial.payment.integration.StripeErrors;
+import com.moturial.payment.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Serviço de idempotência para criação de pagamentos
+ *
+ * Garante que requisições repetidas com o mesmo header Idempotency-Key
+ * executem o pagamento uma única vez. Resultados recentes ficam em um cache
+ * em memória limitado; a tabela {@code idempotency_keys} é a fonte de verdade
+ * entre nós e reinícios. Duplicatas que chegam enquanto a primeira requisição
+ * ainda está em andamento no mesmo nó aguardam o resultado dela.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, StoredOutcome> recentOutcomes;
+    private final ConcurrentHashMap<String, InFlightRequest> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${payment.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${payment.idempotency.wait-timeout:30000}")
+    private long waitTimeoutMillis;
+
+    @Value("${payment.idempotency.lock-timeout-seconds:300}")
+    private long lockTimeoutSeconds;
+
+    @Autowired
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${payment.idempotency.cache-size:10000}") long cacheSize,
+                              @Value("${payment.idempotency.cache-ttl-minutes:60}") long cacheTtlMinutes) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.recentOutcomes = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+            .build();
+    }
+
+    /**
+     * Executa a operação uma única vez por Idempotency-Key
+     *
+     * @param key valor do header Idempotency-Key
+     * @param scope endpoint de origem, faz parte da impressão digital da requisição
+     * @param request corpo da requisição, usado para detectar reuso da chave com outro payload
+     * @param operation processamento do pagamento
+     */
+    public PaymentResult execute(String key, String scope, Object request, Supplier<PaymentResult> operation) {
+        validateKey(key);
+        String requestHash = hashRequest(scope, request);
+
+        StoredOutcome cached = recentOutcomes.getIfPresent(key);
+        if (cached != null) {
+            logger.debug("Idempotency-Key {} respondida pelo cache", key);
+            return cached.replay(requestHash);
+        }
+
+        InFlightRequest own = new InFlightRequest(requestHash, new CompletableFuture<>());
+        InFlightRequest existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            return awaitInFlight(key, requestHash, existing);
+        }
+
+        try {
+            PaymentResult result = executeOnce(key, requestHash, operation);
+            own.result().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            own.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Remove chaves com retenção vencida
+     */
+    @Scheduled(fixedDelayString = "${payment.idempotency.purge-interval:3600000}")
+    public void purgeExpiredKeys() {
+        int removed = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            logger.info("Removidas {} Idempotency-Keys expiradas", removed);
+        }
+    }
+
+    private PaymentResult executeOnce(String key, String requestHash, Supplier<PaymentResult> operation) {
+        Optional<IdempotencyKey> stored = idempotencyKeyRepository.findById(key);
+        IdempotencyKey record;
+
+        if (stored.isPresent() && !isExpired(stored.get())) {
+            StoredOutcome outcome = toOutcome(stored.get());
+            if (outcome != null) {
+                recentOutcomes.put(key, outcome);
+                return outcome.replay(requestHash);
+            }
+            record = takeOverStaleLock(stored.get(), requestHash);
+        } else if (stored.isPresent()) {
+            // Expirada mas ainda não removida pela limpeza: reaproveita a linha
+            record = claim(stored.get(), requestHash);
+        } else {
+            record = acquire(key, requestHash);
+        }
+
+        PaymentResult result;
+        try {
+            result = operation.get();
+        } catch (PaymentValidationException | IdempotencyConflictException e) {
+            // Nada foi enviado ao Stripe: libera a chave para uma nova tentativa corrigida
+            idempotencyKeyRepository.deleteById(key);
+            throw e;
+        } catch (RuntimeException e) {
+            if (isWithoutStripeOutcome(e)) {
+                // Sem resposta definitiva do Stripe: a nova tentativa com a mesma chave deve executar de novo
+                idempotencyKeyRepository.deleteById(key);
+                throw e;
+            }
+            record.setStatus(IdempotencyKey.Status.FAILED);
+            record.setErrorMessage(truncate(String.valueOf(e.getMessage()), 1000));
+            record.setCompletedAt(LocalDateTime.now());
+            idempotencyKeyRepository.save(record);
+            recentOutcomes.put(key, new StoredOutcome(requestHash, null, record.getErrorMessage()));
+            throw e;
+        }
+
+        record.setStatus(IdempotencyKey.Status.COMPLETED);
+        record.setResponseBody(serialize(result));
+        record.setCompletedAt(LocalDateTime.now());
+        idempotencyKeyRepository.save(record);
+        recentOutcomes.put(key, new StoredOutcome(requestHash, result, null));
+        return result;
+    }
+
+    private IdempotencyKey acquire(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyKey record = IdempotencyKey.builder()
+            .key(key)
+            .requestHash(requestHash)
+            .status(IdempotencyKey.Status.IN_PROGRESS)
+            .createdAt(now)
+            .expiresAt(now.plusHours(retentionHours))
+            .build();
+
+        try {
+            return idempotencyKeyRepository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException e) {
+            // Outro nó gravou a mesma chave entre a leitura e a inserção
+            throw new IdempotencyConflictException(
+                "Requisição com esta Idempotency-Key já está em andamento", IdempotencyConflictException.KEY_IN_PROGRESS);
+        }
+    }
+
+    private IdempotencyKey takeOverStaleLock(IdempotencyKey record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw keyReused();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (record.getCreatedAt().isAfter(now.minusSeconds(lockTimeoutSeconds))) {
+            throw new IdempotencyConflictException(
+                "Requisição com esta Idempotency-Key já está em andamento", IdempotencyConflictException.KEY_IN_PROGRESS);
+        }
+
+        // O nó dono da chave caiu sem concluir: assume a execução
+        logger.warn("Assumindo Idempotency-Key {} abandonada desde {}", record.getKey(), record.getCreatedAt());
+        return claim(record, requestHash);
+    }
+
+    private IdempotencyKey claim(IdempotencyKey stored, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusHours(retentionHours);
+        int claimed = idempotencyKeyRepository.claim(stored.getKey(), stored.getCreatedAt(), requestHash,
+            IdempotencyKey.Status.IN_PROGRESS, now, expiresAt);
+        if (claimed == 0) {
+            // Outro nó assumiu a mesma chave entre a leitura e o UPDATE
+            throw new IdempotencyConflictException(
+                "Requisição com esta Idempotency-Key já está em andamento", IdempotencyConflictException.KEY_IN_PROGRESS);
+        }
+
+        return IdempotencyKey.builder()
+            .key(stored.getKey())
+            .requestHash(requestHash)
+            .status(IdempotencyKey.Status.IN_PROGRESS)
+            .createdAt(now)
+            .expiresAt(expiresAt)
+            .isNew(false)
+            .build();
+    }
+
+    private PaymentResult awaitInFlight(String key, String requestHash, InFlightRequest existing) {
+        if (!existing.requestHash().equals(requestHash)) {
+            throw keyReused();
+        }
+
+        logger.info("Aguardando requisição em andamento para Idempotency-Key {}", key);
+        try {
+            return existing.result().get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new PaymentProcessingException("Erro ao processar pagamento: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException(
+                "Requisição com esta Idempotency-Key ainda está em andamento", IdempotencyConflictException.KEY_IN_PROGRESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentProcessingException("Espera pela requisição original interrompida", e);
+        }
+    }
+
+    private StoredOutcome toOutcome(IdempotencyKey record) {
+        return switch (record.getStatus()) {
+            case COMPLETED -> new StoredOutcome(record.getRequestHash(), deserialize(record.getResponseBody()), null);
+            case FAILED -> new StoredOutcome(record.getRequestHash(), null, record.getErrorMessage());
+            case IN_PROGRESS -> null;
+        };
+    }
+
+    private boolean isExpired(IdempotencyKey record) {
+        return record.getExpiresAt().isBefore(LocalDateTime.now());
+    }
+
+    private void validateKey(String key) {
+        if (!StringUtils.hasText(key) || key.length() > MAX_KEY_LENGTH) {
+            throw new PaymentValidationException("Idempotency-Key deve ter entre 1 e 255 caracteres");
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x21 || c > 0x7e) {
+                throw new PaymentValidationException("Idempotency-Key contém caracteres inválidos");
+            }
+        }
+    }
+
+    private String hashRequest(String scope, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ':');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível calcular o hash da requisição", e);
+        }
+    }
+
+    private String serialize(PaymentResult result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar o resultado do pagamento", e);
+        }
+    }
+
+    private PaymentResult deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, PaymentResult.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resultado armazenado para Idempotency-Key está corrompido", e);
+        }
+    }
+
+    /**
+     * Falha sem resultado definitivo do Stripe: circuito aberto, bulkhead cheio, erro de rede ou rate limit
+     *
+     * Na rede, a repetição usa as mesmas chaves de idempotência do Stripe e recebe o resultado real
+     * caso a primeira chamada tenha chegado.
+     */
+    private static boolean isWithoutStripeOutcome(RuntimeException e) {
+        return e instanceof PaymentProcessingException processingException
+                && PaymentProcessingException.PROVIDER_UNAVAILABLE.equals(processingException.getErrorCode())
+            || StripeErrors.isTransient(e);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static IdempotencyConflictException keyReused() {
+        return new IdempotencyConflictException(
+            "Idempotency-Key já utilizada com uma requisição diferente", IdempotencyConflictException.KEY_REUSED);
+    }
+
+    /**
+     * Requisição em andamento neste nó, compartilhada com as duplicatas
+     */
+    private record InFlightRequest(String requestHash, CompletableFuture<PaymentResult> result) {}
+
+    /**
+     * Resultado final de uma chave: sucesso armazenado ou falha a ser repetida
+     */
+    private record StoredOutcome(String requestHash, PaymentResult result, String errorMessage) {
+
+        PaymentResult replay(String expectedHash) {
+            if (!requestHash.equals(expectedHash)) {
+                throw keyReused();
+            }
+            if (result == null) {
+                throw new PaymentProcessingException(errorMessage, "IDEMPOTENT_REPLAY");
+            }
+            return result;
+        }
+    }
+}
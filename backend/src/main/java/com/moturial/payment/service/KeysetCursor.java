@@ -0,0 +1,72 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.exception.SecurityException;
+import org.springframework.util.StringUtils;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição de uma listagem paginada por {@code (created_at, id)} decrescente
+ *
+ * Serializada como token opaco (Base64 URL-safe de 28 bytes: segundos e
+ * nanos de {@code createdAt} e os 128 bits do {@code id}). A próxima página
+ * contém as linhas estritamente anteriores a esta posição.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public record KeysetCursor(LocalDateTime createdAt, UUID id) {
+
+    /**
+     * Posição antes da primeira linha: maior que qualquer {@code (created_at, id)}
+     */
+    public static final KeysetCursor FIRST = new KeysetCursor(
+        LocalDateTime.of(9999, 12, 31, 23, 59, 59), new UUID(-1L, -1L));
+
+    private static final int ENCODED_BYTES = Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    /**
+     * Lê o token recebido do cliente; vazio ou nulo é a primeira página
+     *
+     * @throws SecurityException se o token não foi emitido por {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        if (!StringUtils.hasText(token)) {
+            return FIRST;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token.trim());
+        } catch (IllegalArgumentException e) {
+            throw new SecurityException("Cursor de paginação inválido");
+        }
+        if (bytes.length != ENCODED_BYTES) {
+            throw new SecurityException("Cursor de paginação inválido");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        try {
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+            return new KeysetCursor(createdAt, new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (DateTimeException e) {
+            throw new SecurityException("Cursor de paginação inválido");
+        }
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+            .putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+            .putInt(createdAt.getNano())
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+}
@@ -0,0 +1,279 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.dto.BatchPaymentItemResult;
+import com.moturial.payment.domain.dto.PaymentRequest;
+import com.moturial.payment.domain.dto.PaymentResult;
+import com.moturial.payment.domain.entity.Payment;
+import com.moturial.payment.domain.enums.PaymentMethodType;
+import com.moturial.payment.exception.PaymentProcessingException;
+import com.moturial.payment.integration.StripeService;
+import com.moturial.payment.repository.PaymentRepository;
+import com.moturial.payment.validation.PaymentValidator;
+import com.moturial.payment.validation.ValidationResult;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Processamento de pagamentos em lote ({@code POST /payments/batch})
+ *
+ * Os itens são consumidos em blocos de {@code payment.batch.chunk-size}, sem
+ * carregar o lote inteiro em memória. Para cada bloco: todos os itens são
+ * validados, os válidos são inseridos com um único batch JDBC, o Stripe é
+ * chamado em virtual threads com concorrência limitada e os resultados são
+ * gravados em um segundo batch, com o {@link PaymentStatusCache} invalidado
+ * após o commit. Os resultados de cada item são entregues ao {@code sink} na
+ * ordem dos itens, assim que o bloco termina.
+ *
+ * Ao atingir {@code payment.batch.max-items}, se ainda há itens, um único
+ * resultado inválido marca o limite e o restante do corpo não é lido.
+ *
+ * Itens cuja chamada ao Stripe falha ficam PENDING e são resolvidos pelo
+ * {@link PaymentRecoveryJob}, como no fluxo unitário.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Service
+public class PaymentBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentBatchService.class);
+
+    /**
+     * Não sobrescreve o que um webhook já gravou (ele pode chegar antes desta fase)
+     */
+    private static final String UPDATE_RESULT_SQL =
+        "UPDATE payments SET external_id = ?, status = ?, error_message = COALESCE(?, error_message), " +
+        "metadata = COALESCE(?, metadata), processed_at = ?, updated_at = ? " +
+        "WHERE id = ? AND webhook_event_at IS NULL";
+
+    private final PaymentRepository paymentRepository;
+    private final StripeService stripeService;
+    private final PaymentValidator paymentValidator;
+    private final Validator beanValidator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentStatusCache statusCache;
+    private final Semaphore stripePermits;
+
+    @Value("${payment.batch.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${payment.batch.max-items:10000}")
+    private int maxItems;
+
+    @Autowired
+    public PaymentBatchService(PaymentRepository paymentRepository,
+                               StripeService stripeService,
+                               PaymentValidator paymentValidator,
+                               Validator beanValidator,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               PaymentStatusCache statusCache,
+                               @Value("${payment.batch.max-concurrency:16}") int maxConcurrency) {
+        this.paymentRepository = paymentRepository;
+        this.stripeService = stripeService;
+        this.paymentValidator = paymentValidator;
+        this.beanValidator = beanValidator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.statusCache = statusCache;
+        this.stripePermits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Processa todos os itens, bloco a bloco
+     *
+     * @param items itens na ordem do corpo da requisição, lidos sob demanda
+     * @param sink recebe o resultado de cada item
+     * @return quantidade de itens lidos
+     */
+    public int process(Iterator<PaymentRequest> items, Consumer<BatchPaymentItemResult> sink) {
+        int index = 0;
+        List<Item> chunk = new ArrayList<>(chunkSize);
+        while (items.hasNext()) {
+            if (index == maxItems) {
+                if (!chunk.isEmpty()) {
+                    processChunk(chunk).forEach(sink);
+                    chunk.clear();
+                }
+                // Os itens além do limite nem são desserializados
+                sink.accept(BatchPaymentItemResult.invalid(index,
+                    "Lote excede o limite de " + maxItems + " itens; os itens seguintes não foram processados"));
+                logger.warn("Lote de pagamentos interrompido no limite de {} itens", maxItems);
+                break;
+            }
+            chunk.add(new Item(index++, items.next()));
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk).forEach(sink);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk).forEach(sink);
+        }
+        logger.info("Lote de pagamentos processado: {} itens", index);
+        return index;
+    }
+
+    List<BatchPaymentItemResult> processChunk(List<Item> chunk) {
+        BatchPaymentItemResult[] results = new BatchPaymentItemResult[chunk.size()];
+
+        // Validação de todos os itens do bloco
+        List<Integer> valid = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String error = validate(chunk.get(i).request());
+            if (error == null) {
+                valid.add(i);
+            } else {
+                results[i] = BatchPaymentItemResult.invalid(chunk.get(i).index(), error);
+            }
+        }
+        if (valid.isEmpty()) {
+            return List.of(results);
+        }
+
+        // Fase 1: registros PENDING em um único batch
+        List<Payment> records = new ArrayList<>(valid.size());
+        for (int i : valid) {
+            records.add(newPaymentRecord(chunk.get(i).request()));
+        }
+        transactionTemplate.executeWithoutResult(status -> paymentRepository.saveAll(records));
+
+        // Fase 2: Stripe com concorrência limitada, sem conexão de banco retida
+        List<Future<PaymentResult>> calls = new ArrayList<>(valid.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int n = 0; n < valid.size(); n++) {
+                PaymentRequest request = chunk.get(valid.get(n)).request();
+                String reference = records.get(n).getId().toString();
+                calls.add(executor.submit(() -> callStripe(request, reference)));
+            }
+        }
+
+        // Fase 3: resultados em um segundo batch
+        List<ResultUpdate> updates = new ArrayList<>(valid.size());
+        for (int n = 0; n < valid.size(); n++) {
+            int position = valid.get(n);
+            Payment record = records.get(n);
+            try {
+                PaymentResult result = calls.get(n).get();
+                updates.add(new ResultUpdate(record.getId(), result));
+                results[position] = BatchPaymentItemResult.processed(chunk.get(position).index(), record.getId(), result);
+            } catch (ExecutionException e) {
+                results[position] = BatchPaymentItemResult.failed(
+                    chunk.get(position).index(), record.getId(), failureMessage(e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PaymentProcessingException("Processamento do lote interrompido", e);
+            }
+        }
+        writeResults(updates);
+
+        return List.of(results);
+    }
+
+    /**
+     * @return mensagem de erro, ou {@code null} se o item é válido
+     */
+    private String validate(PaymentRequest request) {
+        if (request == null) {
+            return "Item vazio";
+        }
+        Set<ConstraintViolation<PaymentRequest>> violations = beanValidator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        }
+        ValidationResult result = paymentValidator.checkPaymentRequest(request);
+        if (result.isValid() && request.getPaymentMethod() == PaymentMethodType.CARD) {
+            result = paymentValidator.checkCardData(request.getCard(), request.getInstallments());
+        } else if (result.isValid() && request.getPaymentMethod() != PaymentMethodType.PIX) {
+            return "Método de pagamento não suportado em lote: " + request.getPaymentMethod();
+        }
+        return result.getMessage();
+    }
+
+    private Payment newPaymentRecord(PaymentRequest request) {
+        return new Payment(
+            UUID.randomUUID().toString(), // externalId temporário
+            request.getUserId(),
+            request.getAmount(),
+            request.getCurrency(),
+            request.getPaymentMethod(),
+            request.getInstallments(),
+            request.getDescription()
+        );
+    }
+
+    private PaymentResult callStripe(PaymentRequest request, String paymentReference) throws InterruptedException {
+        stripePermits.acquire();
+        try {
+            return request.getPaymentMethod() == PaymentMethodType.CARD
+                ? stripeService.processCardPayment(request, request.getCard(), paymentReference)
+                : stripeService.processPixPayment(request, paymentReference);
+        } finally {
+            stripePermits.release();
+        }
+    }
+
+    private String failureMessage(Throwable cause) {
+        if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException) {
+            return "Serviço de pagamento temporariamente indisponível";
+        }
+        logger.warn("Erro em item do lote de pagamentos: {}", cause.getMessage());
+        return cause.getMessage();
+    }
+
+    private void writeResults(List<ResultUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+            UPDATE_RESULT_SQL, updates, updates.size(), (statement, update) -> {
+                PaymentResult result = update.result();
+                statement.setString(1, result.getExternalId());
+                statement.setString(2, result.getStatus().name());
+                statement.setString(3, result.getErrorMessage());
+                PaymentMetadataJson.bind(statement, 4, PaymentMetadataJson.toJson(result.getMetadata()));
+                statement.setTimestamp(5, now);
+                statement.setTimestamp(6, now);
+                statement.setObject(7, update.paymentId());
+            }));
+        for (ResultUpdate update : updates) {
+            statusCache.invalidate(update.result().getExternalId());
+        }
+    }
+
+    record Item(int index, PaymentRequest request) {
+    }
+
+    private record ResultUpdate(UUID paymentId, PaymentResult result) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.moturial.payment.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moturial.payment.domain.entity.Payment;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import com.moturial.payment.repository.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de pagamentos em NDJSON ou CSV com memória constante
+ *
+ * Os pagamentos vêm de um {@link Stream} do repositório (cursor no banco com
+ * fetch size fixo) e cada um é escrito na saída e desanexado do contexto de
+ * persistência antes do próximo, então o heap não cresce com o período
+ * exportado. A transação (somente leitura) fica aberta durante toda a escrita.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Service
+public class PaymentExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentExportService.class);
+
+    private static final String[] COLUMNS = {"id", "external_id", "user_id", "amount", "currency",
+        "payment_method", "status", "installments", "description", "error_message",
+        "created_at", "processed_at"};
+
+    /**
+     * Formato da exportação
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    }
+
+    /**
+     * Data usada para o filtro de período
+     */
+    public enum DateField {
+        CREATED, PROCESSED
+    }
+
+    private final PaymentRepository paymentRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public PaymentExportService(PaymentRepository paymentRepository, ObjectMapper objectMapper) {
+        this.paymentRepository = paymentRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Escreve na saída os pagamentos do período [startDate, endDate) com os status
+     * informados (todos, se vazio), em ordem crescente da data escolhida
+     *
+     * @return quantidade de pagamentos exportados
+     */
+    @Transactional(readOnly = true)
+    public long export(LocalDateTime startDate, LocalDateTime endDate, DateField dateField,
+                       Collection<PaymentStatus> statuses, Format format, OutputStream output) throws IOException {
+        Collection<PaymentStatus> statusFilter = statuses == null || statuses.isEmpty()
+            ? EnumSet.allOf(PaymentStatus.class)
+            : statuses;
+        logger.info("Exportando pagamentos - período: [{}, {}), data: {}, status: {}, formato: {}",
+            startDate, endDate, dateField, statusFilter, format);
+
+        try (Stream<Payment> payments = dateField == DateField.PROCESSED
+                ? paymentRepository.streamByProcessedAtForExport(startDate, endDate, statusFilter)
+                : paymentRepository.streamByCreatedAtForExport(startDate, endDate, statusFilter)) {
+            long count = format == Format.CSV
+                ? writeCsv(payments.iterator(), output)
+                : writeNdjson(payments.iterator(), output);
+            logger.info("Exportação concluída - {} pagamentos", count);
+            return count;
+        }
+    }
+
+    private long writeNdjson(Iterator<Payment> payments, OutputStream output) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            // O fechamento do gerador não deve fechar o stream da resposta
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (payments.hasNext()) {
+                Payment payment = payments.next();
+                generator.writeStartObject();
+                generator.writeStringField("id", payment.getId().toString());
+                generator.writeStringField("external_id", payment.getExternalId());
+                generator.writeStringField("user_id", payment.getUserId());
+                generator.writeNumberField("amount", payment.getAmount());
+                generator.writeStringField("currency", payment.getCurrency());
+                generator.writeStringField("payment_method", payment.getPaymentMethod().name());
+                generator.writeStringField("status", payment.getStatus().name());
+                generator.writeNumberField("installments", payment.getInstallments());
+                generator.writeStringField("description", payment.getDescription());
+                generator.writeStringField("error_message", payment.getErrorMessage());
+                generator.writeStringField("created_at", toString(payment.getCreatedAt()));
+                generator.writeStringField("processed_at", toString(payment.getProcessedAt()));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                entityManager.detach(payment);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<Payment> payments, OutputStream output) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+        while (payments.hasNext()) {
+            Payment payment = payments.next();
+            writer.write(payment.getId().toString());
+            writeCsvField(writer, payment.getExternalId());
+            writeCsvField(writer, payment.getUserId());
+            writeCsvField(writer, payment.getAmount().toPlainString());
+            writeCsvField(writer, payment.getCurrency());
+            writeCsvField(writer, payment.getPaymentMethod().name());
+            writeCsvField(writer, payment.getStatus().name());
+            writeCsvField(writer, String.valueOf(payment.getInstallments()));
+            writeCsvField(writer, payment.getDescription());
+            writeCsvField(writer, payment.getErrorMessage());
+            writeCsvField(writer, toString(payment.getCreatedAt()));
+            writeCsvField(writer, toString(payment.getProcessedAt()));
+            writer.write("\r\n");
+            entityManager.detach(payment);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Campo CSV (RFC 4180) precedido de vírgula; aspas só quando necessário.
+     * Textos que começam como fórmula de planilha recebem um apóstrofo na frente
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if ("=+-@\t".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String toString(LocalDateTime value) {
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,148 @@
+package com.moturial.payment.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Conversão única da metadata antiga dos pagamentos (TEXT em {@code Map.toString}) para jsonb (V14)
+ *
+ * Percorre {@code payments} pela chave primária em lotes de {@code batch-size}
+ * linhas, cada lote em uma transação curta: só as linhas do lote ficam
+ * bloqueadas, e por pouco tempo. A linha convertida tem {@code metadata_legacy}
+ * zerada; se a aplicação já gravou a metadata nova, ela é mantida. Cada
+ * execução converte até {@code max-rows-per-run} linhas para não ocupar o
+ * scheduler; quando uma passada completa não encontra mais nada, o job para.
+ * Depois disso {@code metadata_legacy} pode ser removida em uma migração.
+ *
+ * Não altera {@code updated_at} (o gatilho que o atualizava foi removido na
+ * V15): a conversão não é uma mudança do pagamento.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "payment.metadata-backfill.enabled", havingValue = "true")
+public class PaymentMetadataBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentMetadataBackfillJob.class);
+
+    /**
+     * Chave do advisory lock do job (arbitrária, única por job)
+     */
+    static final long LOCK_KEY = 0x4D6F7475_4D657401L;
+
+    private static final UUID CURSOR_START = new UUID(0L, 0L);
+
+    private static final String SELECT_BATCH_SQL =
+        "SELECT id, created_at, metadata_legacy FROM payments " +
+        "WHERE id > ? AND metadata_legacy IS NOT NULL ORDER BY id LIMIT ?";
+
+    /**
+     * created_at limita o UPDATE à partição da linha
+     */
+    private static final String CONVERT_SQL =
+        "UPDATE payments SET metadata = COALESCE(metadata, ?), metadata_legacy = NULL " +
+        "WHERE id = ? AND created_at = ? AND metadata_legacy IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseAdvisoryLock advisoryLock;
+    private final TransactionTemplate transactionTemplate;
+
+    private UUID afterId = CURSOR_START;
+    private volatile boolean finished;
+
+    @Value("${payment.metadata-backfill.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${payment.metadata-backfill.max-rows-per-run:50000}")
+    private int maxRowsPerRun;
+
+    @Autowired
+    public PaymentMetadataBackfillJob(JdbcTemplate jdbcTemplate,
+                                      DatabaseAdvisoryLock advisoryLock,
+                                      PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.advisoryLock = advisoryLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.metadata-backfill.interval:10000}",
+               initialDelayString = "${payment.metadata-backfill.initial-delay:60000}")
+    public void backfill() {
+        if (finished) {
+            return;
+        }
+        Optional<DatabaseAdvisoryLock.Lease> lease = advisoryLock.tryAcquire(LOCK_KEY);
+        if (lease.isEmpty()) {
+            logger.debug("Conversão da metadata de pagamentos em execução em outro nó");
+            return;
+        }
+
+        try (DatabaseAdvisoryLock.Lease ignored = lease.get()) {
+            runOnce();
+        } catch (Exception e) {
+            logger.error("Erro na conversão da metadata de pagamentos: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Converte lotes até atingir o limite por execução ou o fim da tabela
+     *
+     * @return linhas convertidas
+     */
+    int runOnce() {
+        int converted = 0;
+        while (converted < maxRowsPerRun) {
+            List<LegacyRow> rows = jdbcTemplate.query(SELECT_BATCH_SQL, (rs, rowNum) -> new LegacyRow(
+                rs.getObject("id", UUID.class), rs.getTimestamp("created_at"), rs.getString("metadata_legacy")),
+                afterId, batchSize);
+
+            if (rows.isEmpty()) {
+                if (CURSOR_START.equals(afterId)) {
+                    finished = true;
+                    logger.info("Conversão da metadata de pagamentos para jsonb concluída");
+                } else {
+                    // Nova passada: linhas gravadas por nós ainda com a versão anterior durante o deploy
+                    afterId = CURSOR_START;
+                }
+                break;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                CONVERT_SQL, rows, rows.size(), (statement, row) -> {
+                    PaymentMetadataJson.bind(statement, 1,
+                        PaymentMetadataJson.toJson(PaymentMetadataJson.parseLegacy(row.metadata())));
+                    statement.setObject(2, row.id());
+                    statement.setTimestamp(3, row.createdAt());
+                }));
+
+            afterId = rows.get(rows.size() - 1).id();
+            converted += rows.size();
+        }
+
+        if (converted > 0) {
+            logger.info("Metadata de {} pagamentos convertida para jsonb", converted);
+        }
+        return converted;
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    private record LegacyRow(UUID id, Timestamp createdAt, String metadata) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.moturial.payment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Conversões da coluna {@code payments.metadata} (jsonb, V14) para os acessos via JDBC
+ *
+ * O Hibernate já grava o campo da entidade como JSON; aqui ficam a gravação
+ * em batch JDBC, que precisa do parâmetro com o tipo certo em cada banco, e a
+ * leitura do formato antigo da coluna TEXT ({@code Map.toString}) usada pela
+ * conversão dos registros existentes.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+final class PaymentMetadataJson {
+
+    /**
+     * Chave que guarda o texto original quando ele não está no formato de {@code Map.toString}
+     */
+    static final String LEGACY_KEY = "legacy";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    /**
+     * Separador entre entradas de {@code Map.toString}: ", " seguido de uma chave e "=".
+     * Vírgulas dentro de valores (descrições, endereços) não são seguidas de "chave=".
+     */
+    private static final Pattern LEGACY_ENTRY_SEPARATOR = Pattern.compile(", (?=[\\w.-]+=)");
+
+    private PaymentMetadataJson() {
+    }
+
+    static String toJson(Map<String, String> metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar metadata do pagamento", e);
+        }
+    }
+
+    /**
+     * Define um parâmetro jsonb (ou NULL) do statement
+     *
+     * O PostgreSQL converte um parâmetro sem tipo declarado para o tipo da
+     * coluna; o H2 lê bytes como texto JSON (uma string viraria um escalar JSON).
+     */
+    static void bind(PreparedStatement statement, int index, String json) throws SQLException {
+        boolean postgres = "PostgreSQL".equals(statement.getConnection().getMetaData().getDatabaseProductName());
+        if (postgres) {
+            statement.setObject(index, json, Types.OTHER);
+        } else if (json == null) {
+            statement.setNull(index, Types.VARBINARY);
+        } else {
+            statement.setBytes(index, json.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Lê a metadata gravada na coluna TEXT antes da V14
+     *
+     * Aceita o formato de {@code Map.toString} ({@code {chave=valor, ...}}) e
+     * JSON. Texto em outro formato é preservado em {@link #LEGACY_KEY}.
+     */
+    static Map<String, String> parseLegacy(String text) {
+        String trimmed = text.trim();
+        Map<String, String> metadata = new LinkedHashMap<>();
+
+        if (trimmed.startsWith("{\"")) {
+            try {
+                MAPPER.readValue(trimmed, JSON_OBJECT).forEach((key, value) ->
+                    metadata.put(key, value != null ? value.toString() : null));
+                return metadata;
+            } catch (JsonProcessingException e) {
+                return Map.of(LEGACY_KEY, text);
+            }
+        }
+
+        if (!trimmed.startsWith("{") || !trimmed.endsWith("}")) {
+            return Map.of(LEGACY_KEY, text);
+        }
+        String entries = trimmed.substring(1, trimmed.length() - 1);
+        if (entries.isEmpty()) {
+            return metadata;
+        }
+        for (String entry : LEGACY_ENTRY_SEPARATOR.split(entries)) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                return Map.of(LEGACY_KEY, text);
+            }
+            metadata.put(entry.substring(0, separator), entry.substring(separator + 1));
+        }
+        return metadata;
+    }
+}
@@ -0,0 +1,165 @@
+package com.moturial.payment.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Job de manutenção das partições mensais de {@code payments} (PostgreSQL, V12)
+ *
+ * A cada execução garante as partições do mês corrente e dos
+ * {@code premake-months} seguintes, para que nenhum INSERT fique sem partição,
+ * e desanexa para o schema {@code payments_archive} as partições inteiramente
+ * anteriores a {@code retention-months}. O trabalho fica nas funções
+ * {@code create_payments_partitions} e {@code archive_payments_partitions}, que
+ * são idempotentes e se serializam por advisory lock, então vários nós podem
+ * executar o job.
+ *
+ * Não há partição DEFAULT: um INSERT sem partição do mês falha em vez de
+ * acumular linhas que depois impediriam criar a partição. Para isso não
+ * chegar à produção, o job confere após cada execução quantos meses à frente
+ * já têm partição, publica o valor no gauge {@code payment.partitions.months.ahead}
+ * (-1 quando falta a do mês corrente) e registra erro quando fica abaixo de
+ * {@code premake-months}.
+ *
+ * Ligado por padrão, porque a V12 roda em toda implantação PostgreSQL. Em
+ * outros bancos (H2 nos testes) não há partições e o job não faz nada nem
+ * publica o gauge, como o {@link DatabaseAdvisoryLock}.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "payment.partitions.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentPartitionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentPartitionJob.class);
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private volatile int monthsAhead = -1;
+    private volatile Boolean postgres;
+
+    @Value("${payment.partitions.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${payment.partitions.retention-months:24}")
+    private int retentionMonths;
+
+    @Autowired
+    public PaymentPartitionJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.partitions.interval:21600000}",
+               initialDelayString = "${payment.partitions.initial-delay:30000}")
+    public void maintainPartitions() {
+        maintainPartitions(LocalDate.now());
+    }
+
+    /**
+     * Cria as partições que faltam e arquiva as vencidas, tomando {@code today} como data atual
+     */
+    void maintainPartitions(LocalDate today) {
+        if (!runsOnPostgres()) {
+            return;
+        }
+        LocalDate currentMonth = today.withDayOfMonth(1);
+
+        try {
+            List<String> created = transactionTemplate.execute(status -> jdbcTemplate.queryForList(
+                "SELECT create_payments_partitions(?, ?)", String.class, currentMonth, premakeMonths + 1));
+            if (!created.isEmpty()) {
+                logger.info("Partições de pagamentos criadas: {}", created);
+            }
+        } catch (DataAccessException e) {
+            // Sem a partição do mês, os INSERTs de pagamento falham: precisa de atenção antes disso
+            logger.error("Erro ao criar partições de pagamentos a partir de {}: {}", currentMonth, e.getMessage(), e);
+        }
+        checkUpcomingPartitions(currentMonth);
+
+        LocalDate archiveBefore = currentMonth.minusMonths(retentionMonths);
+        try {
+            List<String> archived = transactionTemplate.execute(status -> jdbcTemplate.queryForList(
+                "SELECT archive_payments_partitions(?)", String.class, archiveBefore));
+            if (!archived.isEmpty()) {
+                logger.info("Partições de pagamentos anteriores a {} movidas para payments_archive: {}",
+                    archiveBefore, archived);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Erro ao arquivar partições de pagamentos anteriores a {}: {}", archiveBefore, e.getMessage());
+        }
+    }
+
+    /**
+     * Confere uma vez o banco e, sendo PostgreSQL, registra o gauge
+     */
+    private boolean runsOnPostgres() {
+        if (postgres == null) {
+            boolean detected = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+            if (detected) {
+                Gauge.builder("payment.partitions.months.ahead", this, job -> job.monthsAhead)
+                    .description("Meses seguintes ao corrente com partição de pagamentos já criada (-1 sem a do mês corrente)")
+                    .register(meterRegistry);
+            } else {
+                logger.info("Banco não é PostgreSQL: manutenção de partições de pagamentos desativada");
+            }
+            postgres = detected;
+        }
+        return postgres;
+    }
+
+    /**
+     * Atualiza o gauge com os meses à frente que já têm partição e alerta quando faltam
+     */
+    private void checkUpcomingPartitions(LocalDate currentMonth) {
+        try {
+            Set<String> partitions = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT c.relname::text FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'public.payments'::regclass", String.class));
+            int covered = -1;
+            while (covered < premakeMonths
+                    && partitions.contains("payments_" + currentMonth.plusMonths(covered + 1).format(PARTITION_SUFFIX))) {
+                covered++;
+            }
+            monthsAhead = covered;
+        } catch (DataAccessException e) {
+            monthsAhead = -1;
+            logger.error("Erro ao conferir as partições de pagamentos: {}", e.getMessage(), e);
+            return;
+        }
+
+        if (monthsAhead < 0) {
+            logger.error("Sem partição de pagamentos para {}: os INSERTs de pagamento falham até ela ser criada",
+                currentMonth);
+        } else if (monthsAhead < premakeMonths) {
+            logger.error("Partições de pagamentos só até {}; esperado até {}",
+                currentMonth.plusMonths(monthsAhead), currentMonth.plusMonths(premakeMonths));
+        }
+    }
+}
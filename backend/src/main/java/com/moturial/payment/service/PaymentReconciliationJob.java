@@ -0,0 +1,301 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.dto.PaymentResult;
+import com.moturial.payment.domain.entity.Payment;
+import com.moturial.payment.integration.StripeService;
+import com.moturial.payment.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Job de reconciliação de pagamentos pendentes
+ *
+ * Pagamentos em PENDING/PROCESSING há mais de {@code stale-after-minutes}
+ * só seriam resolvidos se algum cliente consultasse o status. Este job
+ * percorre esses pagamentos em páginas por cursor, consulta o Stripe em
+ * virtual threads com concorrência limitada por um semáforo e grava as
+ * mudanças de status com um batch JDBC por página.
+ *
+ * Um advisory lock do Postgres garante uma única execução no cluster.
+ * Pagamentos alterados pelo batch saem do {@link PaymentStatusCache} depois
+ * do commit, como nas demais gravações de status.
+ * Registros que nunca receberam resultado do Stripe continuam com o
+ * {@link PaymentRecoveryJob}.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "payment.reconciliation.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconciliationJob.class);
+
+    /**
+     * Chave do advisory lock do job (arbitrária, única por job)
+     */
+    static final long LOCK_KEY = 0x4D6F7475_52656301L;
+
+    private static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID CURSOR_START_ID = new UUID(0L, 0L);
+
+    /**
+     * Só atualiza se o status não mudou desde a leitura (webhook, consulta do cliente);
+     * created_at limita o UPDATE à partição da linha
+     */
+    private static final String UPDATE_STATUS_SQL =
+        "UPDATE payments SET status = ?, error_message = COALESCE(?, error_message), updated_at = ? " +
+        "WHERE id = ? AND created_at = ? AND status = ?";
+
+    private final PaymentRepository paymentRepository;
+    private final StripeService stripeService;
+    private final DatabaseAdvisoryLock advisoryLock;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentStatusCache statusCache;
+    private final Semaphore stripePermits;
+
+    private final Timer runTimer;
+    private final Counter updated;
+    private final Counter unchanged;
+    private final Counter failed;
+
+    private volatile double lastRunThroughput;
+    private volatile double lastRunLagSeconds;
+
+    @Value("${payment.reconciliation.stale-after-minutes:10}")
+    private long staleAfterMinutes;
+
+    @Value("${payment.reconciliation.page-size:200}")
+    private int pageSize;
+
+    @Value("${payment.reconciliation.max-payments-per-run:5000}")
+    private int maxPaymentsPerRun;
+
+    @Autowired
+    public PaymentReconciliationJob(PaymentRepository paymentRepository,
+                                    StripeService stripeService,
+                                    DatabaseAdvisoryLock advisoryLock,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    PaymentStatusCache statusCache,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${payment.reconciliation.max-concurrency:8}") int maxConcurrency) {
+        this.paymentRepository = paymentRepository;
+        this.stripeService = stripeService;
+        this.advisoryLock = advisoryLock;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.statusCache = statusCache;
+        this.stripePermits = new Semaphore(maxConcurrency);
+
+        this.runTimer = Timer.builder("payment.reconciliation.duration")
+            .description("Duração de cada execução da reconciliação")
+            .register(meterRegistry);
+        this.updated = counter(meterRegistry, "updated");
+        this.unchanged = counter(meterRegistry, "unchanged");
+        this.failed = counter(meterRegistry, "failed");
+        Gauge.builder("payment.reconciliation.throughput", this, job -> job.lastRunThroughput)
+            .description("Pagamentos reconciliados por segundo na última execução")
+            .register(meterRegistry);
+        Gauge.builder("payment.reconciliation.lag", this, job -> job.lastRunLagSeconds)
+            .description("Idade em segundos do pagamento pendente mais antigo na última execução")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.reconciliation.interval:300000}",
+               initialDelayString = "${payment.reconciliation.interval:300000}")
+    public void reconcileStalePayments() {
+        Optional<DatabaseAdvisoryLock.Lease> lease = advisoryLock.tryAcquire(LOCK_KEY);
+        if (lease.isEmpty()) {
+            logger.debug("Reconciliação em execução em outro nó");
+            return;
+        }
+
+        try (DatabaseAdvisoryLock.Lease ignored = lease.get()) {
+            runTimer.record(this::runOnce);
+        } catch (Exception e) {
+            logger.error("Erro na reconciliação de pagamentos: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Uma execução completa: páginas até esgotar os pendentes ou atingir o limite por execução
+     */
+    Report runOnce() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusMinutes(staleAfterMinutes);
+
+        LocalDateTime afterCreatedAt = CURSOR_START;
+        UUID afterId = CURSOR_START_ID;
+        int checked = 0;
+        int changed = 0;
+        int errors = 0;
+        double lagSeconds = 0;
+
+        while (checked < maxPaymentsPerRun) {
+            List<Payment> page = paymentRepository.findPendingPaymentsOlderThan(
+                cutoff, afterCreatedAt, afterId, PageRequest.of(0, Math.min(pageSize, maxPaymentsPerRun - checked)));
+            if (page.isEmpty()) {
+                break;
+            }
+            if (checked == 0) {
+                lagSeconds = Duration.between(page.get(0).getCreatedAt(), now).toSeconds();
+            }
+
+            List<StatusUpdate> updates = new ArrayList<>();
+            for (Lookup lookup : lookupStatuses(page)) {
+                if (lookup.result() == null) {
+                    errors++;
+                } else if (lookup.result().getStatus() != lookup.payment().getStatus()) {
+                    updates.add(new StatusUpdate(lookup.payment(), lookup.result()));
+                }
+            }
+            changed += writeUpdates(updates);
+
+            checked += page.size();
+            Payment last = page.get(page.size() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+
+        double elapsedSeconds = Math.max((System.nanoTime() - start) / 1_000_000_000.0, 0.001);
+        lastRunThroughput = checked / elapsedSeconds;
+        lastRunLagSeconds = lagSeconds;
+        updated.increment(changed);
+        unchanged.increment(checked - changed - errors);
+        failed.increment(errors);
+
+        Report report = new Report(checked, changed, errors, lastRunThroughput, lagSeconds);
+        if (checked > 0) {
+            logger.info("Reconciliação concluída: {} verificados, {} atualizados, {} falhas, {} pagamentos/s, lag {}s",
+                checked, changed, errors, String.format("%.1f", lastRunThroughput), (long) lagSeconds);
+        }
+        return report;
+    }
+
+    /**
+     * Consulta o Stripe para a página inteira, no máximo {@code max-concurrency} chamadas por vez
+     */
+    private List<Lookup> lookupStatuses(List<Payment> page) {
+        List<Future<PaymentResult>> futures = new ArrayList<>(page.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Payment payment : page) {
+                futures.add(executor.submit(() -> {
+                    stripePermits.acquire();
+                    try {
+                        return stripeService.getPaymentStatus(payment.getExternalId());
+                    } finally {
+                        stripePermits.release();
+                    }
+                }));
+            }
+        }
+
+        List<Lookup> lookups = new ArrayList<>(page.size());
+        for (int i = 0; i < page.size(); i++) {
+            Payment payment = page.get(i);
+            PaymentResult result = null;
+            try {
+                result = futures.get(i).get();
+            } catch (ExecutionException e) {
+                logger.warn("Erro ao reconciliar pagamento {}: {}", payment.getId(), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Reconciliação interrompida", e);
+            }
+            lookups.add(new Lookup(payment, result));
+        }
+        return lookups;
+    }
+
+    /**
+     * Grava as mudanças da página com um único batch JDBC em uma transação e
+     * invalida o cache de status dos pagamentos alterados
+     *
+     * @return quantidade de pagamentos efetivamente atualizados
+     */
+    private int writeUpdates(List<StatusUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(
+            UPDATE_STATUS_SQL, updates, updates.size(), (statement, update) -> {
+                statement.setString(1, update.result().getStatus().name());
+                statement.setString(2, update.result().getErrorMessage());
+                statement.setTimestamp(3, now);
+                statement.setObject(4, update.payment().getId());
+                statement.setTimestamp(5, Timestamp.valueOf(update.payment().getCreatedAt()));
+                statement.setString(6, update.payment().getStatus().name());
+            }));
+
+        int rows = 0;
+        if (counts != null) {
+            int index = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    // SUCCESS_NO_INFO (-2): o driver não informa linhas por comando
+                    int changed = count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                    if (changed > 0) {
+                        statusCache.invalidate(updates.get(index).payment().getExternalId());
+                    }
+                    rows += changed;
+                    index++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("payment.reconciliation.payments")
+            .description("Pagamentos pendentes verificados pela reconciliação por resultado")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private record Lookup(Payment payment, PaymentResult result) {
+    }
+
+    private record StatusUpdate(Payment payment, PaymentResult result) {
+    }
+
+    /**
+     * Resumo de uma execução
+     */
+    record Report(int checked, int updated, int failed, double throughput, double lagSeconds) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.entity.Payment;
+import com.moturial.payment.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Job de recuperação de pagamentos do pipeline
+ *
+ * Como o registro de pagamento e o resultado do Stripe são gravados em
+ * transações separadas, um nó que caia entre as fases deixa o registro em
+ * PENDING sem {@code processedAt}. Este job localiza esses registros e
+ * delega a {@link PaymentService#recoverPayment(Payment, LocalDateTime)}.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "payment.recovery.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentRecoveryJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentRecoveryJob.class);
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentService paymentService;
+
+    @Value("${payment.recovery.stale-after-minutes:2}")
+    private long staleAfterMinutes;
+
+    @Value("${payment.recovery.abandon-after-minutes:30}")
+    private long abandonAfterMinutes;
+
+    @Value("${payment.recovery.batch-size:100}")
+    private int batchSize;
+
+    @Autowired
+    public PaymentRecoveryJob(PaymentRepository paymentRepository, PaymentService paymentService) {
+        this.paymentRepository = paymentRepository;
+        this.paymentService = paymentService;
+    }
+
+    /**
+     * Processa um lote de registros órfãos por execução
+     */
+    @Scheduled(fixedDelayString = "${payment.recovery.interval:60000}",
+               initialDelayString = "${payment.recovery.interval:60000}")
+    public void recoverOrphanedPayments() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Payment> orphaned = paymentRepository.findOrphanedPaymentsOlderThan(
+            now.minusMinutes(staleAfterMinutes), PageRequest.of(0, batchSize));
+
+        if (orphaned.isEmpty()) {
+            return;
+        }
+
+        logger.info("Recuperando {} pagamentos pendentes sem resultado", orphaned.size());
+        LocalDateTime abandonBefore = now.minusMinutes(abandonAfterMinutes);
+        int recovered = 0;
+
+        for (Payment payment : orphaned) {
+            try {
+                if (paymentService.recoverPayment(payment, abandonBefore).isPresent()) {
+                    recovered++;
+                }
+            } catch (Exception e) {
+                logger.error("Erro ao recuperar pagamento {}: {}", payment.getId(), e.getMessage(), e);
+            }
+        }
+
+        logger.info("Recuperação concluída: {}/{} pagamentos resolvidos", recovered, orphaned.size());
+    }
+}
@@ -3,11 +3,14 @@ package com.moturial.payment.service;
 import com.moturial.payment.domain.dto.PaymentRequest;
 import com.moturial.payment.domain.dto.PaymentResult;
 import com.moturial.payment.domain.entity.Payment;
+import com.moturial.payment.domain.enums.PaymentStatus;
 import com.moturial.payment.exception.PaymentProcessingException;
 import com.moturial.payment.exception.PaymentValidationException;
 import com.moturial.payment.integration.StripeService;
 import com.moturial.payment.repository.PaymentRepository;
 import com.moturial.payment.validation.PaymentValidator;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +20,7 @@ import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,11 +30,17 @@ import java.util.UUID;
  * Implementa a lógica de negócio para processamento seguro de pagamentos,
  * seguindo princípios SOLID e padrões de segurança OWASP.
  * 
+ * O processamento é feito em pipeline: o registro é criado em uma transação
+ * curta, a chamada ao Stripe roda sem conexão de banco retida e o resultado é
+ * gravado em uma segunda transação curta. Por isso a classe não é
+ * {@code @Transactional}: cada gravação do repositório faz commit sozinha.
+ * Registros que ficarem PENDING entre as fases são resolvidos por
+ * {@link #recoverPayment(Payment, LocalDateTime)}.
+ * 
  * @author Moturial Team
  * @version 1.0.0
  */
 @Service
-@Transactional
 public class PaymentService {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
@@ -38,14 +48,17 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final StripeService stripeService;
     private final PaymentValidator paymentValidator;
+    private final PaymentStatusCache statusCache;
 
     @Autowired
     public PaymentService(PaymentRepository paymentRepository, 
                          StripeService stripeService,
-                         PaymentValidator paymentValidator) {
+                         PaymentValidator paymentValidator,
+                         PaymentStatusCache statusCache) {
         this.paymentRepository = paymentRepository;
         this.stripeService = stripeService;
         this.paymentValidator = paymentValidator;
+        this.statusCache = statusCache;
     }
 
     /**
@@ -57,13 +70,14 @@ public class PaymentService {
         try {
             // Validação rigorosa dos dados
             paymentValidator.validatePaymentRequest(request);
-            paymentValidator.validateCardData(request.getCard());
+            paymentValidator.validateCardData(request.getCard(), request.getInstallments());
 
             // Criar registro de pagamento
             Payment payment = createPaymentRecord(request);
 
-            // Processar pagamento no Stripe
-            PaymentResult result = stripeService.processCardPayment(request, request.getCard());
+            // Processar pagamento no Stripe (sem conexão de banco retida)
+            PaymentResult result = stripeService.processCardPayment(
+                request, request.getCard(), payment.getId().toString());
 
             // Atualizar registro com resultado
             updatePaymentRecord(payment, result);
@@ -74,8 +88,11 @@ public class PaymentService {
             return result;
 
         } catch (PaymentValidationException e) {
-            logger.warn("Falha na validação do pagamento com cartão: {}", e.getMessage());
+            // Rejeições são registradas pelo GlobalExceptionHandler; aqui só em debug
+            logger.debug("Falha na validação do pagamento com cartão: {}", e.getMessage());
             throw e;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw providerUnavailable(e);
         } catch (Exception e) {
             logger.error("Erro ao processar pagamento com cartão: {}", e.getMessage(), e);
             throw new PaymentProcessingException("Erro ao processar pagamento: " + e.getMessage(), e);
@@ -95,8 +112,8 @@ public class PaymentService {
             // Criar registro de pagamento
             Payment payment = createPaymentRecord(request);
 
-            // Processar pagamento no Stripe
-            PaymentResult result = stripeService.processPixPayment(request);
+            // Processar pagamento no Stripe (sem conexão de banco retida)
+            PaymentResult result = stripeService.processPixPayment(request, payment.getId().toString());
 
             // Atualizar registro com resultado
             updatePaymentRecord(payment, result);
@@ -107,8 +124,10 @@ public class PaymentService {
             return result;
 
         } catch (PaymentValidationException e) {
-            logger.warn("Falha na validação do pagamento PIX: {}", e.getMessage());
+            logger.debug("Falha na validação do pagamento PIX: {}", e.getMessage());
             throw e;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw providerUnavailable(e);
         } catch (Exception e) {
             logger.error("Erro ao processar pagamento PIX: {}", e.getMessage(), e);
             throw new PaymentProcessingException("Erro ao processar pagamento PIX: " + e.getMessage(), e);
@@ -117,39 +136,53 @@ public class PaymentService {
 
     /**
      * Recupera status de um pagamento
+     *
+     * Pagamentos já atualizados por webhook são respondidos pelo banco; o
+     * Stripe só é consultado para pagamentos não finais que ainda não
+     * receberam nenhum webhook. O polling do checkout é atendido pelo
+     * {@link PaymentStatusCache}: consultas simultâneas do mesmo pagamento
+     * fazem uma única carga.
      */
     public PaymentResult getPaymentStatus(String externalId) {
-        logger.info("Recuperando status do pagamento: {}", externalId);
+        logger.debug("Recuperando status do pagamento: {}", externalId);
 
         try {
-            // Buscar no banco local
-            Optional<Payment> paymentOpt = paymentRepository.findByExternalId(externalId);
-            
-            if (paymentOpt.isPresent()) {
-                Payment payment = paymentOpt.get();
-                
-                // Se não é status final, consultar Stripe
-                if (!payment.getStatus().isFinal()) {
-                    PaymentResult result = stripeService.getPaymentStatus(externalId);
-                    updatePaymentRecord(payment, result);
-                    return result;
-                }
-                
-                return mapToPaymentResult(payment);
-            }
-
-            // Se não encontrado localmente, consultar Stripe
-            return stripeService.getPaymentStatus(externalId);
+            return statusCache.get(externalId, () -> loadPaymentStatus(externalId));
 
         } catch (PaymentValidationException e) {
             logger.warn("Falha na validação ao buscar status: {}", e.getMessage());
             throw e;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw providerUnavailable(e);
         } catch (Exception e) {
             logger.error("Erro ao recuperar status do pagamento: {}", e.getMessage(), e);
             throw new PaymentProcessingException("Erro ao recuperar status: " + e.getMessage(), e);
         }
     }
 
+    private PaymentResult loadPaymentStatus(String externalId) {
+        // Buscar no banco local
+        Optional<Payment> paymentOpt = paymentRepository.findByExternalId(externalId);
+
+        if (paymentOpt.isPresent()) {
+            Payment payment = paymentOpt.get();
+
+            // Se não é status final e nenhum webhook chegou, consultar Stripe
+            if (!payment.getStatus().isFinal() && payment.getWebhookEventAt() == null) {
+                PaymentResult result = stripeService.getPaymentStatus(externalId);
+                if (hasChanged(payment, result)) {
+                    updatePaymentRecord(payment, result);
+                }
+                return result;
+            }
+
+            return mapToPaymentResult(payment);
+        }
+
+        // Se não encontrado localmente, consultar Stripe
+        return stripeService.getPaymentStatus(externalId);
+    }
+
     /**
      * Cancela um pagamento
      */
@@ -179,15 +212,52 @@ public class PaymentService {
         } catch (PaymentValidationException e) {
             logger.warn("Falha na validação ao cancelar pagamento: {}", e.getMessage());
             throw e;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw providerUnavailable(e);
         } catch (Exception e) {
             logger.error("Erro ao cancelar pagamento: {}", e.getMessage(), e);
             throw new PaymentProcessingException("Erro ao cancelar pagamento: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Recupera um registro que ficou PENDING sem resultado do Stripe
+     *
+     * Acontece quando o nó cai entre a criação do registro e a gravação do
+     * resultado. O PaymentIntent é localizado pela referência gravada na
+     * metadata; se não existir e o registro for anterior a {@code abandonBefore},
+     * a chamada ao Stripe nunca chegou a ser feita e o registro é marcado como ERROR.
+     *
+     * @return resultado aplicado, ou vazio se o registro deve ser tentado novamente depois
+     */
+    public Optional<PaymentResult> recoverPayment(Payment payment, LocalDateTime abandonBefore) {
+        logger.info("Recuperando pagamento pendente: {}", payment.getId());
+
+        Optional<PaymentResult> stripeResult = stripeService.findPaymentByReference(payment.getId().toString());
+        if (stripeResult.isPresent()) {
+            updatePaymentRecord(payment, stripeResult.get());
+            logger.info("Pagamento {} recuperado do Stripe. Status: {}", payment.getId(), stripeResult.get().getStatus());
+            return stripeResult;
+        }
+
+        if (payment.getCreatedAt().isBefore(abandonBefore)) {
+            PaymentResult abandoned = PaymentResult.builder()
+                .externalId(payment.getExternalId())
+                .status(PaymentStatus.ERROR)
+                .errorMessage("Pagamento abandonado: nenhuma cobrança encontrada no Stripe")
+                .build();
+            updatePaymentRecord(payment, abandoned);
+            logger.warn("Pagamento {} marcado como ERROR: nenhuma cobrança encontrada no Stripe", payment.getId());
+            return Optional.of(mapToPaymentResult(payment));
+        }
+
+        return Optional.empty();
+    }
+
     /**
      * Lista pagamentos de um usuário
      */
+    @Transactional(readOnly = true)
     public List<Payment> getUserPayments(String userId) {
         logger.info("Listando pagamentos do usuário: {}", userId);
         return paymentRepository.findByUserIdOrderByCreatedAtDesc(userId);
@@ -196,6 +266,7 @@ public class PaymentService {
     /**
      * Busca pagamento por ID interno
      */
+    @Transactional(readOnly = true)
     public Optional<Payment> getPaymentById(UUID id) {
         return paymentRepository.findById(id);
     }
@@ -203,10 +274,24 @@ public class PaymentService {
     /**
      * Busca pagamento por ID externo
      */
+    @Transactional(readOnly = true)
     public Optional<Payment> getPaymentByExternalId(String externalId) {
         return paymentRepository.findByExternalId(externalId);
     }
 
+    /**
+     * Falha rápida enquanto o Stripe está indisponível: sem stack trace e sem esperar timeout
+     */
+    private PaymentProcessingException providerUnavailable(RuntimeException e) {
+        logger.warn("Stripe indisponível, requisição recusada: {}", e.getMessage());
+        return new PaymentProcessingException(
+            "Serviço de pagamento temporariamente indisponível. Tente novamente em instantes.",
+            PaymentProcessingException.PROVIDER_UNAVAILABLE, e);
+    }
+
+    /**
+     * Fase 1 do pipeline: grava o registro PENDING em transação própria
+     */
     private Payment createPaymentRecord(PaymentRequest request) {
         Payment payment = new Payment(
             UUID.randomUUID().toString(), // externalId temporário
@@ -221,7 +306,17 @@ public class PaymentService {
         return paymentRepository.save(payment);
     }
 
+    /**
+     * Fase 3 do pipeline: grava o resultado do Stripe em transação própria
+     *
+     * UPDATE condicional ao status e ao {@code webhookEventAt} lidos antes da
+     * chamada ao Stripe: se um webhook alterou o registro nesse intervalo, o
+     * que ele gravou prevalece e o resultado é descartado.
+     */
     private void updatePaymentRecord(Payment payment, PaymentResult result) {
+        PaymentStatus expectedStatus = payment.getStatus();
+        LocalDateTime expectedWebhookEventAt = payment.getWebhookEventAt();
+
         payment.setExternalId(result.getExternalId());
         payment.setStatus(result.getStatus());
         payment.setProcessedAt(LocalDateTime.now());
@@ -231,10 +326,27 @@ public class PaymentService {
         }
 
         if (result.getMetadata() != null) {
-            payment.setMetadata(result.getMetadata().toString());
+            payment.setMetadata(result.getMetadata());
         }
 
-        paymentRepository.save(payment);
+        int updated = paymentRepository.updateResultIfUnchanged(payment.getId(), expectedStatus,
+            expectedWebhookEventAt, payment.getExternalId(), payment.getStatus(), payment.getErrorMessage(),
+            payment.getMetadata(), payment.getProcessedAt());
+        if (updated == 0) {
+            logger.info("Pagamento {} alterado por webhook durante a chamada ao Stripe; resultado {} descartado",
+                payment.getId(), result.getStatus());
+        }
+        statusCache.invalidate(payment.getExternalId());
+    }
+
+    /**
+     * Só há o que gravar se o Stripe trouxe status, ID ou mensagem de erro diferentes
+     */
+    private boolean hasChanged(Payment payment, PaymentResult result) {
+        return payment.getStatus() != result.getStatus()
+            || !Objects.equals(payment.getExternalId(), result.getExternalId())
+            || (StringUtils.hasText(result.getErrorMessage())
+                && !result.getErrorMessage().equals(payment.getErrorMessage()));
     }
 
     private PaymentResult mapToPaymentResult(Payment payment) {
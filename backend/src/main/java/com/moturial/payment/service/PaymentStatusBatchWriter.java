@@ -0,0 +1,319 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.entity.Payment;
+import com.moturial.payment.domain.entity.StripeWebhookEvent;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import com.moturial.payment.repository.PaymentRepository;
+import com.moturial.payment.repository.StripeWebhookEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravação em lote das transições de status recebidas por webhook
+ *
+ * As requisições de webhook apenas enfileiram a transição e aguardam o
+ * commit do lote em que ela entrou. Uma única thread drena a fila e grava
+ * cada lote em uma transação: os IDs de evento já processados são
+ * descartados com uma consulta só, várias transições do mesmo PaymentIntent
+ * são reduzidas à mais recente e os UPDATEs saem em batch JDBC.
+ *
+ * A ordem vem de {@code event.created}, com resolução de segundos: um status
+ * final nunca volta a um não final, e eventos do mesmo segundo são
+ * desempatados pela precedência do status no ciclo de vida do pagamento, não
+ * pela ordem de chegada.
+ *
+ * O Stripe só recebe 200 depois do commit, então um nó que caia com eventos
+ * na fila não perde nada: o Stripe reenvia.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Component
+public class PaymentStatusBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentStatusBatchWriter.class);
+
+    private final PaymentRepository paymentRepository;
+    private final StripeWebhookEventRepository webhookEventRepository;
+    private final PaymentStatusCache statusCache;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingTransition> queue;
+
+    @Value("${stripe.webhook.batch-size:100}")
+    private int batchSize;
+
+    @Value("${stripe.webhook.max-batch-delay-ms:20}")
+    private long maxBatchDelayMillis;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Autowired
+    public PaymentStatusBatchWriter(PaymentRepository paymentRepository,
+                                    StripeWebhookEventRepository webhookEventRepository,
+                                    PaymentStatusCache statusCache,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${stripe.webhook.queue-capacity:10000}") int queueCapacity) {
+        this.paymentRepository = paymentRepository;
+        this.webhookEventRepository = webhookEventRepository;
+        this.statusCache = statusCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "webhook-status-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Enfileira uma transição
+     *
+     * @return futuro concluído no commit do lote: {@code true} se o evento era novo,
+     *         {@code false} se já havia sido processado
+     */
+    public CompletableFuture<Boolean> submit(StatusTransition transition) {
+        PendingTransition pending = new PendingTransition(transition, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            pending.result().completeExceptionally(
+                new IllegalStateException("Fila de webhooks cheia"));
+        }
+        return pending.result();
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTransition first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                List<PendingTransition> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchDelayMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingTransition next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Erro inesperado na gravação de webhooks: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Grava um lote em uma transação e conclui os futuros de cada requisição
+     */
+    void flush(List<PendingTransition> batch) {
+        Set<PendingTransition> fresh;
+        try {
+            fresh = transactionTemplate.execute(status -> applyBatch(batch));
+        } catch (RuntimeException e) {
+            logger.error("Erro ao gravar lote de {} webhooks: {}", batch.size(), e.getMessage(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+
+        for (PendingTransition pending : batch) {
+            statusCache.invalidate(pending.transition().paymentIntentId());
+            pending.result().complete(fresh.contains(pending));
+        }
+    }
+
+    private Set<PendingTransition> applyBatch(List<PendingTransition> batch) {
+        Set<String> eventIds = new HashSet<>();
+        batch.forEach(pending -> eventIds.add(pending.transition().eventId()));
+        Set<String> seen = new HashSet<>(webhookEventRepository.findExistingEventIds(eventIds));
+
+        Set<PendingTransition> fresh = new HashSet<>();
+        List<StripeWebhookEvent> newEvents = new ArrayList<>();
+        Map<String, StatusTransition> latestByIntent = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (PendingTransition pending : batch) {
+            StatusTransition transition = pending.transition();
+            if (!seen.add(transition.eventId())) {
+                continue;
+            }
+            fresh.add(pending);
+            newEvents.add(StripeWebhookEvent.builder()
+                .eventId(transition.eventId())
+                .eventType(transition.eventType())
+                .paymentIntentId(transition.paymentIntentId())
+                .receivedAt(now)
+                .build());
+            latestByIntent.merge(transition.paymentIntentId(), transition,
+                (current, candidate) -> supersedes(candidate, current.status(), current.occurredAt())
+                    ? candidate : current);
+        }
+
+        List<Payment> changed = new ArrayList<>();
+        Map<String, Payment> payments = findPayments(latestByIntent.values());
+        for (StatusTransition transition : latestByIntent.values()) {
+            Payment payment = payments.get(transition.paymentIntentId());
+            if (payment == null) {
+                logger.debug("Webhook {} sem pagamento local para {}", transition.eventId(), transition.paymentIntentId());
+                continue;
+            }
+            if (!supersedes(transition, payment.getStatus(), payment.getWebhookEventAt())) {
+                logger.debug("Webhook {} fora de ordem ignorado para {}", transition.eventId(), transition.paymentIntentId());
+                continue;
+            }
+
+            payment.setExternalId(transition.paymentIntentId());
+            payment.setStatus(transition.status());
+            payment.setWebhookEventAt(transition.occurredAt());
+            if (payment.getProcessedAt() == null) {
+                payment.setProcessedAt(now);
+            }
+            if (StringUtils.hasText(transition.errorMessage())) {
+                payment.setErrorMessage(transition.errorMessage());
+            }
+            changed.add(payment);
+        }
+
+        webhookEventRepository.saveAll(newEvents);
+        paymentRepository.saveAll(changed);
+
+        logger.debug("Lote de webhooks gravado: {} eventos, {} novos, {} pagamentos atualizados",
+            batch.size(), newEvents.size(), changed.size());
+        return fresh;
+    }
+
+    /**
+     * Se a transição substitui o estado atual ({@code currentOccurredAt} nulo: nenhum webhook aplicado)
+     */
+    static boolean supersedes(StatusTransition transition, PaymentStatus currentStatus,
+                              LocalDateTime currentOccurredAt) {
+        if (currentStatus.isFinal() && !transition.status().isFinal()) {
+            return false;
+        }
+        if (currentOccurredAt == null || transition.occurredAt().isAfter(currentOccurredAt)) {
+            return true;
+        }
+        if (transition.occurredAt().isBefore(currentOccurredAt)) {
+            return false;
+        }
+        return precedence(transition.status()) > precedence(currentStatus);
+    }
+
+    /**
+     * Posição do status no ciclo de vida: falhas podem ser seguidas de nova
+     * tentativa, aprovação e cancelamento encerram a cobrança, reembolsos vêm depois
+     */
+    private static int precedence(PaymentStatus status) {
+        return switch (status) {
+            case PENDING -> 0;
+            case PROCESSING -> 1;
+            case REJECTED, ERROR -> 2;
+            case APPROVED, CANCELLED -> 3;
+            case PARTIALLY_REFUNDED -> 4;
+            case REFUNDED -> 5;
+        };
+    }
+
+    /**
+     * Localiza os pagamentos pelo PaymentIntent e, na falta dele, pela referência local
+     *
+     * O webhook pode chegar antes de a fase 3 do pipeline gravar o PaymentIntent
+     * no registro; nesse caso o registro ainda tem o ID externo temporário e só
+     * é encontrado pela referência gravada na metadata.
+     */
+    private Map<String, Payment> findPayments(Iterable<StatusTransition> transitions) {
+        Set<String> intentIds = new HashSet<>();
+        transitions.forEach(transition -> intentIds.add(transition.paymentIntentId()));
+
+        Map<String, Payment> byIntent = new HashMap<>();
+        paymentRepository.findByExternalIdIn(intentIds)
+            .forEach(payment -> byIntent.put(payment.getExternalId(), payment));
+
+        Map<UUID, String> missingByReference = new HashMap<>();
+        for (StatusTransition transition : transitions) {
+            UUID reference = parseReference(transition.paymentReference());
+            if (!byIntent.containsKey(transition.paymentIntentId()) && reference != null) {
+                missingByReference.put(reference, transition.paymentIntentId());
+            }
+        }
+        if (!missingByReference.isEmpty()) {
+            paymentRepository.findAllById(missingByReference.keySet())
+                .forEach(payment -> byIntent.put(missingByReference.get(payment.getId()), payment));
+        }
+        return byIntent;
+    }
+
+    private static UUID parseReference(String paymentReference) {
+        if (!StringUtils.hasText(paymentReference)) {
+            return null;
+        }
+        try {
+            return UUID.fromString(paymentReference);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Transição de status extraída de um evento de webhook
+     *
+     * @param paymentReference ID do registro local gravado na metadata do PaymentIntent
+     * @param occurredAt criação do evento no Stripe, usada para descartar entregas fora de ordem
+     */
+    public record StatusTransition(String eventId,
+                                   String eventType,
+                                   String paymentIntentId,
+                                   String paymentReference,
+                                   PaymentStatus status,
+                                   String errorMessage,
+                                   LocalDateTime occurredAt) {
+    }
+
+    record PendingTransition(StatusTransition transition, CompletableFuture<Boolean> result) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.moturial.payment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.moturial.payment.domain.dto.PaymentResult;
+import com.moturial.payment.exception.PaymentProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Cache do status de pagamentos consultado pelo polling do checkout
+ *
+ * Resultados em status final ficam no cache até serem removidos por tamanho
+ * ou pelo TTL longo; resultados não finais valem apenas pela janela de
+ * frescor ({@code payment.status-cache.fresh-for}). Consultas simultâneas do
+ * mesmo {@code externalId} neste nó compartilham uma única carga (banco e,
+ * se preciso, Stripe). Erros não são cacheados.
+ *
+ * Quem altera o status localmente (webhook, cancelamento, pipeline) chama
+ * {@link #invalidate(String)}; em outros nós a mudança aparece quando a
+ * janela de frescor expira.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Component
+public class PaymentStatusCache {
+
+    private static final String METRIC_NAME = "payment.status.cache";
+
+    private final Cache<String, PaymentResult> results;
+    private final ConcurrentHashMap<String, CompletableFuture<PaymentResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    @Autowired
+    public PaymentStatusCache(MeterRegistry meterRegistry,
+                              @Value("${payment.status-cache.max-size:100000}") long maxSize,
+                              @Value("${payment.status-cache.fresh-for:2s}") Duration freshFor,
+                              @Value("${payment.status-cache.final-ttl:24h}") Duration finalTtl) {
+        this.results = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new StatusExpiry(freshFor, finalTtl))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "paymentStatus");
+
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.coalesced = counter(meterRegistry, "coalesced");
+    }
+
+    /**
+     * Retorna o status cacheado ou carrega uma única vez para todos os chamadores simultâneos
+     *
+     * @param externalId ID externo do pagamento
+     * @param loader consulta o banco e, se necessário, o Stripe
+     */
+    public PaymentResult get(String externalId, Supplier<PaymentResult> loader) {
+        PaymentResult cached = results.getIfPresent(externalId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        CompletableFuture<PaymentResult> own = new CompletableFuture<>();
+        CompletableFuture<PaymentResult> existing = inFlight.putIfAbsent(externalId, own);
+        if (existing != null) {
+            coalesced.increment();
+            return awaitInFlight(existing);
+        }
+
+        try {
+            misses.increment();
+            PaymentResult result = loader.get();
+            if (result != null && result.getStatus() != null) {
+                results.put(externalId, result);
+            }
+            own.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(externalId, own);
+        }
+    }
+
+    /**
+     * Descarta o status de um pagamento alterado neste nó
+     */
+    public void invalidate(String externalId) {
+        if (externalId != null) {
+            results.invalidate(externalId);
+        }
+    }
+
+    private PaymentResult awaitInFlight(CompletableFuture<PaymentResult> existing) {
+        try {
+            return existing.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new PaymentProcessingException("Erro ao recuperar status: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentProcessingException("Espera pelo status do pagamento interrompida", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_NAME)
+            .description("Consultas de status de pagamento por origem")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Validade por entrada: longa para status final, curta para os demais
+     */
+    private record StatusExpiry(Duration freshFor, Duration finalTtl) implements Expiry<String, PaymentResult> {
+
+        @Override
+        public long expireAfterCreate(String key, PaymentResult value, long currentTime) {
+            return (value.getStatus().isFinal() ? finalTtl : freshFor).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, PaymentResult value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, PaymentResult value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
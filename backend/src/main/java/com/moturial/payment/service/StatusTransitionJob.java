@@ -0,0 +1,240 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.event.MotorcycleMaintenanceDueEvent;
+import com.moturial.payment.domain.event.PaymentExpiredEvent;
+import com.moturial.payment.domain.event.RentalOverdueEvent;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import com.moturial.payment.integration.StripeService;
+import com.moturial.payment.repository.MotorcycleRepository;
+import com.moturial.payment.repository.PaymentRepository;
+import com.moturial.payment.repository.RentalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Transições de estado por tempo, aplicadas em conjunto no banco
+ *
+ * Três transições, cada uma um UPDATE ... RETURNING por bloco de até
+ * {@code chunk-size} linhas, em sua própria transação curta:
+ * pagamentos PENDING mais antigos que {@code pending-payment-ttl} são
+ * cancelados, aluguéis encerrados sem pagamento ficam com pagamento OVERDUE
+ * e motos disponíveis com manutenção vencida vão para MAINTENANCE. Os blocos
+ * se repetem até um bloco incompleto ou até {@code max-rows-per-run} linhas
+ * por transição, para não ocupar o scheduler.
+ *
+ * Um pagamento PENDING tem PaymentIntent aberto no Stripe, que continuaria
+ * aceitando a cobrança. Cada bloco de pagamentos é lido primeiro, o intent é
+ * cancelado no Stripe e só os cancelados lá entram no UPDATE. Intents que o
+ * Stripe não cancela (pagos ou em processamento) ficam PENDING para o
+ * {@link PaymentReconciliationJob} gravar o status real.
+ *
+ * Os blocos de aluguéis e motos usam SKIP LOCKED: vários nós podem executar o
+ * job ao mesmo tempo sem disputar linhas, e linhas em uso por outra transação
+ * ficam para a próxima execução. Por isso não há advisory lock; dois nós que
+ * leiam o mesmo pagamento pedem o cancelamento duas vezes e o UPDATE, que
+ * exige status PENDING, só o altera uma vez.
+ *
+ * Um evento é publicado por linha alterada, depois do commit do bloco. A
+ * entrega é no mesmo processo e sem nova tentativa: um nó que caia entre o
+ * commit e a publicação perde os eventos daquele bloco.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "payment.transitions.enabled", havingValue = "true")
+public class StatusTransitionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusTransitionJob.class);
+
+    static final String EXPIRED_REASON = "Pagamento expirado sem confirmação";
+
+    /**
+     * Início do cursor (created_at, id) da leitura de pagamentos expirados
+     */
+    private static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID CURSOR_START_ID = new UUID(0L, 0L);
+
+    private final PaymentRepository paymentRepository;
+    private final RentalRepository rentalRepository;
+    private final MotorcycleRepository motorcycleRepository;
+    private final StripeService stripeService;
+    private final PaymentStatusCache statusCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${payment.transitions.pending-payment-ttl:72h}")
+    private Duration pendingPaymentTtl;
+
+    @Value("${payment.transitions.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${payment.transitions.max-rows-per-run:20000}")
+    private int maxRowsPerRun;
+
+    @Autowired
+    public StatusTransitionJob(PaymentRepository paymentRepository,
+                               RentalRepository rentalRepository,
+                               MotorcycleRepository motorcycleRepository,
+                               StripeService stripeService,
+                               PaymentStatusCache statusCache,
+                               ApplicationEventPublisher eventPublisher) {
+        this.paymentRepository = paymentRepository;
+        this.rentalRepository = rentalRepository;
+        this.motorcycleRepository = motorcycleRepository;
+        this.stripeService = stripeService;
+        this.statusCache = statusCache;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.transitions.interval:60000}",
+               initialDelayString = "${payment.transitions.initial-delay:60000}")
+    public void applyTransitions() {
+        runOnce(LocalDateTime.now());
+    }
+
+    /**
+     * Aplica as três transições com o mesmo instante de referência
+     */
+    void runOnce(LocalDateTime now) {
+        expirePendingPayments(now);
+
+        apply("aluguéis em atraso",
+            limit -> rentalRepository.markOverdue(now, limit),
+            rentalId -> eventPublisher.publishEvent(new RentalOverdueEvent(rentalId, now)));
+
+        apply("motos com manutenção vencida",
+            limit -> motorcycleRepository.flagDueForMaintenance(now, limit),
+            motorcycleId -> eventPublisher.publishEvent(new MotorcycleMaintenanceDueEvent(motorcycleId, now)));
+    }
+
+    /**
+     * Cancela no Stripe e depois localmente os pagamentos PENDING além do TTL
+     *
+     * @return pagamentos cancelados
+     */
+    private int expirePendingPayments(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(pendingPaymentTtl);
+        LocalDateTime afterCreatedAt = CURSOR_START;
+        UUID afterId = CURSOR_START_ID;
+        int read = 0;
+        int changed = 0;
+        try {
+            while (read < maxRowsPerRun) {
+                int limit = Math.min(chunkSize, maxRowsPerRun - read);
+                List<PaymentRepository.ExpirablePayment> candidates = paymentRepository.findExpirablePending(
+                    cutoff, afterCreatedAt, afterId, PageRequest.of(0, limit));
+                read += candidates.size();
+
+                List<UUID> cancelledInStripe = candidates.stream()
+                    .filter(this::cancelInStripe)
+                    .map(PaymentRepository.ExpirablePayment::getId)
+                    .toList();
+                if (!cancelledInStripe.isEmpty()) {
+                    List<PaymentRepository.ExpiredPayment> expired =
+                        paymentRepository.expirePending(cancelledInStripe, now, EXPIRED_REASON);
+                    changed += expired.size();
+                    notifyEach("pagamentos expirados", expired, payment -> {
+                        statusCache.invalidate(payment.getExternalId());
+                        eventPublisher.publishEvent(new PaymentExpiredEvent(payment.getId(), payment.getExternalId(), now));
+                    });
+                }
+
+                if (candidates.size() < limit) {
+                    break;
+                }
+                PaymentRepository.ExpirablePayment last = candidates.get(candidates.size() - 1);
+                afterCreatedAt = last.getCreatedAt();
+                afterId = last.getId();
+            }
+        } catch (DataAccessException e) {
+            logger.error("Erro ao aplicar transição de pagamentos expirados: {}", e.getMessage(), e);
+        }
+
+        if (changed > 0) {
+            logger.info("Transição aplicada: {} pagamentos expirados", changed);
+        }
+        return changed;
+    }
+
+    /**
+     * Cancela o PaymentIntent no Stripe
+     *
+     * @return true se o intent está cancelado no Stripe
+     */
+    private boolean cancelInStripe(PaymentRepository.ExpirablePayment payment) {
+        try {
+            stripeService.cancelPayment(payment.getExternalId());
+            return true;
+        } catch (RuntimeException e) {
+            // O Stripe recusa cancelar intents já cancelados, pagos ou em processamento
+            try {
+                PaymentStatus stripeStatus = stripeService.getPaymentStatus(payment.getExternalId()).getStatus();
+                if (stripeStatus == PaymentStatus.CANCELLED) {
+                    return true;
+                }
+                logger.warn("Pagamento {} não expirado: PaymentIntent {} está {} no Stripe",
+                    payment.getId(), payment.getExternalId(), stripeStatus);
+            } catch (RuntimeException statusError) {
+                logger.warn("Pagamento {} não expirado: falha ao cancelar o PaymentIntent {}: {}",
+                    payment.getId(), payment.getExternalId(), statusError.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Executa blocos de uma transição e notifica cada linha alterada
+     *
+     * @return linhas alteradas
+     */
+    private <T> int apply(String description, IntFunction<List<T>> chunk, Consumer<T> onChanged) {
+        int changed = 0;
+        try {
+            while (changed < maxRowsPerRun) {
+                int limit = Math.min(chunkSize, maxRowsPerRun - changed);
+                List<T> rows = chunk.apply(limit);
+                changed += rows.size();
+                notifyEach(description, rows, onChanged);
+
+                if (rows.size() < limit) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.error("Erro ao aplicar transição de {}: {}", description, e.getMessage(), e);
+        }
+
+        if (changed > 0) {
+            logger.info("Transição aplicada: {} {}", changed, description);
+        }
+        return changed;
+    }
+
+    /**
+     * Notifica cada linha alterada; a falha de um listener não interrompe as demais
+     */
+    private <T> void notifyEach(String description, List<T> rows, Consumer<T> onChanged) {
+        for (T row : rows) {
+            try {
+                onChanged.accept(row);
+            } catch (Exception e) {
+                logger.error("Erro ao notificar {}: {}", description, e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.moturial.payment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.gson.JsonSyntaxException;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import com.moturial.payment.exception.PaymentProcessingException;
+import com.moturial.payment.exception.PaymentValidationException;
+import com.moturial.payment.exception.SecurityException;
+import com.moturial.payment.integration.StripeService;
+import com.stripe.exception.EventDataObjectDeserializationException;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
+import com.stripe.net.Webhook;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Ingestão de webhooks do Stripe
+ *
+ * Verifica a assinatura, descarta eventos já processados e converte os
+ * eventos de PaymentIntent em transições de status gravadas pelo
+ * {@link PaymentStatusBatchWriter}. Com isso o status de pagamentos
+ * atualizados por webhook é respondido pelo banco, sem consultar o Stripe.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Service
+public class StripeWebhookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripeWebhookService.class);
+
+    private static final String METRIC_NAME = "stripe.webhook.events";
+
+    private static final Set<String> PAYMENT_INTENT_EVENTS = Set.of(
+        "payment_intent.succeeded",
+        "payment_intent.processing",
+        "payment_intent.requires_action",
+        "payment_intent.payment_failed",
+        "payment_intent.canceled"
+    );
+
+    private final PaymentStatusBatchWriter batchWriter;
+    private final Cache<String, Boolean> recentEventIds;
+
+    private final Counter applied;
+    private final Counter duplicates;
+    private final Counter ignored;
+
+    @Value("${stripe.webhook-secret}")
+    private String webhookSecret;
+
+    @Value("${stripe.webhook.tolerance-seconds:300}")
+    private long toleranceSeconds;
+
+    @Value("${stripe.webhook.wait-timeout:10000}")
+    private long waitTimeoutMillis;
+
+    @Autowired
+    public StripeWebhookService(PaymentStatusBatchWriter batchWriter,
+                                MeterRegistry meterRegistry,
+                                @Value("${stripe.webhook.dedup-cache-size:100000}") long dedupCacheSize) {
+        this.batchWriter = batchWriter;
+        this.recentEventIds = Caffeine.newBuilder()
+            .maximumSize(dedupCacheSize)
+            .expireAfterWrite(Duration.ofHours(24))
+            .build();
+
+        this.applied = counter(meterRegistry, "applied");
+        this.duplicates = counter(meterRegistry, "duplicate");
+        this.ignored = counter(meterRegistry, "ignored");
+    }
+
+    /**
+     * Processa um webhook assinado
+     *
+     * Retorna depois que a transição foi gravada, para que o Stripe reenvie
+     * o evento caso a gravação falhe.
+     *
+     * @param payload corpo bruto da requisição, exatamente como assinado pelo Stripe
+     * @param signatureHeader valor do header Stripe-Signature
+     */
+    public void handle(String payload, String signatureHeader) {
+        Event event = verify(payload, signatureHeader);
+
+        if (recentEventIds.getIfPresent(event.getId()) != null) {
+            duplicates.increment();
+            logger.debug("Webhook {} já processado", event.getId());
+            return;
+        }
+
+        Optional<PaymentStatusBatchWriter.StatusTransition> transition = toTransition(event);
+        if (transition.isEmpty()) {
+            ignored.increment();
+            recentEventIds.put(event.getId(), Boolean.TRUE);
+            return;
+        }
+
+        boolean isNew = awaitWrite(event.getId(), batchWriter.submit(transition.get()));
+        recentEventIds.put(event.getId(), Boolean.TRUE);
+        (isNew ? applied : duplicates).increment();
+    }
+
+    private Event verify(String payload, String signatureHeader) {
+        if (signatureHeader == null) {
+            throw new SecurityException("Header Stripe-Signature ausente");
+        }
+        try {
+            return Webhook.constructEvent(payload, signatureHeader, webhookSecret, toleranceSeconds);
+        } catch (SignatureVerificationException e) {
+            throw new SecurityException("Assinatura do webhook inválida", e);
+        } catch (JsonSyntaxException e) {
+            throw new PaymentValidationException("Payload do webhook inválido");
+        }
+    }
+
+    private Optional<PaymentStatusBatchWriter.StatusTransition> toTransition(Event event) {
+        if (!PAYMENT_INTENT_EVENTS.contains(event.getType())) {
+            logger.debug("Webhook {} do tipo {} ignorado", event.getId(), event.getType());
+            return Optional.empty();
+        }
+
+        StripeObject object = deserialize(event);
+        if (!(object instanceof PaymentIntent paymentIntent)) {
+            logger.warn("Webhook {} do tipo {} sem PaymentIntent", event.getId(), event.getType());
+            return Optional.empty();
+        }
+
+        PaymentStatus status;
+        String errorMessage = null;
+        if ("payment_intent.payment_failed".equals(event.getType())) {
+            status = PaymentStatus.REJECTED;
+            if (paymentIntent.getLastPaymentError() != null) {
+                errorMessage = paymentIntent.getLastPaymentError().getMessage();
+            }
+        } else {
+            status = StripeService.mapStripeStatus(paymentIntent.getStatus());
+        }
+
+        String paymentReference = paymentIntent.getMetadata() != null
+            ? paymentIntent.getMetadata().get(StripeService.PAYMENT_REFERENCE_KEY)
+            : null;
+
+        return Optional.of(new PaymentStatusBatchWriter.StatusTransition(
+            event.getId(),
+            event.getType(),
+            paymentIntent.getId(),
+            paymentReference,
+            status,
+            errorMessage,
+            LocalDateTime.ofInstant(Instant.ofEpochSecond(event.getCreated()), ZoneId.systemDefault())));
+    }
+
+    /**
+     * Desserializa o objeto do evento mesmo quando a versão da API do evento difere da do SDK
+     */
+    private StripeObject deserialize(Event event) {
+        Optional<StripeObject> object = event.getDataObjectDeserializer().getObject();
+        if (object.isPresent()) {
+            return object.get();
+        }
+        try {
+            return event.getDataObjectDeserializer().deserializeUnsafe();
+        } catch (EventDataObjectDeserializationException e) {
+            logger.warn("Não foi possível desserializar o webhook {}: {}", event.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean awaitWrite(String eventId, CompletableFuture<Boolean> write) {
+        try {
+            return write.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new PaymentProcessingException("Erro ao gravar webhook " + eventId + ": " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new PaymentProcessingException("Tempo esgotado ao gravar webhook " + eventId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentProcessingException("Gravação do webhook " + eventId + " interrompida", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_NAME)
+            .description("Webhooks do Stripe recebidos por resultado")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
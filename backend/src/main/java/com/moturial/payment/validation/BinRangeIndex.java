@@ -0,0 +1,159 @@
+package com.moturial.payment.validation;
+
+import com.moturial.payment.domain.enums.CardBrand;
+import com.moturial.payment.domain.enums.CardFunding;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Índice local de faixas de BIN/IIN para triagem do cartão antes do Stripe
+ *
+ * Identifica bandeira, tipo de financiamento e país emissor pelos primeiros
+ * dígitos do cartão e rejeita combinações não elegíveis (bandeira não
+ * aceita, parcelamento em débito/pré-pago, país fora da lista) sem nenhuma
+ * chamada remota. BINs ausentes da tabela são aceitos: a decisão fica com
+ * o Stripe.
+ *
+ * A tabela ({@link BinTable}) é recarregada quando a data de modificação do
+ * arquivo muda, trocando a referência volátil de uma vez; consultas em
+ * andamento continuam na versão anterior. Uma tabela inválida é descartada e
+ * a atual permanece em uso.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Component
+public class BinRangeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinRangeIndex.class);
+
+    private final Resource location;
+    private final Set<CardBrand> acceptedBrands;
+    private final Set<CardFunding> installmentFundings;
+    private final Set<String> acceptedCountries;
+
+    private volatile BinTable table = BinTable.EMPTY;
+    private volatile long loadedModified = Long.MIN_VALUE;
+
+    @Autowired
+    public BinRangeIndex(ResourceLoader resourceLoader,
+                         @Value("${payment.bin.table-location:classpath:bin/bin-ranges.csv}") String location,
+                         @Value("${payment.bin.accepted-brands:VISA,MASTERCARD,AMEX,ELO,HIPERCARD,DINERS,DISCOVER,JCB,UNKNOWN}")
+                         List<CardBrand> acceptedBrands,
+                         @Value("${payment.bin.installment-fundings:CREDIT,UNKNOWN}")
+                         List<CardFunding> installmentFundings,
+                         @Value("${payment.bin.accepted-countries:}") List<String> acceptedCountries) {
+        this(resourceLoader.getResource(location), acceptedBrands, installmentFundings, acceptedCountries);
+    }
+
+    BinRangeIndex(Resource location,
+                  List<CardBrand> acceptedBrands,
+                  List<CardFunding> installmentFundings,
+                  List<String> acceptedCountries) {
+        this.location = location;
+        this.acceptedBrands = acceptedBrands.isEmpty()
+            ? EnumSet.noneOf(CardBrand.class) : EnumSet.copyOf(acceptedBrands);
+        this.installmentFundings = installmentFundings.isEmpty()
+            ? EnumSet.noneOf(CardFunding.class) : EnumSet.copyOf(installmentFundings);
+        this.acceptedCountries = acceptedCountries.stream()
+            .map(String::trim)
+            .filter(country -> !country.isEmpty())
+            .map(country -> country.toUpperCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Carga inicial; sem tabela a triagem aceita todos os cartões
+     */
+    @PostConstruct
+    public void load() {
+        if (!location.exists()) {
+            logger.warn("Tabela de BIN não encontrada em {}; triagem local desativada", location);
+            return;
+        }
+        reloadIfModified();
+    }
+
+    /**
+     * Recarrega a tabela se o arquivo foi modificado desde a última carga
+     *
+     * @return {@code true} se uma nova tabela passou a ser usada
+     */
+    @Scheduled(fixedDelayString = "${payment.bin.reload-interval:60000}",
+               initialDelayString = "${payment.bin.reload-interval:60000}")
+    public synchronized boolean reloadIfModified() {
+        long modified;
+        try {
+            modified = location.lastModified();
+        } catch (IOException e) {
+            // Recurso sem data de modificação (ex.: dentro do jar): carrega só uma vez
+            modified = 0L;
+        }
+        if (modified == loadedModified) {
+            return false;
+        }
+
+        try (Reader reader = new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8)) {
+            BinTable loaded = BinTable.parse(reader);
+            table = loaded;
+            loadedModified = modified;
+            logger.info("Tabela de BIN carregada de {}: {} faixas", location, loaded.size());
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error("Falha ao carregar tabela de BIN de {}; mantendo versão anterior: {}",
+                location, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Dados do emissor do cartão, ou {@code null} se o BIN não estiver na tabela
+     */
+    public CardBin lookup(CharSequence cardNumber) {
+        return table.lookup(cardNumber);
+    }
+
+    /**
+     * Verifica se o cartão é elegível para o pagamento
+     *
+     * @param cardNumber   número do cartão
+     * @param installments parcelas solicitadas, ou {@code null} para não
+     *                     verificar o parcelamento
+     */
+    public ValidationResult screen(CharSequence cardNumber, Integer installments) {
+        CardBin bin = table.lookup(cardNumber);
+        if (bin == null) {
+            return ValidationResult.VALID;
+        }
+
+        if (!acceptedBrands.contains(bin.brand())) {
+            return ValidationRule.CARD_BRAND_NOT_ACCEPTED.result();
+        }
+
+        if (installments != null && installments > 1 && !installmentFundings.contains(bin.funding())) {
+            return ValidationRule.CARD_INSTALLMENTS_NOT_ALLOWED.result();
+        }
+
+        if (!acceptedCountries.isEmpty() && bin.country() != null && !acceptedCountries.contains(bin.country())) {
+            return ValidationRule.CARD_COUNTRY_NOT_ACCEPTED.result();
+        }
+        return ValidationResult.VALID;
+    }
+}
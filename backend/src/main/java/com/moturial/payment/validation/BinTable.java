@@ -0,0 +1,265 @@
+package com.moturial.payment.validation;
+
+import com.moturial.payment.domain.enums.CardBrand;
+import com.moturial.payment.domain.enums.CardFunding;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tabela imutável de faixas de BIN/IIN
+ *
+ * As faixas são normalizadas para chaves de {@value #KEY_DIGITS} dígitos e
+ * achatadas em segmentos disjuntos (a faixa mais específica vence), guardados
+ * em dois {@code int[]} ordenados e um array paralelo de {@link CardBin}
+ * compartilhados. A consulta é uma busca binária sem alocação.
+ *
+ * Formato do arquivo (CSV, {@code #} inicia comentário):
+ * <pre>
+ * inicio,fim,bandeira,tipo,pais
+ * 4,4,VISA,UNKNOWN,
+ * 222100,272099,MASTERCARD,UNKNOWN,
+ * 50670801,50670899,ELO,DEBIT,BR
+ * </pre>
+ * {@code inicio} e {@code fim} são prefixos de 1 a {@value #KEY_DIGITS}
+ * dígitos; {@code fim} vazio repete {@code inicio}. Faixas podem ser
+ * aninhadas, mas não se sobrepor parcialmente.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+final class BinTable {
+
+    static final int KEY_DIGITS = 8;
+
+    static final BinTable EMPTY = new BinTable(new int[0], new int[0], new CardBin[0]);
+
+    private final int[] starts;
+    private final int[] ends;
+    private final CardBin[] bins;
+
+    private BinTable(int[] starts, int[] ends, CardBin[] bins) {
+        this.starts = starts;
+        this.ends = ends;
+        this.bins = bins;
+    }
+
+    /**
+     * Número de segmentos disjuntos da tabela
+     */
+    int size() {
+        return starts.length;
+    }
+
+    /**
+     * Dados do emissor do número do cartão, ou {@code null} se o BIN não
+     * estiver na tabela. Espaços em branco (inclusive tab e quebra de linha,
+     * que a validação do número também aceita) e hífens são ignorados.
+     */
+    CardBin lookup(CharSequence cardNumber) {
+        int key = keyOf(cardNumber);
+        if (key < 0) {
+            return null;
+        }
+
+        int low = 0;
+        int high = starts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high >= 0 && key <= ends[high] ? bins[high] : null;
+    }
+
+    /**
+     * Primeiros {@value #KEY_DIGITS} dígitos do número, ou -1 se houver
+     * menos dígitos ou caracteres inválidos antes deles
+     */
+    static int keyOf(CharSequence cardNumber) {
+        if (cardNumber == null) {
+            return -1;
+        }
+
+        int key = 0;
+        int digits = 0;
+        for (int i = 0, n = cardNumber.length(); i < n && digits < KEY_DIGITS; i++) {
+            char c = cardNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                key = key * 10 + (c - '0');
+                digits++;
+            } else if (c != '-' && !Character.isWhitespace(c)) {
+                return -1;
+            }
+        }
+        return digits == KEY_DIGITS ? key : -1;
+    }
+
+    /**
+     * Lê a tabela no formato CSV descrito na classe
+     *
+     * @throws IllegalArgumentException se uma linha for inválida ou houver
+     *                                  faixas parcialmente sobrepostas
+     */
+    static BinTable parse(Reader source) throws IOException {
+        List<Range> ranges = new ArrayList<>();
+        Map<CardBin, CardBin> shared = new HashMap<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+
+            String[] columns = line.split(",", -1);
+            if (columns.length < 4) {
+                throw new IllegalArgumentException("Linha " + lineNumber + " da tabela de BIN incompleta");
+            }
+            try {
+                String startPrefix = columns[0].trim();
+                String endPrefix = columns[1].trim().isEmpty() ? startPrefix : columns[1].trim();
+                int start = normalize(startPrefix, '0');
+                int end = normalize(endPrefix, '9');
+                if (start > end) {
+                    throw new IllegalArgumentException("início maior que fim");
+                }
+
+                CardBrand brand = CardBrand.valueOf(columns[2].trim().toUpperCase(Locale.ROOT));
+                CardFunding funding = CardFunding.valueOf(columns[3].trim().toUpperCase(Locale.ROOT));
+                String country = columns.length > 4 && !columns[4].isBlank()
+                    ? columns[4].trim().toUpperCase(Locale.ROOT) : null;
+
+                CardBin bin = new CardBin(brand, funding, country);
+                ranges.add(new Range(start, end, shared.computeIfAbsent(bin, b -> b)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                    "Linha " + lineNumber + " da tabela de BIN inválida: " + e.getMessage(), e);
+            }
+        }
+        return of(ranges);
+    }
+
+    /**
+     * Achata faixas aninhadas em segmentos disjuntos, preservando a mais
+     * específica; entre faixas idênticas vence a última declarada
+     */
+    static BinTable of(List<Range> ranges) {
+        List<Range> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingInt(Range::start)
+            .thenComparing(Comparator.comparingInt(Range::end).reversed()));
+
+        Segments segments = new Segments(sorted.size() * 2);
+        Deque<Range> open = new ArrayDeque<>();
+        int cursor = 0;
+
+        for (Range range : sorted) {
+            while (!open.isEmpty() && open.peek().end() < range.start()) {
+                Range closed = open.pop();
+                segments.add(cursor, closed.end(), closed.bin());
+                cursor = closed.end() + 1;
+            }
+            if (!open.isEmpty()) {
+                Range parent = open.peek();
+                if (range.end() > parent.end()) {
+                    throw new IllegalArgumentException("Faixas de BIN sobrepostas: "
+                        + parent.start() + "-" + parent.end() + " e " + range.start() + "-" + range.end());
+                }
+                segments.add(cursor, range.start() - 1, parent.bin());
+            }
+            open.push(range);
+            cursor = range.start();
+        }
+        while (!open.isEmpty()) {
+            Range closed = open.pop();
+            segments.add(cursor, closed.end(), closed.bin());
+            cursor = closed.end() + 1;
+        }
+        return segments.toTable();
+    }
+
+    /**
+     * Completa o prefixo até {@value #KEY_DIGITS} dígitos com {@code fill}
+     */
+    private static int normalize(String prefix, char fill) {
+        if (prefix.isEmpty() || prefix.length() > KEY_DIGITS) {
+            throw new IllegalArgumentException("prefixo deve ter de 1 a " + KEY_DIGITS + " dígitos: " + prefix);
+        }
+
+        int key = 0;
+        for (int i = 0; i < KEY_DIGITS; i++) {
+            char c = i < prefix.length() ? prefix.charAt(i) : fill;
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("prefixo deve conter apenas dígitos: " + prefix);
+            }
+            key = key * 10 + (c - '0');
+        }
+        return key;
+    }
+
+    /**
+     * Faixa declarada, com chaves já normalizadas
+     */
+    record Range(int start, int end, CardBin bin) {
+    }
+
+    /**
+     * Acumula segmentos em ordem, unindo vizinhos com o mesmo emissor
+     */
+    private static final class Segments {
+
+        private int[] starts;
+        private int[] ends;
+        private CardBin[] bins;
+        private int size;
+
+        Segments(int capacity) {
+            starts = new int[Math.max(capacity, 1)];
+            ends = new int[starts.length];
+            bins = new CardBin[starts.length];
+        }
+
+        void add(int start, int end, CardBin bin) {
+            if (start > end) {
+                return;
+            }
+            if (size > 0 && bins[size - 1] == bin && ends[size - 1] == start - 1) {
+                ends[size - 1] = end;
+                return;
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                bins = Arrays.copyOf(bins, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            bins[size] = bin;
+            size++;
+        }
+
+        BinTable toTable() {
+            return size == 0 ? EMPTY
+                : new BinTable(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size), Arrays.copyOf(bins, size));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.moturial.payment.validation;
+
+import com.moturial.payment.domain.enums.CardBrand;
+import com.moturial.payment.domain.enums.CardFunding;
+
+/**
+ * Dados do emissor associados a uma faixa de BIN/IIN
+ *
+ * Instâncias são criadas na carga da tabela e compartilhadas entre
+ * consultas.
+ *
+ * @param brand   bandeira do cartão
+ * @param funding tipo de financiamento (crédito, débito, pré-pago)
+ * @param country país emissor (ISO 3166-1 alfa-2), ou {@code null}
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public record CardBin(CardBrand brand, CardFunding funding, String country) {
+}
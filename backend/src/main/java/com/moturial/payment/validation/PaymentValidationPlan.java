@@ -0,0 +1,433 @@
+package com.moturial.payment.validation;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Plano de validação compilado uma vez a partir de {@code payment.validation.*}
+ * e {@code payment.limits.*}
+ *
+ * Os padrões configurados no formato padrão ({@code ^[0-9]{m,n}$} e
+ * {@code ^(0[1-9]|1[0-2])/([0-9]{2})$}) viram varreduras de caracteres; outros
+ * padrões são compilados uma única vez em {@link Pattern}. As verificações
+ * fixas (ids, nomes, moeda, email, CPF, telefone, Luhn) também são varreduras,
+ * sem alocação quando o valor é válido. As violações que dependem dos limites
+ * configurados têm o resultado pré-construído aqui.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+final class PaymentValidationPlan {
+
+    /** Resultado das verificações com mais de um motivo de falha */
+    static final int VALID = 0;
+    static final int MALFORMED = 1;
+    static final int INVALID = 2;
+
+    private static final Pattern DIGITS_RULE = Pattern.compile("\\^\\[0-9]\\{(\\d+)(?:,(\\d+))?}\\$");
+
+    private static final String DEFAULT_EXPIRY_PATTERN = "^(0[1-9]|1[0-2])/([0-9]{2})$";
+
+    final BigDecimal maxAmount;
+    final BigDecimal minAmount;
+    final Integer maxInstallments;
+
+    final ValidationResult amountAboveMax;
+    final ValidationResult amountBelowMin;
+    final ValidationResult installmentsAboveMax;
+
+    private final String cardNumberSource;
+    private final String cvvSource;
+    private final String expirySource;
+
+    private final DigitsRule cardNumberRule;
+    private final DigitsRule cvvRule;
+    private final Pattern expiryPattern;
+
+    private volatile CurrentMonth currentMonth;
+
+    private PaymentValidationPlan(BigDecimal maxAmount, BigDecimal minAmount, Integer maxInstallments,
+                                  String cardNumberPattern, String cvvPattern, String expiryPattern) {
+        this.maxAmount = maxAmount;
+        this.minAmount = minAmount;
+        this.maxInstallments = maxInstallments;
+        this.amountAboveMax = ValidationResult.prebuilt(ValidationRule.AMOUNT_ABOVE_MAX,
+            "Valor máximo excedido: " + maxAmount);
+        this.amountBelowMin = ValidationResult.prebuilt(ValidationRule.AMOUNT_BELOW_MIN,
+            "Valor mínimo não atingido: " + minAmount);
+        this.installmentsAboveMax = ValidationResult.prebuilt(ValidationRule.INSTALLMENTS_ABOVE_MAX,
+            "Parcelas não pode exceder " + maxInstallments);
+        this.cardNumberSource = cardNumberPattern;
+        this.cvvSource = cvvPattern;
+        this.expirySource = expiryPattern;
+        this.cardNumberRule = DigitsRule.compile(cardNumberPattern);
+        this.cvvRule = DigitsRule.compile(cvvPattern);
+        this.expiryPattern = DEFAULT_EXPIRY_PATTERN.equals(expiryPattern) ? null : Pattern.compile(expiryPattern);
+    }
+
+    static PaymentValidationPlan compile(BigDecimal maxAmount, BigDecimal minAmount, Integer maxInstallments,
+                                         String cardNumberPattern, String cvvPattern, String expiryPattern) {
+        return new PaymentValidationPlan(maxAmount, minAmount, maxInstallments,
+            cardNumberPattern, cvvPattern, expiryPattern);
+    }
+
+    /**
+     * Indica se o plano foi compilado exatamente destes valores (comparação por referência)
+     */
+    boolean compiledFrom(BigDecimal maxAmount, BigDecimal minAmount, Integer maxInstallments,
+                         String cardNumberPattern, String cvvPattern, String expiryPattern) {
+        return this.maxAmount == maxAmount && this.minAmount == minAmount
+            && this.maxInstallments == maxInstallments && cardNumberSource == cardNumberPattern
+            && cvvSource == cvvPattern && expirySource == expiryPattern;
+    }
+
+    /**
+     * Número do cartão: espaços ignorados, formato configurado e dígito de Luhn
+     *
+     * @return {@link #VALID}, {@link #MALFORMED} (formato) ou {@link #INVALID} (Luhn)
+     */
+    int checkCardNumber(String number) {
+        if (cardNumberRule.pattern != null) {
+            String clean = stripWhitespace(number);
+            if (!cardNumberRule.pattern.matcher(clean).matches()) {
+                return MALFORMED;
+            }
+            return luhn(clean) ? VALID : INVALID;
+        }
+
+        int digits = 0;
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (isDigit(c)) {
+                digits++;
+            } else if (!isRegexWhitespace(c)) {
+                return MALFORMED;
+            }
+        }
+        if (digits < cardNumberRule.min || digits > cardNumberRule.max) {
+            return MALFORMED;
+        }
+        return luhn(number) ? VALID : INVALID;
+    }
+
+    boolean isValidCvv(String cvv) {
+        return cvvRule.matches(cvv);
+    }
+
+    /**
+     * Data de expiração MM/YY, não anterior ao mês corrente
+     *
+     * @return {@link #VALID}, {@link #MALFORMED} (formato) ou {@link #INVALID} (vencida)
+     */
+    int checkExpiryDate(String expiryDate) {
+        int month;
+        int year;
+        if (expiryPattern == null) {
+            if (expiryDate.length() != 5 || expiryDate.charAt(2) != '/'
+                    || !isDigit(expiryDate.charAt(0)) || !isDigit(expiryDate.charAt(1))
+                    || !isDigit(expiryDate.charAt(3)) || !isDigit(expiryDate.charAt(4))) {
+                return MALFORMED;
+            }
+            month = (expiryDate.charAt(0) - '0') * 10 + (expiryDate.charAt(1) - '0');
+            if (month < 1 || month > 12) {
+                return MALFORMED;
+            }
+            year = 2000 + (expiryDate.charAt(3) - '0') * 10 + (expiryDate.charAt(4) - '0');
+        } else {
+            if (!expiryPattern.matcher(expiryDate).matches()) {
+                return MALFORMED;
+            }
+            try {
+                String[] parts = expiryDate.split("/");
+                month = Integer.parseInt(parts[0]);
+                year = Integer.parseInt(parts[1]) + 2000;
+            } catch (RuntimeException e) {
+                return INVALID;
+            }
+            if (month < 1 || month > 12) {
+                return INVALID;
+            }
+        }
+        return year * 12 + (month - 1) >= currentMonth() ? VALID : INVALID;
+    }
+
+    /**
+     * CPF com ou sem pontuação ({@code 000.000.000-00}) e dígitos verificadores
+     *
+     * @return {@link #VALID}, {@link #MALFORMED} (formato) ou {@link #INVALID} (dígitos)
+     */
+    static int checkCpf(String document) {
+        int length = document.length();
+        int position = 0;
+        int digitIndex = 0;
+        int sum1 = 0;
+        int sum2 = 0;
+        int first = -1;
+        boolean allSame = true;
+        int check1 = 0;
+        int check2 = 0;
+
+        // grupos: 3 dígitos, '.'?, 3 dígitos, '.'?, 3 dígitos, '-'?, 2 dígitos
+        for (int group = 0; group < 4; group++) {
+            int groupSize = group == 3 ? 2 : 3;
+            for (int j = 0; j < groupSize; j++) {
+                if (position >= length || !isDigit(document.charAt(position))) {
+                    return MALFORMED;
+                }
+                int digit = document.charAt(position++) - '0';
+                if (first < 0) {
+                    first = digit;
+                } else if (digit != first) {
+                    allSame = false;
+                }
+                if (digitIndex < 9) {
+                    sum1 += digit * (10 - digitIndex);
+                }
+                if (digitIndex < 10) {
+                    sum2 += digit * (11 - digitIndex);
+                }
+                if (digitIndex == 9) {
+                    check1 = digit;
+                } else if (digitIndex == 10) {
+                    check2 = digit;
+                }
+                digitIndex++;
+            }
+            if (group < 3 && position < length) {
+                char separator = group == 2 ? '-' : '.';
+                if (document.charAt(position) == separator) {
+                    position++;
+                }
+            }
+        }
+        if (position != length) {
+            return MALFORMED;
+        }
+        if (allSame) {
+            return INVALID;
+        }
+
+        int remainder = sum1 % 11;
+        int digit1 = remainder < 2 ? 0 : 11 - remainder;
+        remainder = sum2 % 11;
+        int digit2 = remainder < 2 ? 0 : 11 - remainder;
+        return check1 == digit1 && check2 == digit2 ? VALID : INVALID;
+    }
+
+    /**
+     * Telefone: ignorando tudo que não é dígito ou '+', um '+' opcional seguido de 10 a 15 dígitos
+     */
+    static boolean isValidPhone(String phone) {
+        int kept = 0;
+        int digits = 0;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c == '+') {
+                if (kept != 0) {
+                    return false;
+                }
+                kept++;
+            } else if (isDigit(c)) {
+                digits++;
+                kept++;
+            }
+        }
+        return digits >= 10 && digits <= 15;
+    }
+
+    /**
+     * Email: {@code local@dominio.tld}, com TLD de pelo menos 2 letras
+     */
+    static boolean isValidEmail(String email) {
+        int at = -1;
+        int lastDot = -1;
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (at >= 0) {
+                    return false;
+                }
+                at = i;
+            } else if (at < 0) {
+                if (!isAsciiLetterOrDigit(c) && c != '.' && c != '_' && c != '%' && c != '+' && c != '-') {
+                    return false;
+                }
+            } else if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        if (at < 1 || lastDot < at + 2 || email.length() - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < email.length(); i++) {
+            if (!isAsciiLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Identificadores: letras, dígitos, '_' e '-'
+     */
+    static boolean isValidIdentifier(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!isAsciiLetterOrDigit(c) && c != '_' && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Nomes: letras ASCII, Latin-1 (À-ÿ) e espaços
+     */
+    static boolean isValidName(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!isAsciiLetter(c) && (c < 'À' || c > 'ÿ') && !isRegexWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moeda: três letras maiúsculas
+     */
+    static boolean isCurrencyCode(String currency) {
+        return currency.length() == 3 && isUpperCase(currency.charAt(0))
+            && isUpperCase(currency.charAt(1)) && isUpperCase(currency.charAt(2));
+    }
+
+    private int currentMonth() {
+        CurrentMonth month = currentMonth;
+        if (month == null || System.currentTimeMillis() >= month.validUntil) {
+            ZonedDateTime now = ZonedDateTime.now();
+            ZonedDateTime nextMonth = now.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS).plusMonths(1);
+            month = new CurrentMonth(now.getYear() * 12 + now.getMonthValue() - 1,
+                nextMonth.toInstant().toEpochMilli());
+            currentMonth = month;
+        }
+        return month.value;
+    }
+
+    private static boolean luhn(String number) {
+        int sum = 0;
+        boolean alternate = false;
+        for (int i = number.length() - 1; i >= 0; i--) {
+            char c = number.charAt(i);
+            if (isRegexWhitespace(c)) {
+                continue;
+            }
+            if (!isDigit(c)) {
+                return false;
+            }
+            int n = c - '0';
+            if (alternate) {
+                n *= 2;
+                if (n > 9) {
+                    n = (n % 10) + 1;
+                }
+            }
+            sum += n;
+            alternate = !alternate;
+        }
+        return sum % 10 == 0;
+    }
+
+    private static String stripWhitespace(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (isRegexWhitespace(value.charAt(i))) {
+                StringBuilder clean = new StringBuilder(value.length());
+                for (int j = 0; j < value.length(); j++) {
+                    char c = value.charAt(j);
+                    if (!isRegexWhitespace(c)) {
+                        clean.append(c);
+                    }
+                }
+                return clean.toString();
+            }
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isUpperCase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || isDigit(c);
+    }
+
+    /**
+     * Mesmo conjunto de {@code \s} em regex: espaço e os caracteres de controle de tab a CR
+     */
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    /**
+     * Regra de dígitos ({@code ^[0-9]{m,n}$}) verificada por varredura, ou padrão compilado
+     */
+    private static final class DigitsRule {
+
+        private final int min;
+        private final int max;
+        private final Pattern pattern;
+
+        private DigitsRule(int min, int max, Pattern pattern) {
+            this.min = min;
+            this.max = max;
+            this.pattern = pattern;
+        }
+
+        static DigitsRule compile(String regex) {
+            Matcher matcher = DIGITS_RULE.matcher(regex);
+            if (matcher.matches()) {
+                int min = Integer.parseInt(matcher.group(1));
+                int max = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : min;
+                return new DigitsRule(min, max, null);
+            }
+            return new DigitsRule(0, 0, Pattern.compile(regex));
+        }
+
+        boolean matches(String value) {
+            if (pattern != null) {
+                return pattern.matcher(value).matches();
+            }
+            if (value.length() < min || value.length() > max) {
+                return false;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                if (!isDigit(value.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private record CurrentMonth(int value, long validUntil) {
+    }
+}
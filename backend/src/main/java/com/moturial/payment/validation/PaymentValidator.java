@@ -3,13 +3,13 @@ package com.moturial.payment.validation;
 import com.moturial.payment.domain.dto.PaymentRequest;
 import com.moturial.payment.domain.dto.CardData;
 import com.moturial.payment.domain.dto.CustomerData;
-import com.moturial.payment.exception.PaymentValidationException;
+import com.moturial.payment.domain.enums.PaymentMethodType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
-import java.util.regex.Pattern;
 
 /**
  * Validador de pagamentos seguindo princípios OWASP e regras de negócio
@@ -17,6 +17,18 @@ import java.util.regex.Pattern;
  * Implementa validações rigorosas para garantir segurança e integridade
  * dos dados de pagamento.
  * 
+ * As regras configuráveis são compiladas uma vez em um
+ * {@link PaymentValidationPlan}; no caminho de sucesso nenhuma validação
+ * aloca objetos. O plano é recompilado se as propriedades forem trocadas.
+ * 
+ * {@code check*} devolvem um {@link ValidationResult}; {@code validate*}
+ * lançam a exceção pré-construída da regra violada. Em nenhum dos dois
+ * caminhos uma rejeição preenche stack trace.
+ * 
+ * Cartões com número passam ainda pela triagem local de BIN
+ * ({@link BinRangeIndex}), que rejeita bandeira, tipo ou país não elegíveis
+ * antes de qualquer chamada ao Stripe.
+ * 
  * @author Moturial Team
  * @version 1.0.0
  */
@@ -41,396 +53,405 @@ public class PaymentValidator {
     @Value("${payment.validation.expiry-pattern:^(0[1-9]|1[0-2])/([0-9]{2})$}")
     private String expiryPattern;
 
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-        "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$"
-    );
+    @Autowired(required = false)
+    private BinRangeIndex binRangeIndex;
 
-    private static final Pattern CPF_PATTERN = Pattern.compile(
-        "^[0-9]{3}\\.?[0-9]{3}\\.?[0-9]{3}-?[0-9]{2}$"
-    );
-
-    private static final Pattern PHONE_PATTERN = Pattern.compile(
-        "^\\+?[0-9]{10,15}$"
-    );
+    private volatile PaymentValidationPlan plan;
 
     /**
      * Valida requisição de pagamento completa
      */
     public void validatePaymentRequest(PaymentRequest request) {
+        checkPaymentRequest(request).throwIfInvalid();
+    }
+
+    /**
+     * Valida dados de cartão
+     */
+    public void validateCardData(CardData cardData) {
+        checkCardData(cardData).throwIfInvalid();
+    }
+
+    /**
+     * Valida dados de cartão e a elegibilidade do cartão para as parcelas
+     */
+    public void validateCardData(CardData cardData, Integer installments) {
+        checkCardData(cardData, installments).throwIfInvalid();
+    }
+
+    /**
+     * Valida requisição de pagamento completa, sem lançar exceção
+     */
+    public ValidationResult checkPaymentRequest(PaymentRequest request) {
         if (request == null) {
-            throw new PaymentValidationException("Requisição de pagamento não pode ser nula");
+            return ValidationRule.REQUEST_REQUIRED.result();
         }
 
-        validateUserId(request.getUserId());
-        validateAmount(request.getAmount());
-        validateCurrency(request.getCurrency());
-        validatePaymentMethod(request.getPaymentMethod());
-        validateInstallments(request.getInstallments());
-        validateDescription(request.getDescription());
-        validateCustomer(request.getCustomer());
+        PaymentValidationPlan plan = plan();
+        ValidationResult result = checkUserId(request.getUserId());
+        if (result.isValid()) {
+            result = checkAmount(plan, request.getAmount());
+        }
+        if (result.isValid()) {
+            result = checkCurrency(request.getCurrency());
+        }
+        if (result.isValid()) {
+            result = checkPaymentMethod(request.getPaymentMethod());
+        }
+        if (result.isValid()) {
+            result = checkInstallments(plan, request.getInstallments());
+        }
+        if (result.isValid()) {
+            result = checkDescription(request.getDescription());
+        }
+        if (result.isValid()) {
+            result = checkCustomer(request.getCustomer());
+        }
+        return result;
     }
 
     /**
-     * Valida dados de cartão
+     * Valida dados de cartão, sem lançar exceção
      */
-    public void validateCardData(CardData cardData) {
+    public ValidationResult checkCardData(CardData cardData) {
+        return checkCardData(cardData, null);
+    }
+
+    /**
+     * Valida dados de cartão e a elegibilidade para as parcelas, sem lançar
+     * exceção; {@code installments} nulo não verifica o parcelamento
+     */
+    public ValidationResult checkCardData(CardData cardData, Integer installments) {
         if (cardData == null) {
-            throw new PaymentValidationException("Dados do cartão não podem ser nulos");
+            return ValidationRule.CARD_REQUIRED.result();
         }
 
         // Se tem token, não precisa validar outros campos
         if (StringUtils.hasText(cardData.getToken())) {
-            validateCardToken(cardData.getToken());
-            return;
+            return checkCardToken(cardData.getToken());
         }
 
-        validateCardNumber(cardData.getNumber());
-        validateCardHolderName(cardData.getHolderName());
-        validateExpiryDate(cardData.getExpiryDate());
-        validateCvv(cardData.getCvv());
+        PaymentValidationPlan plan = plan();
+        ValidationResult result = checkCardNumber(plan, cardData.getNumber());
+        if (result.isValid()) {
+            result = checkCardHolderName(cardData.getHolderName());
+        }
+        if (result.isValid()) {
+            result = checkExpiryDate(plan, cardData.getExpiryDate());
+        }
+        if (result.isValid()) {
+            result = checkCvv(plan, cardData.getCvv());
+        }
+        if (result.isValid() && binRangeIndex != null) {
+            result = binRangeIndex.screen(cardData.getNumber(), installments);
+        }
+        return result;
+    }
+
+    /**
+     * Plano compilado das propriedades atuais
+     */
+    private PaymentValidationPlan plan() {
+        PaymentValidationPlan current = plan;
+        if (current == null || !current.compiledFrom(maxAmount, minAmount, maxInstallments,
+                cardNumberPattern, cvvPattern, expiryPattern)) {
+            current = PaymentValidationPlan.compile(maxAmount, minAmount, maxInstallments,
+                cardNumberPattern, cvvPattern, expiryPattern);
+            plan = current;
+        }
+        return current;
     }
 
     /**
      * Valida ID do usuário
      */
-    private void validateUserId(String userId) {
+    private ValidationResult checkUserId(String userId) {
         if (!StringUtils.hasText(userId)) {
-            throw new PaymentValidationException("User ID é obrigatório");
+            return ValidationRule.USER_ID_REQUIRED.result();
         }
 
         if (userId.length() > 255) {
-            throw new PaymentValidationException("User ID deve ter no máximo 255 caracteres");
+            return ValidationRule.USER_ID_TOO_LONG.result();
         }
 
-        if (!userId.matches("^[a-zA-Z0-9_-]+$")) {
-            throw new PaymentValidationException("User ID contém caracteres inválidos");
+        if (!PaymentValidationPlan.isValidIdentifier(userId)) {
+            return ValidationRule.USER_ID_INVALID.result();
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida valor do pagamento
      */
-    private void validateAmount(BigDecimal amount) {
+    private ValidationResult checkAmount(PaymentValidationPlan plan, BigDecimal amount) {
         if (amount == null) {
-            throw new PaymentValidationException("Valor é obrigatório");
+            return ValidationRule.AMOUNT_REQUIRED.result();
         }
 
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new PaymentValidationException("Valor deve ser maior que zero");
+            return ValidationRule.AMOUNT_NOT_POSITIVE.result();
         }
 
-        if (amount.compareTo(maxAmount) > 0) {
-            throw new PaymentValidationException("Valor máximo excedido: " + maxAmount);
+        if (amount.compareTo(plan.maxAmount) > 0) {
+            return plan.amountAboveMax;
         }
 
-        if (amount.compareTo(minAmount) < 0) {
-            throw new PaymentValidationException("Valor mínimo não atingido: " + minAmount);
+        if (amount.compareTo(plan.minAmount) < 0) {
+            return plan.amountBelowMin;
         }
 
         // Validar escala (máximo 2 casas decimais)
         if (amount.scale() > 2) {
-            throw new PaymentValidationException("Valor deve ter no máximo 2 casas decimais");
+            return ValidationRule.AMOUNT_SCALE.result();
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida moeda
      */
-    private void validateCurrency(String currency) {
+    private ValidationResult checkCurrency(String currency) {
         if (!StringUtils.hasText(currency)) {
-            throw new PaymentValidationException("Moeda é obrigatória");
+            return ValidationRule.CURRENCY_REQUIRED.result();
         }
 
-        if (!currency.matches("^[A-Z]{3}$")) {
-            throw new PaymentValidationException("Moeda deve ter 3 caracteres maiúsculos");
+        if (!PaymentValidationPlan.isCurrencyCode(currency)) {
+            return ValidationRule.CURRENCY_FORMAT.result();
         }
 
         // Validar moedas suportadas
         if (!isSupportedCurrency(currency)) {
-            throw new PaymentValidationException("Moeda não suportada: " + currency);
+            return ValidationResult.of(ValidationRule.CURRENCY_UNSUPPORTED, "Moeda não suportada: " + currency);
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida método de pagamento
      */
-        private void validatePaymentMethod(com.moturial.payment.domain.enums.PaymentMethodType paymentMethod) {
+    private ValidationResult checkPaymentMethod(PaymentMethodType paymentMethod) {
         if (paymentMethod == null) {
-            throw new PaymentValidationException("Método de pagamento é obrigatório");
+            return ValidationRule.PAYMENT_METHOD_REQUIRED.result();
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida parcelas
      */
-    private void validateInstallments(Integer installments) {
+    private ValidationResult checkInstallments(PaymentValidationPlan plan, Integer installments) {
         if (installments == null) {
-            throw new PaymentValidationException("Parcelas é obrigatório");
+            return ValidationRule.INSTALLMENTS_REQUIRED.result();
         }
 
         if (installments < 1) {
-            throw new PaymentValidationException("Parcelas deve ser pelo menos 1");
+            return ValidationRule.INSTALLMENTS_BELOW_MIN.result();
         }
 
-        if (installments > maxInstallments) {
-            throw new PaymentValidationException("Parcelas não pode exceder " + maxInstallments);
+        if (installments > plan.maxInstallments) {
+            return plan.installmentsAboveMax;
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida descrição
      */
-    private void validateDescription(String description) {
+    private ValidationResult checkDescription(String description) {
         if (StringUtils.hasText(description) && description.length() > 500) {
-            throw new PaymentValidationException("Descrição deve ter no máximo 500 caracteres");
+            return ValidationRule.DESCRIPTION_TOO_LONG.result();
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida dados do cliente
      */
-    private void validateCustomer(CustomerData customer) {
+    private ValidationResult checkCustomer(CustomerData customer) {
         if (customer == null) {
-            throw new PaymentValidationException("Dados do cliente são obrigatórios");
+            return ValidationRule.CUSTOMER_REQUIRED.result();
         }
 
-        validateCustomerName(customer.getName());
-        validateCustomerEmail(customer.getEmail());
-        validateCustomerDocument(customer.getDocument());
-        validateCustomerPhone(customer.getPhone());
+        ValidationResult result = checkCustomerName(customer.getName());
+        if (result.isValid()) {
+            result = checkCustomerEmail(customer.getEmail());
+        }
+        if (result.isValid()) {
+            result = checkCustomerDocument(customer.getDocument());
+        }
+        if (result.isValid()) {
+            result = checkCustomerPhone(customer.getPhone());
+        }
+        return result;
     }
 
     /**
      * Valida nome do cliente
      */
-    private void validateCustomerName(String name) {
+    private ValidationResult checkCustomerName(String name) {
         if (!StringUtils.hasText(name)) {
-            throw new PaymentValidationException("Nome do cliente é obrigatório");
+            return ValidationRule.CUSTOMER_NAME_REQUIRED.result();
         }
 
         if (name.length() < 2) {
-            throw new PaymentValidationException("Nome deve ter pelo menos 2 caracteres");
+            return ValidationRule.CUSTOMER_NAME_TOO_SHORT.result();
         }
 
         if (name.length() > 100) {
-            throw new PaymentValidationException("Nome deve ter no máximo 100 caracteres");
+            return ValidationRule.CUSTOMER_NAME_TOO_LONG.result();
         }
 
-        if (!name.matches("^[a-zA-ZÀ-ÿ\\s]+$")) {
-            throw new PaymentValidationException("Nome contém caracteres inválidos");
+        if (!PaymentValidationPlan.isValidName(name)) {
+            return ValidationRule.CUSTOMER_NAME_INVALID.result();
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida email do cliente
      */
-    private void validateCustomerEmail(String email) {
+    private ValidationResult checkCustomerEmail(String email) {
         if (!StringUtils.hasText(email)) {
-            throw new PaymentValidationException("Email do cliente é obrigatório");
+            return ValidationRule.CUSTOMER_EMAIL_REQUIRED.result();
         }
 
         if (email.length() > 255) {
-            throw new PaymentValidationException("Email deve ter no máximo 255 caracteres");
+            return ValidationRule.CUSTOMER_EMAIL_TOO_LONG.result();
         }
 
-        if (!EMAIL_PATTERN.matcher(email).matches()) {
-            throw new PaymentValidationException("Email deve ter formato válido");
+        if (!PaymentValidationPlan.isValidEmail(email)) {
+            return ValidationRule.CUSTOMER_EMAIL_INVALID.result();
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida documento do cliente (CPF)
      */
-    private void validateCustomerDocument(String document) {
+    private ValidationResult checkCustomerDocument(String document) {
         if (StringUtils.hasText(document)) {
             if (document.length() > 20) {
-                throw new PaymentValidationException("CPF deve ter no máximo 20 caracteres");
+                return ValidationRule.CUSTOMER_DOCUMENT_TOO_LONG.result();
             }
 
-            if (!CPF_PATTERN.matcher(document).matches()) {
-                throw new PaymentValidationException("CPF deve ter formato válido");
+            int check = PaymentValidationPlan.checkCpf(document);
+            if (check == PaymentValidationPlan.MALFORMED) {
+                return ValidationRule.CUSTOMER_DOCUMENT_FORMAT.result();
             }
 
-            if (!isValidCpf(document.replaceAll("[^0-9]", ""))) {
-                throw new PaymentValidationException("CPF inválido");
+            if (check == PaymentValidationPlan.INVALID) {
+                return ValidationRule.CUSTOMER_DOCUMENT_INVALID.result();
             }
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida telefone do cliente
      */
-    private void validateCustomerPhone(String phone) {
+    private ValidationResult checkCustomerPhone(String phone) {
         if (StringUtils.hasText(phone)) {
             if (phone.length() > 20) {
-                throw new PaymentValidationException("Telefone deve ter no máximo 20 caracteres");
+                return ValidationRule.CUSTOMER_PHONE_TOO_LONG.result();
             }
 
-            if (!PHONE_PATTERN.matcher(phone.replaceAll("[^0-9+]", "")).matches()) {
-                throw new PaymentValidationException("Telefone deve ter formato válido");
+            if (!PaymentValidationPlan.isValidPhone(phone)) {
+                return ValidationRule.CUSTOMER_PHONE_INVALID.result();
             }
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida número do cartão
      */
-    private void validateCardNumber(String number) {
+    private ValidationResult checkCardNumber(PaymentValidationPlan plan, String number) {
         if (!StringUtils.hasText(number)) {
-            throw new PaymentValidationException("Número do cartão é obrigatório");
+            return ValidationRule.CARD_NUMBER_REQUIRED.result();
         }
 
-        String cleanNumber = number.replaceAll("\\s", "");
-        
-        if (!cleanNumber.matches(cardNumberPattern)) {
-            throw new PaymentValidationException("Número do cartão deve ter entre 13 e 19 dígitos");
+        int check = plan.checkCardNumber(number);
+        if (check == PaymentValidationPlan.MALFORMED) {
+            return ValidationRule.CARD_NUMBER_FORMAT.result();
         }
 
-        if (!isValidCardNumber(cleanNumber)) {
-            throw new PaymentValidationException("Número do cartão inválido");
+        if (check == PaymentValidationPlan.INVALID) {
+            return ValidationRule.CARD_NUMBER_INVALID.result();
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida nome do titular do cartão
      */
-    private void validateCardHolderName(String holderName) {
+    private ValidationResult checkCardHolderName(String holderName) {
         if (!StringUtils.hasText(holderName)) {
-            throw new PaymentValidationException("Nome do titular é obrigatório");
+            return ValidationRule.CARD_HOLDER_REQUIRED.result();
         }
 
         if (holderName.length() < 2) {
-            throw new PaymentValidationException("Nome do titular deve ter pelo menos 2 caracteres");
+            return ValidationRule.CARD_HOLDER_TOO_SHORT.result();
         }
 
         if (holderName.length() > 100) {
-            throw new PaymentValidationException("Nome do titular deve ter no máximo 100 caracteres");
+            return ValidationRule.CARD_HOLDER_TOO_LONG.result();
         }
 
-        if (!holderName.matches("^[a-zA-ZÀ-ÿ\\s]+$")) {
-            throw new PaymentValidationException("Nome do titular contém caracteres inválidos");
+        if (!PaymentValidationPlan.isValidName(holderName)) {
+            return ValidationRule.CARD_HOLDER_INVALID.result();
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida data de expiração
      */
-    private void validateExpiryDate(String expiryDate) {
+    private ValidationResult checkExpiryDate(PaymentValidationPlan plan, String expiryDate) {
         if (!StringUtils.hasText(expiryDate)) {
-            throw new PaymentValidationException("Data de expiração é obrigatória");
+            return ValidationRule.CARD_EXPIRY_REQUIRED.result();
         }
 
-        if (!expiryDate.matches(expiryPattern)) {
-            throw new PaymentValidationException("Data de expiração deve estar no formato MM/YY");
+        int check = plan.checkExpiryDate(expiryDate);
+        if (check == PaymentValidationPlan.MALFORMED) {
+            return ValidationRule.CARD_EXPIRY_FORMAT.result();
         }
 
-        if (!isValidExpiryDate(expiryDate)) {
-            throw new PaymentValidationException("Data de expiração inválida ou vencida");
+        if (check == PaymentValidationPlan.INVALID) {
+            return ValidationRule.CARD_EXPIRED.result();
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida CVV
      */
-    private void validateCvv(String cvv) {
+    private ValidationResult checkCvv(PaymentValidationPlan plan, String cvv) {
         if (!StringUtils.hasText(cvv)) {
-            throw new PaymentValidationException("CVV é obrigatório");
+            return ValidationRule.CARD_CVV_REQUIRED.result();
         }
 
-        if (!cvv.matches(cvvPattern)) {
-            throw new PaymentValidationException("CVV deve ter 3 ou 4 dígitos");
+        if (!plan.isValidCvv(cvv)) {
+            return ValidationRule.CARD_CVV_INVALID.result();
         }
+        return ValidationResult.VALID;
     }
 
     /**
      * Valida token do cartão
      */
-    private void validateCardToken(String token) {
+    private ValidationResult checkCardToken(String token) {
         if (!StringUtils.hasText(token)) {
-            throw new PaymentValidationException("Token do cartão é obrigatório");
+            return ValidationRule.CARD_TOKEN_REQUIRED.result();
         }
 
         if (token.length() > 255) {
-            throw new PaymentValidationException("Token do cartão deve ter no máximo 255 caracteres");
+            return ValidationRule.CARD_TOKEN_TOO_LONG.result();
         }
 
-        if (!token.matches("^[a-zA-Z0-9_-]+$")) {
-            throw new PaymentValidationException("Token do cartão contém caracteres inválidos");
+        if (!PaymentValidationPlan.isValidIdentifier(token)) {
+            return ValidationRule.CARD_TOKEN_INVALID.result();
         }
-    }
-
-    /**
-     * Valida número de cartão usando algoritmo de Luhn
-     */
-    private boolean isValidCardNumber(String number) {
-        int sum = 0;
-        boolean alternate = false;
-        
-        for (int i = number.length() - 1; i >= 0; i--) {
-            int n = Integer.parseInt(number.substring(i, i + 1));
-            if (alternate) {
-                n *= 2;
-                if (n > 9) {
-                    n = (n % 10) + 1;
-                }
-            }
-            sum += n;
-            alternate = !alternate;
-        }
-        
-        return sum % 10 == 0;
-    }
-
-    /**
-     * Valida data de expiração
-     */
-    private boolean isValidExpiryDate(String expiryDate) {
-        try {
-            String[] parts = expiryDate.split("/");
-            int month = Integer.parseInt(parts[0]);
-            int year = Integer.parseInt(parts[1]) + 2000;
-
-            java.time.YearMonth expiry = java.time.YearMonth.of(year, month);
-            java.time.YearMonth current = java.time.YearMonth.now();
-
-            return !expiry.isBefore(current);
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    /**
-     * Valida CPF usando algoritmo oficial
-     */
-    private boolean isValidCpf(String cpf) {
-        if (cpf.length() != 11) {
-            return false;
-        }
-
-        // Verifica se todos os dígitos são iguais
-        if (cpf.matches("^(\\d)\\1{10}$")) {
-            return false;
-        }
-
-        // Calcula primeiro dígito verificador
-        int sum = 0;
-        for (int i = 0; i < 9; i++) {
-            sum += Character.getNumericValue(cpf.charAt(i)) * (10 - i);
-        }
-        int remainder = sum % 11;
-        int digit1 = remainder < 2 ? 0 : 11 - remainder;
-
-        // Calcula segundo dígito verificador
-        sum = 0;
-        for (int i = 0; i < 10; i++) {
-            sum += Character.getNumericValue(cpf.charAt(i)) * (11 - i);
-        }
-        remainder = sum % 11;
-        int digit2 = remainder < 2 ? 0 : 11 - remainder;
-
-        // Verifica se os dígitos calculados são iguais aos do CPF
-        return Character.getNumericValue(cpf.charAt(9)) == digit1 &&
-               Character.getNumericValue(cpf.charAt(10)) == digit2;
+        return ValidationResult.VALID;
     }
 
     /**
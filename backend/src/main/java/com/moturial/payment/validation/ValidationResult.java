@@ -0,0 +1,68 @@
+package com.moturial.payment.validation;
+
+import com.moturial.payment.exception.PaymentValidationException;
+
+/**
+ * Resultado de uma validação do {@link PaymentValidator}
+ *
+ * Imutável e compartilhável: {@link #VALID} e os resultados de cada
+ * {@link ValidationRule} são criados uma vez, junto com a exceção sem stack
+ * trace lançada por {@link #throwIfInvalid()}.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public final class ValidationResult {
+
+    public static final ValidationResult VALID = new ValidationResult(null, null, null);
+
+    private final ValidationRule rule;
+    private final String message;
+    private final PaymentValidationException exception;
+
+    private ValidationResult(ValidationRule rule, String message, PaymentValidationException exception) {
+        this.rule = rule;
+        this.message = message;
+        this.exception = exception;
+    }
+
+    /**
+     * Resultado reutilizado a cada violação (mensagem de um conjunto fixo)
+     */
+    static ValidationResult prebuilt(ValidationRule rule, String message) {
+        return new ValidationResult(rule, message,
+            PaymentValidationException.prebuilt(message, rule.name(), rule.getField()));
+    }
+
+    /**
+     * Resultado de uma violação cuja mensagem inclui a entrada
+     */
+    static ValidationResult of(ValidationRule rule, String message) {
+        return new ValidationResult(rule, message,
+            PaymentValidationException.stackless(message, rule.name(), rule.getField()));
+    }
+
+    public boolean isValid() {
+        return rule == null;
+    }
+
+    /**
+     * Regra violada, ou {@code null} se válido
+     */
+    public ValidationRule getRule() {
+        return rule;
+    }
+
+    /**
+     * Mensagem da violação, ou {@code null} se válido
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public void throwIfInvalid() {
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.moturial.payment.validation;
+
+/**
+ * Regras do {@link PaymentValidator}, cada uma com campo e mensagem fixos
+ *
+ * O nome da regra é o {@code errorCode} da {@code PaymentValidationException}.
+ * Regras cuja mensagem depende da configuração ({@link #AMOUNT_ABOVE_MAX},
+ * {@link #AMOUNT_BELOW_MIN}, {@link #INSTALLMENTS_ABOVE_MAX}) ou da entrada
+ * ({@link #CURRENCY_UNSUPPORTED}) têm o resultado montado fora do enum.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public enum ValidationRule {
+
+    REQUEST_REQUIRED("request", "Requisição de pagamento não pode ser nula"),
+
+    USER_ID_REQUIRED("userId", "User ID é obrigatório"),
+    USER_ID_TOO_LONG("userId", "User ID deve ter no máximo 255 caracteres"),
+    USER_ID_INVALID("userId", "User ID contém caracteres inválidos"),
+
+    AMOUNT_REQUIRED("amount", "Valor é obrigatório"),
+    AMOUNT_NOT_POSITIVE("amount", "Valor deve ser maior que zero"),
+    AMOUNT_ABOVE_MAX("amount", "Valor máximo excedido"),
+    AMOUNT_BELOW_MIN("amount", "Valor mínimo não atingido"),
+    AMOUNT_SCALE("amount", "Valor deve ter no máximo 2 casas decimais"),
+
+    CURRENCY_REQUIRED("currency", "Moeda é obrigatória"),
+    CURRENCY_FORMAT("currency", "Moeda deve ter 3 caracteres maiúsculos"),
+    CURRENCY_UNSUPPORTED("currency", "Moeda não suportada"),
+
+    PAYMENT_METHOD_REQUIRED("paymentMethod", "Método de pagamento é obrigatório"),
+
+    INSTALLMENTS_REQUIRED("installments", "Parcelas é obrigatório"),
+    INSTALLMENTS_BELOW_MIN("installments", "Parcelas deve ser pelo menos 1"),
+    INSTALLMENTS_ABOVE_MAX("installments", "Parcelas não pode exceder o máximo"),
+
+    DESCRIPTION_TOO_LONG("description", "Descrição deve ter no máximo 500 caracteres"),
+
+    CUSTOMER_REQUIRED("customer", "Dados do cliente são obrigatórios"),
+    CUSTOMER_NAME_REQUIRED("customer.name", "Nome do cliente é obrigatório"),
+    CUSTOMER_NAME_TOO_SHORT("customer.name", "Nome deve ter pelo menos 2 caracteres"),
+    CUSTOMER_NAME_TOO_LONG("customer.name", "Nome deve ter no máximo 100 caracteres"),
+    CUSTOMER_NAME_INVALID("customer.name", "Nome contém caracteres inválidos"),
+    CUSTOMER_EMAIL_REQUIRED("customer.email", "Email do cliente é obrigatório"),
+    CUSTOMER_EMAIL_TOO_LONG("customer.email", "Email deve ter no máximo 255 caracteres"),
+    CUSTOMER_EMAIL_INVALID("customer.email", "Email deve ter formato válido"),
+    CUSTOMER_DOCUMENT_TOO_LONG("customer.document", "CPF deve ter no máximo 20 caracteres"),
+    CUSTOMER_DOCUMENT_FORMAT("customer.document", "CPF deve ter formato válido"),
+    CUSTOMER_DOCUMENT_INVALID("customer.document", "CPF inválido"),
+    CUSTOMER_PHONE_TOO_LONG("customer.phone", "Telefone deve ter no máximo 20 caracteres"),
+    CUSTOMER_PHONE_INVALID("customer.phone", "Telefone deve ter formato válido"),
+
+    CARD_REQUIRED("card", "Dados do cartão não podem ser nulos"),
+    CARD_NUMBER_REQUIRED("card.number", "Número do cartão é obrigatório"),
+    CARD_NUMBER_FORMAT("card.number", "Número do cartão deve ter entre 13 e 19 dígitos"),
+    CARD_NUMBER_INVALID("card.number", "Número do cartão inválido"),
+    CARD_HOLDER_REQUIRED("card.holderName", "Nome do titular é obrigatório"),
+    CARD_HOLDER_TOO_SHORT("card.holderName", "Nome do titular deve ter pelo menos 2 caracteres"),
+    CARD_HOLDER_TOO_LONG("card.holderName", "Nome do titular deve ter no máximo 100 caracteres"),
+    CARD_HOLDER_INVALID("card.holderName", "Nome do titular contém caracteres inválidos"),
+    CARD_EXPIRY_REQUIRED("card.expiryDate", "Data de expiração é obrigatória"),
+    CARD_EXPIRY_FORMAT("card.expiryDate", "Data de expiração deve estar no formato MM/YY"),
+    CARD_EXPIRED("card.expiryDate", "Data de expiração inválida ou vencida"),
+    CARD_CVV_REQUIRED("card.cvv", "CVV é obrigatório"),
+    CARD_CVV_INVALID("card.cvv", "CVV deve ter 3 ou 4 dígitos"),
+    CARD_TOKEN_REQUIRED("card.token", "Token do cartão é obrigatório"),
+    CARD_TOKEN_TOO_LONG("card.token", "Token do cartão deve ter no máximo 255 caracteres"),
+    CARD_TOKEN_INVALID("card.token", "Token do cartão contém caracteres inválidos"),
+    CARD_BRAND_NOT_ACCEPTED("card.number", "Bandeira do cartão não aceita"),
+    CARD_INSTALLMENTS_NOT_ALLOWED("installments", "Tipo do cartão não permite parcelamento"),
+    CARD_COUNTRY_NOT_ACCEPTED("card.number", "Cartões emitidos neste país não são aceitos");
+
+    private final String field;
+    private final String message;
+    private final ValidationResult result;
+
+    ValidationRule(String field, String message) {
+        this.field = field;
+        this.message = message;
+        this.result = ValidationResult.prebuilt(this, message);
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Resultado pré-construído da violação desta regra
+     */
+    public ValidationResult result() {
+        return result;
+    }
+}
@@ -0,0 +1,18 @@
+-- Migration V10: Add keyset pagination indexes
+-- Author: Moturial Team
+-- Description: (created_at, id) indexes for the cursor-paginated admin listings
+
+-- Composite indexes serve ORDER BY created_at DESC, id DESC and the
+-- (created_at, id) < (?, ?) seek; they replace the single-column ones
+DROP INDEX IF EXISTS idx_users_created_at;
+CREATE INDEX idx_users_created_at_id ON users(created_at, id);
+
+DROP INDEX IF EXISTS idx_motorcycles_created_at;
+CREATE INDEX idx_motorcycles_created_at_id ON motorcycles(created_at, id);
+
+DROP INDEX IF EXISTS idx_rentals_created_at;
+CREATE INDEX idx_rentals_created_at_id ON rentals(created_at, id);
+
+DROP INDEX IF EXISTS idx_stores_created_at;
+CREATE INDEX idx_stores_created_at_id ON stores(created_at, id);
+
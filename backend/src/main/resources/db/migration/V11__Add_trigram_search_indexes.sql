@@ -0,0 +1,21 @@
+-- Migration V11: Add trigram search indexes
+-- Author: Moturial Team
+-- Description: pg_trgm GIN indexes for the admin substring searches
+
+-- The admin searches run "col ILIKE '%term%'", which no B-tree can serve;
+-- gin_trgm_ops indexes answer LIKE/ILIKE with any wildcard position
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Users: name and email (also searched through the rentals listing)
+CREATE INDEX idx_users_name_trgm ON users USING gin (name gin_trgm_ops);
+CREATE INDEX idx_users_email_trgm ON users USING gin (email gin_trgm_ops);
+
+-- Motorcycles: name and type (search box), location (location filter)
+CREATE INDEX idx_motorcycles_name_trgm ON motorcycles USING gin (name gin_trgm_ops);
+CREATE INDEX idx_motorcycles_type_trgm ON motorcycles USING gin (type gin_trgm_ops);
+CREATE INDEX idx_motorcycles_location_trgm ON motorcycles USING gin (location gin_trgm_ops);
+
+-- Stores: name, city and address
+CREATE INDEX idx_stores_name_trgm ON stores USING gin (name gin_trgm_ops);
+CREATE INDEX idx_stores_city_trgm ON stores USING gin (city gin_trgm_ops);
+CREATE INDEX idx_stores_address_trgm ON stores USING gin (address gin_trgm_ops);
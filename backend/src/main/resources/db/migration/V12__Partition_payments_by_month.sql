@@ -0,0 +1,138 @@
+-- Migration V12: Partition payments by month
+-- Author: Moturial Team
+-- Description: Rebuild payments as a table range-partitioned by created_at (one partition per month),
+--              with functions used by PaymentPartitionJob to pre-create partitions and archive old ones
+
+-- Partitions past retention are detached into this schema, not dropped
+CREATE SCHEMA IF NOT EXISTS payments_archive;
+
+ALTER TABLE payments RENAME TO payments_unpartitioned;
+
+-- Same columns, defaults, CHECK constraints and column comments; indexes are created after the copy
+CREATE TABLE payments (
+    LIKE payments_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS
+) PARTITION BY RANGE (created_at);
+
+-- Creates the monthly partitions payments_YYYY_MM for [first_month, first_month + months);
+-- returns the names of the partitions that did not exist yet
+CREATE OR REPLACE FUNCTION create_payments_partitions(first_month DATE, months INTEGER)
+RETURNS SETOF TEXT AS $$
+DECLARE
+    month_start TIMESTAMP;
+    partition_name TEXT;
+BEGIN
+    -- Serializes concurrent runs from several application nodes
+    PERFORM pg_advisory_xact_lock(hashtext('payments_partitions'));
+
+    FOR i IN 0..months - 1 LOOP
+        month_start := date_trunc('month', first_month::TIMESTAMP) + make_interval(months => i);
+        partition_name := 'payments_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass('public.' || partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE public.%I PARTITION OF payments FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month_start, month_start + INTERVAL '1 month');
+            RETURN NEXT partition_name;
+        END IF;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches the monthly partitions that end on or before older_than and moves them to payments_archive;
+-- returns the names of the archived partitions
+CREATE OR REPLACE FUNCTION archive_payments_partitions(older_than DATE)
+RETURNS SETOF TEXT AS $$
+DECLARE
+    partition_name TEXT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('payments_partitions'));
+    -- DETACH takes an exclusive lock on payments: give up instead of queueing inserts behind it
+    PERFORM set_config('lock_timeout', '5s', true);
+
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'public.payments'::regclass
+          AND c.relname ~ '^payments_[0-9]{4}_[0-9]{2}$'
+          AND to_date(substring(c.relname FROM 10), 'YYYY_MM') + INTERVAL '1 month' <= older_than
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE public.payments DETACH PARTITION public.%I', partition_name);
+        EXECUTE format('ALTER TABLE public.%I SET SCHEMA payments_archive', partition_name);
+        RETURN NEXT partition_name;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for every month with data, plus the current month and the next three
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month',
+        COALESCE((SELECT MIN(created_at) FROM payments_unpartitioned), CURRENT_DATE))::date;
+    current_month DATE := date_trunc('month', CURRENT_DATE)::date;
+BEGIN
+    PERFORM create_payments_partitions(first_month,
+        ((EXTRACT(YEAR FROM current_month) - EXTRACT(YEAR FROM first_month)) * 12
+         + EXTRACT(MONTH FROM current_month) - EXTRACT(MONTH FROM first_month))::INTEGER + 4);
+END $$;
+
+INSERT INTO payments SELECT * FROM payments_unpartitioned;
+
+DROP TABLE payments_unpartitioned;
+
+-- Unique constraints on a partitioned table must include the partition key, so these only enforce
+-- uniqueness per created_at
+ALTER TABLE payments ADD CONSTRAINT payments_pkey PRIMARY KEY (id, created_at);
+ALTER TABLE payments ADD CONSTRAINT payments_external_id_key UNIQUE (external_id, created_at);
+
+-- external_id (Stripe PaymentIntent id, or a random UUID until the intent exists) must stay unique across
+-- all partitions: each payment claims its external_id in this unpartitioned table, and a duplicate fails
+-- with a unique violation as under the former UNIQUE (external_id). Detaching a partition fires no
+-- trigger, so archived payments keep their external_id claimed
+CREATE TABLE payment_external_ids (
+    external_id VARCHAR(255) PRIMARY KEY,
+    payment_id UUID NOT NULL
+);
+
+INSERT INTO payment_external_ids (external_id, payment_id) SELECT external_id, id FROM payments;
+
+CREATE OR REPLACE FUNCTION claim_payment_external_id()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND NEW.external_id = OLD.external_id THEN
+        RETURN NEW;
+    END IF;
+    IF TG_OP <> 'INSERT' THEN
+        DELETE FROM payment_external_ids WHERE external_id = OLD.external_id;
+    END IF;
+    IF TG_OP = 'DELETE' THEN
+        RETURN OLD;
+    END IF;
+    INSERT INTO payment_external_ids (external_id, payment_id) VALUES (NEW.external_id, NEW.id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER claim_payment_external_id
+    BEFORE INSERT OR UPDATE OF external_id OR DELETE ON payments
+    FOR EACH ROW
+    EXECUTE FUNCTION claim_payment_external_id();
+
+-- Same indexes as before; each is created on every partition
+CREATE INDEX idx_payment_external_id ON payments(external_id);
+CREATE INDEX idx_payment_status ON payments(status);
+CREATE INDEX idx_payment_created_at ON payments(created_at);
+CREATE INDEX idx_payment_user_id ON payments(user_id);
+CREATE INDEX idx_payment_method ON payments(payment_method);
+CREATE INDEX idx_payment_processed_at ON payments(processed_at) WHERE processed_at IS NOT NULL;
+CREATE INDEX idx_payment_user_status ON payments(user_id, status);
+CREATE INDEX idx_payment_status_created ON payments(status, created_at);
+
+CREATE TRIGGER update_payments_updated_at
+    BEFORE UPDATE ON payments
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+COMMENT ON TABLE payments IS 'Payment transactions table with full audit trail, range-partitioned by month of created_at';
+COMMENT ON FUNCTION create_payments_partitions(DATE, INTEGER) IS 'Creates missing monthly payments partitions (PaymentPartitionJob)';
+COMMENT ON TABLE payment_external_ids IS 'Global uniqueness of payments.external_id across partitions (claim_payment_external_id)';
+COMMENT ON FUNCTION archive_payments_partitions(DATE) IS 'Detaches monthly payments partitions past retention into payments_archive (PaymentPartitionJob)';
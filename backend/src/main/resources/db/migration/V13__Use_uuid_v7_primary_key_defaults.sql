@@ -0,0 +1,29 @@
+-- Migration V13: Use UUIDv7 primary key defaults
+-- Author: Moturial Team
+-- Description: Time-ordered UUIDv7 defaults for the entity primary keys, matching the @UuidV7 generator
+
+-- UUIDv7 (RFC 9562): the random v4 bytes with the first 48 bits replaced by the Unix time in milliseconds
+-- and the version nibble turned from 4 (0100) into 7 (0111). The variant bits are already 10.
+-- Unlike the Java generator, ids created in the same millisecond are not ordered among themselves
+CREATE OR REPLACE FUNCTION uuid_generate_v7()
+RETURNS UUID AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(uuid_generate_v4())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::UUID;
+$$ LANGUAGE sql VOLATILE;
+
+-- New keys are appended to the right edge of the primary key B-tree instead of landing on random pages.
+-- Existing v4 ids are kept: both versions coexist in the same UUID columns
+ALTER TABLE payments ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE motorcycles ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE rentals ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE stores ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+
+COMMENT ON FUNCTION uuid_generate_v7() IS 'Time-ordered UUIDv7 for primary key defaults (same layout as UuidV7Generator)';
@@ -0,0 +1,18 @@
+-- Migration V14: Convert payment metadata to jsonb
+-- Author: Moturial Team
+-- Description: payments.metadata becomes a jsonb column with GIN and rental_id indexes; the old TEXT values
+--              (Java Map.toString format) are kept in metadata_legacy and converted by PaymentMetadataBackfillJob
+
+-- ALTER COLUMN ... TYPE jsonb would rewrite every partition under an ACCESS EXCLUSIVE lock. Renaming the
+-- column and adding a new one without default only touch the catalog; the rows are converted afterwards in
+-- small batches. Deploy together with the application version that writes JSON: older nodes send text
+ALTER TABLE payments RENAME COLUMN metadata TO metadata_legacy;
+ALTER TABLE payments ADD COLUMN metadata JSONB;
+
+-- Lookups by any metadata key/value pair (metadata @> '{"order_id": "..."}')
+CREATE INDEX idx_payment_metadata ON payments USING gin (metadata jsonb_path_ops);
+-- Lookups by rental (metadata->>'rental_id' = ...), the most frequent one
+CREATE INDEX idx_payment_metadata_rental_id ON payments ((metadata->>'rental_id'));
+
+COMMENT ON COLUMN payments.metadata IS 'Stripe PaymentIntent metadata (payment_reference, rental_id, order_id, ...)';
+COMMENT ON COLUMN payments.metadata_legacy IS 'Metadata as stored before V14 (Map.toString text); NULL once converted';
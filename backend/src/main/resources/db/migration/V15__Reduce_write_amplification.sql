@@ -0,0 +1,72 @@
+-- Migration V15: Reduce write amplification
+-- Author: Moturial Team
+-- Description: Drop indexes duplicated by unique constraints, leave updated_at to the
+--              application (entity callbacks and explicit JDBC updates) and lower fillfactor on updated tables
+
+-- Every index is written on each insert and on each non-HOT update. These are copies of a unique index on
+-- the same column:
+--   external_id: payments_external_id_key UNIQUE (external_id, created_at), V12
+DROP INDEX IF EXISTS idx_payment_external_id;
+--   email: users_email_key UNIQUE (email)
+DROP INDEX IF EXISTS idx_users_email;
+--   license_plate: motorcycles_license_plate_key UNIQUE
+DROP INDEX IF EXISTS idx_motorcycles_license_plate;
+--   key_hash: api_keys_key_hash_key UNIQUE
+DROP INDEX IF EXISTS idx_api_keys_key_hash;
+-- Kept although a wider index starts with the same column: idx_payment_status and idx_payment_user_id are
+-- smaller to scan than (status, created_at) and (user_id, status), and idx_users_email_status allows
+-- index-only scans on email + status. Dropping them needs query plans showing nothing depends on them
+
+-- updated_at was set twice: by @PreUpdate/@UpdateTimestamp and again by these triggers, one PL/pgSQL call per
+-- updated row. All application writes (JPA and the JDBC batch updates) already set it, and H2 never had the
+-- triggers. api_keys keeps its trigger: the application does not write that table
+DROP TRIGGER IF EXISTS update_payments_updated_at ON payments;
+DROP TRIGGER IF EXISTS update_users_updated_at ON users;
+DROP TRIGGER IF EXISTS update_motorcycles_updated_at ON motorcycles;
+DROP TRIGGER IF EXISTS update_rentals_updated_at ON rentals;
+DROP TRIGGER IF EXISTS update_stores_updated_at ON stores;
+
+-- Free space in each page lets an update keep the new row version on the same page. When no indexed column
+-- changes (updated_at, error_message, webhook_event_at, phone, ...) it is a HOT update and no index is
+-- written; status changes still add entries to the indexes that contain status.
+-- Applies to pages filled from now on; existing pages are not rewritten
+ALTER TABLE users SET (fillfactor = 90);
+ALTER TABLE motorcycles SET (fillfactor = 90);
+ALTER TABLE rentals SET (fillfactor = 90);
+
+-- A payment is inserted and then updated two or three times within seconds (Stripe result, webhook).
+-- Storage parameters are per partition: set them on the existing ones and on every new one
+DO $$
+DECLARE
+    partition_name TEXT;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'public.payments'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE public.%I SET (fillfactor = 85)', partition_name);
+    END LOOP;
+END $$;
+
+CREATE OR REPLACE FUNCTION create_payments_partitions(first_month DATE, months INTEGER)
+RETURNS SETOF TEXT AS $$
+DECLARE
+    month_start TIMESTAMP;
+    partition_name TEXT;
+BEGIN
+    -- Serializes concurrent runs from several application nodes
+    PERFORM pg_advisory_xact_lock(hashtext('payments_partitions'));
+
+    FOR i IN 0..months - 1 LOOP
+        month_start := date_trunc('month', first_month::TIMESTAMP) + make_interval(months => i);
+        partition_name := 'payments_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass('public.' || partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE public.%I PARTITION OF payments FOR VALUES FROM (%L) TO (%L) WITH (fillfactor = 85)',
+                           partition_name, month_start, month_start + INTERVAL '1 month');
+            RETURN NEXT partition_name;
+        END IF;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,29 @@
+-- Migration V7: Create idempotency keys table
+-- Author: Moturial Team
+-- Description: Stores Idempotency-Key results for payment creation endpoints
+
+-- Create idempotency_keys table
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED', 'FAILED')),
+    response_body TEXT,
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Create indexes for performance
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
+
+-- Add comments for documentation
+COMMENT ON TABLE idempotency_keys IS 'Idempotency-Key results for POST /payments/card and /payments/pix';
+COMMENT ON COLUMN idempotency_keys.idempotency_key IS 'Client supplied Idempotency-Key header';
+COMMENT ON COLUMN idempotency_keys.request_hash IS 'SHA-256 of endpoint and request body, detects key reuse with a different payload';
+COMMENT ON COLUMN idempotency_keys.status IS 'IN_PROGRESS while the first request runs, then COMPLETED or FAILED';
+COMMENT ON COLUMN idempotency_keys.response_body IS 'Stored PaymentResult as JSON';
+COMMENT ON COLUMN idempotency_keys.error_message IS 'Processing error replayed to retries of a failed request';
+COMMENT ON COLUMN idempotency_keys.created_at IS 'First request timestamp';
+COMMENT ON COLUMN idempotency_keys.completed_at IS 'Completion timestamp';
+COMMENT ON COLUMN idempotency_keys.expires_at IS 'Key retention deadline';
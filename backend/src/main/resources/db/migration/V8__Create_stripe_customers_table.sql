@@ -0,0 +1,16 @@
+-- Migration V8: Create stripe customers table
+-- Author: Moturial Team
+-- Description: Local email to Stripe customer id mapping, avoids Customer.list on every payment
+
+-- Create stripe_customers table
+CREATE TABLE stripe_customers (
+    email VARCHAR(255) PRIMARY KEY,
+    stripe_customer_id VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Add comments for documentation
+COMMENT ON TABLE stripe_customers IS 'Email to Stripe customer id mapping';
+COMMENT ON COLUMN stripe_customers.email IS 'Normalized (trimmed, lower case) customer email';
+COMMENT ON COLUMN stripe_customers.stripe_customer_id IS 'Stripe customer id (cus_...)';
+COMMENT ON COLUMN stripe_customers.created_at IS 'Mapping creation timestamp';
@@ -0,0 +1,25 @@
+-- Migration V9: Create stripe webhook events table
+-- Author: Moturial Team
+-- Description: Processed Stripe webhook event ids and the webhook timestamp on payments
+
+-- Create stripe_webhook_events table
+CREATE TABLE stripe_webhook_events (
+    event_id VARCHAR(255) PRIMARY KEY,
+    event_type VARCHAR(100) NOT NULL,
+    payment_intent_id VARCHAR(255),
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Create indexes for performance
+CREATE INDEX idx_stripe_webhook_events_received_at ON stripe_webhook_events(received_at);
+
+-- Track the last webhook event applied to each payment
+ALTER TABLE payments ADD COLUMN webhook_event_at TIMESTAMP;
+
+-- Add comments for documentation
+COMMENT ON TABLE stripe_webhook_events IS 'Stripe webhook events already applied, used to drop redeliveries';
+COMMENT ON COLUMN stripe_webhook_events.event_id IS 'Stripe event id (evt_...)';
+COMMENT ON COLUMN stripe_webhook_events.event_type IS 'Stripe event type (payment_intent.succeeded, ...)';
+COMMENT ON COLUMN stripe_webhook_events.payment_intent_id IS 'PaymentIntent the event refers to';
+COMMENT ON COLUMN stripe_webhook_events.received_at IS 'Event processing timestamp';
+COMMENT ON COLUMN payments.webhook_event_at IS 'Creation time of the last Stripe webhook event applied; when set, status is served from the database';
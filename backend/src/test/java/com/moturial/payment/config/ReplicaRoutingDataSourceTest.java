@@ -0,0 +1,183 @@
+package com.moturial.payment.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do roteamento entre primário e réplicas, com bancos H2 no lugar das instâncias PostgreSQL
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String[] NODES = {"primary", "replica-0", "replica-1"};
+
+    private final Map<String, JdbcTemplate> nodes = new LinkedHashMap<>();
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        for (String node : NODES) {
+            DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + node + ";DB_CLOSE_DELAY=-1", "sa", "");
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+            jdbc.update("INSERT INTO node (name) VALUES (?)", node);
+            jdbc.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+            jdbc.update("INSERT INTO replica_lag (seconds) VALUES (0)");
+            nodes.put(node, jdbc);
+            dataSources.put(node, dataSource);
+        }
+        DataSource primary = dataSources.remove("primary");
+
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReplicaRoutingDataSource(primary, dataSources, Duration.ofSeconds(5),
+            Duration.ofMinutes(1), "SELECT seconds FROM replica_lag", meterRegistry);
+        routingDataSource.checkLag();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        ReplicaRoutingDataSource.replicaReads(null);
+        nodes.values().forEach(jdbc -> jdbc.execute("DROP ALL OBJECTS"));
+    }
+
+    @Test
+    void readOnlyServiceTransactions_AlternateBetweenReplicas() {
+        Set<String> served = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            served.add(read(true));
+        }
+
+        assertEquals(Set.of("replica-0", "replica-1"), served);
+        assertEquals(2.0, meterRegistry.counter("payment.datasource.reads", "target", "replica-0").count());
+    }
+
+    @Test
+    void writesAndRepositoryDefaultReads_StayOnPrimary() {
+        String write = new TransactionTemplate(transactionManager).execute(status -> node());
+        String repositoryRead = read(false);
+
+        assertEquals("primary", write);
+        assertEquals("primary", repositoryRead);
+    }
+
+    @Test
+    void laggingOrUnreachableReplicas_FallBackToPrimary() {
+        nodes.get("replica-0").update("UPDATE replica_lag SET seconds = 30");
+        routingDataSource.checkLag();
+        assertEquals("replica-1", read(true));
+        assertEquals("replica-1", read(true));
+
+        nodes.get("replica-1").execute("DROP TABLE replica_lag");
+        routingDataSource.checkLag();
+        assertEquals("primary", read(true));
+        assertEquals(1.0, meterRegistry.counter("payment.datasource.reads", "target", "primary").count());
+
+        nodes.get("replica-0").update("UPDATE replica_lag SET seconds = 1");
+        routingDataSource.checkLag();
+        assertEquals("replica-0", read(true));
+    }
+
+    @Test
+    void clientReads_StayOnPrimaryUntilReplicaHasAppliedItsCommit() {
+        authenticate("api-client-a");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update("UPDATE node SET name = name"));
+
+        // A verificação anterior ao commit não comprova nada para este cliente
+        assertEquals("primary", read(true));
+        authenticate("api-client-b");
+        assertNotEquals("primary", read(true));
+
+        // Nova verificação, atraso zero: as réplicas já aplicaram o commit
+        routingDataSource.checkLag();
+        authenticate("api-client-a");
+        assertNotEquals("primary", read(true));
+    }
+
+    @Test
+    void aspect_AllowsReplicaReadsOnlyInsideReadOnlyMethods() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ReplicaReadAspect());
+        SampleService service = factory.getProxy();
+
+        assertEquals(Boolean.TRUE, service.find());
+        assertEquals(Boolean.FALSE, service.save());
+        assertNull(ReplicaRoutingDataSource.replicaReads(null));
+    }
+
+    /**
+     * Nó que atendeu a leitura, em transação somente leitura dentro (ou fora) do escopo de réplica
+     */
+    private String read(boolean replicaScope) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        Boolean previous = ReplicaRoutingDataSource.replicaReads(replicaScope);
+        try {
+            return template.execute(status -> node());
+        } finally {
+            ReplicaRoutingDataSource.replicaReads(previous);
+        }
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static void authenticate(String client) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new TestingAuthenticationToken(client, null, "ROLE_API_USER"));
+    }
+
+    @Transactional(readOnly = true)
+    static class SampleService {
+
+        public Boolean find() {
+            return currentScope();
+        }
+
+        @Transactional
+        public Boolean save() {
+            return currentScope();
+        }
+
+        private static Boolean currentScope() {
+            Boolean current = ReplicaRoutingDataSource.replicaReads(null);
+            ReplicaRoutingDataSource.replicaReads(current);
+            return current;
+        }
+    }
+}
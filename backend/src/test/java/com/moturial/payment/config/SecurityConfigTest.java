@@ -0,0 +1,108 @@
+package com.moturial.payment.config;
+
+import com.moturial.payment.controller.PaymentController;
+import com.moturial.payment.controller.StripeWebhookController;
+import com.moturial.payment.security.AdminAuthenticationProvider;
+import com.moturial.payment.security.ApiKeyAuthenticationProvider;
+import com.moturial.payment.service.IdempotencyService;
+import com.moturial.payment.service.PaymentBatchService;
+import com.moturial.payment.service.PaymentExportService;
+import com.moturial.payment.service.PaymentService;
+import com.moturial.payment.service.StripeWebhookService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes das regras de autorização de SecurityConfig para os endpoints de pagamento
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@WebMvcTest(controllers = {PaymentController.class, StripeWebhookController.class}, properties = {
+    "security.api.key=" + SecurityConfigTest.API_KEY,
+    "moturial.admin.api-key=" + SecurityConfigTest.ADMIN_API_KEY
+})
+@Import({SecurityConfig.class, ApiKeyAuthenticationProvider.class, AdminAuthenticationProvider.class,
+    SimpleMeterRegistry.class})
+class SecurityConfigTest {
+
+    static final String API_KEY = "test-api-key-0123456789";
+    static final String ADMIN_API_KEY = "test-admin-key-0123456789";
+
+    private static final String CONTEXT_PATH = "/api/v1";
+    private static final String EXPORT_URL = "/api/v1/payments/export?from=2025-01-01T00:00:00&to=2025-02-01T00:00:00";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PaymentService paymentService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private PaymentBatchService paymentBatchService;
+
+    @MockBean
+    private PaymentExportService paymentExportService;
+
+    @MockBean
+    private StripeWebhookService stripeWebhookService;
+
+    @Test
+    void export_ApiUserKeyIsForbidden() throws Exception {
+        mockMvc.perform(request(EXPORT_URL).header("X-API-KEY", API_KEY))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void export_AdminKeyIsAllowed() throws Exception {
+        mockMvc.perform(request(EXPORT_URL).header("X-API-KEY", ADMIN_API_KEY))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void export_WithoutKeyIsRejected() throws Exception {
+        mockMvc.perform(request(EXPORT_URL))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void paymentStatus_ApiUserKeyIsAllowed() throws Exception {
+        mockMvc.perform(request("/api/v1/payments/pi_123/status").header("X-API-KEY", API_KEY))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void paymentStatus_AdminKeyIsNotAnApiUser() throws Exception {
+        // A chave de administração não herda os endpoints de integração
+        mockMvc.perform(request("/api/v1/payments/pi_123/status").header("X-API-KEY", ADMIN_API_KEY))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void stripeWebhook_IsPublic() throws Exception {
+        // O Stripe não envia X-API-KEY; a autenticidade vem da assinatura, conferida pelo serviço
+        mockMvc.perform(post("/api/v1/webhooks/stripe").contextPath(CONTEXT_PATH)
+                .header(HttpHeaders.USER_AGENT, "Stripe/1.0")
+                .header("Stripe-Signature", "t=1,v1=abc")
+                .content("{}"))
+            .andExpect(status().isOk());
+    }
+
+    private static MockHttpServletRequestBuilder request(String url) {
+        return get(url).contextPath(CONTEXT_PATH).header(HttpHeaders.USER_AGENT, "SecurityConfigTest");
+    }
+}
@@ -0,0 +1,89 @@
+package com.moturial.payment.domain.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do gerador de UUIDv7
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_HasVersion7VariantAndCurrentTimestamp() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        UUID id = UuidV7Generator.next();
+
+        // Assert
+        long after = System.currentTimeMillis();
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        // O contador pode ter adiantado o milissegundo se outro teste gerou muitos ids antes
+        assertTrue(timestamp >= before && timestamp <= after + 1, "timestamp " + timestamp);
+    }
+
+    @Test
+    void next_IsStrictlyIncreasingInTextAndBinaryOrder() {
+        // Arrange
+        List<UUID> ids = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(UuidV7Generator.next());
+        }
+
+        // Assert
+        for (int i = 1; i < ids.size(); i++) {
+            UUID previous = ids.get(i - 1);
+            UUID current = ids.get(i);
+            assertTrue(Long.compareUnsigned(previous.getMostSignificantBits(), current.getMostSignificantBits()) < 0,
+                previous + " >= " + current);
+            assertTrue(previous.toString().compareTo(current.toString()) < 0, previous + " >= " + current);
+        }
+    }
+
+    @Test
+    void next_IsUniqueAcrossThreads() throws Exception {
+        // Arrange
+        int threads = 8;
+        int perThread = 20_000;
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // Act
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(UuidV7Generator.next());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(threads * perThread, ids.size());
+    }
+}
@@ -0,0 +1,98 @@
+package com.moturial.payment.exception;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.moturial.payment.domain.dto.ErrorResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para GlobalExceptionHandler
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+class GlobalExceptionHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(meterRegistry);
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void handlePaymentValidationException_PrebuiltRendersSameJsonAsErrorResponse() throws Exception {
+        // Arrange
+        PaymentValidationException prebuilt = PaymentValidationException.prebuilt(
+            "Nome contém \"caracteres\" inválidos", "CUSTOMER_NAME_INVALID", "customer.name");
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/payments/card");
+
+        // Act
+        ResponseEntity<?> first = handler.handlePaymentValidationException(prebuilt, request);
+        ResponseEntity<?> second = handler.handlePaymentValidationException(prebuilt, request);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, first.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, first.getHeaders().getContentType());
+        JsonNode rendered = objectMapper.readTree((byte[]) first.getBody());
+        JsonNode expected = objectMapper.valueToTree(new ErrorResponse(
+            Instant.parse(rendered.get("timestamp").asText()),
+            400,
+            "Erro de Validação",
+            "Nome contém \"caracteres\" inválidos",
+            "/api/v1/payments/card"));
+        assertEquals(expected, rendered);
+        assertNotNull(objectMapper.readTree((byte[]) second.getBody()));
+    }
+
+    @Test
+    void handlePaymentValidationException_DynamicMessageUsesErrorResponse() {
+        // Arrange
+        PaymentValidationException exception = new PaymentValidationException("Moeda não suportada: JPY");
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/payments/pix");
+
+        // Act
+        ResponseEntity<?> response = handler.handlePaymentValidationException(exception, request);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        ErrorResponse body = assertInstanceOf(ErrorResponse.class, response.getBody());
+        assertEquals("Moeda não suportada: JPY", body.message());
+        assertEquals("/api/v1/payments/pix", body.path());
+    }
+
+    @Test
+    void handlePaymentValidationException_CountsRejectionsByRule() {
+        // Arrange
+        PaymentValidationException invalidName = PaymentValidationException.prebuilt(
+            "Nome inválido", "CUSTOMER_NAME_INVALID", "customer.name");
+        PaymentValidationException invalidCurrency = new PaymentValidationException(
+            "Moeda não suportada: JPY", "CURRENCY_NOT_SUPPORTED", "currency");
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/payments/card");
+
+        // Act
+        handler.handlePaymentValidationException(invalidName, request);
+        handler.handlePaymentValidationException(invalidName, request);
+        handler.handlePaymentValidationException(invalidCurrency, request);
+
+        // Assert
+        assertEquals(2.0, rejections("CUSTOMER_NAME_INVALID"));
+        assertEquals(1.0, rejections("CURRENCY_NOT_SUPPORTED"));
+    }
+
+    private double rejections(String rule) {
+        return meterRegistry.get("payment.validation.rejections").tag("rule", rule).counter().count();
+    }
+}
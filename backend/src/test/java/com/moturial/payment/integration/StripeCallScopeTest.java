@@ -0,0 +1,91 @@
+package com.moturial.payment.integration;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para StripeCallScope
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+class StripeCallScopeTest {
+
+    @Test
+    void join_RunsForksConcurrently() throws Exception {
+        // Arrange
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        // Act
+        Future<String> customer;
+        Future<String> method;
+        try (StripeCallScope scope = new StripeCallScope()) {
+            customer = scope.fork(() -> awaitOther(bothStarted, "cus_123"));
+            method = scope.fork(() -> awaitOther(bothStarted, "pm_123"));
+            scope.join();
+        }
+
+        // Assert
+        assertEquals("cus_123", customer.resultNow());
+        assertEquals("pm_123", method.resultNow());
+    }
+
+    @Test
+    void join_FailureCancelsOtherForkAndRethrowsStripeException() throws Exception {
+        // Arrange
+        CountDownLatch methodStarted = new CountDownLatch(1);
+        CountDownLatch methodInterrupted = new CountDownLatch(1);
+        ApiConnectionException failure = new ApiConnectionException("Stripe indisponível");
+
+        // Act
+        StripeException thrown;
+        try (StripeCallScope scope = new StripeCallScope()) {
+            scope.fork(() -> {
+                methodStarted.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    methodInterrupted.countDown();
+                    throw e;
+                }
+                return "pm_123";
+            });
+            scope.fork(() -> {
+                methodStarted.await();
+                throw failure;
+            });
+            thrown = assertThrows(StripeException.class, scope::join);
+        }
+
+        // Assert
+        assertSame(failure, thrown);
+        assertTrue(methodInterrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void join_RethrowsRuntimeExceptionAsIs() {
+        // Arrange
+        IllegalStateException failure = new IllegalStateException("falha");
+
+        // Act & Assert
+        try (StripeCallScope scope = new StripeCallScope()) {
+            scope.fork(() -> { throw failure; });
+            assertSame(failure, assertThrows(IllegalStateException.class, scope::join));
+        }
+    }
+
+    private static String awaitOther(CountDownLatch bothStarted, String result) throws InterruptedException {
+        bothStarted.countDown();
+        if (!bothStarted.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("As chamadas não rodaram em paralelo");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,182 @@
+package com.moturial.payment.integration;
+
+import com.moturial.payment.domain.entity.StripeCustomer;
+import com.moturial.payment.repository.StripeCustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para StripeCustomerCache
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class StripeCustomerCacheTest {
+
+    @Mock
+    private StripeCustomerRepository stripeCustomerRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private StripeCustomerCache customerCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        customerCache = new StripeCustomerCache(stripeCustomerRepository, meterRegistry, 100, 60);
+    }
+
+    @Test
+    void getCustomerId_MissPersistsAndSecondCallHitsMemory() throws Exception {
+        // Arrange
+        when(stripeCustomerRepository.findById("joao@email.com")).thenReturn(Optional.empty());
+        AtomicInteger stripeCalls = new AtomicInteger();
+
+        // Act
+        String first = customerCache.getCustomerId("Joao@Email.com ", () -> { stripeCalls.incrementAndGet(); return "cus_123"; });
+        String second = customerCache.getCustomerId("joao@email.com", () -> { stripeCalls.incrementAndGet(); return "cus_other"; });
+
+        // Assert
+        assertEquals("cus_123", first);
+        assertEquals("cus_123", second);
+        assertEquals(1, stripeCalls.get());
+        verify(stripeCustomerRepository).saveAndFlush(argThat(c ->
+            c.getEmail().equals("joao@email.com") && c.getStripeCustomerId().equals("cus_123")));
+        assertEquals(1.0, count("miss"));
+        assertEquals(1.0, count("memory_hit"));
+    }
+
+    @Test
+    void getCustomerId_DatabaseHitSkipsStripe() throws Exception {
+        // Arrange
+        when(stripeCustomerRepository.findById("maria@email.com")).thenReturn(Optional.of(StripeCustomer.builder()
+            .email("maria@email.com")
+            .stripeCustomerId("cus_456")
+            .createdAt(LocalDateTime.now())
+            .build()));
+
+        // Act
+        String customerId = customerCache.getCustomerId("maria@email.com",
+            () -> fail("Stripe não deveria ser consultado"));
+
+        // Assert
+        assertEquals("cus_456", customerId);
+        verify(stripeCustomerRepository, never()).save(any());
+        assertEquals(1.0, count("database_hit"));
+    }
+
+    @Test
+    void getCustomerId_ConcurrentFirstPaymentsCoalesced() throws Exception {
+        // Arrange
+        when(stripeCustomerRepository.findById("novo@email.com")).thenReturn(Optional.empty());
+        CountDownLatch resolverEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger stripeCalls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            Future<String> first = executor.submit(() -> customerCache.getCustomerId("novo@email.com", () -> {
+                stripeCalls.incrementAndGet();
+                resolverEntered.countDown();
+                awaitQuietly(release);
+                return "cus_789";
+            }));
+            assertTrue(resolverEntered.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> duplicates = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                duplicates.add(executor.submit(() -> customerCache.getCustomerId("novo@email.com", () -> {
+                    stripeCalls.incrementAndGet();
+                    return "cus_duplicado";
+                })));
+            }
+            while (count("coalesced") < 3) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertEquals("cus_789", first.get(5, TimeUnit.SECONDS));
+            for (Future<String> duplicate : duplicates) {
+                assertEquals("cus_789", duplicate.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, stripeCalls.get());
+            verify(stripeCustomerRepository, times(1)).saveAndFlush(any(StripeCustomer.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getCustomerId_MappingSavedByAnotherNodeWins() throws Exception {
+        // Arrange: outro nó grava o mesmo email entre a leitura e a inserção
+        when(stripeCustomerRepository.findById("ana@email.com"))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(StripeCustomer.builder()
+                .email("ana@email.com")
+                .stripeCustomerId("cus_other_node")
+                .createdAt(LocalDateTime.now())
+                .build()));
+        when(stripeCustomerRepository.saveAndFlush(any(StripeCustomer.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // Act
+        String first = customerCache.getCustomerId("ana@email.com", () -> "cus_this_node");
+        String second = customerCache.getCustomerId("ana@email.com", () -> "cus_this_node");
+
+        // Assert
+        assertEquals("cus_other_node", first);
+        assertEquals("cus_other_node", second);
+        verify(stripeCustomerRepository, times(2)).findById("ana@email.com");
+    }
+
+    @Test
+    void evict_RemovesMemoryAndDatabaseMapping() throws Exception {
+        // Arrange
+        when(stripeCustomerRepository.findById("joao@email.com")).thenReturn(Optional.empty());
+        customerCache.getCustomerId("joao@email.com", () -> "cus_old");
+
+        // Act
+        customerCache.evict("joao@email.com");
+        String customerId = customerCache.getCustomerId("joao@email.com", () -> "cus_new");
+
+        // Assert
+        assertEquals("cus_new", customerId);
+        verify(stripeCustomerRepository).deleteById("joao@email.com");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("stripe.customer.cache").tag("result", result).counter().count();
+    }
+}
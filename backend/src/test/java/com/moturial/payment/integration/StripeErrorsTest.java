@@ -0,0 +1,65 @@
+package com.moturial.payment.integration;
+
+import com.moturial.payment.exception.PaymentProcessingException;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.CardException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.RateLimitException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para StripeErrors
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+class StripeErrorsTest {
+
+    @Test
+    void isTransient_RetriesNetworkAndRateLimitErrors() {
+        assertTrue(StripeErrors.isTransient(wrap(new ApiConnectionException("timeout"))));
+        assertTrue(StripeErrors.isTransient(wrap(new RateLimitException("rate limit", null, "req_1", "rate_limit", 429, null))));
+    }
+
+    @Test
+    void isTransient_DoesNotRetryResponsesStripeReplaysForTheSameKey() {
+        assertFalse(StripeErrors.isTransient(wrap(new ApiException("lock", "req_1", "lock_timeout", 409, null))));
+        assertFalse(StripeErrors.isTransient(wrap(new ApiException("erro", "req_1", null, 503, null))));
+        assertFalse(StripeErrors.isTransient(wrap(new ApiException("erro", "req_1", null, null, null))));
+    }
+
+    @Test
+    void isTransient_DoesNotRetryBusinessErrors() {
+        assertFalse(StripeErrors.isTransient(wrap(new CardException(
+            "recusado", "req_1", "card_declined", null, "insufficient_funds", null, 402, null))));
+        assertFalse(StripeErrors.isTransient(wrap(new InvalidRequestException(
+            "inválido", "amount", "req_1", "parameter_invalid_integer", 400, null))));
+        assertFalse(StripeErrors.isTransient(new PaymentProcessingException("sem causa")));
+        assertFalse(StripeErrors.isTransient(new IllegalStateException("outro erro")));
+    }
+
+    @Test
+    void isProviderFailure_CountsOnlyStripeUnavailability() {
+        assertTrue(StripeErrors.isProviderFailure(wrap(new ApiConnectionException("timeout"))));
+        assertTrue(StripeErrors.isProviderFailure(wrap(new ApiException("erro", "req_1", null, 500, null))));
+
+        assertFalse(StripeErrors.isProviderFailure(wrap(new RateLimitException("rate limit", null, "req_1", "rate_limit", 429, null))));
+        assertFalse(StripeErrors.isProviderFailure(wrap(new CardException(
+            "recusado", "req_1", "card_declined", null, "generic_decline", null, 402, null))));
+    }
+
+    @Test
+    void predicates_DelegateToClassification() {
+        PaymentProcessingException connectionError = wrap(new ApiConnectionException("timeout"));
+
+        assertTrue(new StripeErrors.RetryPredicate().test(connectionError));
+        assertTrue(new StripeErrors.FailurePredicate().test(connectionError));
+    }
+
+    private PaymentProcessingException wrap(Exception stripeException) {
+        return new PaymentProcessingException("Erro ao processar pagamento", stripeException);
+    }
+}
@@ -0,0 +1,79 @@
+package com.moturial.payment.repository;
+
+import com.moturial.payment.domain.entity.IdempotencyKey;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da gravação de Idempotency-Keys contra o H2: inserção sempre via persist e tomada condicional
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:idempotency-keys;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyKeyRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void saveAndFlush_SecondInsertOfTheSameKeyViolatesThePrimaryKey() {
+        // Arrange
+        idempotencyKeyRepository.saveAndFlush(inProgress("key-dup", "hash-a"));
+
+        // Act & Assert: com merge, a segunda inserção sobrescreveria a primeira
+        assertThrows(DataIntegrityViolationException.class, () ->
+            idempotencyKeyRepository.saveAndFlush(inProgress("key-dup", "hash-b")));
+        assertEquals("hash-a", idempotencyKeyRepository.findById("key-dup").orElseThrow().getRequestHash());
+    }
+
+    @Test
+    void claim_OnlyTheFirstNodeTakesOverTheKey() {
+        // Arrange
+        IdempotencyKey stored = idempotencyKeyRepository.saveAndFlush(inProgress("key-claim", "hash-a"));
+
+        // Act
+        int first = idempotencyKeyRepository.claim("key-claim", stored.getCreatedAt(), "hash-a",
+            IdempotencyKey.Status.IN_PROGRESS, NOW.plusMinutes(10), NOW.plusHours(25));
+        int second = idempotencyKeyRepository.claim("key-claim", stored.getCreatedAt(), "hash-a",
+            IdempotencyKey.Status.IN_PROGRESS, NOW.plusMinutes(10), NOW.plusHours(25));
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(0, second);
+        entityManager.clear();
+        assertEquals(NOW.plusMinutes(10), idempotencyKeyRepository.findById("key-claim").orElseThrow().getCreatedAt());
+    }
+
+    private static IdempotencyKey inProgress(String key, String requestHash) {
+        return IdempotencyKey.builder()
+            .key(key)
+            .requestHash(requestHash)
+            .status(IdempotencyKey.Status.IN_PROGRESS)
+            .createdAt(NOW)
+            .expiresAt(NOW.plusHours(24))
+            .build();
+    }
+}
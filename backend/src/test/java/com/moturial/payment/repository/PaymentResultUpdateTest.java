@@ -0,0 +1,112 @@
+package com.moturial.payment.repository;
+
+import com.moturial.payment.domain.entity.Payment;
+import com.moturial.payment.domain.enums.PaymentMethodType;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do UPDATE condicional da fase 3 do pipeline (PaymentRepository.updateResultIfUnchanged) contra o H2
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:payment-result-update;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PaymentResultUpdateTest {
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        payment = paymentRepository.saveAndFlush(new Payment("ref-1", "user1", new BigDecimal("150.00"), "BRL",
+            PaymentMethodType.CARD, 1, "Locação de moto"));
+        entityManager.clear();
+    }
+
+    @Test
+    void updateResultIfUnchanged_WritesResultWhenRowIsAsRead() {
+        // Act
+        int updated = paymentRepository.updateResultIfUnchanged(payment.getId(), PaymentStatus.PENDING, null,
+            "pi_1", PaymentStatus.PROCESSING, null, Map.of("rental_id", "rental-1"), LocalDateTime.now());
+
+        // Assert
+        assertEquals(1, updated);
+        Payment stored = reload();
+        assertEquals("pi_1", stored.getExternalId());
+        assertEquals(PaymentStatus.PROCESSING, stored.getStatus());
+        assertEquals(Map.of("rental_id", "rental-1"), stored.getMetadata());
+        assertNotNull(stored.getProcessedAt());
+    }
+
+    @Test
+    void updateResultIfUnchanged_KeepsWhatAWebhookWroteInBetween() {
+        // Arrange: webhook grava APPROVED depois da leitura da fase 1
+        LocalDateTime webhookAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Payment webhook = paymentRepository.findById(payment.getId()).orElseThrow();
+        webhook.setExternalId("pi_1");
+        webhook.setStatus(PaymentStatus.APPROVED);
+        webhook.setWebhookEventAt(webhookAt);
+        paymentRepository.saveAndFlush(webhook);
+        entityManager.clear();
+
+        // Act: resultado do Stripe calculado sobre o registro PENDING lido antes
+        int updated = paymentRepository.updateResultIfUnchanged(payment.getId(), PaymentStatus.PENDING, null,
+            "pi_1", PaymentStatus.PROCESSING, null, null, LocalDateTime.now());
+
+        // Assert
+        assertEquals(0, updated);
+        Payment stored = reload();
+        assertEquals(PaymentStatus.APPROVED, stored.getStatus());
+        assertEquals(webhookAt, stored.getWebhookEventAt());
+    }
+
+    @Test
+    void updateResultIfUnchanged_RequiresTheWebhookTimestampThatWasRead() {
+        // Arrange
+        LocalDateTime firstWebhook = LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+        Payment webhook = paymentRepository.findById(payment.getId()).orElseThrow();
+        webhook.setStatus(PaymentStatus.PROCESSING);
+        webhook.setWebhookEventAt(firstWebhook);
+        paymentRepository.saveAndFlush(webhook);
+        entityManager.clear();
+
+        // Act
+        int stale = paymentRepository.updateResultIfUnchanged(payment.getId(), PaymentStatus.PROCESSING,
+            firstWebhook.minusSeconds(5), "pi_1", PaymentStatus.CANCELLED, null, null, LocalDateTime.now());
+        int current = paymentRepository.updateResultIfUnchanged(payment.getId(), PaymentStatus.PROCESSING,
+            firstWebhook, "pi_1", PaymentStatus.CANCELLED, null, null, LocalDateTime.now());
+
+        // Assert
+        assertEquals(0, stale);
+        assertEquals(1, current);
+        assertEquals(PaymentStatus.CANCELLED, reload().getStatus());
+    }
+
+    private Payment reload() {
+        entityManager.clear();
+        return paymentRepository.findById(payment.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,140 @@
+package com.moturial.payment.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes das migrações V10 a V15 aplicadas do zero num PostgreSQL real
+ *
+ * O H2 usado nos demais testes não executa as migrações. Ignorado quando não
+ * há Docker disponível.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+            POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS payments_archive CASCADE");
+        Flyway flyway = Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .cleanDisabled(false)
+            .load();
+        flyway.clean();
+        flyway.migrate();
+        flyway.validate();
+    }
+
+    @Test
+    void v10_KeysetSeekIsAnIndexCondition() {
+        // Mesmo formato do predicado de UserRepository#findUsersWithFiltersBefore
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                StringBuilder lines = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery(
+                        "EXPLAIN SELECT * FROM users u WHERE u.created_at <= now() "
+                            + "AND (u.created_at < now() OR u.id < uuid_generate_v7()) "
+                            + "ORDER BY u.created_at DESC, u.id DESC LIMIT 20")) {
+                    while (resultSet.next()) {
+                        lines.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                return lines.toString();
+            }
+        });
+
+        assertTrue(plan.contains("idx_users_created_at_id"), plan);
+        assertTrue(plan.contains("Index Cond: (created_at <="), plan);
+    }
+
+    @Test
+    void v12_PaymentsIsPartitionedAndExternalIdsAreClaimedGlobally() {
+        assertEquals("p", jdbcTemplate.queryForObject(
+            "SELECT relkind::text FROM pg_class WHERE oid = 'public.payments'::regclass", String.class));
+        assertTrue(indexExists("payments_pkey"));
+        assertTrue(indexExists("payments_external_id_key"));
+        assertTrue(indexExists("payment_external_ids_pkey"));
+    }
+
+    @Test
+    void v13_PrimaryKeysDefaultToUuidV7() {
+        assertEquals("7", jdbcTemplate.queryForObject("SELECT substr(uuid_generate_v7()::text, 15, 1)", String.class));
+        for (String table : List.of("payments", "users", "motorcycles", "rentals", "stores")) {
+            assertEquals("uuid_generate_v7()", jdbcTemplate.queryForObject(
+                "SELECT column_default FROM information_schema.columns WHERE table_schema = 'public' "
+                    + "AND table_name = ? AND column_name = 'id'", String.class, table), table);
+        }
+    }
+
+    @Test
+    void v14_MetadataIsJsonbWithItsIndexes() {
+        assertEquals("jsonb", jdbcTemplate.queryForObject(
+            "SELECT data_type FROM information_schema.columns WHERE table_schema = 'public' "
+                + "AND table_name = 'payments' AND column_name = 'metadata'", String.class));
+        assertTrue(indexExists("idx_payment_metadata"));
+        assertTrue(indexExists("idx_payment_metadata_rental_id"));
+    }
+
+    @Test
+    void v15_DropsOnlyIndexesDuplicatedByUniqueConstraints() {
+        for (String dropped : List.of("idx_payment_external_id", "idx_users_email",
+                "idx_motorcycles_license_plate", "idx_api_keys_key_hash")) {
+            assertFalse(indexExists(dropped), dropped);
+        }
+        for (String kept : List.of("idx_payment_status", "idx_payment_user_id", "idx_users_email_status",
+                "idx_payment_status_created", "idx_payment_user_status")) {
+            assertTrue(indexExists(kept), kept);
+        }
+    }
+
+    @Test
+    void v15_RemovesUpdatedAtTriggersExceptOnApiKeys() {
+        assertEquals(List.of("update_api_keys_updated_at"), jdbcTemplate.queryForList(
+            "SELECT tgname FROM pg_trigger WHERE NOT tgisinternal AND tgname LIKE 'update_%_updated_at'",
+            String.class));
+    }
+
+    @Test
+    void v15_PaymentPartitionsAreCreatedWithLowerFillfactor() {
+        jdbcTemplate.queryForList("SELECT create_payments_partitions(DATE '2030-01-01', 1)", String.class);
+
+        List<String> withoutFillfactor = jdbcTemplate.queryForList(
+            "SELECT c.relname::text FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = 'public.payments'::regclass "
+                + "AND NOT coalesce('fillfactor=85' = ANY (c.reloptions), false)", String.class);
+        assertEquals(List.of(), withoutFillfactor);
+        assertTrue(jdbcTemplate.queryForObject("SELECT to_regclass('public.payments_2030_01') IS NOT NULL",
+            Boolean.class));
+    }
+
+    private boolean indexExists(String name) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, "public." + name);
+    }
+}
@@ -0,0 +1,31 @@
+package com.moturial.payment.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para SearchPatterns
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+class SearchPatternsTest {
+
+    @Test
+    void contains_WrapsTrimmedTermInWildcards() {
+        assertEquals("%joão silva%", SearchPatterns.contains("  joão silva "));
+    }
+
+    @Test
+    void contains_EscapesWildcardsAndEscapeCharacter() {
+        assertEquals("%100!%!_off!!%", SearchPatterns.contains("100%_off!"));
+    }
+
+    @Test
+    void contains_BlankIsNoFilter() {
+        assertNull(SearchPatterns.contains(null));
+        assertNull(SearchPatterns.contains(""));
+        assertNull(SearchPatterns.contains("   "));
+    }
+}
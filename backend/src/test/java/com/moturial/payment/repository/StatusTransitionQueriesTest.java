@@ -0,0 +1,196 @@
+package com.moturial.payment.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes das consultas e dos UPDATE ... RETURNING usados pelo StatusTransitionJob contra um PostgreSQL real
+ *
+ * Ignorado quando não há Docker disponível.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+    "spring.datasource.driver-class-name=org.postgresql.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class StatusTransitionQueriesTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 20, 12, 0);
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private MotorcycleRepository motorcycleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        // A V12 só cria partições a partir do mês corrente
+        jdbcTemplate.queryForList("SELECT create_payments_partitions(DATE '2024-01-01', 1)", String.class);
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'admin@moturial.com'", UUID.class);
+    }
+
+    @Test
+    void findExpirablePending_WalksPendingPaymentsWithAnIntentByCursor() {
+        // Arrange
+        for (int day = 2; day <= 6; day++) {
+            insertPayment("pi_old_" + day, "PENDING", NOW.withDayOfMonth(day), true);
+        }
+        insertPayment("pi_recent", "PENDING", NOW.minusHours(1), true);
+        insertPayment("pi_done", "COMPLETED", NOW.withDayOfMonth(1), true);
+        insertPayment("ref_orphan", "PENDING", NOW.withDayOfMonth(1), false);
+        LocalDateTime cutoff = NOW.minusDays(3);
+
+        // Act
+        List<PaymentRepository.ExpirablePayment> first = paymentRepository.findExpirablePending(
+            cutoff, LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0L, 0L), PageRequest.of(0, 3));
+        PaymentRepository.ExpirablePayment last = first.get(first.size() - 1);
+        List<PaymentRepository.ExpirablePayment> second = paymentRepository.findExpirablePending(
+            cutoff, last.getCreatedAt(), last.getId(), PageRequest.of(0, 3));
+
+        // Assert
+        assertEquals(List.of("pi_old_2", "pi_old_3", "pi_old_4"),
+            first.stream().map(PaymentRepository.ExpirablePayment::getExternalId).toList());
+        assertEquals(List.of("pi_old_5", "pi_old_6"),
+            second.stream().map(PaymentRepository.ExpirablePayment::getExternalId).toList());
+    }
+
+    @Test
+    void expirePending_CancelsOnlyRowsThatAreStillPending() {
+        // Arrange
+        UUID pending = insertPayment("pi_pending", "PENDING", NOW.withDayOfMonth(2), true);
+        UUID completed = insertPayment("pi_completed", "COMPLETED", NOW.withDayOfMonth(3), true);
+
+        // Act
+        List<PaymentRepository.ExpiredPayment> expired =
+            paymentRepository.expirePending(List.of(pending, completed), NOW, "expirado");
+
+        // Assert
+        assertEquals(1, expired.size());
+        assertEquals(pending, expired.get(0).getId());
+        assertEquals("pi_pending", expired.get(0).getExternalId());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments WHERE status = 'CANCELLED' "
+            + "AND error_message = 'expirado' AND updated_at = ?", Integer.class, Timestamp.valueOf(NOW)));
+        assertEquals("COMPLETED", status("payments", "external_id", "pi_completed"));
+    }
+
+    @Test
+    void markOverdue_OnlyMarksUnpaidRentalsPastTheirEndDate() {
+        // Arrange
+        UUID motorcycleId = insertMotorcycle("OVD-0001", "RENTED", null);
+        UUID ended = insertRental(motorcycleId, "ACTIVE", "PENDING", NOW.minusDays(1));
+        UUID completed = insertRental(motorcycleId, "COMPLETED", "PENDING", NOW.minusDays(2));
+        UUID paid = insertRental(motorcycleId, "COMPLETED", "PAID", NOW.minusDays(3));
+        UUID cancelled = insertRental(motorcycleId, "CANCELLED", "PENDING", NOW.minusDays(4));
+        UUID running = insertRental(motorcycleId, "ACTIVE", "PENDING", NOW.plusDays(1));
+
+        // Act
+        List<UUID> marked = rentalRepository.markOverdue(NOW, 10);
+
+        // Assert
+        assertEquals(Set.of(ended, completed), Set.copyOf(marked));
+        assertEquals("OVERDUE", rentalPaymentStatus(ended));
+        assertEquals("PAID", rentalPaymentStatus(paid));
+        assertEquals("PENDING", rentalPaymentStatus(cancelled));
+        assertEquals("PENDING", rentalPaymentStatus(running));
+        assertTrue(rentalRepository.markOverdue(NOW, 10).isEmpty());
+    }
+
+    @Test
+    void flagDueForMaintenance_OnlyMovesAvailableMotorcyclesPastTheirMaintenanceDate() {
+        // Arrange
+        UUID due = insertMotorcycle("MNT-0001", "AVAILABLE", NOW.minusDays(1));
+        UUID notDue = insertMotorcycle("MNT-0002", "AVAILABLE", NOW.plusDays(10));
+        UUID rented = insertMotorcycle("MNT-0003", "RENTED", NOW.minusDays(1));
+        UUID unscheduled = insertMotorcycle("MNT-0004", "AVAILABLE", null);
+
+        // Act
+        List<UUID> flagged = motorcycleRepository.flagDueForMaintenance(NOW, 10);
+
+        // Assert
+        assertEquals(List.of(due), flagged);
+        assertEquals("MAINTENANCE", status("motorcycles", "id", due));
+        assertEquals("AVAILABLE", status("motorcycles", "id", notDue));
+        assertEquals("RENTED", status("motorcycles", "id", rented));
+        assertEquals("AVAILABLE", status("motorcycles", "id", unscheduled));
+    }
+
+    private UUID insertPayment(String externalId, String status, LocalDateTime created, boolean processed) {
+        UUID id = UUID.randomUUID();
+        Timestamp createdAt = Timestamp.valueOf(created);
+        jdbcTemplate.update("INSERT INTO payments (id, external_id, user_id, amount, currency, payment_method, status, "
+                + "installments, created_at, updated_at, processed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            id, externalId, "user1", 150, "BRL", "CARD", status, 1, createdAt, createdAt, processed ? createdAt : null);
+        return id;
+    }
+
+    private UUID insertMotorcycle(String licensePlate, String status, LocalDateTime nextMaintenance) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO motorcycles (id, name, type, engine, fuel, year, color, license_plate, "
+                + "status, daily_rate, next_maintenance) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            id, "Honda CG 160", "Urban", "160cc", "Gasolina", 2023, "Preta", licensePlate, status, 45,
+            nextMaintenance != null ? Timestamp.valueOf(nextMaintenance) : null);
+        return id;
+    }
+
+    private UUID insertRental(UUID motorcycleId, String status, String paymentStatus, LocalDateTime end) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO rentals (id, user_id, motorcycle_id, start_date, end_date, status, "
+                + "payment_status, daily_rate, total_days, total_amount, pickup_location, return_location) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            id, userId, motorcycleId, Timestamp.valueOf(end.minusDays(3)), Timestamp.valueOf(end), status,
+            paymentStatus, 45, 3, 135, "São Paulo - Centro", "São Paulo - Centro");
+        return id;
+    }
+
+    private String status(String table, String column, Object value) {
+        return jdbcTemplate.queryForObject("SELECT status FROM " + table + " WHERE " + column + " = ?",
+            String.class, value);
+    }
+
+    private String rentalPaymentStatus(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT payment_status FROM rentals WHERE id = ?", String.class, id);
+    }
+}
@@ -0,0 +1,52 @@
+package com.moturial.payment.repository;
+
+import com.moturial.payment.domain.entity.StripeCustomer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da gravação de mapeamentos email → cliente Stripe contra o H2: inserção sempre via persist
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:stripe-customers;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StripeCustomerRepositoryTest {
+
+    @Autowired
+    private StripeCustomerRepository stripeCustomerRepository;
+
+    @Test
+    void saveAndFlush_SecondNodeDoesNotOverwriteTheMapping() {
+        // Arrange
+        stripeCustomerRepository.saveAndFlush(mapping("ana@email.com", "cus_first"));
+
+        // Act & Assert: com merge, a segunda inserção trocaria o cliente já em uso
+        assertThrows(DataIntegrityViolationException.class, () ->
+            stripeCustomerRepository.saveAndFlush(mapping("ana@email.com", "cus_second")));
+        assertEquals("cus_first", stripeCustomerRepository.findById("ana@email.com").orElseThrow().getStripeCustomerId());
+    }
+
+    private static StripeCustomer mapping(String email, String customerId) {
+        return StripeCustomer.builder()
+            .email(email)
+            .stripeCustomerId(customerId)
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.dto.CursorPage;
+import com.moturial.payment.domain.dto.UserDto;
+import com.moturial.payment.mapper.MotorcycleMapper;
+import com.moturial.payment.mapper.RentalMapper;
+import com.moturial.payment.mapper.StoreMapper;
+import com.moturial.payment.mapper.UserMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da listagem por cursor do AdminService contra o H2
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:admin-cursor;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AdminService.class, UserMapper.class, MotorcycleMapper.class, RentalMapper.class, StoreMapper.class})
+class AdminServiceCursorTest {
+
+    private static final int USERS = 45;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private DashboardStatsEngine dashboardStatsEngine;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < USERS; i++) {
+            // Cinco usuários por instante: o id desempata a ordem
+            LocalDateTime createdAt = base.plusMinutes(i / 5);
+            jdbcTemplate.update("INSERT INTO users (id, name, email, password_hash, role, status, "
+                    + "email_verified, phone_verified, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                UUID.randomUUID(), "Usuário " + i, "usuario" + i + "@email.com", "hash",
+                i % 9 == 0 ? "ADMIN" : "USER", i % 4 == 0 ? "SUSPENDED" : "ACTIVE",
+                true, false, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+        }
+    }
+
+    @Test
+    void getUsersByCursor_WalksEveryRowOnceInKeysetOrder() {
+        List<UUID> expected = jdbcTemplate.queryForList(
+            "SELECT id FROM users ORDER BY created_at DESC, id DESC", UUID.class);
+
+        List<UUID> visited = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        CursorPage<UserDto> page;
+        do {
+            page = adminService.getUsersByCursor(null, null, null, cursor, 20);
+            page.getContent().forEach(user -> visited.add(user.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (page.isHasNext());
+
+        assertEquals(3, pages);
+        assertNull(page.getNextCursor());
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void getUsersByCursor_AppliesFilters() {
+        CursorPage<UserDto> admins = adminService.getUsersByCursor(null, "admin", true, null, 50);
+        CursorPage<UserDto> search = adminService.getUsersByCursor("USUÁRIO 4", null, null, null, 50);
+
+        assertEquals(3, admins.getContent().size());
+        assertTrue(admins.getContent().stream().allMatch(user -> "ADMIN".equals(user.getRole()) && user.getActive()));
+        List<String> names = search.getContent().stream().map(UserDto::getName).toList();
+        assertEquals(Set.of("Usuário 40", "Usuário 41", "Usuário 42", "Usuário 43", "Usuário 44"),
+            Set.copyOf(names.subList(0, 5)));
+        assertEquals(List.of("Usuário 4"), names.subList(5, names.size()));
+    }
+
+    @Test
+    void getUsersByCursor_TreatsWildcardsInSearchAsText() {
+        assertTrue(adminService.getUsersByCursor("_", null, null, null, 20).getContent().isEmpty());
+        assertTrue(adminService.getUsersByCursor("usuario%@", null, null, null, 20).getContent().isEmpty());
+        assertEquals(1, adminService.getUsersByCursor("usuario17@", null, null, null, 20).getContent().size());
+    }
+
+    @Test
+    void getUsersByCursor_UnknownFilterValueReturnsEmptyPage() {
+        CursorPage<UserDto> page = adminService.getUsersByCursor(null, "ROOT", null, null, 20);
+
+        assertTrue(page.getContent().isEmpty());
+        assertFalse(page.isHasNext());
+    }
+}
@@ -0,0 +1,184 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.dto.RentalDto;
+import com.moturial.payment.mapper.MotorcycleMapper;
+import com.moturial.payment.mapper.RentalMapper;
+import com.moturial.payment.mapper.StoreMapper;
+import com.moturial.payment.mapper.UserMapper;
+import com.moturial.payment.repository.RentalRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da listagem paginada de aluguéis do AdminService contra o H2
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:admin-rentals;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AdminService.class, UserMapper.class, MotorcycleMapper.class, RentalMapper.class, StoreMapper.class})
+class AdminServiceRentalsTest {
+
+    private static final int CUSTOMERS = 5;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private DashboardStatsEngine dashboardStatsEngine;
+
+    private final List<UUID> userIds = new ArrayList<>();
+    private final List<UUID> motorcycleIds = new ArrayList<>();
+    private int rentals;
+
+    @BeforeEach
+    void setUp() {
+        Timestamp now = Timestamp.valueOf(BASE);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            UUID userId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO users (id, name, email, password_hash, role, status, "
+                    + "email_verified, phone_verified, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                userId, "Cliente " + i, "cliente" + i + "@email.com", "hash", "USER", "ACTIVE", true, false, now, now);
+            userIds.add(userId);
+
+            UUID motorcycleId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO motorcycles (id, name, type, engine, fuel, year, color, license_plate, "
+                    + "status, daily_rate, mileage, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                motorcycleId, i == 0 ? "Yamaha Fazer 250" : "Honda CG 160 #" + i, "Street", "160cc", "Gasolina",
+                2023, "Preta", "ABC" + i + "D23", "RENTED", 45, 0, now, now);
+            motorcycleIds.add(motorcycleId);
+        }
+    }
+
+    @Test
+    void getRentals_LoadsOnlyThePageRegardlessOfTableSize() {
+        insertRentals(40);
+        long[] small = measure(() -> adminService.getRentals(null, null, null, PageRequest.of(1, 10)));
+
+        insertRentals(360);
+        long[] large = measure(() -> adminService.getRentals(null, null, null, PageRequest.of(1, 10)));
+
+        // 10 aluguéis + 5 usuários + 5 motos, nas três consultas: ids, contagem e busca da página
+        assertArrayEquals(new long[]{20, 3}, small);
+        assertArrayEquals(small, large);
+    }
+
+    @Test
+    void getRentals_PagesNewestFirstWithSeparateCount() {
+        insertRentals(25);
+
+        Page<RentalDto> first = adminService.getRentals(null, null, null, PageRequest.of(0, 10));
+        Page<RentalDto> last = adminService.getRentals(null, null, null, PageRequest.of(2, 10));
+
+        assertEquals(25, first.getTotalElements());
+        assertEquals(3, first.getTotalPages());
+        assertEquals(10, first.getContent().size());
+        assertEquals(5, last.getContent().size());
+        assertEquals(BASE.plusMinutes(24), first.getContent().get(0).getCreatedAt());
+        assertEquals(BASE, last.getContent().get(4).getCreatedAt());
+        assertTrue(first.getContent().stream().allMatch(rental -> rental.getUserName().startsWith("Cliente ")));
+    }
+
+    @Test
+    void getRentals_FiltersBySearchAndStatus() {
+        insertRentals(20);
+
+        Page<RentalDto> bySearch = adminService.getRentals("fazer", null, null, PageRequest.of(0, 50));
+        Page<RentalDto> byEmail = adminService.getRentals("CLIENTE3@", null, null, PageRequest.of(0, 50));
+        Page<RentalDto> byStatus = adminService.getRentals(null, "completed", "paid", PageRequest.of(0, 50));
+        Page<RentalDto> unknown = adminService.getRentals(null, "lost", null, PageRequest.of(0, 50));
+
+        assertEquals(4, bySearch.getTotalElements());
+        assertTrue(bySearch.getContent().stream().allMatch(rental -> rental.getMotorcycleName().equals("Yamaha Fazer 250")));
+        assertEquals(4, byEmail.getTotalElements());
+        assertEquals(10, byStatus.getTotalElements());
+        assertTrue(unknown.isEmpty());
+    }
+
+    @Test
+    void getDashboardTotals_AggregatesInOneStatement() {
+        insertRentals(20);
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Aluguéis pares estão pagos (135 cada); o "mês" começa no décimo aluguel
+        RentalRepository.DashboardTotals totals = rentalRepository.getDashboardTotals(BASE.plusMinutes(10));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(20, totals.getTotalRentals());
+        assertEquals(10, totals.getActiveRentals());
+        assertEquals(0, new BigDecimal("1350").compareTo(totals.getTotalRevenue()));
+        assertEquals(10, totals.getMonthlyRentals());
+        assertEquals(0, new BigDecimal("675").compareTo(totals.getMonthlyRevenue()));
+    }
+
+    private void insertRentals(int count) {
+        for (int i = 0; i < count; i++, rentals++) {
+            Timestamp createdAt = Timestamp.valueOf(BASE.plusMinutes(rentals));
+            boolean completed = rentals % 2 == 0;
+            jdbcTemplate.update("INSERT INTO rentals (id, user_id, motorcycle_id, start_date, end_date, status, "
+                    + "payment_status, daily_rate, total_days, total_amount, deposit_amount, late_fee, damage_fee, "
+                    + "pickup_location, return_location, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                UUID.randomUUID(), userIds.get(rentals % CUSTOMERS), motorcycleIds.get(rentals % CUSTOMERS),
+                createdAt, createdAt, completed ? "COMPLETED" : "ACTIVE", completed ? "PAID" : "PENDING",
+                45, 3, 135, 0, 0, 0, "São Paulo - Centro", "São Paulo - Centro", createdAt, createdAt);
+        }
+    }
+
+    /**
+     * Entidades carregadas e comandos preparados durante a chamada
+     */
+    private long[] measure(Runnable call) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return new long[]{statistics.getEntityLoadCount(), statistics.getPrepareStatementCount()};
+    }
+}
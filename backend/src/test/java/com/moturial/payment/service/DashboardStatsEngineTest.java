@@ -0,0 +1,261 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.entity.Motorcycle;
+import com.moturial.payment.domain.entity.Store;
+import com.moturial.payment.exception.BusinessException;
+import com.moturial.payment.repository.MotorcycleRepository;
+import com.moturial.payment.repository.RentalRepository;
+import com.moturial.payment.repository.StoreRepository;
+import com.moturial.payment.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para DashboardStatsEngine
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardStatsEngineTest {
+
+    private static final Duration FRESH_FOR = Duration.ofSeconds(15);
+    private static final Duration MAX_STALE = Duration.ofMinutes(2);
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private MotorcycleRepository motorcycleRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final Queue<Runnable> deferredTasks = new ArrayDeque<>();
+
+    private boolean deferTasks;
+
+    private DashboardStatsEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        // Consultas e manutenção do cache rodam na hora, ou enfileiradas quando o teste quer decidir quando rodam
+        engine = engine(task -> {
+            if (deferTasks) {
+                deferredTasks.add(task);
+            } else {
+                task.run();
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    void get_CombinesRentalAggregateWithCounts() {
+        // Arrange
+        when(rentalRepository.getDashboardTotals(any())).thenReturn(rentalTotals(150, 12, "15750.50", 28, "3250.75"));
+        when(motorcycleRepository.countByStatus(Motorcycle.Status.AVAILABLE)).thenReturn(25L);
+        when(userRepository.count()).thenReturn(89L);
+        when(storeRepository.countByStatus(Store.Status.ACTIVE)).thenReturn(3L);
+
+        // Act
+        DashboardStatsEngine.DashboardTotals totals = engine.get();
+
+        // Assert
+        assertEquals(150, totals.totalRentals());
+        assertEquals(12, totals.activeRentals());
+        assertEquals(new BigDecimal("15750.50"), totals.totalRevenue());
+        assertEquals(25, totals.availableMotorcycles());
+        assertEquals(89, totals.totalUsers());
+        assertEquals(3, totals.activeStores());
+        assertEquals(new BigDecimal("3250.75"), totals.monthlyRevenue());
+        assertEquals(28, totals.monthlyRentals());
+        assertNotNull(totals.computedAt());
+    }
+
+    @Test
+    void get_RunsTheFourQueriesInParallel() throws Exception {
+        // Arrange: cada consulta só retorna quando as quatro estão em andamento
+        CountDownLatch allRunning = new CountDownLatch(4);
+        when(rentalRepository.getDashboardTotals(any())).thenAnswer(invocation -> {
+            awaitAll(allRunning);
+            return rentalTotals(150, 12, "15750.50", 28, "3250.75");
+        });
+        when(motorcycleRepository.countByStatus(Motorcycle.Status.AVAILABLE)).thenAnswer(invocation -> {
+            awaitAll(allRunning);
+            return 25L;
+        });
+        when(userRepository.count()).thenAnswer(invocation -> {
+            awaitAll(allRunning);
+            return 89L;
+        });
+        when(storeRepository.countByStatus(Store.Status.ACTIVE)).thenAnswer(invocation -> {
+            awaitAll(allRunning);
+            return 3L;
+        });
+
+        engine = engine(Executors.newFixedThreadPool(4));
+
+        // Act
+        DashboardStatsEngine.DashboardTotals totals = engine.get();
+
+        // Assert
+        assertEquals(150, totals.totalRentals());
+        assertEquals(25, totals.availableMotorcycles());
+        assertEquals(89, totals.totalUsers());
+        assertEquals(3, totals.activeStores());
+    }
+
+    @Test
+    void get_ConcurrentCallersShareOneComputation() throws Exception {
+        // Arrange
+        engine = engine(Executors.newFixedThreadPool(4));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(rentalRepository.getDashboardTotals(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return rentalTotals(10, 1, "100", 1, "10");
+        });
+
+        // Act
+        List<Future<DashboardStatsEngine.DashboardTotals>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(callers.submit(engine::get));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 15; i++) {
+                results.add(callers.submit(engine::get));
+            }
+            Thread.sleep(100);
+            release.countDown();
+        }
+
+        // Assert
+        for (Future<DashboardStatsEngine.DashboardTotals> result : results) {
+            assertEquals(10, result.get().totalRentals());
+        }
+        verify(rentalRepository, times(1)).getDashboardTotals(any());
+        verify(userRepository, times(1)).count();
+    }
+
+    @Test
+    void get_ServesPreviousTotalsWhileRefreshingAfterFreshnessWindow() {
+        // Arrange
+        when(rentalRepository.getDashboardTotals(any()))
+            .thenReturn(rentalTotals(10, 1, "100", 1, "10"))
+            .thenReturn(rentalTotals(11, 2, "200", 2, "20"));
+        engine.get();
+
+        // Act
+        nanos.addAndGet(FRESH_FOR.minusSeconds(1).toNanos());
+        DashboardStatsEngine.DashboardTotals fresh = engine.get();
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        deferTasks = true;
+        DashboardStatsEngine.DashboardTotals stale = engine.get();
+        runDeferredTasks();
+        DashboardStatsEngine.DashboardTotals refreshed = engine.get();
+
+        // Assert
+        assertEquals(10, fresh.totalRentals());
+        assertEquals(10, stale.totalRentals());
+        assertEquals(11, refreshed.totalRentals());
+        verify(rentalRepository, times(2)).getDashboardTotals(any());
+    }
+
+    @Test
+    void get_RecomputesInlineAfterMaxStale() {
+        // Arrange
+        when(rentalRepository.getDashboardTotals(any()))
+            .thenReturn(rentalTotals(10, 1, "100", 1, "10"))
+            .thenReturn(rentalTotals(11, 2, "200", 2, "20"));
+        engine.get();
+
+        // Act
+        nanos.addAndGet(FRESH_FOR.plus(MAX_STALE).plusSeconds(1).toNanos());
+        DashboardStatsEngine.DashboardTotals totals = engine.get();
+
+        // Assert
+        assertEquals(11, totals.totalRentals());
+        verify(rentalRepository, times(2)).getDashboardTotals(any());
+    }
+
+    @Test
+    void get_QueryFailureBecomesBusinessException() {
+        // Arrange
+        when(rentalRepository.getDashboardTotals(any())).thenThrow(new IllegalStateException("conexão perdida"));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> engine.get());
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    private DashboardStatsEngine engine(Executor executor) {
+        return new DashboardStatsEngine(rentalRepository, motorcycleRepository, userRepository, storeRepository,
+            FRESH_FOR, MAX_STALE, nanos::get, executor);
+    }
+
+    private void runDeferredTasks() {
+        Runnable task;
+        while ((task = deferredTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static void awaitAll(CountDownLatch allRunning) throws InterruptedException {
+        allRunning.countDown();
+        if (!allRunning.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Consultas do dashboard executadas em sequência");
+        }
+    }
+
+    private static RentalRepository.DashboardTotals rentalTotals(long total, long active, String revenue,
+                                                                 long monthly, String monthlyRevenue) {
+        return new RentalRepository.DashboardTotals() {
+            @Override
+            public long getTotalRentals() { return total; }
+
+            @Override
+            public long getActiveRentals() { return active; }
+
+            @Override
+            public BigDecimal getTotalRevenue() { return new BigDecimal(revenue); }
+
+            @Override
+            public long getMonthlyRentals() { return monthly; }
+
+            @Override
+            public BigDecimal getMonthlyRevenue() { return new BigDecimal(monthlyRevenue); }
+        };
+    }
+}
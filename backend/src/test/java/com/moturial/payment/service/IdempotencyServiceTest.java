@@ -0,0 +1,310 @@
+package com.moturial.payment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moturial.payment.domain.dto.PaymentResult;
+import com.moturial.payment.domain.entity.IdempotencyKey;
+import com.moturial.payment.domain.enums.PaymentMethodType;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import com.moturial.payment.exception.IdempotencyConflictException;
+import com.moturial.payment.exception.PaymentProcessingException;
+import com.moturial.payment.exception.PaymentValidationException;
+import com.moturial.payment.repository.IdempotencyKeyRepository;
+import com.stripe.exception.ApiConnectionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para IdempotencyService
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private IdempotencyService idempotencyService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PaymentResult approvedResult;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyKeyRepository, objectMapper, 100, 60);
+        ReflectionTestUtils.setField(idempotencyService, "retentionHours", 24L);
+        ReflectionTestUtils.setField(idempotencyService, "waitTimeoutMillis", 5000L);
+        ReflectionTestUtils.setField(idempotencyService, "lockTimeoutSeconds", 300L);
+
+        approvedResult = PaymentResult.builder()
+            .externalId("pi_test123")
+            .status(PaymentStatus.APPROVED)
+            .amount(new BigDecimal("100.00"))
+            .currency("BRL")
+            .paymentMethod(PaymentMethodType.CARD)
+            .installments(1)
+            .build();
+    }
+
+    @Test
+    void execute_RetryServedFromCache() {
+        // Arrange
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class))).thenAnswer(i -> i.getArgument(0));
+        AtomicInteger executions = new AtomicInteger();
+
+        // Act
+        PaymentResult first = idempotencyService.execute("key-1", "card", Map.of("amount", 100),
+            () -> { executions.incrementAndGet(); return approvedResult; });
+        PaymentResult retry = idempotencyService.execute("key-1", "card", Map.of("amount", 100),
+            () -> { executions.incrementAndGet(); return approvedResult; });
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertSame(first, retry);
+        verify(idempotencyKeyRepository, times(1)).findById("key-1");
+        verify(idempotencyKeyRepository).save(argThat(k -> k.getStatus() == IdempotencyKey.Status.COMPLETED));
+    }
+
+    @Test
+    void execute_ConcurrentDuplicatesWaitForFirstRequest() throws Exception {
+        // Arrange
+        when(idempotencyKeyRepository.findById("key-2")).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class))).thenAnswer(i -> i.getArgument(0));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            Future<PaymentResult> first = executor.submit(() -> idempotencyService.execute("key-2", "card", Map.of("amount", 100),
+                () -> {
+                    executions.incrementAndGet();
+                    awaitQuietly(release);
+                    return approvedResult;
+                }));
+            verify(idempotencyKeyRepository, timeout(5000)).saveAndFlush(any(IdempotencyKey.class));
+
+            Future<PaymentResult> duplicate1 = executor.submit(() -> idempotencyService.execute("key-2", "card", Map.of("amount", 100),
+                () -> { executions.incrementAndGet(); return approvedResult; }));
+            Future<PaymentResult> duplicate2 = executor.submit(() -> idempotencyService.execute("key-2", "card", Map.of("amount", 100),
+                () -> { executions.incrementAndGet(); return approvedResult; }));
+            release.countDown();
+
+            // Assert
+            assertSame(approvedResult, first.get(5, TimeUnit.SECONDS));
+            assertSame(approvedResult, duplicate1.get(5, TimeUnit.SECONDS));
+            assertSame(approvedResult, duplicate2.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_StoredResultReplayedAfterRestart() throws Exception {
+        // Arrange
+        String storedHash = storedHashFor("card", Map.of("amount", 100));
+        IdempotencyKey stored = IdempotencyKey.builder()
+            .key("key-3")
+            .requestHash(storedHash)
+            .status(IdempotencyKey.Status.COMPLETED)
+            .responseBody(objectMapper.writeValueAsString(approvedResult))
+            .createdAt(LocalDateTime.now().minusMinutes(5))
+            .expiresAt(LocalDateTime.now().plusHours(1))
+            .build();
+        when(idempotencyKeyRepository.findById("key-3")).thenReturn(Optional.of(stored));
+
+        // Act
+        PaymentResult result = idempotencyService.execute("key-3", "card", Map.of("amount", 100),
+            () -> fail("Pagamento não deveria ser reprocessado"));
+
+        // Assert
+        assertEquals("pi_test123", result.getExternalId());
+        assertEquals(PaymentStatus.APPROVED, result.getStatus());
+        verify(idempotencyKeyRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void execute_KeyReusedWithDifferentPayload() {
+        // Arrange
+        when(idempotencyKeyRepository.findById("key-4")).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class))).thenAnswer(i -> i.getArgument(0));
+        idempotencyService.execute("key-4", "card", Map.of("amount", 100), () -> approvedResult);
+
+        // Act & Assert
+        IdempotencyConflictException exception = assertThrows(IdempotencyConflictException.class, () ->
+            idempotencyService.execute("key-4", "card", Map.of("amount", 200), () -> approvedResult));
+        assertEquals(IdempotencyConflictException.KEY_REUSED, exception.getErrorCode());
+    }
+
+    @Test
+    void execute_ProcessingFailureReplayed() {
+        // Arrange
+        when(idempotencyKeyRepository.findById("key-5")).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class))).thenAnswer(i -> i.getArgument(0));
+        AtomicInteger executions = new AtomicInteger();
+
+        // Act
+        assertThrows(PaymentProcessingException.class, () -> idempotencyService.execute("key-5", "card", Map.of("amount", 100),
+            () -> { executions.incrementAndGet(); throw new PaymentProcessingException("Cartão recusado"); }));
+        PaymentProcessingException replayed = assertThrows(PaymentProcessingException.class, () ->
+            idempotencyService.execute("key-5", "card", Map.of("amount", 100),
+                () -> { executions.incrementAndGet(); return approvedResult; }));
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals("Cartão recusado", replayed.getMessage());
+    }
+
+    @Test
+    void execute_ValidationFailureReleasesKey() {
+        // Arrange
+        when(idempotencyKeyRepository.findById("key-6")).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act & Assert
+        assertThrows(PaymentValidationException.class, () -> idempotencyService.execute("key-6", "card", Map.of("amount", 100),
+            () -> { throw new PaymentValidationException("Dados inválidos"); }));
+        verify(idempotencyKeyRepository).deleteById("key-6");
+    }
+
+    @Test
+    void execute_ProviderUnavailableReleasesKeyForRetry() {
+        // Arrange
+        when(idempotencyKeyRepository.findById("key-9")).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class))).thenAnswer(i -> i.getArgument(0));
+        AtomicInteger executions = new AtomicInteger();
+
+        // Act: circuito aberto na primeira tentativa
+        PaymentProcessingException unavailable = assertThrows(PaymentProcessingException.class, () ->
+            idempotencyService.execute("key-9", "card", Map.of("amount", 100), () -> {
+                executions.incrementAndGet();
+                throw new PaymentProcessingException("Serviço de pagamento temporariamente indisponível",
+                    PaymentProcessingException.PROVIDER_UNAVAILABLE, new IllegalStateException("circuit open"));
+            }));
+        PaymentResult retried = idempotencyService.execute("key-9", "card", Map.of("amount", 100), () -> {
+            executions.incrementAndGet();
+            return approvedResult;
+        });
+
+        // Assert
+        assertEquals(PaymentProcessingException.PROVIDER_UNAVAILABLE, unavailable.getErrorCode());
+        assertSame(approvedResult, retried);
+        assertEquals(2, executions.get());
+        verify(idempotencyKeyRepository).deleteById("key-9");
+        verify(idempotencyKeyRepository, never()).save(argThat(record -> record.getStatus() == IdempotencyKey.Status.FAILED));
+    }
+
+    @Test
+    void execute_ConnectionErrorReleasesKeyForRetry() {
+        // Arrange
+        when(idempotencyKeyRepository.findById("key-10")).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act & Assert
+        assertThrows(PaymentProcessingException.class, () ->
+            idempotencyService.execute("key-10", "card", Map.of("amount", 100), () -> {
+                throw new PaymentProcessingException("Erro ao processar pagamento",
+                    new ApiConnectionException("timeout"));
+            }));
+        verify(idempotencyKeyRepository).deleteById("key-10");
+    }
+
+    @Test
+    void execute_StaleLockTakenOverOnlyIfStillUnclaimed() throws Exception {
+        // Arrange: nó anterior caiu com a chave IN_PROGRESS
+        LocalDateTime abandonedAt = LocalDateTime.now().minusHours(1);
+        IdempotencyKey stored = IdempotencyKey.builder()
+            .key("key-7")
+            .requestHash(storedHashFor("card", Map.of("amount", 100)))
+            .status(IdempotencyKey.Status.IN_PROGRESS)
+            .createdAt(abandonedAt)
+            .expiresAt(LocalDateTime.now().plusHours(1))
+            .build();
+        when(idempotencyKeyRepository.findById("key-7")).thenReturn(Optional.of(stored));
+        when(idempotencyKeyRepository.claim(eq("key-7"), eq(abandonedAt), anyString(),
+            eq(IdempotencyKey.Status.IN_PROGRESS), any(), any())).thenReturn(0);
+
+        // Act & Assert: outro nó assumiu a chave antes
+        IdempotencyConflictException exception = assertThrows(IdempotencyConflictException.class, () ->
+            idempotencyService.execute("key-7", "card", Map.of("amount", 100),
+                () -> fail("Pagamento não deveria ser processado")));
+        assertEquals(IdempotencyConflictException.KEY_IN_PROGRESS, exception.getErrorCode());
+        verify(idempotencyKeyRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void execute_ExpiredKeyReclaimedInsteadOfInserted() {
+        // Arrange: chave expirada ainda não removida pela limpeza
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(2);
+        IdempotencyKey stored = IdempotencyKey.builder()
+            .key("key-8")
+            .requestHash("outro-hash")
+            .status(IdempotencyKey.Status.COMPLETED)
+            .createdAt(createdAt)
+            .expiresAt(LocalDateTime.now().minusDays(1))
+            .build();
+        when(idempotencyKeyRepository.findById("key-8")).thenReturn(Optional.of(stored));
+        when(idempotencyKeyRepository.claim(eq("key-8"), eq(createdAt), anyString(),
+            eq(IdempotencyKey.Status.IN_PROGRESS), any(), any())).thenReturn(1);
+
+        // Act
+        PaymentResult result = idempotencyService.execute("key-8", "card", Map.of("amount", 100), () -> approvedResult);
+
+        // Assert
+        assertSame(approvedResult, result);
+        verify(idempotencyKeyRepository, never()).saveAndFlush(any());
+        verify(idempotencyKeyRepository).save(argThat(record ->
+            !record.isNew() && record.getStatus() == IdempotencyKey.Status.COMPLETED));
+    }
+
+    @Test
+    void execute_InvalidKey() {
+        assertThrows(PaymentValidationException.class, () ->
+            idempotencyService.execute("chave com espaço", "card", Map.of("amount", 100), () -> approvedResult));
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    private String storedHashFor(String scope, Map<String, Object> request) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update((scope + ":").getBytes(StandardCharsets.UTF_8));
+        digest.update(objectMapper.writeValueAsBytes(request));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.exception.SecurityException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para KeysetCursor
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+class KeysetCursorTest {
+
+    @Test
+    void encode_RoundTripsCreatedAtAndId() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 3, 15, 10, 30, 45, 123_456_789),
+            UUID.fromString("550e8400-e29b-41d4-a716-446655440000"));
+
+        String token = cursor.encode();
+
+        assertEquals(cursor, KeysetCursor.decode(token));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decode_BlankIsFirstPage() {
+        assertSame(KeysetCursor.FIRST, KeysetCursor.decode(null));
+        assertSame(KeysetCursor.FIRST, KeysetCursor.decode(""));
+        assertSame(KeysetCursor.FIRST, KeysetCursor.decode("  "));
+    }
+
+    @Test
+    void decode_RejectsTamperedToken() {
+        String truncated = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[12]);
+
+        assertThrows(SecurityException.class, () -> KeysetCursor.decode("não-é-base64!"));
+        assertThrows(SecurityException.class, () -> KeysetCursor.decode(truncated));
+    }
+}
@@ -0,0 +1,213 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.dto.BatchPaymentItemResult;
+import com.moturial.payment.domain.dto.CardData;
+import com.moturial.payment.domain.dto.CustomerData;
+import com.moturial.payment.domain.dto.PaymentRequest;
+import com.moturial.payment.domain.dto.PaymentResult;
+import com.moturial.payment.domain.entity.Payment;
+import com.moturial.payment.domain.enums.PaymentMethodType;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import com.moturial.payment.exception.PaymentProcessingException;
+import com.moturial.payment.integration.StripeService;
+import com.moturial.payment.repository.PaymentRepository;
+import com.moturial.payment.validation.PaymentValidator;
+import com.moturial.payment.validation.ValidationResult;
+import com.moturial.payment.validation.ValidationRule;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para PaymentBatchService
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentBatchServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private StripeService stripeService;
+
+    @Mock
+    private PaymentValidator paymentValidator;
+
+    @Mock
+    private Validator beanValidator;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PaymentStatusCache statusCache;
+
+    private PaymentBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new PaymentBatchService(paymentRepository, stripeService, paymentValidator, beanValidator,
+            jdbcTemplate, transactionManager, statusCache, 4);
+        ReflectionTestUtils.setField(batchService, "chunkSize", 3);
+        ReflectionTestUtils.setField(batchService, "maxItems", 100);
+
+        when(paymentRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Payment> saved = new ArrayList<>();
+            for (Payment payment : invocation.<Iterable<Payment>>getArgument(0)) {
+                payment.setId(UUID.randomUUID());
+                saved.add(payment);
+            }
+            return saved;
+        });
+        lenient().when(paymentValidator.checkPaymentRequest(any(PaymentRequest.class))).thenReturn(ValidationResult.VALID);
+        lenient().when(paymentValidator.checkCardData(any(), any())).thenReturn(ValidationResult.VALID);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void process_ValidatesInsertsAndWritesResultsPerChunk() throws Exception {
+        // Arrange
+        PaymentRequest approved = request("renter1", PaymentMethodType.CARD);
+        PaymentRequest invalid = request("renter2", PaymentMethodType.CARD);
+        PaymentRequest stripeError = request("renter3", PaymentMethodType.PIX);
+        PaymentRequest secondChunk = request("renter4", PaymentMethodType.PIX);
+
+        when(paymentValidator.checkPaymentRequest(invalid)).thenReturn(ValidationRule.AMOUNT_NOT_POSITIVE.result());
+        when(stripeService.processCardPayment(eq(approved), any(CardData.class), anyString()))
+            .thenReturn(result("pi_1", PaymentStatus.APPROVED));
+        when(stripeService.processPixPayment(eq(stripeError), anyString()))
+            .thenThrow(new PaymentProcessingException("Stripe indisponível"));
+        when(stripeService.processPixPayment(eq(secondChunk), anyString()))
+            .thenReturn(result("pi_4", PaymentStatus.PENDING));
+
+        List<BatchPaymentItemResult> results = new ArrayList<>();
+
+        // Act
+        int count = batchService.process(List.of(approved, invalid, stripeError, secondChunk).iterator(), results::add);
+
+        // Assert
+        assertEquals(4, count);
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(BatchPaymentItemResult::index).toList());
+        assertEquals(BatchPaymentItemResult.Outcome.PROCESSED, results.get(0).outcome());
+        assertEquals(PaymentStatus.APPROVED, results.get(0).result().getStatus());
+        assertEquals(BatchPaymentItemResult.Outcome.INVALID, results.get(1).outcome());
+        assertEquals("Valor deve ser maior que zero", results.get(1).error());
+        assertNull(results.get(1).paymentId());
+        assertEquals(BatchPaymentItemResult.Outcome.FAILED, results.get(2).outcome());
+        assertNotNull(results.get(2).paymentId());
+        assertEquals(BatchPaymentItemResult.Outcome.PROCESSED, results.get(3).outcome());
+
+        ArgumentCaptor<Iterable<Payment>> inserted = ArgumentCaptor.forClass(Iterable.class);
+        verify(paymentRepository, times(2)).saveAll(inserted.capture());
+        assertEquals(2, count(inserted.getAllValues().get(0)));
+        assertEquals(1, count(inserted.getAllValues().get(1)));
+
+        ArgumentCaptor<Collection> updates = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), updates.capture(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1, updates.getAllValues().get(0).size());
+        assertEquals(1, updates.getAllValues().get(1).size());
+        verify(paymentRepository, never()).save(any(Payment.class));
+
+        InOrder afterCommit = inOrder(jdbcTemplate, statusCache);
+        afterCommit.verify(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        afterCommit.verify(statusCache).invalidate("pi_1");
+        verify(statusCache).invalidate("pi_4");
+        verifyNoMoreInteractions(statusCache);
+    }
+
+    @Test
+    void process_StopsReadingItemsAtTheLimit() {
+        // Arrange
+        ReflectionTestUtils.setField(batchService, "maxItems", 1);
+        when(stripeService.processPixPayment(any(PaymentRequest.class), anyString()))
+            .thenReturn(result("pi_1", PaymentStatus.PENDING));
+        Iterator<PaymentRequest> body = List.of(request("renter1", PaymentMethodType.PIX),
+            request("renter2", PaymentMethodType.PIX), request("renter3", PaymentMethodType.PIX)).iterator();
+        AtomicInteger read = new AtomicInteger();
+        Iterator<PaymentRequest> items = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return body.hasNext();
+            }
+
+            @Override
+            public PaymentRequest next() {
+                read.incrementAndGet();
+                return body.next();
+            }
+        };
+        List<BatchPaymentItemResult> results = new ArrayList<>();
+
+        // Act
+        int count = batchService.process(items, results::add);
+
+        // Assert: um único resultado marca o limite e os itens seguintes nem são desserializados
+        assertEquals(1, count);
+        assertEquals(1, read.get());
+        assertEquals(2, results.size());
+        assertEquals(BatchPaymentItemResult.Outcome.PROCESSED, results.get(0).outcome());
+        assertEquals(BatchPaymentItemResult.Outcome.INVALID, results.get(1).outcome());
+        assertEquals(1, results.get(1).index());
+        verify(stripeService, times(1)).processPixPayment(any(PaymentRequest.class), anyString());
+    }
+
+    private PaymentRequest request(String userId, PaymentMethodType method) {
+        PaymentRequest request = new PaymentRequest(userId, new BigDecimal("150.00"), "BRL", method,
+            new CustomerData("Locatário " + userId, userId + "@email.com"));
+        request.setDescription("Plano mensal");
+        if (method == PaymentMethodType.CARD) {
+            request.setCard(new CardData("4242424242424242", "Locatário", "12/30", "123"));
+        }
+        return request;
+    }
+
+    private PaymentResult result(String externalId, PaymentStatus status) {
+        return PaymentResult.builder()
+            .externalId(externalId)
+            .status(status)
+            .amount(new BigDecimal("150.00"))
+            .currency("BRL")
+            .build();
+    }
+
+    private static int count(Iterable<Payment> payments) {
+        int count = 0;
+        for (Payment ignored : payments) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,160 @@
+package com.moturial.payment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da exportação de pagamentos contra o H2
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:payment-export;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(PaymentExportService.class)
+class PaymentExportServiceTest {
+
+    private static final int PAYMENTS = 3_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Autowired
+    private PaymentExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>(PAYMENTS);
+        for (int i = 0; i < PAYMENTS; i++) {
+            // Um pagamento por minuto; a cada três, um rejeitado sem data de processamento
+            Timestamp createdAt = Timestamp.valueOf(BASE.plusMinutes(i));
+            boolean rejected = i % 3 == 0;
+            rows.add(new Object[]{UUID.randomUUID(), "pi_" + i, "user" + (i % 10), new BigDecimal("150.00"), "BRL",
+                "CARD", rejected ? "REJECTED" : "APPROVED", 1, "Aluguel, \"mensal\" " + i,
+                rejected ? "=HYPERLINK(\"x\")" : null, createdAt, createdAt,
+                rejected ? null : Timestamp.valueOf(BASE.plusMinutes(i).plusSeconds(30))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO payments (id, external_id, user_id, amount, currency, payment_method, "
+            + "status, installments, description, error_message, created_at, updated_at, processed_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void export_NdjsonStreamsPeriodWithoutAccumulatingEntities() throws Exception {
+        ContextTrackingOutputStream output = new ContextTrackingOutputStream();
+
+        long count = exportService.export(BASE, BASE.plusMinutes(PAYMENTS), PaymentExportService.DateField.CREATED,
+            null, PaymentExportService.Format.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(PAYMENTS, count);
+        assertEquals(PAYMENTS, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("pi_0", first.get("external_id").asText());
+        assertTrue(lines[0].contains("\"amount\":150.00,"), lines[0]);
+        assertEquals("REJECTED", first.get("status").asText());
+        assertTrue(first.get("processed_at").isNull());
+        assertEquals("pi_" + (PAYMENTS - 1), objectMapper.readTree(lines[PAYMENTS - 1]).get("external_id").asText());
+
+        // Cada pagamento sai do contexto de persistência assim que é escrito
+        assertTrue(output.writes > 10, "a saída deve ser escrita ao longo da leitura");
+        assertTrue(output.maxManagedEntities <= 1, "entidades gerenciadas: " + output.maxManagedEntities);
+        assertEquals(0, managedEntities());
+    }
+
+    @Test
+    void export_CsvFiltersByProcessedAtAndStatus() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = exportService.export(BASE, BASE.plusMinutes(30), PaymentExportService.DateField.PROCESSED,
+            Set.of(PaymentStatus.APPROVED), PaymentExportService.Format.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(20, count);
+        assertEquals(21, lines.length);
+        assertEquals("id,external_id,user_id,amount,currency,payment_method,status,installments,description,"
+            + "error_message,created_at,processed_at", lines[0]);
+        assertTrue(lines[1].contains(",pi_1,user1,150.00,BRL,CARD,APPROVED,1,\"Aluguel, \"\"mensal\"\" 1\",,"),
+            lines[1]);
+        assertTrue(lines[1].endsWith(",2024-03-01T00:01,2024-03-01T00:01:30"), lines[1]);
+    }
+
+    @Test
+    void export_CsvNeutralizesSpreadsheetFormulas() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.export(BASE, BASE.plusMinutes(1), PaymentExportService.DateField.CREATED,
+            Set.of(PaymentStatus.REJECTED), PaymentExportService.Format.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains(",\"'=HYPERLINK(\"\"x\"\")\","), lines[1]);
+    }
+
+    private int managedEntities() {
+        return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+
+    /**
+     * Saída em memória que registra o maior número de entidades gerenciadas
+     * observado a cada escrita
+     */
+    private final class ContextTrackingOutputStream extends ByteArrayOutputStream {
+
+        private int writes;
+        private int maxManagedEntities;
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            track();
+            super.write(bytes, offset, length);
+        }
+
+        @Override
+        public void write(int b) {
+            track();
+            super.write(b);
+        }
+
+        private void track() {
+            writes++;
+            maxManagedEntities = Math.max(maxManagedEntities, managedEntities());
+        }
+    }
+}
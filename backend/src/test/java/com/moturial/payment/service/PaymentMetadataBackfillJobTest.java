@@ -0,0 +1,156 @@
+package com.moturial.payment.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da metadata jsonb (V14) e da conversão dos registros antigos contra um PostgreSQL real
+ *
+ * Ignorado quando não há Docker disponível.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PaymentMetadataBackfillJobTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private PaymentMetadataBackfillJob job;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Metadata ainda em TEXT, como gravada por PaymentService antes da V14
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS payments_archive CASCADE");
+        flyway("13").clean();
+        flyway("13").migrate();
+        for (int i = 0; i < 25; i++) {
+            insertPayment("pi_" + i, "{payment_reference=" + UUID.randomUUID() + ", rental_id=rental-" + (i % 5)
+                + ", order_id=order-" + i + "}");
+        }
+        insertPayment("pi_text", "pedido avulso");
+        insertPayment("pi_null", null);
+        flyway("latest").migrate();
+
+        job = new PaymentMetadataBackfillJob(jdbcTemplate, new DatabaseAdvisoryLock(dataSource),
+            new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(job, "batchSize", 4);
+        ReflectionTestUtils.setField(job, "maxRowsPerRun", 12);
+    }
+
+    @Test
+    void backfill_ConvertsLegacyTextInBatchesAcrossRuns() {
+        assertEquals(12, job.runOnce());
+        assertEquals(12, job.runOnce());
+        assertEquals(2, job.runOnce());
+        assertEquals(0, job.runOnce());
+        assertTrue(job.isFinished());
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM payments WHERE metadata_legacy IS NOT NULL", Integer.class));
+        assertEquals("rental-3", jdbcTemplate.queryForObject(
+            "SELECT metadata->>'rental_id' FROM payments WHERE external_id = 'pi_8'", String.class));
+        assertEquals("order-8", jdbcTemplate.queryForObject(
+            "SELECT metadata->>'order_id' FROM payments WHERE external_id = 'pi_8'", String.class));
+        assertEquals("pedido avulso", jdbcTemplate.queryForObject(
+            "SELECT metadata->>'legacy' FROM payments WHERE external_id = 'pi_text'", String.class));
+        assertNull(jdbcTemplate.queryForObject(
+            "SELECT metadata FROM payments WHERE external_id = 'pi_null'", String.class));
+    }
+
+    @Test
+    void backfill_KeepsMetadataAlreadyWrittenByTheApplication() {
+        jdbcTemplate.update("UPDATE payments SET metadata = '{\"rental_id\": \"rental-new\"}'::jsonb "
+            + "WHERE external_id = 'pi_0'");
+
+        job.runOnce();
+        job.runOnce();
+        job.runOnce();
+
+        assertEquals("{\"rental_id\": \"rental-new\"}", jdbcTemplate.queryForObject(
+            "SELECT metadata::text FROM payments WHERE external_id = 'pi_0'", String.class));
+    }
+
+    @Test
+    void metadataLookups_UseTheV14Indexes() {
+        job.runOnce();
+        job.runOnce();
+        job.runOnce();
+
+        // PaymentRepository.findByMetadataRentalId e findByMetadataValue
+        List<String> byRental = jdbcTemplate.queryForList("SELECT external_id FROM payments "
+            + "WHERE metadata->>'rental_id' = 'rental-2' ORDER BY external_id", String.class);
+        List<String> byOrder = jdbcTemplate.queryForList("SELECT external_id FROM payments "
+            + "WHERE metadata @> jsonb_build_object('order_id', 'order-7')", String.class);
+        assertEquals(List.of("pi_12", "pi_17", "pi_2", "pi_22", "pi_7"), byRental);
+        assertEquals(List.of("pi_7"), byOrder);
+
+        String rentalPlan = explain("SELECT * FROM payments WHERE metadata->>'rental_id' = 'rental-2'");
+        String containmentPlan = explain(
+            "SELECT * FROM payments WHERE metadata @> jsonb_build_object('order_id', 'order-7')");
+        assertFalse(rentalPlan.contains("Seq Scan"), rentalPlan);
+        assertTrue(rentalPlan.contains("expr_idx"), rentalPlan);
+        assertFalse(containmentPlan.contains("Seq Scan"), containmentPlan);
+        assertTrue(containmentPlan.contains("Bitmap Index Scan"), containmentPlan);
+    }
+
+    private Flyway flyway(String target) {
+        return Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .cleanDisabled(false)
+            .target(target)
+            .load();
+    }
+
+    private void insertPayment(String externalId, String metadata) {
+        Timestamp created = Timestamp.valueOf(LocalDateTime.now().withNano(0));
+        jdbcTemplate.update("INSERT INTO payments (id, external_id, user_id, amount, currency, payment_method, status, "
+                + "installments, metadata, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            UUID.randomUUID(), externalId, "user1", 150, "BRL", "CARD", "COMPLETED", 1, metadata, created, created);
+    }
+
+    /**
+     * Plano sem varredura sequencial: com poucas linhas o planejador a preferiria a qualquer índice
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery("EXPLAIN (COSTS OFF) " + sql)) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("RESET enable_seqscan");
+                return plan.toString();
+            }
+        });
+    }
+}
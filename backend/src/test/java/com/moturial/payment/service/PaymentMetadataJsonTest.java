@@ -0,0 +1,54 @@
+package com.moturial.payment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da leitura da metadata antiga e da serialização JSON
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+class PaymentMetadataJsonTest {
+
+    @Test
+    void parseLegacy_ReadsMapToStringOutput() {
+        // Arrange
+        Map<String, String> original = new LinkedHashMap<>();
+        original.put("payment_reference", "6f1c2a4e-8d3b-4c55-9a7e-2b1f0c9d8e7a");
+        original.put("rental_id", "rental-42");
+        original.put("address", "Rua A, 100, São Paulo");
+        original.put("note", "a=b");
+        original.put("empty", "");
+
+        // Act
+        Map<String, String> parsed = PaymentMetadataJson.parseLegacy(original.toString());
+
+        // Assert
+        assertEquals(original, parsed);
+    }
+
+    @Test
+    void parseLegacy_AcceptsJsonAndEmptyMaps() {
+        assertEquals(Map.of("order_id", "o-1", "installments", "3"),
+            PaymentMetadataJson.parseLegacy("{\"order_id\":\"o-1\",\"installments\":3}"));
+        assertEquals(Map.of(), PaymentMetadataJson.parseLegacy("{}"));
+    }
+
+    @Test
+    void parseLegacy_KeepsUnrecognizedTextUnderLegacyKey() {
+        assertEquals(Map.of(PaymentMetadataJson.LEGACY_KEY, "pedido 123"), PaymentMetadataJson.parseLegacy("pedido 123"));
+        assertEquals(Map.of(PaymentMetadataJson.LEGACY_KEY, "{sem separador}"),
+            PaymentMetadataJson.parseLegacy("{sem separador}"));
+    }
+
+    @Test
+    void toJson_WritesJsonObject() {
+        assertEquals("{\"rental_id\":\"rental-42\"}", PaymentMetadataJson.toJson(Map.of("rental_id", "rental-42")));
+        assertNull(PaymentMetadataJson.toJson(null));
+    }
+}
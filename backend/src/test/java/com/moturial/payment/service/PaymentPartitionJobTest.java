@@ -0,0 +1,127 @@
+package com.moturial.payment.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para PaymentPartitionJob
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentPartitionJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 11, 20);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PaymentPartitionJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new PaymentPartitionJob(jdbcTemplate, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(job, "premakeMonths", 3);
+        ReflectionTestUtils.setField(job, "retentionMonths", 24);
+        lenient().when(jdbcTemplate.queryForList(startsWith("SELECT archive_payments_partitions"), eq(String.class), any()))
+            .thenReturn(List.of());
+    }
+
+    @Test
+    void maintainPartitions_ReportsMonthsAheadWithAPartition() {
+        // Arrange
+        database("PostgreSQL");
+        when(jdbcTemplate.queryForList(startsWith("SELECT create_payments_partitions"), eq(String.class), any(), any()))
+            .thenReturn(List.of("payments_2026_02"));
+        partitions("payments_2025_10", "payments_2025_11", "payments_2025_12", "payments_2026_01", "payments_2026_02");
+
+        // Act
+        job.maintainPartitions(TODAY);
+
+        // Assert
+        assertEquals(3, monthsAhead());
+    }
+
+    @Test
+    void maintainPartitions_FailedCreationReportsOnlyTheMonthsThatExist() {
+        // Arrange: sem partição DEFAULT, o INSERT de dezembro falharia
+        database("PostgreSQL");
+        when(jdbcTemplate.queryForList(startsWith("SELECT create_payments_partitions"), eq(String.class), any(), any()))
+            .thenThrow(new QueryTimeoutException("lock timeout"));
+        partitions("payments_2025_11");
+
+        // Act
+        job.maintainPartitions(TODAY);
+
+        // Assert
+        assertEquals(0, monthsAhead());
+    }
+
+    @Test
+    void maintainPartitions_MissingCurrentMonthIsReportedAsMinusOne() {
+        // Arrange
+        database("PostgreSQL");
+        when(jdbcTemplate.queryForList(startsWith("SELECT create_payments_partitions"), eq(String.class), any(), any()))
+            .thenThrow(new QueryTimeoutException("lock timeout"));
+        partitions("payments_2025_12", "payments_2026_01");
+
+        // Act
+        job.maintainPartitions(TODAY);
+
+        // Assert: meses seguintes não contam sem o mês corrente
+        assertEquals(-1, monthsAhead());
+    }
+
+    @Test
+    void maintainPartitions_DoesNothingOutsidePostgres() {
+        // Arrange
+        database("H2");
+
+        // Act
+        job.maintainPartitions(TODAY);
+        job.maintainPartitions(TODAY);
+
+        // Assert: o banco é consultado uma vez e não há gauge para alertar em falso
+        verify(jdbcTemplate).execute(ArgumentMatchers.<ConnectionCallback<Boolean>>any());
+        verifyNoMoreInteractions(jdbcTemplate);
+        assertNull(meterRegistry.find("payment.partitions.months.ahead").gauge());
+    }
+
+    private void database(String productName) {
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<Boolean>>any()))
+            .thenReturn("PostgreSQL".equals(productName));
+    }
+
+    private void partitions(String... names) {
+        when(jdbcTemplate.queryForList(startsWith("SELECT c.relname"), eq(String.class))).thenReturn(List.of(names));
+    }
+
+    private double monthsAhead() {
+        return meterRegistry.get("payment.partitions.months.ahead").gauge().value();
+    }
+}
@@ -0,0 +1,195 @@
+package com.moturial.payment.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da tabela payments particionada por mês (V12) contra um PostgreSQL real
+ *
+ * Confere a migração dos dados existentes, a manutenção feita pelo
+ * PaymentPartitionJob e que as consultas por período do PaymentRepository só
+ * leem as partições do período. Ignorado quando não há Docker disponível.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PaymentPartitioningTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Tabela ainda sem partições, com pagamentos de três meses
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS payments_archive CASCADE");
+        flyway("11").clean();
+        flyway("11").migrate();
+        insertPayment("pi_jan", LocalDateTime.of(2024, 1, 15, 10, 0));
+        insertPayment("pi_feb_1", LocalDateTime.of(2024, 2, 10, 10, 0));
+        insertPayment("pi_feb_2", LocalDateTime.of(2024, 2, 20, 10, 0));
+        insertPayment("pi_mar", LocalDateTime.of(2024, 3, 5, 10, 0));
+        flyway("latest").migrate();
+    }
+
+    @Test
+    void migration_MovesExistingRowsIntoMonthlyPartitions() {
+        Map<String, Integer> rowsByPartition = new HashMap<>();
+        jdbcTemplate.query("SELECT tableoid::regclass::text AS partition, COUNT(*) AS total FROM payments GROUP BY 1",
+            (RowCallbackHandler) rs -> rowsByPartition.put(rs.getString("partition"), rs.getInt("total")));
+
+        assertEquals(Map.of("payments_2024_01", 1, "payments_2024_02", 2, "payments_2024_03", 1), rowsByPartition);
+        assertTrue(partitionExists("public", LocalDate.now().plusMonths(3)));
+        assertEquals("pi_feb_2", jdbcTemplate.queryForObject(
+            "SELECT external_id FROM payments WHERE external_id = 'pi_feb_2'", String.class));
+    }
+
+    @Test
+    void periodQueries_ReadOnlyThePartitionsOfThePeriod() {
+        // PaymentRepository.streamByCreatedAtForExport
+        String byCreatedAt = explain("SELECT * FROM payments p WHERE p.created_at >= '2024-02-01' "
+            + "AND p.created_at < '2024-03-01' AND p.status IN ('PENDING', 'COMPLETED') ORDER BY p.created_at, p.id");
+        assertTrue(byCreatedAt.contains("payments_2024_02"), byCreatedAt);
+        assertFalse(byCreatedAt.contains("payments_2024_01"), byCreatedAt);
+        assertFalse(byCreatedAt.contains("payments_2024_03"), byCreatedAt);
+
+        // PaymentRepository.streamByProcessedAtForExport: o limite em created_at corta os meses seguintes
+        String byProcessedAt = explain("SELECT * FROM payments p WHERE p.processed_at >= '2024-02-01' "
+            + "AND p.processed_at < '2024-03-01' AND p.created_at < '2024-03-01' ORDER BY p.processed_at, p.id");
+        assertTrue(byProcessedAt.contains("payments_2024_02"), byProcessedAt);
+        assertFalse(byProcessedAt.contains("payments_2024_03"), byProcessedAt);
+        assertFalse(byProcessedAt.contains(partitionName(LocalDate.now())), byProcessedAt);
+
+        // Com plano genérico (prepared statement reutilizado pelo driver) a poda acontece na execução
+        String generic = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET plan_cache_mode = force_generic_plan");
+                statement.execute("PREPARE by_created(timestamp, timestamp) AS SELECT * FROM payments p "
+                    + "WHERE p.created_at >= $1 AND p.created_at < $2 ORDER BY p.created_at, p.id");
+                return plan(statement, "EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF, SUMMARY OFF) "
+                    + "EXECUTE by_created('2024-02-01', '2024-03-01')");
+            }
+        });
+        assertTrue(generic.contains("Subplans Removed"), generic);
+        assertFalse(generic.contains("payments_2024_01"), generic);
+    }
+
+    @Test
+    void partitionJob_CreatesUpcomingPartitionsAndArchivesExpiredOnes() {
+        LocalDate today = LocalDate.now().plusYears(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PaymentPartitionJob job = new PaymentPartitionJob(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+            meterRegistry);
+        ReflectionTestUtils.setField(job, "premakeMonths", 3);
+        ReflectionTestUtils.setField(job, "retentionMonths", 24);
+
+        job.maintainPartitions(today);
+        job.maintainPartitions(today);
+
+        for (int i = 0; i <= 3; i++) {
+            assertTrue(partitionExists("public", today.plusMonths(i)), partitionName(today.plusMonths(i)));
+        }
+        assertFalse(partitionExists("public", LocalDate.of(2024, 2, 1)));
+        assertTrue(partitionExists("payments_archive", LocalDate.of(2024, 2, 1)));
+        assertEquals(2, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM payments_archive.payments_2024_02", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM payments WHERE created_at < '2024-04-01'", Integer.class));
+        assertTrue(partitionExists("public", today.minusMonths(24)));
+        assertEquals(3, meterRegistry.get("payment.partitions.months.ahead").gauge().value());
+    }
+
+    @Test
+    void externalId_StaysUniqueAcrossPartitions() {
+        // Mesmo external_id em outro mês: a constraint (external_id, created_at) sozinha aceitaria
+        assertThrows(DataIntegrityViolationException.class,
+            () -> insertPayment("pi_jan", LocalDateTime.of(2024, 2, 15, 10, 0)));
+
+        // Trocar o external_id libera o anterior
+        jdbcTemplate.update("UPDATE payments SET external_id = 'pi_jan_renamed' WHERE external_id = 'pi_jan'");
+        insertPayment("pi_jan", LocalDateTime.of(2024, 3, 15, 10, 0));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+            "UPDATE payments SET external_id = 'pi_feb_1' WHERE external_id = 'pi_feb_2'"));
+
+        // Pagamentos copiados pela V12 também foram registrados
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payment_external_ids", Integer.class));
+    }
+
+    private Flyway flyway(String target) {
+        return Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .cleanDisabled(false)
+            .target(target)
+            .load();
+    }
+
+    private void insertPayment(String externalId, LocalDateTime createdAt) {
+        Timestamp created = Timestamp.valueOf(createdAt);
+        jdbcTemplate.update("INSERT INTO payments (id, external_id, user_id, amount, currency, payment_method, status, "
+                + "installments, created_at, updated_at, processed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            UUID.randomUUID(), externalId, "user1", 150, "BRL", "CARD", "COMPLETED", 1, created, created,
+            Timestamp.valueOf(createdAt.plusMinutes(1)));
+    }
+
+    private boolean partitionExists(String schema, LocalDate month) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+            schema + "." + partitionName(month));
+    }
+
+    private static String partitionName(LocalDate month) {
+        return "payments_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                return plan(statement, "EXPLAIN (COSTS OFF) " + sql);
+            }
+        });
+    }
+
+    private static String plan(Statement statement, String explain) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet rs = statement.executeQuery(explain)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
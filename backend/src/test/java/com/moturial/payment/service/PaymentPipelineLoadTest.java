@@ -0,0 +1,141 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.dto.CardData;
+import com.moturial.payment.domain.dto.CustomerData;
+import com.moturial.payment.domain.dto.PaymentRequest;
+import com.moturial.payment.domain.dto.PaymentResult;
+import com.moturial.payment.domain.entity.Payment;
+import com.moturial.payment.domain.enums.PaymentMethodType;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import com.moturial.payment.integration.StripeService;
+import com.moturial.payment.repository.PaymentRepository;
+import com.moturial.payment.validation.PaymentValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste de carga do pipeline de pagamento
+ *
+ * Com um pool de apenas {@value #POOL_SIZE} conexões, {@value #CONCURRENT_PAYMENTS}
+ * pagamentos precisam estar simultaneamente dentro da chamada ao Stripe para que
+ * ela retorne. Se alguma fase retivesse a conexão durante a chamada remota, no
+ * máximo {@value #POOL_SIZE} chegariam lá e o teste falharia por timeout.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:pipeline;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+    "spring.datasource.hikari.maximum-pool-size=" + PaymentPipelineLoadTest.POOL_SIZE,
+    "spring.datasource.hikari.minimum-idle=1",
+    "spring.datasource.hikari.connection-timeout=30000",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PaymentService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentPipelineLoadTest {
+
+    static final int POOL_SIZE = 2;
+    static final int CONCURRENT_PAYMENTS = 16;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @MockBean
+    private StripeService stripeService;
+
+    @MockBean
+    private PaymentValidator paymentValidator;
+
+    @MockBean
+    private PaymentStatusCache statusCache;
+
+    @Test
+    void concurrentPayments_NotBoundedByPoolSize() throws Exception {
+        // Arrange: o stub do Stripe só responde quando todos os pagamentos estão dentro dele
+        CountDownLatch allInsideStripe = new CountDownLatch(CONCURRENT_PAYMENTS);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+
+        when(stripeService.processCardPayment(any(), any(), any())).thenAnswer(invocation -> {
+            PaymentRequest request = invocation.getArgument(0);
+            String reference = invocation.getArgument(2);
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                allInsideStripe.countDown();
+                if (!allInsideStripe.await(10, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Chamadas ao Stripe limitadas pelo pool de conexões");
+                }
+                return PaymentResult.builder()
+                    .externalId("pi_" + reference)
+                    .status(PaymentStatus.APPROVED)
+                    .amount(request.getAmount())
+                    .currency(request.getCurrency())
+                    .paymentMethod(PaymentMethodType.CARD)
+                    .installments(request.getInstallments())
+                    .build();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_PAYMENTS);
+        List<Future<PaymentResult>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_PAYMENTS; i++) {
+                PaymentRequest request = createRequest("user" + i);
+                futures.add(executor.submit(() -> paymentService.processCardPayment(request)));
+            }
+            for (Future<PaymentResult> future : futures) {
+                assertEquals(PaymentStatus.APPROVED, future.get(30, TimeUnit.SECONDS).getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(CONCURRENT_PAYMENTS, peakInFlight.get());
+        List<Payment> payments = paymentRepository.findAll();
+        assertEquals(CONCURRENT_PAYMENTS, payments.size());
+        assertTrue(payments.stream().allMatch(p -> p.getStatus() == PaymentStatus.APPROVED && p.getProcessedAt() != null));
+    }
+
+    private PaymentRequest createRequest(String userId) {
+        PaymentRequest request = new PaymentRequest();
+        request.setUserId(userId);
+        request.setAmount(new BigDecimal("150.00"));
+        request.setCurrency("BRL");
+        request.setPaymentMethod(PaymentMethodType.CARD);
+        request.setInstallments(1);
+        request.setDescription("Teste de carga");
+        request.setCustomer(new CustomerData("João Silva", userId + "@email.com"));
+        request.setCard(new CardData("4242424242424242", "João Silva", "12/30", "123"));
+        return request;
+    }
+}
@@ -0,0 +1,188 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.dto.PaymentResult;
+import com.moturial.payment.domain.entity.Payment;
+import com.moturial.payment.domain.enums.PaymentMethodType;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import com.moturial.payment.exception.PaymentProcessingException;
+import com.moturial.payment.integration.StripeService;
+import com.moturial.payment.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para PaymentReconciliationJob
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationJobTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private StripeService stripeService;
+
+    @Mock
+    private DatabaseAdvisoryLock advisoryLock;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PaymentStatusCache statusCache;
+
+    private MeterRegistry meterRegistry;
+
+    private PaymentReconciliationJob reconciliationJob;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reconciliationJob = new PaymentReconciliationJob(paymentRepository, stripeService, advisoryLock,
+            jdbcTemplate, transactionManager, statusCache, meterRegistry, 2);
+        ReflectionTestUtils.setField(reconciliationJob, "staleAfterMinutes", 10L);
+        ReflectionTestUtils.setField(reconciliationJob, "pageSize", 2);
+        ReflectionTestUtils.setField(reconciliationJob, "maxPaymentsPerRun", 100);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void runOnce_PagesByCursorAndBatchesOnlyChangedStatuses() throws Exception {
+        // Arrange
+        LocalDateTime created = LocalDateTime.now().minusHours(1);
+        Payment changed = payment("pi_changed", PaymentStatus.PROCESSING, created);
+        Payment unchanged = payment("pi_unchanged", PaymentStatus.PENDING, created.plusSeconds(1));
+        Payment failing = payment("pi_failing", PaymentStatus.PENDING, created.plusSeconds(2));
+
+        when(paymentRepository.findPendingPaymentsOlderThan(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(UUID.class), any(Pageable.class)))
+            .thenReturn(List.of(changed, unchanged))
+            .thenReturn(List.of(failing));
+        when(stripeService.getPaymentStatus("pi_changed")).thenReturn(result("pi_changed", PaymentStatus.APPROVED));
+        when(stripeService.getPaymentStatus("pi_unchanged")).thenReturn(result("pi_unchanged", PaymentStatus.PENDING));
+        when(stripeService.getPaymentStatus("pi_failing")).thenThrow(new PaymentProcessingException("Stripe indisponível"));
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenReturn(new int[][]{{1}});
+
+        // Act
+        PaymentReconciliationJob.Report report = reconciliationJob.runOnce();
+
+        // Assert
+        assertEquals(3, report.checked());
+        assertEquals(1, report.updated());
+        assertEquals(1, report.failed());
+        assertTrue(report.lagSeconds() >= 3600);
+
+        verify(paymentRepository).findPendingPaymentsOlderThan(any(LocalDateTime.class), eq(unchanged.getCreatedAt()),
+            eq(unchanged.getId()), any(Pageable.class));
+
+        ArgumentCaptor<Collection> updates = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter> setter =
+            ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), updates.capture(), anyInt(), setter.capture());
+        assertEquals(1, updates.getValue().size());
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        setter.getValue().setValues(statement, updates.getValue().iterator().next());
+        verify(statement).setString(1, "APPROVED");
+        verify(statement).setObject(4, changed.getId());
+        verify(statement).setTimestamp(5, Timestamp.valueOf(created));
+        verify(statement).setString(6, "PROCESSING");
+        verify(statusCache).invalidate("pi_changed");
+        verifyNoMoreInteractions(statusCache);
+
+        assertEquals(1.0, meterRegistry.get("payment.reconciliation.payments").tag("result", "updated").counter().count());
+        assertEquals(1.0, meterRegistry.get("payment.reconciliation.payments").tag("result", "unchanged").counter().count());
+        assertEquals(1.0, meterRegistry.get("payment.reconciliation.payments").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void runOnce_InvalidatesCacheOnlyForRowsTheBatchChanged() {
+        // Arrange: pi_webhook mudou por webhook entre a leitura e o UPDATE
+        LocalDateTime created = LocalDateTime.now().minusHours(1);
+        Payment reconciled = payment("pi_reconciled", PaymentStatus.PENDING, created);
+        Payment webhook = payment("pi_webhook", PaymentStatus.PENDING, created.plusSeconds(1));
+
+        when(paymentRepository.findPendingPaymentsOlderThan(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(UUID.class), any(Pageable.class)))
+            .thenReturn(List.of(reconciled, webhook))
+            .thenReturn(List.of());
+        when(stripeService.getPaymentStatus("pi_reconciled")).thenReturn(result("pi_reconciled", PaymentStatus.APPROVED));
+        when(stripeService.getPaymentStatus("pi_webhook")).thenReturn(result("pi_webhook", PaymentStatus.CANCELLED));
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenReturn(new int[][]{{1, 0}});
+
+        // Act
+        PaymentReconciliationJob.Report report = reconciliationJob.runOnce();
+
+        // Assert
+        assertEquals(1, report.updated());
+        verify(statusCache).invalidate("pi_reconciled");
+        verify(statusCache, never()).invalidate("pi_webhook");
+    }
+
+    @Test
+    void reconcileStalePayments_SkipsWhenAnotherNodeHoldsLock() {
+        // Arrange
+        when(advisoryLock.tryAcquire(PaymentReconciliationJob.LOCK_KEY)).thenReturn(Optional.empty());
+
+        // Act
+        reconciliationJob.reconcileStalePayments();
+
+        // Assert
+        verifyNoInteractions(paymentRepository, stripeService, jdbcTemplate);
+    }
+
+    private Payment payment(String externalId, PaymentStatus status, LocalDateTime createdAt) {
+        Payment payment = new Payment(externalId, "user123", new BigDecimal("100.00"), "BRL",
+            PaymentMethodType.CARD, 1, "Aluguel de moto");
+        payment.setId(UUID.randomUUID());
+        payment.setStatus(status);
+        payment.setCreatedAt(createdAt);
+        payment.setProcessedAt(createdAt);
+        return payment;
+    }
+
+    private PaymentResult result(String externalId, PaymentStatus status) {
+        return PaymentResult.builder()
+            .externalId(externalId)
+            .status(status)
+            .amount(new BigDecimal("100.00"))
+            .currency("BRL")
+            .build();
+    }
+}
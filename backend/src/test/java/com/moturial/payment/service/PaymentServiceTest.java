@@ -9,20 +9,27 @@ import com.moturial.payment.exception.PaymentValidationException;
 import com.moturial.payment.integration.StripeService;
 import com.moturial.payment.repository.PaymentRepository;
 import com.moturial.payment.validation.PaymentValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -43,6 +50,10 @@ class PaymentServiceTest {
     @Mock
     private PaymentValidator paymentValidator;
 
+    @Spy
+    private PaymentStatusCache statusCache = new PaymentStatusCache(
+        new SimpleMeterRegistry(), 1000, Duration.ofSeconds(2), Duration.ofHours(1));
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -94,7 +105,7 @@ class PaymentServiceTest {
     void processCardPayment_Success() {
         // Arrange
         when(paymentRepository.save(any(Payment.class))).thenReturn(validPayment);
-        when(stripeService.processCardPayment(any(), any())).thenReturn(validPaymentResult);
+        when(stripeService.processCardPayment(any(), any(), any())).thenReturn(validPaymentResult);
 
         // Act
         PaymentResult result = paymentService.processCardPayment(validPaymentRequest);
@@ -108,9 +119,11 @@ class PaymentServiceTest {
                 assertEquals(PaymentMethodType.CARD, result.getPaymentMethod());
 
         verify(paymentValidator).validatePaymentRequest(validPaymentRequest);
-        verify(paymentValidator).validateCardData(validCardData);
-        verify(paymentRepository, times(2)).save(any(Payment.class));
-        verify(stripeService).processCardPayment(validPaymentRequest, validCardData);
+        verify(paymentValidator).validateCardData(validCardData, 1);
+        verify(paymentRepository).save(any(Payment.class));
+        verify(paymentRepository).updateResultIfUnchanged(eq(validPayment.getId()), eq(PaymentStatus.APPROVED),
+            isNull(), eq("pi_test123"), eq(PaymentStatus.APPROVED), isNull(), isNull(), any());
+        verify(stripeService).processCardPayment(validPaymentRequest, validCardData, validPayment.getId().toString());
     }
 
     @Test
@@ -126,14 +139,14 @@ class PaymentServiceTest {
 
         verify(paymentValidator).validatePaymentRequest(validPaymentRequest);
         verify(paymentRepository, never()).save(any(Payment.class));
-        verify(stripeService, never()).processCardPayment(any(), any());
+        verify(stripeService, never()).processCardPayment(any(), any(), any());
     }
 
     @Test
     void processCardPayment_StripeError() {
         // Arrange
         when(paymentRepository.save(any(Payment.class))).thenReturn(validPayment);
-        when(stripeService.processCardPayment(any(), any()))
+        when(stripeService.processCardPayment(any(), any(), any()))
             .thenThrow(new PaymentProcessingException("Erro no Stripe"));
 
         // Act & Assert
@@ -142,9 +155,10 @@ class PaymentServiceTest {
         });
 
         verify(paymentValidator).validatePaymentRequest(validPaymentRequest);
-        verify(paymentValidator).validateCardData(validCardData);
+        verify(paymentValidator).validateCardData(validCardData, 1);
         verify(paymentRepository).save(any(Payment.class));
-        verify(stripeService).processCardPayment(validPaymentRequest, validCardData);
+        verify(paymentRepository, never()).updateResultIfUnchanged(any(), any(), any(), any(), any(), any(), any(), any());
+        verify(stripeService).processCardPayment(validPaymentRequest, validCardData, validPayment.getId().toString());
     }
 
     @Test
@@ -154,7 +168,7 @@ class PaymentServiceTest {
         validPaymentRequest.setCard(null);
         
         when(paymentRepository.save(any(Payment.class))).thenReturn(validPayment);
-        when(stripeService.processPixPayment(any())).thenReturn(validPaymentResult);
+        when(stripeService.processPixPayment(any(), any())).thenReturn(validPaymentResult);
 
         // Act
         PaymentResult result = paymentService.processPixPayment(validPaymentRequest);
@@ -165,8 +179,10 @@ class PaymentServiceTest {
         assertEquals("pi_test123", result.getExternalId());
 
         verify(paymentValidator).validatePaymentRequest(validPaymentRequest);
-        verify(paymentRepository, times(2)).save(any(Payment.class));
-        verify(stripeService).processPixPayment(validPaymentRequest);
+        verify(paymentRepository).save(any(Payment.class));
+        verify(paymentRepository).updateResultIfUnchanged(eq(validPayment.getId()), eq(PaymentStatus.APPROVED),
+            isNull(), eq("pi_test123"), eq(PaymentStatus.APPROVED), isNull(), isNull(), any());
+        verify(stripeService).processPixPayment(validPaymentRequest, validPayment.getId().toString());
     }
 
     @Test
@@ -202,7 +218,9 @@ class PaymentServiceTest {
 
         verify(paymentRepository).findByExternalId("pi_test123");
         verify(stripeService).getPaymentStatus("pi_test123");
-        verify(paymentRepository, times(1)).save(any(Payment.class));
+        verify(paymentRepository).updateResultIfUnchanged(eq(validPayment.getId()), eq(PaymentStatus.PENDING),
+            isNull(), eq("pi_test123"), eq(PaymentStatus.APPROVED), isNull(), isNull(), any());
+        verify(paymentRepository, never()).save(any(Payment.class));
     }
 
     @Test
@@ -222,6 +240,40 @@ class PaymentServiceTest {
         verify(stripeService).getPaymentStatus("pi_test123");
     }
 
+    @Test
+    void getPaymentStatus_UnchangedPendingPayment_SkipsWrite() {
+        // Arrange
+        validPayment.setStatus(PaymentStatus.PENDING);
+        PaymentResult pendingResult = PaymentResult.builder()
+            .externalId("pi_test123")
+            .status(PaymentStatus.PENDING)
+            .build();
+        when(paymentRepository.findByExternalId("pi_test123")).thenReturn(Optional.of(validPayment));
+        when(stripeService.getPaymentStatus("pi_test123")).thenReturn(pendingResult);
+
+        // Act
+        PaymentResult result = paymentService.getPaymentStatus("pi_test123");
+
+        // Assert
+        assertEquals(PaymentStatus.PENDING, result.getStatus());
+        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(paymentRepository, never()).updateResultIfUnchanged(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getPaymentStatus_RepeatedPoll_ServedFromCache() {
+        // Arrange
+        when(paymentRepository.findByExternalId("pi_test123")).thenReturn(Optional.of(validPayment));
+
+        // Act
+        paymentService.getPaymentStatus("pi_test123");
+        PaymentResult result = paymentService.getPaymentStatus("pi_test123");
+
+        // Assert
+        assertEquals(PaymentStatus.APPROVED, result.getStatus());
+        verify(paymentRepository, times(1)).findByExternalId("pi_test123");
+    }
+
     @Test
     void cancelPayment_Success() {
         // Arrange
@@ -238,7 +290,34 @@ class PaymentServiceTest {
 
         verify(paymentRepository).findByExternalId("pi_test123");
         verify(stripeService).cancelPayment("pi_test123");
-        verify(paymentRepository, times(1)).save(any(Payment.class));
+        verify(paymentRepository).updateResultIfUnchanged(eq(validPayment.getId()), eq(PaymentStatus.PENDING),
+            isNull(), eq("pi_test123"), eq(PaymentStatus.APPROVED), isNull(), isNull(), any());
+    }
+
+    @Test
+    void cancelPayment_ResultWrittenOnlyIfRowUnchangedSinceRead() {
+        // Arrange: webhook já gravado na leitura; outro pode chegar durante a chamada ao Stripe
+        LocalDateTime webhookAt = LocalDateTime.now().minusSeconds(30);
+        validPayment.setStatus(PaymentStatus.PROCESSING);
+        validPayment.setWebhookEventAt(webhookAt);
+        PaymentResult cancelled = PaymentResult.builder()
+            .externalId("pi_test123")
+            .status(PaymentStatus.CANCELLED)
+            .build();
+        when(paymentRepository.findByExternalId("pi_test123")).thenReturn(Optional.of(validPayment));
+        when(stripeService.cancelPayment("pi_test123")).thenReturn(cancelled);
+        when(paymentRepository.updateResultIfUnchanged(any(), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(0);
+
+        // Act
+        PaymentResult result = paymentService.cancelPayment("pi_test123");
+
+        // Assert: condição sobre o status e o webhookEventAt lidos, sem save do registro desanexado
+        assertEquals(PaymentStatus.CANCELLED, result.getStatus());
+        verify(paymentRepository).updateResultIfUnchanged(eq(validPayment.getId()), eq(PaymentStatus.PROCESSING),
+            eq(webhookAt), eq("pi_test123"), eq(PaymentStatus.CANCELLED), isNull(), isNull(), any());
+        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(statusCache).invalidate("pi_test123");
     }
 
     @Test
@@ -270,6 +349,59 @@ class PaymentServiceTest {
         verify(stripeService, never()).cancelPayment(any());
     }
 
+    @Test
+    void recoverPayment_FoundInStripe() {
+        // Arrange
+        validPayment.setStatus(PaymentStatus.PENDING);
+        validPayment.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+        when(stripeService.findPaymentByReference(validPayment.getId().toString()))
+            .thenReturn(Optional.of(validPaymentResult));
+
+        // Act
+        Optional<PaymentResult> result = paymentService.recoverPayment(validPayment, LocalDateTime.now().minusMinutes(30));
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(PaymentStatus.APPROVED, validPayment.getStatus());
+        assertEquals("pi_test123", validPayment.getExternalId());
+        verify(paymentRepository).updateResultIfUnchanged(eq(validPayment.getId()), eq(PaymentStatus.PENDING),
+            isNull(), eq("pi_test123"), eq(PaymentStatus.APPROVED), isNull(), isNull(), any());
+    }
+
+    @Test
+    void recoverPayment_AbandonedMarkedAsError() {
+        // Arrange
+        validPayment.setStatus(PaymentStatus.PENDING);
+        validPayment.setCreatedAt(LocalDateTime.now().minusHours(1));
+        when(stripeService.findPaymentByReference(validPayment.getId().toString())).thenReturn(Optional.empty());
+
+        // Act
+        Optional<PaymentResult> result = paymentService.recoverPayment(validPayment, LocalDateTime.now().minusMinutes(30));
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(PaymentStatus.ERROR, validPayment.getStatus());
+        verify(paymentRepository).updateResultIfUnchanged(eq(validPayment.getId()), eq(PaymentStatus.PENDING),
+            isNull(), eq("pi_test123"), eq(PaymentStatus.ERROR), anyString(), isNull(), any());
+    }
+
+    @Test
+    void recoverPayment_TooRecentIsRetriedLater() {
+        // Arrange
+        validPayment.setStatus(PaymentStatus.PENDING);
+        validPayment.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+        when(stripeService.findPaymentByReference(validPayment.getId().toString())).thenReturn(Optional.empty());
+
+        // Act
+        Optional<PaymentResult> result = paymentService.recoverPayment(validPayment, LocalDateTime.now().minusMinutes(30));
+
+        // Assert
+        assertFalse(result.isPresent());
+        assertEquals(PaymentStatus.PENDING, validPayment.getStatus());
+        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(paymentRepository, never()).updateResultIfUnchanged(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
     @Test
     void getUserPayments_Success() {
         // Arrange
@@ -0,0 +1,245 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.entity.Payment;
+import com.moturial.payment.domain.entity.StripeWebhookEvent;
+import com.moturial.payment.domain.enums.PaymentMethodType;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import com.moturial.payment.repository.PaymentRepository;
+import com.moturial.payment.repository.StripeWebhookEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para PaymentStatusBatchWriter
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentStatusBatchWriterTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private StripeWebhookEventRepository webhookEventRepository;
+
+    @Mock
+    private PaymentStatusCache statusCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PaymentStatusBatchWriter batchWriter;
+
+    private final LocalDateTime baseTime = LocalDateTime.of(2025, 1, 10, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        batchWriter = new PaymentStatusBatchWriter(paymentRepository, webhookEventRepository, statusCache,
+            transactionManager, 100);
+    }
+
+    @Test
+    void flush_AppliesLatestTransitionPerIntentAndDropsKnownEvents() {
+        // Arrange
+        Payment payment = payment("pi_1");
+        when(webhookEventRepository.findExistingEventIds(anyCollection())).thenReturn(List.of("evt_old"));
+        when(paymentRepository.findByExternalIdIn(anyCollection())).thenReturn(List.of(payment));
+
+        List<PaymentStatusBatchWriter.PendingTransition> batch = List.of(
+            pending(transition("evt_old", "pi_1", null, PaymentStatus.CANCELLED, baseTime.plusSeconds(30))),
+            pending(transition("evt_2", "pi_1", null, PaymentStatus.APPROVED, baseTime.plusSeconds(10))),
+            pending(transition("evt_1", "pi_1", null, PaymentStatus.PROCESSING, baseTime)),
+            pending(transition("evt_2", "pi_1", null, PaymentStatus.APPROVED, baseTime.plusSeconds(10))));
+
+        // Act
+        batchWriter.flush(batch);
+
+        // Assert
+        assertFalse(batch.get(0).result().join());
+        assertTrue(batch.get(1).result().join());
+        assertTrue(batch.get(2).result().join());
+        assertFalse(batch.get(3).result().join());
+
+        assertEquals(PaymentStatus.APPROVED, payment.getStatus());
+        assertEquals(baseTime.plusSeconds(10), payment.getWebhookEventAt());
+        assertNotNull(payment.getProcessedAt());
+
+        ArgumentCaptor<List<StripeWebhookEvent>> events = eventsCaptor();
+        verify(webhookEventRepository).saveAll(events.capture());
+        assertEquals(List.of("evt_2", "evt_1"), events.getValue().stream().map(StripeWebhookEvent::getEventId).toList());
+        verify(paymentRepository).saveAll(List.of(payment));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void flush_FindsPaymentByReferenceBeforeIntentIsRecorded() {
+        // Arrange
+        Payment payment = payment(UUID.randomUUID().toString());
+        payment.setId(UUID.randomUUID());
+        when(webhookEventRepository.findExistingEventIds(anyCollection())).thenReturn(List.of());
+        when(paymentRepository.findByExternalIdIn(anyCollection())).thenReturn(List.of());
+        when(paymentRepository.findAllById(anyIterable())).thenReturn(List.of(payment));
+
+        PaymentStatusBatchWriter.PendingTransition pending = pending(
+            transition("evt_1", "pi_new", payment.getId().toString(), PaymentStatus.APPROVED, baseTime));
+
+        // Act
+        batchWriter.flush(List.of(pending));
+
+        // Assert
+        assertTrue(pending.result().join());
+        assertEquals("pi_new", payment.getExternalId());
+        assertEquals(PaymentStatus.APPROVED, payment.getStatus());
+    }
+
+    @Test
+    void flush_IgnoresOutOfOrderEvent() {
+        // Arrange
+        Payment payment = payment("pi_1");
+        payment.setStatus(PaymentStatus.APPROVED);
+        payment.setWebhookEventAt(baseTime.plusMinutes(1));
+        when(webhookEventRepository.findExistingEventIds(anyCollection())).thenReturn(List.of());
+        when(paymentRepository.findByExternalIdIn(anyCollection())).thenReturn(List.of(payment));
+
+        PaymentStatusBatchWriter.PendingTransition pending = pending(
+            transition("evt_1", "pi_1", null, PaymentStatus.PROCESSING, baseTime));
+
+        // Act
+        batchWriter.flush(List.of(pending));
+
+        // Assert
+        assertTrue(pending.result().join());
+        assertEquals(PaymentStatus.APPROVED, payment.getStatus());
+        verify(paymentRepository).saveAll(List.of());
+    }
+
+    @Test
+    void flush_SameSecondEventDoesNotRevertFinalStatus() {
+        // Arrange: event.created tem resolução de segundos
+        Payment payment = payment("pi_1");
+        payment.setStatus(PaymentStatus.APPROVED);
+        payment.setWebhookEventAt(baseTime);
+        when(webhookEventRepository.findExistingEventIds(anyCollection())).thenReturn(List.of());
+        when(paymentRepository.findByExternalIdIn(anyCollection())).thenReturn(List.of(payment));
+
+        PaymentStatusBatchWriter.PendingTransition pending = pending(
+            transition("evt_processing", "pi_1", null, PaymentStatus.PROCESSING, baseTime));
+
+        // Act
+        batchWriter.flush(List.of(pending));
+
+        // Assert
+        assertTrue(pending.result().join());
+        assertEquals(PaymentStatus.APPROVED, payment.getStatus());
+        verify(paymentRepository).saveAll(List.of());
+    }
+
+    @Test
+    void flush_FinalStatusNeverMovesBackToNonFinal() {
+        // Arrange: resultado final gravado pela fase 3 do pipeline, sem webhook
+        Payment payment = payment("pi_1");
+        payment.setStatus(PaymentStatus.APPROVED);
+        when(webhookEventRepository.findExistingEventIds(anyCollection())).thenReturn(List.of());
+        when(paymentRepository.findByExternalIdIn(anyCollection())).thenReturn(List.of(payment));
+
+        PaymentStatusBatchWriter.PendingTransition pending = pending(
+            transition("evt_processing", "pi_1", null, PaymentStatus.PROCESSING, baseTime.plusMinutes(1)));
+
+        // Act
+        batchWriter.flush(List.of(pending));
+
+        // Assert
+        assertEquals(PaymentStatus.APPROVED, payment.getStatus());
+        assertNull(payment.getWebhookEventAt());
+        verify(paymentRepository).saveAll(List.of());
+    }
+
+    @Test
+    void flush_SameSecondEventsInBatchResolvedByStatusPrecedence() {
+        // Arrange: APPROVED chega antes de PROCESSING, ambos no mesmo segundo
+        Payment payment = payment("pi_1");
+        when(webhookEventRepository.findExistingEventIds(anyCollection())).thenReturn(List.of());
+        when(paymentRepository.findByExternalIdIn(anyCollection())).thenReturn(List.of(payment));
+
+        List<PaymentStatusBatchWriter.PendingTransition> batch = List.of(
+            pending(transition("evt_succeeded", "pi_1", null, PaymentStatus.APPROVED, baseTime)),
+            pending(transition("evt_processing", "pi_1", null, PaymentStatus.PROCESSING, baseTime)));
+
+        // Act
+        batchWriter.flush(batch);
+
+        // Assert
+        assertEquals(PaymentStatus.APPROVED, payment.getStatus());
+        assertEquals(baseTime, payment.getWebhookEventAt());
+        verify(paymentRepository).saveAll(List.of(payment));
+    }
+
+    @Test
+    void supersedes_OrdersByTimeThenStatusPrecedence() {
+        assertTrue(PaymentStatusBatchWriter.supersedes(
+            transition("evt_1", "pi_1", null, PaymentStatus.REFUNDED, baseTime), PaymentStatus.APPROVED, baseTime));
+        assertTrue(PaymentStatusBatchWriter.supersedes(
+            transition("evt_2", "pi_1", null, PaymentStatus.APPROVED, baseTime), PaymentStatus.REJECTED, baseTime));
+        assertFalse(PaymentStatusBatchWriter.supersedes(
+            transition("evt_3", "pi_1", null, PaymentStatus.REJECTED, baseTime), PaymentStatus.APPROVED, baseTime));
+        assertTrue(PaymentStatusBatchWriter.supersedes(
+            transition("evt_4", "pi_1", null, PaymentStatus.APPROVED, baseTime.plusSeconds(1)),
+            PaymentStatus.REJECTED, baseTime));
+        assertFalse(PaymentStatusBatchWriter.supersedes(
+            transition("evt_5", "pi_1", null, PaymentStatus.APPROVED, baseTime), PaymentStatus.APPROVED, baseTime));
+    }
+
+    @Test
+    void flush_FailureCompletesEveryRequestExceptionally() {
+        // Arrange
+        when(webhookEventRepository.findExistingEventIds(anyCollection())).thenThrow(new IllegalStateException("db down"));
+        PaymentStatusBatchWriter.PendingTransition pending = pending(
+            transition("evt_1", "pi_1", null, PaymentStatus.APPROVED, baseTime));
+
+        // Act
+        batchWriter.flush(List.of(pending));
+
+        // Assert
+        assertTrue(pending.result().isCompletedExceptionally());
+        verify(transactionManager).rollback(any());
+    }
+
+    private Payment payment(String externalId) {
+        return new Payment(externalId, "user123", new BigDecimal("100.00"), "BRL",
+            PaymentMethodType.CARD, 1, "Aluguel de moto");
+    }
+
+    private PaymentStatusBatchWriter.StatusTransition transition(String eventId, String intentId, String reference,
+                                                                 PaymentStatus status, LocalDateTime occurredAt) {
+        return new PaymentStatusBatchWriter.StatusTransition(
+            eventId, "payment_intent.test", intentId, reference, status, null, occurredAt);
+    }
+
+    private PaymentStatusBatchWriter.PendingTransition pending(PaymentStatusBatchWriter.StatusTransition transition) {
+        return new PaymentStatusBatchWriter.PendingTransition(transition, new CompletableFuture<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<List<StripeWebhookEvent>> eventsCaptor() {
+        return ArgumentCaptor.forClass((Class<List<StripeWebhookEvent>>) (Class<?>) List.class);
+    }
+}
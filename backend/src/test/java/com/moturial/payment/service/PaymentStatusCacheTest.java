@@ -0,0 +1,160 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.dto.PaymentResult;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import com.moturial.payment.exception.PaymentProcessingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para PaymentStatusCache
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+class PaymentStatusCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private PaymentStatusCache statusCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statusCache = new PaymentStatusCache(meterRegistry, 1000, Duration.ofMillis(50), Duration.ofHours(1));
+    }
+
+    @Test
+    void get_FinalStatusCachedPastFreshnessWindow() throws Exception {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        statusCache.get("pi_final", () -> result(PaymentStatus.APPROVED, loads));
+        Thread.sleep(100);
+        PaymentResult cached = statusCache.get("pi_final", () -> result(PaymentStatus.APPROVED, loads));
+
+        // Assert
+        assertEquals(PaymentStatus.APPROVED, cached.getStatus());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("hit"));
+    }
+
+    @Test
+    void get_NonFinalStatusReloadedAfterFreshnessWindow() throws Exception {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        statusCache.get("pi_pending", () -> result(PaymentStatus.PENDING, loads));
+        statusCache.get("pi_pending", () -> result(PaymentStatus.PENDING, loads));
+        Thread.sleep(100);
+        statusCache.get("pi_pending", () -> result(PaymentStatus.PENDING, loads));
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ErrorsAreNotCached() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        assertThrows(PaymentProcessingException.class, () -> statusCache.get("pi_erro", () -> {
+            loads.incrementAndGet();
+            throw new PaymentProcessingException("Stripe indisponível");
+        }));
+        PaymentResult result = statusCache.get("pi_erro", () -> result(PaymentStatus.APPROVED, loads));
+
+        // Assert
+        assertEquals(PaymentStatus.APPROVED, result.getStatus());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ConcurrentPollsShareOneLoad() throws Exception {
+        // Arrange
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            Future<PaymentResult> first = executor.submit(() -> statusCache.get("pi_poll", () -> {
+                loaderEntered.countDown();
+                awaitQuietly(release);
+                return result(PaymentStatus.PROCESSING, loads);
+            }));
+            assertTrue(loaderEntered.await(5, TimeUnit.SECONDS));
+
+            List<Future<PaymentResult>> polls = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                polls.add(executor.submit(() -> statusCache.get("pi_poll",
+                    () -> result(PaymentStatus.PENDING, loads))));
+            }
+            while (count("coalesced") < 3) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertEquals(PaymentStatus.PROCESSING, first.get(5, TimeUnit.SECONDS).getStatus());
+            for (Future<PaymentResult> poll : polls) {
+                assertEquals(PaymentStatus.PROCESSING, poll.get(5, TimeUnit.SECONDS).getStatus());
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void invalidate_ForcesReload() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        statusCache.get("pi_final", () -> result(PaymentStatus.APPROVED, loads));
+
+        // Act
+        statusCache.invalidate("pi_final");
+        statusCache.get("pi_final", () -> result(PaymentStatus.APPROVED, loads));
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    private PaymentResult result(PaymentStatus status, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return PaymentResult.builder()
+            .externalId("pi_test")
+            .status(status)
+            .build();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("payment.status.cache").tag("result", result).counter().count();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.moturial.payment.service;
+
+import com.moturial.payment.domain.event.MotorcycleMaintenanceDueEvent;
+import com.moturial.payment.domain.event.PaymentExpiredEvent;
+import com.moturial.payment.domain.dto.PaymentResult;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import com.moturial.payment.domain.event.RentalOverdueEvent;
+import com.moturial.payment.exception.PaymentProcessingException;
+import com.moturial.payment.integration.StripeService;
+import com.moturial.payment.repository.MotorcycleRepository;
+import com.moturial.payment.repository.PaymentRepository;
+import com.moturial.payment.repository.RentalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para StatusTransitionJob
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class StatusTransitionJobTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 10, 12, 0);
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private MotorcycleRepository motorcycleRepository;
+
+    @Mock
+    private StripeService stripeService;
+
+    @Mock
+    private PaymentStatusCache statusCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private StatusTransitionJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new StatusTransitionJob(paymentRepository, rentalRepository, motorcycleRepository,
+            stripeService, statusCache, eventPublisher);
+        ReflectionTestUtils.setField(job, "pendingPaymentTtl", Duration.ofHours(72));
+        ReflectionTestUtils.setField(job, "chunkSize", 3);
+        ReflectionTestUtils.setField(job, "maxRowsPerRun", 100);
+    }
+
+    @Test
+    void runOnce_RepeatsChunksUntilAShortChunkAndPublishesOneEventPerRow() {
+        // Arrange
+        List<UUID> rentalIds = ids(5);
+        when(paymentRepository.findExpirablePending(any(), any(), any(), any())).thenReturn(List.of());
+        when(rentalRepository.markOverdue(NOW, 3))
+            .thenReturn(rentalIds.subList(0, 3))
+            .thenReturn(rentalIds.subList(3, 5));
+        when(motorcycleRepository.flagDueForMaintenance(NOW, 3)).thenReturn(List.of());
+
+        // Act
+        job.runOnce(NOW);
+
+        // Assert
+        verify(rentalRepository, times(2)).markOverdue(NOW, 3);
+        verify(motorcycleRepository).flagDueForMaintenance(NOW, 3);
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(5)).publishEvent(events.capture());
+        assertEquals(rentalIds.stream().map(id -> new RentalOverdueEvent(id, NOW)).toList(), events.getAllValues());
+    }
+
+    @Test
+    void runOnce_ExpiresPaymentsOlderThanTheTtlAndInvalidatesTheCache() {
+        // Arrange
+        PaymentRepository.ExpirablePayment candidate = expirablePayment(UUID.randomUUID(), "pi_expired");
+        when(paymentRepository.findExpirablePending(eq(NOW.minusHours(72)), any(), any(), eq(PageRequest.of(0, 3))))
+            .thenReturn(List.of(candidate));
+        PaymentRepository.ExpiredPayment expired = expiredPayment(candidate.getId(), "pi_expired");
+        when(paymentRepository.expirePending(List.of(candidate.getId()), NOW, StatusTransitionJob.EXPIRED_REASON))
+            .thenReturn(List.of(expired));
+        when(rentalRepository.markOverdue(NOW, 3)).thenReturn(List.of());
+        UUID motorcycleId = UUID.randomUUID();
+        when(motorcycleRepository.flagDueForMaintenance(NOW, 3)).thenReturn(List.of(motorcycleId));
+
+        // Act
+        job.runOnce(NOW);
+
+        // Assert
+        verify(stripeService).cancelPayment("pi_expired");
+        verify(statusCache).invalidate("pi_expired");
+        verify(eventPublisher).publishEvent(new PaymentExpiredEvent(expired.getId(), "pi_expired", NOW));
+        verify(eventPublisher).publishEvent(new MotorcycleMaintenanceDueEvent(motorcycleId, NOW));
+    }
+
+    @Test
+    void runOnce_StopsAtTheRowLimitPerRun() {
+        // Arrange
+        ReflectionTestUtils.setField(job, "maxRowsPerRun", 7);
+        when(paymentRepository.findExpirablePending(any(), any(), any(), any())).thenReturn(List.of());
+        when(rentalRepository.markOverdue(eq(NOW), anyInt()))
+            .thenAnswer(invocation -> ids(invocation.getArgument(1, Integer.class)));
+        when(motorcycleRepository.flagDueForMaintenance(NOW, 3)).thenReturn(List.of());
+
+        // Act
+        job.runOnce(NOW);
+
+        // Assert: 3 + 3 + 1
+        verify(rentalRepository, times(2)).markOverdue(NOW, 3);
+        verify(rentalRepository).markOverdue(NOW, 1);
+        verify(eventPublisher, times(7)).publishEvent(any(RentalOverdueEvent.class));
+    }
+
+    @Test
+    void runOnce_KeepsGoingWhenAListenerOrATransitionFails() {
+        // Arrange
+        when(paymentRepository.findExpirablePending(any(), any(), any(), any()))
+            .thenThrow(new QueryTimeoutException("lock timeout"));
+        List<UUID> rentalIds = ids(2);
+        when(rentalRepository.markOverdue(NOW, 3)).thenReturn(rentalIds);
+        when(motorcycleRepository.flagDueForMaintenance(NOW, 3)).thenReturn(ids(1));
+        doThrow(new IllegalStateException("listener")).when(eventPublisher)
+            .publishEvent(new RentalOverdueEvent(rentalIds.get(0), NOW));
+
+        // Act
+        job.runOnce(NOW);
+
+        // Assert
+        verify(eventPublisher).publishEvent(new RentalOverdueEvent(rentalIds.get(1), NOW));
+        verify(eventPublisher).publishEvent(any(MotorcycleMaintenanceDueEvent.class));
+        verifyNoInteractions(statusCache);
+    }
+
+    @Test
+    void runOnce_OnlyExpiresPaymentsWhoseIntentIsCancelledInStripe() {
+        // Arrange
+        PaymentRepository.ExpirablePayment open = expirablePayment(UUID.randomUUID(), "pi_open");
+        PaymentRepository.ExpirablePayment alreadyCancelled = expirablePayment(UUID.randomUUID(), "pi_cancelled");
+        PaymentRepository.ExpirablePayment paid = expirablePayment(UUID.randomUUID(), "pi_paid");
+        PaymentRepository.ExpirablePayment unreachable = expirablePayment(UUID.randomUUID(), "pi_unreachable");
+        when(paymentRepository.findExpirablePending(any(), any(), any(), any()))
+            .thenReturn(List.of(open, alreadyCancelled, paid))
+            .thenReturn(List.of(unreachable));
+        when(stripeService.cancelPayment(anyString())).thenAnswer(invocation -> {
+            if ("pi_open".equals(invocation.getArgument(0))) {
+                return stripeResult(PaymentStatus.CANCELLED);
+            }
+            throw new PaymentProcessingException("payment_intent_unexpected_state");
+        });
+        when(stripeService.getPaymentStatus("pi_cancelled")).thenReturn(stripeResult(PaymentStatus.CANCELLED));
+        when(stripeService.getPaymentStatus("pi_paid")).thenReturn(stripeResult(PaymentStatus.APPROVED));
+        when(stripeService.getPaymentStatus("pi_unreachable")).thenThrow(new PaymentProcessingException("timeout"));
+        when(paymentRepository.expirePending(any(), eq(NOW), anyString())).thenReturn(List.of());
+        when(rentalRepository.markOverdue(NOW, 3)).thenReturn(List.of());
+        when(motorcycleRepository.flagDueForMaintenance(NOW, 3)).thenReturn(List.of());
+
+        // Act
+        job.runOnce(NOW);
+
+        // Assert: o intent pago continua PENDING para a reconciliação e o cursor avança depois dele
+        verify(paymentRepository).expirePending(List.of(open.getId(), alreadyCancelled.getId()), NOW,
+            StatusTransitionJob.EXPIRED_REASON);
+        verify(paymentRepository).findExpirablePending(NOW.minusHours(72), paid.getCreatedAt(), paid.getId(),
+            PageRequest.of(0, 3));
+        verify(paymentRepository, times(1)).expirePending(any(), any(), any());
+    }
+
+    private static List<UUID> ids(int count) {
+        return new ArrayList<>(IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).toList());
+    }
+
+    private static PaymentResult stripeResult(PaymentStatus status) {
+        return PaymentResult.builder().status(status).build();
+    }
+
+    private static PaymentRepository.ExpirablePayment expirablePayment(UUID id, String externalId) {
+        LocalDateTime createdAt = NOW.minusDays(5);
+        return new PaymentRepository.ExpirablePayment() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getExternalId() {
+                return externalId;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+
+    private static PaymentRepository.ExpiredPayment expiredPayment(UUID id, String externalId) {
+        return new PaymentRepository.ExpiredPayment() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getExternalId() {
+                return externalId;
+            }
+        };
+    }
+}
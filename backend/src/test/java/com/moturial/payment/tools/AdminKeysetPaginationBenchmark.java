@@ -0,0 +1,142 @@
+package com.moturial.payment.tools;
+
+import com.moturial.payment.PaymentServiceApplication;
+import com.moturial.payment.domain.entity.User;
+import com.moturial.payment.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paginação por OFFSET contra keyset na listagem de usuários do admin
+ *
+ * Sobe o contexto Spring com H2 em memória, insere {@code rows} usuários
+ * (três por instante, para exercitar o desempate por id) e cria o índice
+ * {@code (created_at, id)} da V10. {@code offset} é o modo de página atual
+ * ({@code LIMIT/OFFSET} mais a contagem do {@link Page}); {@code keyset}
+ * busca a mesma página a partir do cursor da linha anterior. O custo do
+ * primeiro cresce com {@code depth}, o do segundo não.
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.AdminKeysetPaginationBenchmark
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dlogging.level.root=WARN"})
+public class AdminKeysetPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    @Param("1000000")
+    public int rows;
+
+    @Param({"0", "10000", "500000"})
+    public int depth;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private PageRequest offsetPage;
+    private LocalDateTime cursorCreatedAt;
+    private UUID cursorId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PaymentServiceApplication.class)
+            .logStartupInfo(false)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:keyset;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.flyway.enabled=false",
+                "payment.recovery.enabled=false",
+                "payment.reconciliation.enabled=false",
+                "logging.level.com.moturial.payment=WARN")
+            .run();
+        userRepository = context.getBean(UserRepository.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password_hash, role, status, email_verified, "
+            + "phone_verified, created_at, updated_at) "
+            + "SELECT RANDOM_UUID(), 'Usuário ' || X, 'usuario' || X || '@bench.com', 'hash', "
+            + "CASE WHEN MOD(X, 50) = 0 THEN 'ADMIN' ELSE 'USER' END, "
+            + "CASE WHEN MOD(X, 7) = 0 THEN 'SUSPENDED' ELSE 'ACTIVE' END, TRUE, FALSE, "
+            + "DATEADD('SECOND', -(X / 3), TIMESTAMP '2024-06-01 00:00:00'), "
+            + "DATEADD('SECOND', -(X / 3), TIMESTAMP '2024-06-01 00:00:00') "
+            + "FROM SYSTEM_RANGE(1, ?)", rows);
+        jdbcTemplate.execute("CREATE INDEX idx_users_created_at_id ON users (created_at, id)");
+        jdbcTemplate.execute("ANALYZE");
+
+        offsetPage = PageRequest.of(depth / PAGE_SIZE, PAGE_SIZE, NEWEST_FIRST);
+        if (depth == 0) {
+            cursorCreatedAt = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+            cursorId = new UUID(-1L, -1L);
+        } else {
+            Map<String, Object> previous = jdbcTemplate.queryForMap(
+                "SELECT created_at, id FROM users ORDER BY created_at DESC, id DESC OFFSET ? ROWS FETCH NEXT 1 ROW ONLY",
+                depth - 1);
+            cursorCreatedAt = ((Timestamp) previous.get("CREATED_AT")).toLocalDateTime();
+            cursorId = (UUID) previous.get("ID");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Page<User> offset() {
+        return userRepository.findUsersWithFilters(null, null, null, offsetPage);
+    }
+
+    @Benchmark
+    public List<User> keyset() {
+        return userRepository.findUsersWithFiltersBefore(null, EnumSet.allOf(User.Role.class),
+            EnumSet.allOf(User.Status.class), cursorCreatedAt, cursorId, PageRequest.ofSize(PAGE_SIZE + 1));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(AdminKeysetPaginationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,222 @@
+package com.moturial.payment.tools;
+
+import com.moturial.payment.PaymentServiceApplication;
+import com.moturial.payment.domain.entity.Motorcycle;
+import com.moturial.payment.domain.entity.User;
+import com.moturial.payment.repository.MotorcycleRepository;
+import com.moturial.payment.repository.SearchPatterns;
+import com.moturial.payment.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Latência da busca por substring do admin (usuários e motos)
+ *
+ * Sem propriedades, usa H2 em memória com o esquema do Hibernate: sem índices
+ * trigram, é a linha de base de varredura sequencial. Com
+ * {@code -Dbenchmark.datasource.url=jdbc:postgresql://...} (mais
+ * {@code .username}/{@code .password}) roda as migrações do Flyway, inclusive
+ * a V11, e mede as consultas servidas pelos índices {@code gin_trgm_ops}.
+ * A carga ({@code users} usuários e {@code motorcycles} motos) só é inserida
+ * se a tabela ainda estiver vazia, e o plano de cada consulta é impresso no
+ * setup ({@code EXPLAIN ANALYZE}).
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.AdminSearchBenchmark \
+ *   -Dbenchmark.datasource.url=jdbc:postgresql://localhost:5432/moturial_bench
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dlogging.level.root=WARN"})
+public class AdminSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final String[] FIRST_NAMES = {"Ana", "João", "Maria", "Pedro", "Lucas", "Juliana",
+        "Carlos", "Fernanda", "Rafael", "Beatriz"};
+    private static final String[] LAST_NAMES = {"Silva", "Santos", "Oliveira", "Souza", "Lima", "Pereira",
+        "Costa", "Almeida", "Ferreira", "Rodrigues", "Gomes", "Martins"};
+    private static final String[] MODELS = {"Honda CG 160", "Yamaha Factor 150", "Honda Biz 125",
+        "Yamaha Fazer 250", "Honda CB 300F", "Honda PCX 160", "Yamaha NMax 160", "Honda XRE 300"};
+    private static final String[] TYPES = {"Street", "Scooter", "Trail", "Naked"};
+    private static final String[] CITIES = {"São Paulo", "Rio de Janeiro", "Belo Horizonte", "Curitiba",
+        "Porto Alegre", "Salvador", "Recife", "Fortaleza", "Brasília", "Campinas"};
+
+    private static final String USERS_SQL = "SELECT * FROM users "
+        + "WHERE (name ILIKE ? ESCAPE '!' OR email ILIKE ? ESCAPE '!') "
+        + "ORDER BY created_at DESC, id DESC LIMIT 21";
+    private static final String MOTORCYCLES_SQL = "SELECT * FROM motorcycles "
+        + "WHERE (name ILIKE ? ESCAPE '!' OR type ILIKE ? ESCAPE '!') "
+        + "ORDER BY created_at DESC, id DESC LIMIT 21";
+
+    @Param("1000000")
+    public int users;
+
+    @Param("100000")
+    public int motorcycles;
+
+    /**
+     * Termo comum, termo seletivo e termo curto (menos de três caracteres
+     * não geram trigramas)
+     */
+    @Param({"silva", "47110", "jo"})
+    public String term;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private MotorcycleRepository motorcycleRepository;
+    private String pattern;
+    private LocalDateTime first;
+    private UUID firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("benchmark.datasource.url");
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(PaymentServiceApplication.class)
+            .logStartupInfo(false);
+        if (url == null) {
+            builder.properties(
+                "spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.flyway.enabled=false");
+        } else {
+            builder.properties(
+                "spring.datasource.url=" + url,
+                "spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "postgres"),
+                "spring.datasource.password=" + System.getProperty("benchmark.datasource.password", "postgres"),
+                "spring.jpa.hibernate.ddl-auto=none",
+                "spring.flyway.enabled=true");
+        }
+        context = builder
+            .properties(
+                "server.port=0",
+                "payment.recovery.enabled=false",
+                "payment.reconciliation.enabled=false",
+                "logging.level.com.moturial.payment=WARN")
+            .run();
+        userRepository = context.getBean(UserRepository.class);
+        motorcycleRepository = context.getBean(MotorcycleRepository.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed(jdbcTemplate);
+        jdbcTemplate.execute("ANALYZE");
+
+        pattern = SearchPatterns.contains(term);
+        first = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+        firstId = new UUID(-1L, -1L);
+
+        String explain = url == null ? "EXPLAIN ANALYZE " : "EXPLAIN (ANALYZE, BUFFERS) ";
+        for (String sql : List.of(USERS_SQL, MOTORCYCLES_SQL)) {
+            System.out.println("\n" + explain + sql.replace("?", "'" + pattern + "'"));
+            jdbcTemplate.queryForList(explain + sql, String.class, pattern, pattern).forEach(System.out::println);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public List<User> searchUsers() {
+        return userRepository.findUsersWithFiltersBefore(pattern, EnumSet.allOf(User.Role.class),
+            EnumSet.allOf(User.Status.class), first, firstId, PageRequest.ofSize(PAGE_SIZE + 1));
+    }
+
+    @Benchmark
+    public List<Motorcycle> searchMotorcycles() {
+        return motorcycleRepository.findMotorcyclesWithFiltersBefore(pattern, null,
+            EnumSet.allOf(Motorcycle.Status.class), null, first, firstId, PageRequest.ofSize(PAGE_SIZE + 1));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        LocalDateTime base = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+        Integer existingUsers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+        if (existingUsers == null || existingUsers == 0) {
+            insertInBatches(jdbcTemplate, users, "INSERT INTO users (id, name, email, password_hash, role, status, "
+                + "email_verified, phone_verified, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", i -> {
+                Timestamp createdAt = Timestamp.valueOf(base.minusSeconds(i));
+                return new Object[]{UUID.randomUUID(),
+                    FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length]
+                        + " " + i,
+                    "cliente" + i + "@moturial.com.br", "hash", "USER", "ACTIVE", true, false, createdAt, createdAt};
+            });
+        }
+
+        Integer existingMotorcycles = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM motorcycles", Integer.class);
+        if (existingMotorcycles == null || existingMotorcycles == 0) {
+            insertInBatches(jdbcTemplate, motorcycles, "INSERT INTO motorcycles (id, name, type, engine, fuel, year, "
+                + "color, license_plate, status, location, daily_rate, mileage, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", i -> {
+                Timestamp createdAt = Timestamp.valueOf(base.minusSeconds(i));
+                return new Object[]{UUID.randomUUID(), MODELS[i % MODELS.length] + " #" + i,
+                    TYPES[i % TYPES.length], "160cc", "Gasolina", 2015 + i % 10, "Preta",
+                    String.format("MOT%07d", i), "AVAILABLE", CITIES[i % CITIES.length],
+                    new BigDecimal("89.90"), i % 50_000, createdAt, createdAt};
+            });
+        }
+    }
+
+    private static void insertInBatches(JdbcTemplate jdbcTemplate, int rows, String sql,
+                                        IntFunction<Object[]> row) {
+        for (int start = 0; start < rows; start += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            IntStream.range(start, Math.min(rows, start + BATCH_SIZE)).mapToObj(row).forEach(batch::add);
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(AdminSearchBenchmark.class.getSimpleName());
+        String url = System.getProperty("benchmark.datasource.url");
+        if (url != null) {
+            // Substitui o jvmArgsAppend do @Fork, então repete o heap e o nível de log
+            options.jvmArgsAppend("-Xmx4g", "-Dlogging.level.root=WARN", "-Dbenchmark.datasource.url=" + url,
+                "-Dbenchmark.datasource.username=" + System.getProperty("benchmark.datasource.username", "postgres"),
+                "-Dbenchmark.datasource.password=" + System.getProperty("benchmark.datasource.password", "postgres"));
+        }
+        new Runner(options.build()).run();
+    }
+}
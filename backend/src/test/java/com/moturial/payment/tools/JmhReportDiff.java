@@ -0,0 +1,116 @@
+package com.moturial.payment.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara dois relatórios JSON do JMH e aponta regressões entre versões
+ *
+ * Cada benchmark (com seus {@code @Param}) do relatório atual é comparado ao
+ * da base. Em modo {@code thrpt} maior é melhor; nos demais, menor. Uma
+ * piora acima de {@code threshold} por cento é regressão e faz o processo
+ * terminar com código 1, para uso em pipeline.
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.JmhReportDiff \
+ *   -Dexec.args="baseline=jmh-1.0.0.json current=target/jmh-1.1.0.json threshold=10"
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public final class JmhReportDiff {
+
+    private JmhReportDiff() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        if (!options.containsKey("baseline") || !options.containsKey("current")) {
+            System.err.println("Uso: baseline=<relatorio.json> current=<relatorio.json> [threshold=10]");
+            System.exit(2);
+        }
+        double threshold = Double.parseDouble(options.getOrDefault("threshold", "10"));
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(new File(options.get("baseline"))));
+        Map<String, JsonNode> current = index(objectMapper.readTree(new File(options.get("current"))));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "benchmark", "base", "atual", "variação");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+            double score = now.path("primaryMetric").path("score").asDouble();
+
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s%n", entry.getKey(), "-", score, "novo", unit);
+                continue;
+            }
+
+            double baseScore = before.path("primaryMetric").path("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            double change = baseScore == 0 ? 0 : (score - baseScore) / baseScore * 100;
+            double worsening = higherIsBetter ? -change : change;
+            boolean regression = worsening > threshold;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), baseScore, score, change,
+                unit, regression ? "  REGRESSÃO" : "");
+        }
+        for (String removed : baseline.keySet()) {
+            if (!current.containsKey(removed)) {
+                System.out.printf("%-70s %14s %14s %9s%n", removed, "", "-", "removido");
+            }
+        }
+
+        System.out.printf("%d regressões acima de %.1f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Resultados por nome do benchmark e parâmetros
+     */
+    private static Map<String, JsonNode> index(JsonNode report) {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : report) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            JsonNode params = result.path("params");
+            if (params.isObject()) {
+                key.append('(');
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(param.getKey()).append('=').append(param.getValue().asText());
+                    if (fields.hasNext()) {
+                        key.append(", ");
+                    }
+                }
+                key.append(')');
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
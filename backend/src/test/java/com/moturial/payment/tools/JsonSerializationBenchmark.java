@@ -0,0 +1,118 @@
+package com.moturial.payment.tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.moturial.payment.domain.dto.CardData;
+import com.moturial.payment.domain.dto.CustomerData;
+import com.moturial.payment.domain.dto.PaymentRequest;
+import com.moturial.payment.domain.dto.PaymentResult;
+import com.moturial.payment.domain.enums.PaymentMethodType;
+import com.moturial.payment.domain.enums.PaymentStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da (de)serialização JSON de {@link PaymentRequest} e {@link PaymentResult}
+ *
+ * Usa um {@link ObjectMapper} com os mesmos padrões do Spring Boot
+ * ({@link Jackson2ObjectMapperBuilder}) e leitores/escritores pré-resolvidos,
+ * como o conversor HTTP faz após a primeira requisição.
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.JsonSerializationBenchmark
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectReader requestReader;
+    private ObjectWriter requestWriter;
+    private ObjectReader resultReader;
+    private ObjectWriter resultWriter;
+
+    private PaymentRequest request;
+    private PaymentResult result;
+    private byte[] requestJson;
+    private byte[] resultJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        requestReader = objectMapper.readerFor(PaymentRequest.class);
+        requestWriter = objectMapper.writerFor(PaymentRequest.class);
+        resultReader = objectMapper.readerFor(PaymentResult.class);
+        resultWriter = objectMapper.writerFor(PaymentResult.class);
+
+        request = new PaymentRequest("user123", new BigDecimal("150.00"), "BRL", PaymentMethodType.CARD,
+            new CustomerData("João Silva", "joao@email.com", "123.456.789-09", "+5511999999999"));
+        request.setInstallments(3);
+        request.setDescription("Aluguel mensal");
+        request.setCard(new CardData("4242424242424242", "João Silva", "12/30", "123"));
+
+        result = PaymentResult.builder()
+            .externalId("pi_3OqB2eLkdIwHu7ix0gM5bDmc")
+            .status(PaymentStatus.APPROVED)
+            .amount(new BigDecimal("150.00"))
+            .currency("BRL")
+            .paymentMethod(PaymentMethodType.CARD)
+            .installments(3)
+            .description("Aluguel mensal")
+            .metadata(Map.of("payment_reference", "6f1c2a4e-8d3b-4c55-9a7e-2b1f0c9d8e7a", "user_id", "user123"))
+            .build();
+
+        requestJson = requestWriter.writeValueAsBytes(request);
+        resultJson = resultWriter.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public PaymentRequest readPaymentRequest() throws Exception {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] writePaymentRequest() throws Exception {
+        return requestWriter.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public PaymentResult readPaymentResult() throws Exception {
+        return resultReader.readValue(resultJson);
+    }
+
+    @Benchmark
+    public byte[] writePaymentResult() throws Exception {
+        return resultWriter.writeValueAsBytes(result);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(JsonSerializationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
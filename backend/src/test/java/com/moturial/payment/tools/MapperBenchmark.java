@@ -0,0 +1,198 @@
+package com.moturial.payment.tools;
+
+import com.moturial.payment.domain.dto.MotorcycleDto;
+import com.moturial.payment.domain.dto.RentalDto;
+import com.moturial.payment.domain.dto.StoreDto;
+import com.moturial.payment.domain.dto.UserDto;
+import com.moturial.payment.domain.entity.Motorcycle;
+import com.moturial.payment.domain.entity.Rental;
+import com.moturial.payment.domain.entity.Store;
+import com.moturial.payment.domain.entity.User;
+import com.moturial.payment.mapper.MotorcycleMapper;
+import com.moturial.payment.mapper.RentalMapper;
+import com.moturial.payment.mapper.StoreMapper;
+import com.moturial.payment.mapper.UserMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo dos mappers de entidade para DTO usados nas listagens do admin
+ *
+ * Cada benchmark converte uma página de {@value #PAGE_SIZE} entidades
+ * preenchidas, como uma resposta de listagem.
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.MapperBenchmark
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    static final int PAGE_SIZE = 50;
+
+    private final MotorcycleMapper motorcycleMapper = new MotorcycleMapper();
+    private final RentalMapper rentalMapper = new RentalMapper();
+    private final UserMapper userMapper = new UserMapper();
+    private final StoreMapper storeMapper = new StoreMapper();
+
+    private List<Motorcycle> motorcycles;
+    private List<Rental> rentals;
+    private List<User> users;
+    private List<Store> stores;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        motorcycles = new ArrayList<>(PAGE_SIZE);
+        rentals = new ArrayList<>(PAGE_SIZE);
+        users = new ArrayList<>(PAGE_SIZE);
+        stores = new ArrayList<>(PAGE_SIZE);
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            User user = User.builder()
+                .id(UUID.randomUUID())
+                .name("Locatário " + i)
+                .email("locatario" + i + "@email.com")
+                .phone("+551199999" + String.format("%04d", i))
+                .passwordHash("$2a$10$hash")
+                .role(User.Role.USER)
+                .status(User.Status.ACTIVE)
+                .emailVerified(true)
+                .phoneVerified(false)
+                .lastLogin(now.minusHours(i))
+                .createdAt(now.minusDays(i))
+                .updatedAt(now)
+                .build();
+
+            Motorcycle motorcycle = Motorcycle.builder()
+                .id(UUID.randomUUID())
+                .name("Honda CG 160")
+                .type("Urban")
+                .engine("160cc")
+                .fuel("Flex")
+                .year(2023)
+                .color("Vermelho")
+                .licensePlate(String.format("ABC-%04d", i))
+                .status(i % 3 == 0 ? Motorcycle.Status.RENTED : Motorcycle.Status.AVAILABLE)
+                .location("São Paulo - Centro")
+                .dailyRate(new BigDecimal("45.00"))
+                .mileage(15000 + i)
+                .lastMaintenance(now.minusMonths(1))
+                .nextMaintenance(now.plusMonths(2))
+                .createdAt(now.minusDays(i))
+                .updatedAt(now)
+                .build();
+
+            Rental rental = Rental.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .motorcycle(motorcycle)
+                .startDate(now.minusDays(7))
+                .endDate(now)
+                .status(Rental.Status.ACTIVE)
+                .paymentStatus(Rental.PaymentStatus.PAID)
+                .dailyRate(new BigDecimal("45.00"))
+                .totalDays(7)
+                .totalAmount(new BigDecimal("315.00"))
+                .pickupLocation("São Paulo - Centro")
+                .notes("Entrega no balcão")
+                .createdAt(now.minusDays(7))
+                .updatedAt(now)
+                .build();
+
+            Store store = Store.builder()
+                .id(UUID.randomUUID())
+                .name("Loja " + i)
+                .address("Av. Paulista, " + (1000 + i))
+                .city("São Paulo")
+                .state("SP")
+                .zipCode("01310-100")
+                .phone("+551133334444")
+                .email("loja" + i + "@moturial.com")
+                .managerName("Gerente " + i)
+                .status(Store.Status.ACTIVE)
+                .capacity(40)
+                .currentInventory(25)
+                .operatingHours("08:00-18:00")
+                .latitude(new BigDecimal("-23.561414"))
+                .longitude(new BigDecimal("-46.655881"))
+                .createdAt(now.minusDays(30))
+                .updatedAt(now)
+                .build();
+
+            users.add(user);
+            motorcycles.add(motorcycle);
+            rentals.add(rental);
+            stores.add(store);
+        }
+    }
+
+    @Benchmark
+    public List<MotorcycleDto> motorcyclePage() {
+        List<MotorcycleDto> page = new ArrayList<>(PAGE_SIZE);
+        for (Motorcycle motorcycle : motorcycles) {
+            page.add(motorcycleMapper.toDto(motorcycle));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<RentalDto> rentalPage() {
+        List<RentalDto> page = new ArrayList<>(PAGE_SIZE);
+        for (Rental rental : rentals) {
+            page.add(rentalMapper.toDto(rental));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<UserDto> userPage() {
+        List<UserDto> page = new ArrayList<>(PAGE_SIZE);
+        for (User user : users) {
+            page.add(userMapper.toDto(user));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<StoreDto> storePage() {
+        List<StoreDto> page = new ArrayList<>(PAGE_SIZE);
+        for (Store store : stores) {
+            page.add(storeMapper.toDto(store));
+        }
+        return page;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(MapperBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.moturial.payment.tools;
+
+import com.moturial.payment.PaymentServiceApplication;
+import com.moturial.payment.domain.dto.CardData;
+import com.moturial.payment.domain.dto.CustomerData;
+import com.moturial.payment.domain.dto.PaymentRequest;
+import com.moturial.payment.domain.dto.PaymentResult;
+import com.moturial.payment.domain.enums.PaymentMethodType;
+import com.moturial.payment.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência de {@link PaymentService#processCardPayment} com a aplicação completa
+ *
+ * Sobe o contexto Spring com H2 em memória (esquema pelo Hibernate) e o
+ * {@code StripeClient} apontado para o {@link StripeStubServer}; validação,
+ * triagem de BIN, persistência, cache de clientes e as chamadas HTTP ao stub
+ * entram na medida. O email é fixo, então após a primeira chamada o cliente
+ * vem do cache (caminho comum). {@code stubDelayMs} simula a latência do
+ * Stripe; com 0 mede-se só o custo da aplicação.
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.PaymentServiceBenchmark
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogging.level.root=WARN")
+public class PaymentServiceBenchmark {
+
+    @Param("0")
+    public long stubDelayMs;
+
+    private StripeStubServer stripeStub;
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private PaymentRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        stripeStub = StripeStubServer.start(stubDelayMs);
+        context = new SpringApplicationBuilder(PaymentServiceApplication.class)
+            .logStartupInfo(false)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.flyway.enabled=false",
+                "stripe.secret-key=sk_test_bench",
+                "stripe.api-base=" + stripeStub.apiBase(),
+                "stripe.http.version=HTTP_1_1",
+                "payment.recovery.enabled=false",
+                "payment.reconciliation.enabled=false",
+                "logging.level.com.moturial.payment=WARN")
+            .run();
+        paymentService = context.getBean(PaymentService.class);
+
+        YearMonth expiry = YearMonth.now().plusYears(2);
+        request = new PaymentRequest("bench-user", new BigDecimal("150.00"), "BRL", PaymentMethodType.CARD,
+            new CustomerData("João Silva", "bench@email.com"));
+        request.setInstallments(1);
+        request.setDescription("Aluguel mensal");
+        request.setCard(new CardData("4242424242424242", "João Silva",
+            String.format("%02d/%02d", expiry.getMonthValue(), expiry.getYear() % 100), "123"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        if (stripeStub != null) {
+            stripeStub.close();
+        }
+    }
+
+    @Benchmark
+    public PaymentResult processCardPayment() {
+        return paymentService.processCardPayment(request);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(PaymentServiceBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
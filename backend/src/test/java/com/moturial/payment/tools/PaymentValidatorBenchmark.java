@@ -0,0 +1,186 @@
+package com.moturial.payment.tools;
+
+import com.moturial.payment.domain.dto.CardData;
+import com.moturial.payment.domain.dto.CustomerData;
+import com.moturial.payment.domain.dto.PaymentRequest;
+import com.moturial.payment.domain.enums.PaymentMethodType;
+import com.moturial.payment.validation.PaymentValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compara o {@link PaymentValidator} atual com a implementação anterior baseada em regex
+ *
+ * {@code legacy*} reproduz as verificações do validador antes do plano
+ * compilado ({@code String.matches}, {@code replaceAll} e Luhn com
+ * {@code substring}); {@code current*} chama o validador atual com as mesmas
+ * entradas válidas. Rode com {@code -prof gc} para ver a alocação por operação.
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.PaymentValidatorBenchmark
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentValidatorBenchmark {
+
+    private PaymentValidator validator;
+    private PaymentRequest request;
+    private CardData card;
+
+    @Setup
+    public void setUp() {
+        validator = new PaymentValidator();
+        ReflectionTestUtils.setField(validator, "maxAmount", new BigDecimal("1000000"));
+        ReflectionTestUtils.setField(validator, "minAmount", new BigDecimal("100"));
+        ReflectionTestUtils.setField(validator, "maxInstallments", 12);
+        ReflectionTestUtils.setField(validator, "cardNumberPattern", Legacy.CARD_NUMBER_PATTERN);
+        ReflectionTestUtils.setField(validator, "cvvPattern", Legacy.CVV_PATTERN);
+        ReflectionTestUtils.setField(validator, "expiryPattern", Legacy.EXPIRY_PATTERN);
+
+        YearMonth expiry = YearMonth.now().plusYears(2);
+        card = new CardData("4242 4242 4242 4242", "João Silva",
+            String.format("%02d/%02d", expiry.getMonthValue(), expiry.getYear() % 100), "123");
+
+        request = new PaymentRequest("user123", new BigDecimal("150.00"), "BRL", PaymentMethodType.CARD,
+            new CustomerData("João Silva", "joao@email.com", "123.456.789-09", "+5511999999999"));
+        request.setInstallments(1);
+        request.setDescription("Aluguel mensal");
+        request.setCard(card);
+    }
+
+    @Benchmark
+    public void currentPaymentRequest() {
+        validator.validatePaymentRequest(request);
+    }
+
+    @Benchmark
+    public void legacyPaymentRequest(Blackhole blackhole) {
+        blackhole.consume(Legacy.validatePaymentRequest(request));
+    }
+
+    @Benchmark
+    public void currentCardData() {
+        validator.validateCardData(card);
+    }
+
+    @Benchmark
+    public void legacyCardData(Blackhole blackhole) {
+        blackhole.consume(Legacy.validateCardData(card));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(PaymentValidatorBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    /**
+     * Verificações do validador anterior, no caminho de sucesso
+     */
+    static final class Legacy {
+
+        static final String CARD_NUMBER_PATTERN = "^[0-9]{13,19}$";
+        static final String CVV_PATTERN = "^[0-9]{3,4}$";
+        static final String EXPIRY_PATTERN = "^(0[1-9]|1[0-2])/([0-9]{2})$";
+
+        private static final Pattern EMAIL_PATTERN = Pattern.compile(
+            "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
+        private static final Pattern CPF_PATTERN = Pattern.compile(
+            "^[0-9]{3}\\.?[0-9]{3}\\.?[0-9]{3}-?[0-9]{2}$");
+        private static final Pattern PHONE_PATTERN = Pattern.compile("^\\+?[0-9]{10,15}$");
+
+        private Legacy() {
+        }
+
+        static boolean validatePaymentRequest(PaymentRequest request) {
+            CustomerData customer = request.getCustomer();
+            return request.getUserId().matches("^[a-zA-Z0-9_-]+$")
+                && request.getCurrency().matches("^[A-Z]{3}$")
+                && customer.getName().matches("^[a-zA-ZÀ-ÿ\\s]+$")
+                && EMAIL_PATTERN.matcher(customer.getEmail()).matches()
+                && CPF_PATTERN.matcher(customer.getDocument()).matches()
+                && isValidCpf(customer.getDocument().replaceAll("[^0-9]", ""))
+                && PHONE_PATTERN.matcher(customer.getPhone().replaceAll("[^0-9+]", "")).matches();
+        }
+
+        static boolean validateCardData(CardData card) {
+            String cleanNumber = card.getNumber().replaceAll("\\s", "");
+            return cleanNumber.matches(CARD_NUMBER_PATTERN)
+                && isValidCardNumber(cleanNumber)
+                && card.getHolderName().matches("^[a-zA-ZÀ-ÿ\\s]+$")
+                && card.getExpiryDate().matches(EXPIRY_PATTERN)
+                && isValidExpiryDate(card.getExpiryDate())
+                && card.getCvv().matches(CVV_PATTERN);
+        }
+
+        private static boolean isValidCardNumber(String number) {
+            int sum = 0;
+            boolean alternate = false;
+            for (int i = number.length() - 1; i >= 0; i--) {
+                int n = Integer.parseInt(number.substring(i, i + 1));
+                if (alternate) {
+                    n *= 2;
+                    if (n > 9) {
+                        n = (n % 10) + 1;
+                    }
+                }
+                sum += n;
+                alternate = !alternate;
+            }
+            return sum % 10 == 0;
+        }
+
+        private static boolean isValidExpiryDate(String expiryDate) {
+            String[] parts = expiryDate.split("/");
+            YearMonth expiry = YearMonth.of(Integer.parseInt(parts[1]) + 2000, Integer.parseInt(parts[0]));
+            return !expiry.isBefore(YearMonth.now());
+        }
+
+        private static boolean isValidCpf(String cpf) {
+            if (cpf.length() != 11 || cpf.matches("^(\\d)\\1{10}$")) {
+                return false;
+            }
+            int sum = 0;
+            for (int i = 0; i < 9; i++) {
+                sum += Character.getNumericValue(cpf.charAt(i)) * (10 - i);
+            }
+            int remainder = sum % 11;
+            int digit1 = remainder < 2 ? 0 : 11 - remainder;
+            sum = 0;
+            for (int i = 0; i < 10; i++) {
+                sum += Character.getNumericValue(cpf.charAt(i)) * (11 - i);
+            }
+            remainder = sum % 11;
+            int digit2 = remainder < 2 ? 0 : 11 - remainder;
+            return Character.getNumericValue(cpf.charAt(9)) == digit1
+                && Character.getNumericValue(cpf.charAt(10)) == digit2;
+        }
+    }
+}
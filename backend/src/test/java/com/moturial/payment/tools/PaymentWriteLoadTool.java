@@ -0,0 +1,249 @@
+package com.moturial.payment.tools;
+
+import org.flywaydb.core.Flyway;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de escrita na tabela payments no estilo do pgbench, para comparar o esquema antes e depois da V15
+ *
+ * Cada cliente tem a própria conexão e repete, até o fim de {@code duration}
+ * segundos, o ciclo de vida de um pagamento com os mesmos comandos da
+ * aplicação: o INSERT do registro PENDING, o UPDATE com o resultado do Stripe
+ * (como {@code PaymentBatchService}) e o UPDATE do webhook, cada um em sua
+ * transação. Ao final imprime pagamentos/s, latência do ciclo, bytes de WAL
+ * por pagamento, a fração de updates HOT e o tamanho da tabela e dos índices.
+ *
+ * Com {@code reset=true} (padrão) o banco é limpo e migrado até a V14
+ * ({@code schema=before}) ou até a última versão ({@code schema=after}):
+ * use um banco só para isso.
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.PaymentWriteLoadTool \
+ *   -Dexec.args="url=jdbc:postgresql://localhost:5432/moturial_bench schema=before clients=16 duration=120"
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public final class PaymentWriteLoadTool {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO payments (id, external_id, user_id, amount, currency, payment_method, status, installments, " +
+        "description, created_at, updated_at) VALUES (?, ?, ?, ?, 'BRL', 'CARD', 'PENDING', 1, ?, ?, ?)";
+
+    private static final String RESULT_SQL =
+        "UPDATE payments SET external_id = ?, status = 'PROCESSING', error_message = COALESCE(?, error_message), " +
+        "metadata = COALESCE(?, metadata), processed_at = ?, updated_at = ? " +
+        "WHERE id = ? AND webhook_event_at IS NULL";
+
+    private static final String WEBHOOK_SQL =
+        "UPDATE payments SET status = 'COMPLETED', webhook_event_at = ?, updated_at = ? WHERE id = ?";
+
+    private static final String PARTITIONS = "SELECT c.oid FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+        + "WHERE i.inhparent = 'public.payments'::regclass";
+
+    private PaymentWriteLoadTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        if (!options.containsKey("url")) {
+            System.err.println("Uso: url=<jdbc:postgresql://...> [username=postgres] [password=postgres] "
+                + "[schema=after|before] [clients=8] [duration=60] [reset=true]");
+            System.exit(1);
+        }
+
+        String url = options.get("url");
+        String username = options.getOrDefault("username", "postgres");
+        String password = options.getOrDefault("password", "postgres");
+        String schema = options.getOrDefault("schema", "after");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "8"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration", "60")));
+
+        if (Boolean.parseBoolean(options.getOrDefault("reset", "true"))) {
+            Flyway flyway = Flyway.configure()
+                .dataSource(url, username, password)
+                .locations("classpath:db/migration")
+                .cleanDisabled(false)
+                .target("before".equals(schema) ? "14" : "latest")
+                .load();
+            flyway.clean();
+            flyway.migrate();
+        }
+
+        long walBefore;
+        long[] updatesBefore;
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            walBefore = currentWalBytes(connection);
+            updatesBefore = updateCounts(connection);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + durationNanos;
+        long start = System.nanoTime();
+        List<Future<long[]>> runs = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            runs.add(executor.submit(() -> runClient(url, username, password, deadline)));
+        }
+        long[] latenciesNanos = new long[0];
+        for (Future<long[]> run : runs) {
+            long[] client = run.get();
+            int offset = latenciesNanos.length;
+            latenciesNanos = Arrays.copyOf(latenciesNanos, offset + client.length);
+            System.arraycopy(client, 0, latenciesNanos, offset, client.length);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+
+        // As estatísticas dos clientes chegam ao coletor depois que as conexões fecham
+        Thread.sleep(1500);
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            long walBytes = currentWalBytes(connection) - walBefore;
+            long[] updatesAfter = updateCounts(connection);
+            long updates = updatesAfter[0] - updatesBefore[0];
+            long hotUpdates = updatesAfter[1] - updatesBefore[1];
+            int payments = latenciesNanos.length;
+
+            Arrays.sort(latenciesNanos);
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            System.out.printf("Esquema: %s, %d clientes, %.0fs%n", schema, clients, seconds);
+            System.out.printf("Pagamentos: %d (%.0f/s, 3 transações cada)%n", payments, payments / seconds);
+            System.out.printf("Latência do ciclo p50 %.2fms, p99 %.2fms, máx %.2fms%n",
+                percentileMillis(latenciesNanos, 0.50),
+                percentileMillis(latenciesNanos, 0.99),
+                percentileMillis(latenciesNanos, 1.0));
+            System.out.printf("WAL: %.1f MB (%.0f bytes por pagamento)%n",
+                walBytes / 1_048_576.0, payments > 0 ? (double) walBytes / payments : 0);
+            System.out.printf("Updates: %d, HOT: %d (%.1f%%)%n",
+                updates, hotUpdates, updates > 0 ? 100.0 * hotUpdates / updates : 0);
+            printSizes(connection);
+        }
+    }
+
+    /**
+     * Um cliente: ciclos de pagamento até o prazo, com a latência de cada ciclo
+     */
+    private static long[] runClient(String url, String username, String password, long deadline) throws SQLException {
+        long[] latencies = new long[4096];
+        int count = 0;
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             PreparedStatement insert = connection.prepareStatement(INSERT_SQL);
+             PreparedStatement result = connection.prepareStatement(RESULT_SQL);
+             PreparedStatement webhook = connection.prepareStatement(WEBHOOK_SQL)) {
+            connection.setAutoCommit(false);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            while (System.nanoTime() < deadline) {
+                long started = System.nanoTime();
+                UUID id = UUID.randomUUID();
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+                insert.setObject(1, id);
+                insert.setString(2, UUID.randomUUID().toString());
+                insert.setString(3, "user" + random.nextInt(10_000));
+                insert.setBigDecimal(4, BigDecimal.valueOf(random.nextInt(1_000, 100_000), 2));
+                insert.setString(5, "Locação de moto");
+                insert.setTimestamp(6, now);
+                insert.setTimestamp(7, now);
+                insert.executeUpdate();
+                connection.commit();
+
+                result.setString(1, "pi_" + id.toString().replace("-", "").substring(0, 24));
+                result.setNull(2, Types.VARCHAR);
+                result.setObject(3, "{\"payment_reference\": \"" + id + "\", \"rental_id\": \"rental-"
+                    + random.nextInt(100_000) + "\"}", Types.OTHER);
+                result.setTimestamp(4, now);
+                result.setTimestamp(5, now);
+                result.setObject(6, id);
+                result.executeUpdate();
+                connection.commit();
+
+                Timestamp webhookAt = Timestamp.valueOf(LocalDateTime.now());
+                webhook.setTimestamp(1, webhookAt);
+                webhook.setTimestamp(2, webhookAt);
+                webhook.setObject(3, id);
+                webhook.executeUpdate();
+                connection.commit();
+
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - started;
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static long currentWalBytes(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Updates e updates HOT acumulados nas partições de payments
+     */
+    private static long[] updateCounts(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT pg_stat_clear_snapshot()");
+            try (ResultSet rs = statement.executeQuery("SELECT COALESCE(SUM(n_tup_upd), 0), "
+                + "COALESCE(SUM(n_tup_hot_upd), 0) FROM pg_stat_user_tables WHERE relid IN (" + PARTITIONS + ")")) {
+                rs.next();
+                return new long[]{rs.getLong(1), rs.getLong(2)};
+            }
+        }
+    }
+
+    private static void printSizes(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_size_pretty(SUM(pg_table_size(oid))), "
+                 + "pg_size_pretty(SUM(pg_indexes_size(oid))) FROM (" + PARTITIONS + ") partitions")) {
+            rs.next();
+            System.out.printf("Tamanho: tabela %s, índices %s%n", rs.getString(1), rs.getString(2));
+        }
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
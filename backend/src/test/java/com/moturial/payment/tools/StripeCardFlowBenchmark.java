@@ -0,0 +1,188 @@
+package com.moturial.payment.tools;
+
+import com.moturial.payment.config.StripeClientConfig;
+import com.moturial.payment.domain.dto.CardData;
+import com.moturial.payment.domain.dto.CustomerData;
+import com.moturial.payment.domain.dto.PaymentRequest;
+import com.moturial.payment.domain.enums.PaymentMethodType;
+import com.moturial.payment.integration.JdkStripeHttpClient;
+import com.moturial.payment.integration.StripeCustomerCache;
+import com.moturial.payment.integration.StripeService;
+import com.moturial.payment.repository.StripeCustomerRepository;
+import com.stripe.StripeClient;
+import com.stripe.model.PaymentMethod;
+import com.stripe.param.CustomerCreateParams;
+import com.stripe.param.CustomerListParams;
+import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.PaymentMethodAttachParams;
+import com.stripe.param.PaymentMethodCreateParams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Mede a latência do fluxo de pagamento com cartão contra um stub local do Stripe
+ *
+ * O stub responde às cinco chamadas de um cartão de cliente novo (listar e
+ * criar cliente, criar e anexar PaymentMethod, criar PaymentIntent), cada uma
+ * com o atraso configurado. Compara o fluxo sequencial anterior, reproduzido
+ * aqui com o SDK, com {@link StripeService#processCardPayment}, que resolve o
+ * cliente e cria o PaymentMethod em paralelo. Cada pagamento usa um email
+ * novo, então o cache de clientes sempre erra (pior caso).
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.StripeCardFlowBenchmark \
+ *   -Dexec.args="requests=2000 concurrency=32 delay-ms=40"
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public final class StripeCardFlowBenchmark {
+
+    private StripeCardFlowBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        int requests = Integer.parseInt(options.getOrDefault("requests", "2000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        long delayMillis = Long.parseLong(options.getOrDefault("delay-ms", "40"));
+
+        try (StripeStubServer stub = StripeStubServer.start(delayMillis)) {
+            String apiBase = stub.apiBase();
+            StripeClient client = StripeClientConfig.create("sk_test_bench", apiBase, 5000, 30000, 0,
+                new JdkStripeHttpClient(HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build(), Duration.ofSeconds(30)));
+            StripeService stripeService = new StripeService(client, new StripeCustomerCache(
+                Mockito.mock(StripeCustomerRepository.class), new SimpleMeterRegistry(), 100_000, 60));
+
+            PaymentFlow sequential = (request, reference) -> sequentialCardPayment(client, request, reference);
+            PaymentFlow concurrent = (request, reference) ->
+                stripeService.processCardPayment(request, request.getCard(), reference);
+
+            run("warmup-seq", sequential, requests / 10, concurrency);
+            report("sequencial", run("seq", sequential, requests, concurrency));
+            run("warmup-par", concurrent, requests / 10, concurrency);
+            report("StripeService (paralelo)", run("par", concurrent, requests, concurrency));
+            System.out.printf("%-40s %6dms (5 chamadas) / %dms (4 em série)%n", "piso teórico",
+                5 * delayMillis, 4 * delayMillis);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Fluxo anterior: as cinco chamadas uma após a outra
+     */
+    private static void sequentialCardPayment(StripeClient client, PaymentRequest request, String reference)
+            throws Exception {
+        var customers = client.customers().list(CustomerListParams.builder()
+            .setEmail(request.getCustomer().getEmail())
+            .setLimit(1L)
+            .build());
+        String customerId = customers.getData().isEmpty()
+            ? client.customers().create(CustomerCreateParams.builder()
+                .setEmail(request.getCustomer().getEmail())
+                .setName(request.getCustomer().getName())
+                .build()).getId()
+            : customers.getData().get(0).getId();
+
+        PaymentMethod paymentMethod = client.paymentMethods().create(PaymentMethodCreateParams.builder()
+            .setType(PaymentMethodCreateParams.Type.CARD)
+            .setCard(PaymentMethodCreateParams.CardDetails.builder()
+                .setNumber(request.getCard().getNumber())
+                .setExpMonth(12L)
+                .setExpYear(2030L)
+                .setCvc(request.getCard().getCvv())
+                .build())
+            .build());
+        client.paymentMethods().attach(paymentMethod.getId(),
+            PaymentMethodAttachParams.builder().setCustomer(customerId).build());
+
+        client.paymentIntents().create(PaymentIntentCreateParams.builder()
+            .setAmount(15000L)
+            .setCurrency("brl")
+            .setCustomer(customerId)
+            .setConfirmationMethod(PaymentIntentCreateParams.ConfirmationMethod.MANUAL)
+            .setConfirm(true)
+            .putMetadata("payment_reference", reference)
+            .build());
+    }
+
+    private static long[] run(String name, PaymentFlow flow, int requests, int concurrency) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long[] latenciesNanos = new long[requests];
+        try {
+            List<Future<?>> calls = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                PaymentRequest request = request(name + "-" + i);
+                calls.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    flow.pay(request, name + "-" + index);
+                    latenciesNanos[index] = System.nanoTime() - start;
+                    return null;
+                }));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Arrays.sort(latenciesNanos);
+        return latenciesNanos;
+    }
+
+    private static PaymentRequest request(String renter) {
+        PaymentRequest request = new PaymentRequest(renter, new BigDecimal("150.00"), "BRL", PaymentMethodType.CARD,
+            new CustomerData("Locatário " + renter, renter + "@email.com"));
+        request.setCard(new CardData("4242424242424242", "Locatário", "12/30", "123"));
+        return request;
+    }
+
+    private static void report(String name, long[] sortedNanos) {
+        System.out.printf("%-40s p50 %6.2fms  p99 %6.2fms  máx %6.2fms%n", name,
+            percentileMillis(sortedNanos, 0.50),
+            percentileMillis(sortedNanos, 0.99),
+            percentileMillis(sortedNanos, 1.0));
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    @FunctionalInterface
+    private interface PaymentFlow {
+        void pay(PaymentRequest request, String reference) throws Exception;
+    }
+}
@@ -0,0 +1,91 @@
+package com.moturial.payment.tools;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Stub HTTP local da API do Stripe para benchmarks
+ *
+ * Responde às chamadas do fluxo de cartão (listar e criar cliente, criar e
+ * anexar PaymentMethod, criar PaymentIntent aprovado) com o atraso
+ * configurado por requisição. A listagem de clientes volta sempre vazia.
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+final class StripeStubServer implements AutoCloseable {
+
+    private static final String EMPTY_LIST_JSON = """
+        {"object":"list","data":[],"has_more":false,"url":"/v1/customers"}""";
+
+    private static final String CUSTOMER_JSON = """
+        {"id":"cus_bench","object":"customer","email":"bench@email.com"}""";
+
+    private static final String PAYMENT_METHOD_JSON = """
+        {"id":"pm_bench","object":"payment_method","type":"card","customer":"cus_bench"}""";
+
+    private static final String PAYMENT_INTENT_JSON = """
+        {"id":"pi_bench","object":"payment_intent","amount":15000,"currency":"brl",
+         "status":"succeeded","customer":"cus_bench","metadata":{"payment_reference":"bench"}}""";
+
+    private final HttpServer server;
+
+    private StripeStubServer(HttpServer server) {
+        this.server = server;
+    }
+
+    static StripeStubServer start(long delayMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.createContext("/v1/", exchange -> {
+            try {
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getRequestBody().readAllBytes();
+            String path = exchange.getRequestURI().getPath();
+            boolean get = "GET".equals(exchange.getRequestMethod());
+            if (path.equals("/v1/customers")) {
+                respond(exchange, get ? EMPTY_LIST_JSON : CUSTOMER_JSON);
+            } else if (path.startsWith("/v1/payment_methods")) {
+                respond(exchange, PAYMENT_METHOD_JSON);
+            } else if (path.equals("/v1/payment_intents")) {
+                respond(exchange, PAYMENT_INTENT_JSON);
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return new StripeStubServer(server);
+    }
+
+    /**
+     * URL base para {@code stripe.api-base}
+     */
+    String apiBase() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("Request-Id", "req_bench");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
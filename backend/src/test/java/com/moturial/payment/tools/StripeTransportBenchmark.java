@@ -0,0 +1,149 @@
+package com.moturial.payment.tools;
+
+import com.moturial.payment.config.StripeClientConfig;
+import com.moturial.payment.integration.JdkStripeHttpClient;
+import com.stripe.StripeClient;
+import com.stripe.net.HttpURLConnectionClient;
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compara a latência dos transportes do SDK do Stripe contra um stub local
+ *
+ * Sobe um servidor HTTP que responde {@code GET /v1/payment_intents/{id}}
+ * com um PaymentIntent fixo (com atraso configurável) e mede p50/p99 de
+ * {@code paymentIntents().retrieve} usando o transporte padrão do SDK
+ * ({@code HttpURLConnectionClient}) e o {@link JdkStripeHttpClient}.
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.StripeTransportBenchmark \
+ *   -Dexec.args="requests=20000 concurrency=32 delay-ms=2"
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public final class StripeTransportBenchmark {
+
+    private static final String PAYMENT_INTENT_JSON = """
+        {"id":"pi_bench","object":"payment_intent","amount":10000,"currency":"brl",
+         "status":"succeeded","metadata":{"payment_reference":"bench"}}""";
+
+    private StripeTransportBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        int requests = Integer.parseInt(options.getOrDefault("requests", "20000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        long delayMillis = Long.parseLong(options.getOrDefault("delay-ms", "2"));
+        HttpClient.Version version = HttpClient.Version.valueOf(options.getOrDefault("version", "HTTP_1_1"));
+
+        HttpServer server = startStub(delayMillis);
+        String apiBase = "http://localhost:" + server.getAddress().getPort();
+        try {
+            StripeClient legacy = StripeClientConfig.create("sk_test_bench", apiBase, 5000, 30000, 0,
+                new HttpURLConnectionClient());
+            StripeClient pooled = StripeClientConfig.create("sk_test_bench", apiBase, 5000, 30000, 0,
+                new JdkStripeHttpClient(HttpClient.newBuilder()
+                    .version(version)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build(), Duration.ofSeconds(30)));
+
+            run("HttpURLConnectionClient", legacy, requests / 10, concurrency);
+            report("HttpURLConnectionClient", run("HttpURLConnectionClient", legacy, requests, concurrency));
+            run("JdkStripeHttpClient", pooled, requests / 10, concurrency);
+            report("JdkStripeHttpClient (" + version + ")", run("JdkStripeHttpClient", pooled, requests, concurrency));
+        } finally {
+            server.stop(0);
+        }
+        System.exit(0);
+    }
+
+    private static HttpServer startStub(long delayMillis) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        byte[] body = PAYMENT_INTENT_JSON.getBytes(StandardCharsets.UTF_8);
+        server.createContext("/v1/payment_intents/", exchange -> {
+            try {
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Request-Id", "req_bench");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return server;
+    }
+
+    private static long[] run(String name, StripeClient client, int requests, int concurrency) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long[] latenciesNanos = new long[requests];
+        try {
+            List<Future<?>> calls = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                calls.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    client.paymentIntents().retrieve("pi_bench");
+                    latenciesNanos[index] = System.nanoTime() - start;
+                    return null;
+                }));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Arrays.sort(latenciesNanos);
+        return latenciesNanos;
+    }
+
+    private static void report(String name, long[] sortedNanos) {
+        System.out.printf("%-40s p50 %6.2fms  p99 %6.2fms  máx %6.2fms%n", name,
+            percentileMillis(sortedNanos, 0.50),
+            percentileMillis(sortedNanos, 0.99),
+            percentileMillis(sortedNanos, 1.0));
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,156 @@
+package com.moturial.payment.tools;
+
+import com.moturial.payment.domain.entity.UuidV7Generator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Vazão de INSERT sustentado e tamanho do índice da chave primária, UUIDv4 contra UUIDv7
+ *
+ * Cada operação insere um lote de {@code batch} linhas em uma tabela com a
+ * forma de {@code payments} (chave UUID, valor, status, datas), que já parte
+ * de {@code preload} linhas: com v4 cada chave cai em uma folha aleatória do
+ * B-tree, que deixa de caber no cache e se divide pela metade; com v7 as
+ * chaves entram no fim do índice. Ao final de cada trial são impressos o
+ * número de linhas e o tamanho do índice da chave primária
+ * ({@code pg_relation_size}; no H2, só as linhas).
+ *
+ * Sem propriedades usa H2 em memória; o número relevante é o do PostgreSQL:
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.UuidPrimaryKeyInsertBenchmark \
+ *   -Dbenchmark.datasource.url=jdbc:postgresql://localhost:5432/moturial_bench
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class UuidPrimaryKeyInsertBenchmark {
+
+    private static final String TABLE = "uuid_pk_benchmark";
+
+    @Param({"v4", "v7"})
+    public String version;
+
+    @Param("1000000")
+    public int preload;
+
+    @Param("1000")
+    public int batch;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private boolean postgres;
+    private Supplier<UUID> ids;
+    private String insertSql;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("benchmark.datasource.url");
+        postgres = url != null;
+        dataSource = postgres
+            ? new SingleConnectionDataSource(url,
+                System.getProperty("benchmark.datasource.username", "postgres"),
+                System.getProperty("benchmark.datasource.password", "postgres"), true)
+            : new SingleConnectionDataSource("jdbc:h2:mem:uuidpk;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        ids = "v7".equals(version) ? UuidV7Generator::next : UUID::randomUUID;
+
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " ("
+            + "id UUID PRIMARY KEY, "
+            + "amount DECIMAL(10,2) NOT NULL, "
+            + "status VARCHAR(20) NOT NULL, "
+            + "created_at TIMESTAMP NOT NULL, "
+            + "updated_at TIMESTAMP NOT NULL)");
+        insertSql = "INSERT INTO " + TABLE + " (id, amount, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+        for (int inserted = 0; inserted < preload; inserted += 10_000) {
+            insertBatch(Math.min(10_000, preload - inserted));
+        }
+        if (postgres) {
+            jdbcTemplate.execute("VACUUM ANALYZE " + TABLE);
+        }
+        report("antes");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        report("depois");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public int[] insert() {
+        return insertBatch(batch);
+    }
+
+    private int[] insertBatch(int rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            args.add(new Object[]{ids.get(), new BigDecimal("89.90"), "COMPLETED", now, now});
+        }
+        return jdbcTemplate.batchUpdate(insertSql, args);
+    }
+
+    private void report(String moment) {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABLE, Long.class);
+        if (postgres) {
+            String indexSize = jdbcTemplate.queryForObject(
+                "SELECT pg_size_pretty(pg_relation_size('" + TABLE + "_pkey'))", String.class);
+            Double density = jdbcTemplate.queryForObject("SELECT pg_relation_size('" + TABLE + "_pkey')::float8 / "
+                + "GREATEST(COUNT(*), 1) FROM " + TABLE, Double.class);
+            System.out.printf("%n[%s] %s: %d linhas, índice da chave primária %s (%.1f bytes/linha)%n",
+                version, moment, rows, indexSize, density);
+        } else {
+            System.out.printf("%n[%s] %s: %d linhas%n", version, moment, rows);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(UuidPrimaryKeyInsertBenchmark.class.getSimpleName());
+        String url = System.getProperty("benchmark.datasource.url");
+        if (url != null) {
+            // Substitui o jvmArgsAppend do @Fork, então repete o heap
+            options.jvmArgsAppend("-Xmx2g", "-Dbenchmark.datasource.url=" + url,
+                "-Dbenchmark.datasource.username=" + System.getProperty("benchmark.datasource.username", "postgres"),
+                "-Dbenchmark.datasource.password=" + System.getProperty("benchmark.datasource.password", "postgres"));
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,129 @@
+package com.moturial.payment.tools;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.moturial.payment.domain.dto.CardData;
+import com.moturial.payment.domain.dto.ErrorResponse;
+import com.moturial.payment.exception.GlobalExceptionHandler;
+import com.moturial.payment.exception.PaymentValidationException;
+import com.moturial.payment.validation.PaymentValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão de requisições rejeitadas na validação (cartão com Luhn inválido)
+ *
+ * {@code legacyRejection} reproduz o caminho anterior: validação por regex,
+ * {@code PaymentValidationException} nova com stack trace e {@link ErrorResponse}
+ * serializado pelo Jackson. {@code currentRejection} usa o validador atual e o
+ * {@link GlobalExceptionHandler}; {@code currentCheck} é o caminho sem exceção
+ * usado pelo lote. Os logs de rejeição são desligados nos dois lados.
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.ValidationRejectionBenchmark
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ValidationRejectionBenchmark {
+
+    private PaymentValidator validator;
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private MockHttpServletRequest request;
+    private CardData invalidCard;
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(GlobalExceptionHandler.class)).setLevel(Level.OFF);
+
+        validator = new PaymentValidator();
+        ReflectionTestUtils.setField(validator, "maxAmount", new BigDecimal("1000000"));
+        ReflectionTestUtils.setField(validator, "minAmount", new BigDecimal("100"));
+        ReflectionTestUtils.setField(validator, "maxInstallments", 12);
+        ReflectionTestUtils.setField(validator, "cardNumberPattern", PaymentValidatorBenchmark.Legacy.CARD_NUMBER_PATTERN);
+        ReflectionTestUtils.setField(validator, "cvvPattern", PaymentValidatorBenchmark.Legacy.CVV_PATTERN);
+        ReflectionTestUtils.setField(validator, "expiryPattern", PaymentValidatorBenchmark.Legacy.EXPIRY_PATTERN);
+
+        handler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        request = new MockHttpServletRequest("POST", "/api/v1/payments/card");
+
+        YearMonth expiry = YearMonth.now().plusYears(2);
+        invalidCard = new CardData("4242424242424243", "João Silva",
+            String.format("%02d/%02d", expiry.getMonthValue(), expiry.getYear() % 100), "123");
+    }
+
+    @Benchmark
+    public byte[] legacyRejection() throws Exception {
+        try {
+            if (!PaymentValidatorBenchmark.Legacy.validateCardData(invalidCard)) {
+                throw new PaymentValidationException("Número do cartão inválido");
+            }
+            return null;
+        } catch (PaymentValidationException e) {
+            return objectMapper.writeValueAsBytes(new ErrorResponse(
+                Instant.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Erro de Validação",
+                e.getMessage(),
+                request.getRequestURI()));
+        }
+    }
+
+    @Benchmark
+    public Object currentRejection() {
+        try {
+            validator.validateCardData(invalidCard);
+            return null;
+        } catch (PaymentValidationException e) {
+            return handler.handlePaymentValidationException(e, request).getBody();
+        }
+    }
+
+    @Benchmark
+    public String currentCheck() {
+        return validator.checkCardData(invalidCard).getMessage();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(ValidationRejectionBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,178 @@
+package com.moturial.payment.tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Reenvia webhooks gravados para o endpoint local, para testes de vazão
+ *
+ * Lê eventos do Stripe de um arquivo NDJSON (um evento por linha) ou de um
+ * diretório de arquivos {@code .json}, assina cada um com o webhook secret
+ * como o Stripe faria e os envia em paralelo para {@code /webhooks/stripe}.
+ * Com {@code unique-ids=true} cada envio recebe um ID de evento novo, para
+ * medir a gravação e não apenas a deduplicação.
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.moturial.payment.tools.WebhookReplayTool \
+ *   -Dexec.args="events=webhooks.ndjson secret=whsec_... concurrency=32 repeat=10 unique-ids=true"
+ * </pre>
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+public final class WebhookReplayTool {
+
+    private static final String DEFAULT_URL = "http://localhost:8080/api/v1/webhooks/stripe";
+
+    private WebhookReplayTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        if (!options.containsKey("events") || !options.containsKey("secret")) {
+            System.err.println("Uso: events=<arquivo.ndjson|diretório> secret=<whsec_...> "
+                + "[url=" + DEFAULT_URL + "] [concurrency=16] [repeat=1] [unique-ids=false]");
+            System.exit(1);
+        }
+
+        URI endpoint = URI.create(options.getOrDefault("url", DEFAULT_URL));
+        String secret = options.get("secret");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        int repeat = Integer.parseInt(options.getOrDefault("repeat", "1"));
+        boolean uniqueIds = Boolean.parseBoolean(options.getOrDefault("unique-ids", "false"));
+
+        List<String> events = loadEvents(Path.of(options.get("events")));
+        List<String> payloads = new ArrayList<>(events.size() * repeat);
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (int round = 0; round < repeat; round++) {
+            for (String event : events) {
+                payloads.add(uniqueIds ? withUniqueId(objectMapper, event, round) : event);
+            }
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long[] latenciesNanos = new long[payloads.size()];
+
+        long start = System.nanoTime();
+        List<Future<?>> sends = new ArrayList<>(payloads.size());
+        for (int i = 0; i < payloads.size(); i++) {
+            int index = i;
+            sends.add(executor.submit(() -> {
+                String payload = payloads.get(index);
+                HttpRequest request = HttpRequest.newBuilder(endpoint)
+                    .header("Content-Type", "application/json")
+                    .header("Stripe-Signature", sign(payload, secret))
+                    .POST(HttpRequest.BodyPublishers.ofString(payload))
+                    .build();
+                long sent = System.nanoTime();
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                latenciesNanos[index] = System.nanoTime() - sent;
+                if (response.statusCode() == 200) {
+                    accepted.incrementAndGet();
+                } else {
+                    rejected.incrementAndGet();
+                    System.err.println("HTTP " + response.statusCode() + ": " + response.body());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> send : sends) {
+            send.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        Arrays.sort(latenciesNanos);
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("Eventos enviados: %d (aceitos %d, rejeitados %d) em %.2fs%n",
+            payloads.size(), accepted.get(), rejected.get(), seconds);
+        System.out.printf("Vazão: %.0f eventos/s%n", payloads.size() / seconds);
+        System.out.printf("Latência p50 %.1fms, p99 %.1fms, máx %.1fms%n",
+            percentileMillis(latenciesNanos, 0.50),
+            percentileMillis(latenciesNanos, 0.99),
+            percentileMillis(latenciesNanos, 1.0));
+    }
+
+    /**
+     * Monta o header Stripe-Signature: {@code t=<timestamp>,v1=<HMAC-SHA256("t.payload")>}
+     */
+    static String sign(String payload, String secret) throws Exception {
+        long timestamp = System.currentTimeMillis() / 1000;
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] digest = mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8));
+        return "t=" + timestamp + ",v1=" + HexFormat.of().formatHex(digest);
+    }
+
+    private static List<String> loadEvents(Path source) throws Exception {
+        if (Files.isDirectory(source)) {
+            List<String> events = new ArrayList<>();
+            try (Stream<Path> files = Files.list(source)) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".json")).sorted().toList()) {
+                    events.add(Files.readString(file).trim());
+                }
+            }
+            return events;
+        }
+        try (Stream<String> lines = Files.lines(source)) {
+            return lines.map(String::trim).filter(line -> !line.isEmpty()).toList();
+        }
+    }
+
+    private static String withUniqueId(ObjectMapper objectMapper, String event, int round) throws Exception {
+        ObjectNode node = (ObjectNode) objectMapper.readTree(event);
+        node.put("id", node.path("id").asText() + "_r" + round);
+        node.put("created", System.currentTimeMillis() / 1000);
+        return objectMapper.writeValueAsString(node);
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,153 @@
+package com.moturial.payment.validation;
+
+import com.moturial.payment.domain.enums.CardBrand;
+import com.moturial.payment.domain.enums.CardFunding;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para BinRangeIndex e BinTable
+ *
+ * @author Moturial Team
+ * @version 1.0.0
+ */
+class BinRangeIndexTest {
+
+    private static final String TABLE = """
+        # bandeira ampla com faixas específicas aninhadas
+        4,,VISA,UNKNOWN,
+        411111,,VISA,DEBIT,BR
+        41111112,41111119,VISA,PREPAID,US
+        51,55,MASTERCARD,CREDIT,BR
+        6062,,HIPERCARD,CREDIT,BR
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void lookup_MostSpecificRangeWins() throws Exception {
+        BinTable table = BinTable.parse(new StringReader(TABLE));
+
+        assertEquals(new CardBin(CardBrand.VISA, CardFunding.UNKNOWN, null), table.lookup("4242424242424242"));
+        assertEquals(new CardBin(CardBrand.VISA, CardFunding.DEBIT, "BR"), table.lookup("4111111111111111"));
+        assertEquals(new CardBin(CardBrand.VISA, CardFunding.PREPAID, "US"), table.lookup("4111 1112 0000 0000"));
+        assertEquals(new CardBin(CardBrand.VISA, CardFunding.DEBIT, "BR"), table.lookup("4111112000000000"));
+        assertEquals(CardBrand.MASTERCARD, table.lookup("5555555555554444").brand());
+        assertNull(table.lookup("378282246310005"));
+        assertNull(table.lookup("4111"));
+        assertNull(table.lookup(null));
+    }
+
+    @Test
+    void parse_RejectsPartiallyOverlappingRanges() {
+        String overlapping = """
+            51,53,MASTERCARD,CREDIT,
+            52,55,MASTERCARD,DEBIT,
+            """;
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> BinTable.parse(new StringReader(overlapping)));
+        assertTrue(exception.getMessage().contains("sobrepostas"));
+    }
+
+    @Test
+    void parse_RejectsInvalidLine() {
+        assertThrows(IllegalArgumentException.class,
+            () -> BinTable.parse(new StringReader("4,,VISA,CHARGE,\n")));
+        assertThrows(IllegalArgumentException.class,
+            () -> BinTable.parse(new StringReader("4x,,VISA,CREDIT,\n")));
+    }
+
+    @Test
+    void parse_BundledTableIsValid() throws Exception {
+        BinRangeIndex index = new BinRangeIndex(new ClassPathResource("bin/bin-ranges.csv"),
+            List.of(CardBrand.values()), List.of(CardFunding.CREDIT), List.of());
+
+        assertTrue(index.reloadIfModified());
+        assertEquals(CardBrand.VISA, index.lookup("4242424242424242").brand());
+        assertEquals(CardBrand.ELO, index.lookup("6362970000457013").brand());
+        assertEquals(CardBrand.DISCOVER, index.lookup("6011111111111117").brand());
+    }
+
+    @Test
+    void screen_RejectsIneligibleCombinations() throws Exception {
+        BinRangeIndex index = indexFor(writeTable(TABLE),
+            List.of(CardBrand.VISA, CardBrand.MASTERCARD), List.of("BR"));
+
+        assertSame(ValidationResult.VALID, index.screen("4111111111111111", 1));
+        assertSame(ValidationRule.CARD_INSTALLMENTS_NOT_ALLOWED.result(), index.screen("4111111111111111", 3));
+        assertSame(ValidationResult.VALID, index.screen("4111111111111111", null));
+        assertSame(ValidationRule.CARD_BRAND_NOT_ACCEPTED.result(), index.screen("6062825624254001", 1));
+        assertSame(ValidationRule.CARD_COUNTRY_NOT_ACCEPTED.result(), index.screen("4111111500000000", 1));
+        // Tipo e país desconhecidos ficam para o Stripe
+        assertSame(ValidationResult.VALID, index.screen("4242424242424242", 6));
+        assertSame(ValidationResult.VALID, index.screen("378282246310005", 6));
+    }
+
+    @Test
+    void screen_IgnoresAnyWhitespaceTheNumberValidationAccepts() throws Exception {
+        BinRangeIndex index = indexFor(writeTable(TABLE), List.of(CardBrand.VISA), List.of("BR"));
+
+        // Um separador fora de ' ' e '-' não pode tirar o cartão da triagem
+        assertSame(ValidationRule.CARD_COUNTRY_NOT_ACCEPTED.result(), index.screen("4111\t1115 0000 0000", 1));
+        assertSame(ValidationRule.CARD_COUNTRY_NOT_ACCEPTED.result(), index.screen("4111\n1115\r0000\u000B0000", 1));
+        assertSame(ValidationRule.CARD_BRAND_NOT_ACCEPTED.result(), index.screen("6062\t8256\t2425\t4001", 1));
+    }
+
+    @Test
+    void reloadIfModified_SwapsTableWhenFileChanges() throws Exception {
+        Path file = writeTable("4,,VISA,CREDIT,\n");
+        BinRangeIndex index = indexFor(file, List.of(CardBrand.values()), List.of());
+        assertEquals(CardFunding.CREDIT, index.lookup("4242424242424242").funding());
+
+        assertFalse(index.reloadIfModified());
+
+        Files.writeString(file, "4,,VISA,DEBIT,\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+        assertTrue(index.reloadIfModified());
+        assertEquals(CardFunding.DEBIT, index.lookup("4242424242424242").funding());
+    }
+
+    @Test
+    void reloadIfModified_KeepsCurrentTableWhenNewOneIsInvalid() throws Exception {
+        Path file = writeTable("4,,VISA,CREDIT,\n");
+        BinRangeIndex index = indexFor(file, List.of(CardBrand.values()), List.of());
+
+        Files.writeString(file, "4,,VISA\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+
+        assertFalse(index.reloadIfModified());
+        assertEquals(CardFunding.CREDIT, index.lookup("4242424242424242").funding());
+    }
+
+    @Test
+    void load_MissingTableAcceptsEveryCard() {
+        BinRangeIndex index = indexFor(tempDir.resolve("ausente.csv"), List.of(), List.of());
+
+        assertNull(index.lookup("4242424242424242"));
+        assertSame(ValidationResult.VALID, index.screen("4242424242424242", 12));
+    }
+
+    private Path writeTable(String content) throws Exception {
+        return Files.writeString(tempDir.resolve("bin-ranges.csv"), content);
+    }
+
+    private static BinRangeIndex indexFor(Path file, List<CardBrand> brands, List<String> countries) {
+        BinRangeIndex index = new BinRangeIndex(new FileSystemResource(file),
+            brands, List.of(CardFunding.CREDIT, CardFunding.UNKNOWN), countries);
+        index.load();
+        return index;
+    }
+}
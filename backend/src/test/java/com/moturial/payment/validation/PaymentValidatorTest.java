@@ -3,6 +3,8 @@ package com.moturial.payment.validation;
 import com.moturial.payment.domain.dto.CardData;
 import com.moturial.payment.domain.dto.CustomerData;
 import com.moturial.payment.domain.dto.PaymentRequest;
+import com.moturial.payment.domain.enums.CardBrand;
+import com.moturial.payment.domain.enums.CardFunding;
 import com.moturial.payment.domain.enums.PaymentMethodType;
 import com.moturial.payment.exception.PaymentValidationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,9 +12,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,7 +50,7 @@ class PaymentValidatorTest {
 
         // Setup dados válidos
         validCustomerData = new CustomerData("João Silva", "joao@email.com");
-        validCardData = new CardData("4242424242424242", "João Silva", "12/25", "123");
+        validCardData = new CardData("4242424242424242", "João Silva", futureExpiryDate(), "123");
         
         validPaymentRequest = new PaymentRequest();
         validPaymentRequest.setUserId("user123");
@@ -307,4 +313,103 @@ class PaymentValidatorTest {
         
         assertDoesNotThrow(() -> validator.validatePaymentRequest(validPaymentRequest));
     }
+
+    @Test
+    void validateCardData_NumberWithSpaces() {
+        validCardData.setNumber("4242 4242 4242 4242");
+        
+        assertDoesNotThrow(() -> validator.validateCardData(validCardData));
+    }
+
+    @Test
+    void validateCustomer_UnformattedCpf() {
+        validCustomerData.setDocument("12345678909");
+        
+        assertDoesNotThrow(() -> validator.validatePaymentRequest(validPaymentRequest));
+    }
+
+    @Test
+    void validateCustomer_RepeatedDigitsCpf() {
+        validCustomerData.setDocument("111.111.111-11");
+        
+        PaymentValidationException exception = assertThrows(PaymentValidationException.class, () -> {
+            validator.validatePaymentRequest(validPaymentRequest);
+        });
+        
+        assertEquals("CPF inválido", exception.getMessage());
+    }
+
+    @Test
+    void validateCardData_CustomPatternIsRecompiled() {
+        assertDoesNotThrow(() -> validator.validateCardData(validCardData));
+        ReflectionTestUtils.setField(validator, "cvvPattern", "^[0-9]{4}$");
+        
+        PaymentValidationException exception = assertThrows(PaymentValidationException.class, () -> {
+            validator.validateCardData(validCardData);
+        });
+        
+        assertEquals("CVV deve ter 3 ou 4 dígitos", exception.getMessage());
+    }
+
+    @Test
+    void checkCardData_ReturnsRuleWithoutThrowing() {
+        validCardData.setCvv("12");
+        
+        ValidationResult result = validator.checkCardData(validCardData);
+        
+        assertFalse(result.isValid());
+        assertEquals(ValidationRule.CARD_CVV_INVALID, result.getRule());
+        assertEquals("CVV deve ter 3 ou 4 dígitos", result.getMessage());
+        assertTrue(validator.checkPaymentRequest(validPaymentRequest).isValid());
+    }
+
+    @Test
+    void validateCardData_RethrowsPrebuiltStacklessException() {
+        validCardData.setNumber("4242424242424243");
+        
+        PaymentValidationException first = assertThrows(PaymentValidationException.class,
+            () -> validator.validateCardData(validCardData));
+        PaymentValidationException second = assertThrows(PaymentValidationException.class,
+            () -> validator.validateCardData(validCardData));
+        
+        assertSame(first, second);
+        assertTrue(first.isPrebuilt());
+        assertEquals(0, first.getStackTrace().length);
+        assertEquals("CARD_NUMBER_INVALID", first.getErrorCode());
+        assertEquals("card.number", first.getField());
+    }
+
+    @Test
+    void validatePaymentRequest_UnsupportedCurrencyIsNotShared() {
+        validPaymentRequest.setCurrency("JPY");
+        
+        PaymentValidationException exception = assertThrows(PaymentValidationException.class, () -> {
+            validator.validatePaymentRequest(validPaymentRequest);
+        });
+        
+        assertEquals("Moeda não suportada: JPY", exception.getMessage());
+        assertFalse(exception.isPrebuilt());
+    }
+
+    @Test
+    void validateCardData_RejectsInstallmentsOnDebitBin() {
+        BinRangeIndex binRangeIndex = new BinRangeIndex(
+            new ByteArrayResource("424242,,VISA,DEBIT,BR\n".getBytes(StandardCharsets.UTF_8)),
+            List.of(CardBrand.VISA), List.of(CardFunding.CREDIT), List.of());
+        binRangeIndex.load();
+        ReflectionTestUtils.setField(validator, "binRangeIndex", binRangeIndex);
+        
+        assertDoesNotThrow(() -> validator.validateCardData(validCardData, 1));
+        
+        PaymentValidationException exception = assertThrows(PaymentValidationException.class, () -> {
+            validator.validateCardData(validCardData, 3);
+        });
+        
+        assertEquals("CARD_INSTALLMENTS_NOT_ALLOWED", exception.getErrorCode());
+    }
+
+    private static String futureExpiryDate() {
+        YearMonth expiry = YearMonth.now().plusYears(2);
+        return String.format("%02d/%02d", expiry.getMonthValue(), expiry.getYear() % 100);
+    }
 }